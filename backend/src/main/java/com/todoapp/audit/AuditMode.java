@@ -0,0 +1,8 @@
+package com.todoapp.audit;
+
+public enum AuditMode {
+    // History rows are queued after commit and written in batches by a background thread
+    ASYNC,
+    // History rows are written inside the task's own transaction, before it commits
+    TRANSACTIONAL
+}
@@ -0,0 +1,17 @@
+package com.todoapp.audit;
+
+import com.todoapp.domain.enums.HistoryAction;
+
+import java.time.LocalDateTime;
+
+// One pending task_history row; performedAt is when the change happened, not when it is written.
+public record HistoryRecord(
+    String taskId,
+    HistoryAction action,
+    String field,
+    String oldValue,
+    String newValue,
+    String performedById,
+    LocalDateTime performedAt
+) {
+}
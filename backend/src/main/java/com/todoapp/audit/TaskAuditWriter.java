@@ -0,0 +1,230 @@
+package com.todoapp.audit;
+
+import com.todoapp.cache.TaskDetailCache;
+import com.todoapp.domain.entity.TaskHistory;
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.HistoryAction;
+import com.todoapp.domain.event.TaskChangedEvent;
+import com.todoapp.repository.TaskHistoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Writes task_history rows for every task change. In ASYNC mode the rows are queued
+// after commit and a single writer thread inserts them in JDBC batches, so task
+// writes never wait on the audit insert. In TRANSACTIONAL mode they are inserted
+// before the task's transaction commits and roll back with it.
+//
+// The queue is a ConcurrentLinkedQueue bounded by a CAS-maintained counter. When it
+// is full, or once the writer has stopped, the caller writes its rows itself rather
+// than dropping them. Stopping drains whatever is still queued.
+@Component
+@Slf4j
+public class TaskAuditWriter implements SmartLifecycle {
+    private final TaskHistoryRepository taskHistoryRepository;
+    private final TransactionTemplate writeTransaction;
+    private final TaskDetailCache taskDetailCache;
+    private final int capacity;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration shutdownTimeout;
+    private final ConcurrentLinkedQueue<HistoryRecord> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter written;
+    private final Counter failed;
+    private final Counter overflow;
+    private final AuditMode mode;
+    private volatile boolean running;
+    private volatile Thread writer;
+
+    public TaskAuditWriter(
+            TaskHistoryRepository taskHistoryRepository,
+            PlatformTransactionManager transactionManager,
+            TaskDetailCache taskDetailCache,
+            MeterRegistry meterRegistry,
+            @Value("${todoapp.audit.mode:ASYNC}") AuditMode mode,
+            @Value("${todoapp.audit.queue-capacity:10000}") int capacity,
+            @Value("${todoapp.audit.batch-size:${todoapp.batch.jdbc-batch-size:50}}") int batchSize,
+            @Value("${todoapp.audit.flush-interval:200ms}") Duration flushInterval,
+            @Value("${todoapp.audit.shutdown-timeout:10s}") Duration shutdownTimeout) {
+        this.taskHistoryRepository = taskHistoryRepository;
+        // Also used from after-commit callbacks, where the finished transaction is still bound
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.taskDetailCache = taskDetailCache;
+        this.mode = mode;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.shutdownTimeout = shutdownTimeout;
+        this.written = Counter.builder("audit.records.written").register(meterRegistry);
+        this.failed = Counter.builder("audit.records.failed").register(meterRegistry);
+        this.overflow = Counter.builder("audit.queue.overflow").register(meterRegistry);
+        Gauge.builder("audit.queue.size", queued, AtomicInteger::get).register(meterRegistry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void writeInTransaction(TaskChangedEvent event) {
+        if (mode != AuditMode.TRANSACTIONAL) {
+            return;
+        }
+        List<HistoryRecord> records = TaskHistoryDiff.of(event, LocalDateTime.now());
+        if (!records.isEmpty()) {
+            // Joins the task's transaction through the bound connection
+            insert(records);
+            written.increment(records.size());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (mode != AuditMode.ASYNC) {
+            return;
+        }
+        List<HistoryRecord> records = TaskHistoryDiff.of(event, LocalDateTime.now());
+        if (!records.isEmpty()) {
+            enqueue(records);
+        }
+    }
+
+    // Rows accepted but not yet written
+    public int pending() {
+        return queued.get();
+    }
+
+    void enqueue(List<HistoryRecord> records) {
+        int size = queued.addAndGet(records.size());
+        if (size > capacity || !running) {
+            queued.addAndGet(-records.size());
+            if (running) {
+                overflow.increment();
+            }
+            write(records);
+            return;
+        }
+        queue.addAll(records);
+        if (size >= batchSize) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::drain, "task-audit-writer");
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = writer;
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            log.warn("Audit writer did not drain within {}; {} history rows not written", shutdownTimeout, queued.get());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Lower than the web server's phases: started before it, stopped only after it has
+    // finished in-flight requests
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drain() {
+        List<HistoryRecord> batch = new ArrayList<>(batchSize);
+        long lastFlush = System.nanoTime();
+        while (running || queued.get() > 0) {
+            // Partial batches wait out the flush interval, unless a full batch arrives first
+            long wait = flushInterval.toNanos() - (System.nanoTime() - lastFlush);
+            if (running && queued.get() < batchSize && wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+            HistoryRecord record;
+            while (batch.size() < batchSize && (record = queue.poll()) != null) {
+                batch.add(record);
+            }
+            lastFlush = System.nanoTime();
+            if (batch.isEmpty()) {
+                continue;
+            }
+            write(batch);
+            // Only now, so pending() does not reach zero while rows are still being written
+            queued.addAndGet(-batch.size());
+            batch.clear();
+        }
+        log.debug("Audit writer stopped");
+    }
+
+    private void write(List<HistoryRecord> records) {
+        try {
+            writeTransaction.executeWithoutResult(status -> insert(records));
+            written.increment(records.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to write {} task history rows", records.size(), e);
+            failed.increment(records.size());
+            return;
+        }
+        // Cached details were built before these rows existed
+        Set<String> deleted = new HashSet<>();
+        Set<String> changed = new HashSet<>();
+        for (HistoryRecord record : records) {
+            (record.action() == HistoryAction.DELETED ? deleted : changed).add(record.taskId());
+        }
+        changed.removeAll(deleted);
+        changed.forEach(taskDetailCache::bump);
+    }
+
+    // Rows go to their month's partition table in JDBC batches
+    private void insert(List<HistoryRecord> records) {
+        List<TaskHistory> entries = new ArrayList<>(records.size());
+        for (HistoryRecord record : records) {
+            entries.add(TaskHistory.builder()
+                .taskId(record.taskId())
+                .action(record.action())
+                .field(record.field())
+                .oldValue(record.oldValue())
+                .newValue(record.newValue())
+                .performedBy(User.builder().id(record.performedById()).build())
+                .performedAt(record.performedAt())
+                .build());
+        }
+        taskHistoryRepository.appendAll(entries);
+    }
+}
@@ -0,0 +1,81 @@
+package com.todoapp.audit;
+
+import com.todoapp.domain.enums.HistoryAction;
+import com.todoapp.domain.event.TaskChangedEvent;
+import com.todoapp.domain.event.TaskSnapshot;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+// Turns a task change into field-level history rows. Only the audited fields are
+// compared; an update that touches none of them produces no rows.
+public final class TaskHistoryDiff {
+    private static final int MAX_VALUE_LENGTH = 500;
+
+    private TaskHistoryDiff() {
+    }
+
+    public static List<HistoryRecord> of(TaskChangedEvent event, LocalDateTime at) {
+        TaskSnapshot task = event.task();
+        return switch (event.type()) {
+            case CREATED -> List.of(record(task.id(), HistoryAction.CREATED, null, null, task.title(), event.actorId(), at));
+            case DELETED -> List.of(record(task.id(), HistoryAction.DELETED, null, task.title(), null, event.actorId(), at));
+            case UPDATED -> event.previous() == null ? List.of() : between(event.previous(), task, event.actorId(), at);
+        };
+    }
+
+    static List<HistoryRecord> between(TaskSnapshot before, TaskSnapshot after, String actorId, LocalDateTime at) {
+        List<HistoryRecord> records = new ArrayList<>();
+        String taskId = after.id();
+        if (before.status() != after.status()) {
+            records.add(record(taskId, HistoryAction.STATUS_CHANGED, "status", before.status(), after.status(), actorId, at));
+        }
+        if (!Objects.equals(before.assigneeId(), after.assigneeId())) {
+            HistoryAction action = before.assigneeId() == null ? HistoryAction.ASSIGNED : HistoryAction.REASSIGNED;
+            records.add(record(taskId, action, "assignee", before.assigneeId(), after.assigneeId(), actorId, at));
+        }
+        addIfChanged(records, before, after, "priority", TaskSnapshot::priority, actorId, at);
+        addIfChanged(records, before, after, "dueDate", TaskSnapshot::dueDate, actorId, at);
+        addIfChanged(records, before, after, "title", TaskSnapshot::title, actorId, at);
+        return records;
+    }
+
+    private static void addIfChanged(
+        List<HistoryRecord> records,
+        TaskSnapshot before,
+        TaskSnapshot after,
+        String field,
+        Function<TaskSnapshot, Object> value,
+        String actorId,
+        LocalDateTime at
+    ) {
+        Object oldValue = value.apply(before);
+        Object newValue = value.apply(after);
+        if (!Objects.equals(oldValue, newValue)) {
+            records.add(record(after.id(), HistoryAction.UPDATED, field, oldValue, newValue, actorId, at));
+        }
+    }
+
+    private static HistoryRecord record(
+        String taskId,
+        HistoryAction action,
+        String field,
+        Object oldValue,
+        Object newValue,
+        String actorId,
+        LocalDateTime at
+    ) {
+        return new HistoryRecord(taskId, action, field, text(oldValue), text(newValue), actorId, at);
+    }
+
+    private static String text(Object value) {
+        if (value == null) {
+            return null;
+        }
+        String text = value instanceof Enum<?> constant ? constant.name() : value.toString();
+        return text.length() > MAX_VALUE_LENGTH ? text.substring(0, MAX_VALUE_LENGTH) : text;
+    }
+}
@@ -0,0 +1,73 @@
+package com.todoapp.audit;
+
+import com.todoapp.cache.TaskDetailCache;
+import com.todoapp.repository.TaskHistoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Set;
+
+// Housekeeping for the monthly task history partitions: creates the current and next
+// month's tables ahead of their first write, and compacts months that ended more than
+// compact-after ago into one summary row per task.
+@Component
+@Slf4j
+public class TaskHistoryRetention {
+    private final TaskHistoryRepository taskHistoryRepository;
+    private final TaskDetailCache taskDetailCache;
+    private final Duration compactAfter;
+
+    public TaskHistoryRetention(
+            TaskHistoryRepository taskHistoryRepository,
+            TaskDetailCache taskDetailCache,
+            @Value("${todoapp.history.compact-after:180d}") Duration compactAfter) {
+        this.taskHistoryRepository = taskHistoryRepository;
+        this.taskDetailCache = taskDetailCache;
+        this.compactAfter = compactAfter;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepare() {
+        createUpcomingPartitions();
+        int moved = taskHistoryRepository.migrateUnpartitioned();
+        if (moved > 0) {
+            log.info("Moved {} task history rows into monthly partitions", moved);
+        }
+    }
+
+    @Scheduled(cron = "${todoapp.history.partition-cron:0 0 1 * * *}")
+    public void createUpcomingPartitions() {
+        YearMonth current = YearMonth.now();
+        taskHistoryRepository.createPartition(current);
+        taskHistoryRepository.createPartition(current.plusMonths(1));
+    }
+
+    @Scheduled(cron = "${todoapp.history.compaction-cron:0 30 2 * * *}")
+    public void compact() {
+        compactBefore(LocalDateTime.now().minus(compactAfter));
+    }
+
+    // Compacts every month that ended at or before the cutoff; returns the months compacted
+    public int compactBefore(LocalDateTime cutoff) {
+        int compacted = 0;
+        for (YearMonth month : taskHistoryRepository.findPartitions()) {
+            if (month.plusMonths(1).atDay(1).atStartOfDay().isAfter(cutoff)) {
+                continue;
+            }
+            Set<String> taskIds = taskHistoryRepository.compactPartition(month);
+            if (!taskIds.isEmpty()) {
+                // Embedded history of these tasks may have changed
+                taskIds.forEach(taskDetailCache::bump);
+                compacted++;
+            }
+        }
+        return compacted;
+    }
+}
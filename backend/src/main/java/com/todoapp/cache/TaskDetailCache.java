@@ -0,0 +1,155 @@
+package com.todoapp.cache;
+
+import com.todoapp.domain.event.TaskChangedEvent;
+import com.todoapp.domain.event.TasksOverdueEvent;
+import com.todoapp.dto.TaskDetailDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.SecureRandom;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// In-memory version per task plus the assembled detail for that version. Versions
+// come from one process-wide sequence and ETags carry a per-process epoch, so an
+// ETag is never reused, not even for a task that was deleted or after a restart.
+// Versions are bumped after commit, so a detail loaded under version v never
+// predates the writes that produced v. A task's version and detail share one
+// bounded entry; an evicted task simply gets a fresh version, and so a new ETag,
+// the next time it is requested.
+// The ETag leads with the task's own @Version, "<task>.<epoch>.<detail>", so the
+// validator from GET /tasks/{id} also serves as If-Match on writes.
+@Component
+public class TaskDetailCache {
+    private final String epoch;
+    private final AtomicLong sequence = new AtomicLong();
+    // The detail is null until one has been loaded for the entry's version
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    // Keyed by version so a load that started before a write is never shared after it.
+    // Details are not user-specific yet; once access checks exist the caller's
+    // visibility scope belongs in this key as well.
+    private final SingleFlight<LoadKey, TaskDetailDTO> loads = new SingleFlight<>();
+
+    public TaskDetailCache(
+            MeterRegistry meterRegistry,
+            @Value("${todoapp.tasks.detail-cache.max-entries:10000}") int maxEntries) {
+        this.epoch = Long.toString(new SecureRandom().nextLong() & Long.MAX_VALUE, 36);
+        this.maxEntries = maxEntries;
+        FunctionCounter.builder("tasks.detail.cache.hits", hits, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("tasks.detail.cache.misses", misses, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("tasks.detail.loads", loads, SingleFlight::executions).register(meterRegistry);
+        FunctionCounter.builder("tasks.detail.loads.collapsed", loads, SingleFlight::collapsed).register(meterRegistry);
+    }
+
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.type() == TaskChangedEvent.ChangeType.DELETED) {
+            forget(event.task().id());
+        } else {
+            bump(event.task().id());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onTasksOverdue(TasksOverdueEvent event) {
+        event.taskIds().forEach(this::bump);
+    }
+
+    // Cached detail for the current version; otherwise one load shared by every
+    // concurrent caller. The version is read first, so the detail is never older.
+    public TaskDetailDTO getOrLoad(String taskId, Supplier<TaskDetailDTO> loader) {
+        long version = currentVersion(taskId);
+        TaskDetailDTO cached = get(taskId, version);
+        if (cached != null) {
+            return cached;
+        }
+        return loads.execute(new LoadKey(taskId, version), () -> {
+            TaskDetailDTO detail = loader.get();
+            detail.setEtag(etag(detail.getTask().getVersion(), version));
+            put(taskId, version, detail);
+            return detail;
+        });
+    }
+
+    public long collapsedLoads() {
+        return loads.collapsed();
+    }
+
+    // Current version, assigning one if the task has not been seen yet
+    public long currentVersion(String taskId) {
+        Entry entry = entries.get(taskId);
+        if (entry != null) {
+            return entry.version();
+        }
+        long version = entries.computeIfAbsent(taskId, id -> new Entry(sequence.incrementAndGet(), null)).version();
+        trim();
+        return version;
+    }
+
+    // ETag of the cached detail, or null while none is cached. A client can only hold
+    // the ETag of a detail that was served, and one loaded for the current version is
+    // cached unless a bump or eviction overtook it, so null never misses a match.
+    public String etag(String taskId) {
+        Entry entry = entries.get(taskId);
+        return entry != null && entry.detail() != null ? entry.detail().getEtag() : null;
+    }
+
+    public String etag(Long taskVersion, long version) {
+        return "\"" + taskVersion + "." + epoch + "." + version + "\"";
+    }
+
+    public TaskDetailDTO get(String taskId, long version) {
+        Entry entry = entries.get(taskId);
+        if (entry != null && entry.version() == version && entry.detail() != null) {
+            hits.increment();
+            return entry.detail();
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(String taskId, long version, TaskDetailDTO detail) {
+        // A bump or eviction that landed during the load makes this detail useless
+        entries.computeIfPresent(taskId, (id, entry) -> entry.version() == version ? new Entry(version, detail) : entry);
+    }
+
+    public void bump(String taskId) {
+        entries.put(taskId, new Entry(sequence.incrementAndGet(), null));
+        trim();
+    }
+
+    public void forget(String taskId) {
+        entries.remove(taskId);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Drops arbitrary entries until 10% below the bound
+    private void trim() {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        Iterator<String> iterator = entries.keySet().iterator();
+        while (entries.size() > maxEntries - maxEntries / 10 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private record Entry(long version, TaskDetailDTO detail) {
+    }
+
+    private record LoadKey(String taskId, long version) {
+    }
+}
@@ -1,7 +1,11 @@
 package com.todoapp.config;
 
 import com.todoapp.domain.entity.User;
-import com.todoapp.repository.UserRepository;
+import com.todoapp.security.AuthenticatedUser;
+import com.todoapp.security.PrincipalCache;
+import com.todoapp.security.SessionRegistry;
+import com.todoapp.security.TokenClaims;
+import com.todoapp.security.TokenService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,7 +28,9 @@ import java.util.Collections;
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final TokenService tokenService;
+    private final SessionRegistry sessionRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -54,42 +60,38 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
         
-        // Always log for troubleshooting (not just debug)
-        log.info("JwtAuthenticationFilter processing request - Path: {}, Normalized: {}, Method: {}", path, normalizedPath, request.getMethod());
+        log.debug("JwtAuthenticationFilter processing request - Path: {}, Normalized: {}, Method: {}", path, normalizedPath, request.getMethod());
         
         try {
-            // Get user ID from X-User-Id header (sent by frontend)
-            String userId = request.getHeader("X-User-Id");
             String token = getTokenFromRequest(request);
-            
-            // Log all headers for troubleshooting
-            log.info("Request headers - X-User-Id: {}, Authorization: {}, All headers: {}", 
-                userId != null ? userId : "MISSING", 
-                token != null ? "present" : "absent",
-                java.util.Collections.list(request.getHeaderNames()));
-            
-            // If we have a user ID header, use it to authenticate
-            if (StringUtils.hasText(userId)) {
-                log.info("Attempting to authenticate user with ID: {}", userId);
-                User user = userRepository.findById(userId).orElse(null);
-                if (user != null && user.isActive()) {
-                    setAuthentication(user, request);
-                    log.info("✓ Successfully authenticated user: {} (ID: {}) for path: {}", user.getUsername(), userId, normalizedPath);
-                } else {
-                    log.error("✗ User not found or inactive for ID: {}. Path: {}", userId, normalizedPath);
-                    // Clear any existing authentication
+            // The frontend also sends X-User-Id; when present it must name the token's subject
+            String userId = request.getHeader("X-User-Id");
+
+            if (token != null) {
+                TokenClaims claims = tokenService.verify(token).orElse(null);
+                if (claims == null) {
+                    log.warn("✗ Invalid or expired token for path: {}", normalizedPath);
+                    SecurityContextHolder.clearContext();
+                } else if (!sessionRegistry.isActive(claims.sessionId())) {
+                    log.warn("✗ Session expired or revoked for path: {}", normalizedPath);
+                    SecurityContextHolder.clearContext();
+                } else if (StringUtils.hasText(userId) && !userId.equals(claims.userId())) {
+                    log.warn("✗ X-User-Id {} does not match token subject {}. Path: {}", userId, claims.userId(), normalizedPath);
                     SecurityContextHolder.clearContext();
-                }
-            } else {
-                // Try to extract user from token if it contains user info
-                // For now, if no user ID header, log and continue (will fail auth check)
-                log.warn("✗ No X-User-Id header found in request to: {}. Method: {}", normalizedPath, request.getMethod());
-                if (token != null) {
-                    log.warn("Token present but no user ID header - cannot authenticate");
                 } else {
-                    log.warn("No token and no user ID header - request will be rejected");
+                    AuthenticatedUser principal = principalCache.get(claims.userId()).orElse(null);
+                    // A role change invalidates tokens issued under the old role
+                    if (principal != null && principal.active() && principal.role() == claims.role()) {
+                        User user = principal.toUser();
+                        setAuthentication(user, request);
+                        log.debug("✓ Authenticated user: {} (ID: {}) for path: {}", user.getUsername(), user.getId(), normalizedPath);
+                    } else {
+                        log.warn("✗ User not found, inactive or role changed for ID: {}. Path: {}", claims.userId(), normalizedPath);
+                        SecurityContextHolder.clearContext();
+                    }
                 }
-                // Clear any existing authentication
+            } else {
+                log.warn("✗ No bearer token in request to: {}. Method: {}", normalizedPath, request.getMethod());
                 SecurityContextHolder.clearContext();
             }
         } catch (Exception e) {
@@ -100,7 +102,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         // Log security context state after processing
         if (SecurityContextHolder.getContext().getAuthentication() != null) {
-            log.info("✓ Security context has authentication: {}", SecurityContextHolder.getContext().getAuthentication().getName());
+            log.debug("✓ Security context has authentication: {}", SecurityContextHolder.getContext().getAuthentication().getName());
         } else {
             log.warn("✗ Security context has NO authentication - request will be rejected");
         }
@@ -125,7 +127,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             );
         authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        log.info("Security context set for user: {} with role: {}", user.getUsername(), user.getRole());
+        log.debug("Security context set for user: {} with role: {}", user.getUsername(), user.getRole());
         
         // Verify it was set
         if (SecurityContextHolder.getContext().getAuthentication() == null) {
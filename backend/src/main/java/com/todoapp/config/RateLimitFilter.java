@@ -0,0 +1,78 @@
+package com.todoapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.domain.entity.User;
+import com.todoapp.dto.ErrorResponse;
+import com.todoapp.security.EndpointClass;
+import com.todoapp.security.RateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Runs right after JwtAuthenticationFilter: authenticated callers are limited per
+// user id, anonymous ones (login, signup, rejected tokens) per client address
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    public RateLimitFilter(
+            RateLimiter rateLimiter,
+            ObjectMapper objectMapper,
+            @Value("${todoapp.rate-limit.enabled:true}") boolean enabled) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || "OPTIONS".equalsIgnoreCase(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        EndpointClass endpointClass = EndpointClass.classify(request.getMethod(), path);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String caller = authentication != null && authentication.getPrincipal() instanceof User user
+            ? user.getId()
+            : request.getRemoteAddr();
+
+        long waitNanos = rateLimiter.tryAcquire(endpointClass, caller);
+        if (waitNanos > 0) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            log.warn("Rate limit exceeded for {} on {} ({}), retry after {}s", caller, path, endpointClass, retryAfter);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            objectMapper.writeValue(response.getWriter(), ErrorResponse.builder()
+                .error("Too Many Requests")
+                .message("Rate limit exceeded. Retry after " + retryAfter + " seconds")
+                .timestamp(LocalDateTime.now())
+                .build());
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -2,9 +2,12 @@ package com.todoapp.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.todoapp.dto.ErrorResponse;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.MediaType;
@@ -30,10 +33,28 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${todoapp.auth.hashing.bcrypt-strength:10}") int strength) {
+        // Hashes made at another strength are upgraded on the user's next login
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    // Both filters are components; keep Boot from also registering them as servlet
+    // filters, which would run them once before the security chain and then skip them
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilterRegistration() {
+        FilterRegistrationBean<JwtAuthenticationFilter> registration = new FilterRegistrationBean<>(jwtAuthenticationFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration() {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
     }
 
     @Bean
@@ -57,7 +78,11 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable()) // TODO: Enable CSRF for production
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class)
             .authorizeHttpRequests(auth -> auth
+                // Export and stream bodies finish on an async dispatch of a request that
+                // was authorized when it started; the stateless JWT is not re-read there
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/auth/**", "/health/**", "/swagger-ui/**", "/api-docs/**", "/h2-console/**", "/v3/api-docs/**").permitAll()
                 .anyRequest().authenticated()
             )
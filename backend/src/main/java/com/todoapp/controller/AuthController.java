@@ -4,6 +4,7 @@ import com.todoapp.dto.AuthResponse;
 import com.todoapp.dto.LoginRequest;
 import com.todoapp.dto.MessageResponse;
 import com.todoapp.dto.SignupRequest;
+import com.todoapp.exception.AuthenticationException;
 import com.todoapp.service.AuthenticationService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -11,6 +12,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
@@ -54,16 +56,21 @@ public class AuthController {
     @PostMapping("/logout")
     public ResponseEntity<MessageResponse> logout(HttpServletRequest request) {
         log.debug("Logout request");
-        // TODO: Extract session ID from request
-        authenticationService.logout("session-id");
+        String token = bearerToken(request);
+        if (token != null) {
+            authenticationService.logout(token);
+        }
         return ResponseEntity.ok(new MessageResponse("Logout successful", LocalDateTime.now()));
     }
 
     @PostMapping("/refresh")
     public ResponseEntity<AuthResponse> refreshSession(HttpServletRequest request) {
         log.debug("Session refresh request");
-        // TODO: Extract session ID from request
-        AuthResponse authResponse = authenticationService.refreshSession("session-id");
+        String token = bearerToken(request);
+        if (token == null) {
+            throw new AuthenticationException("Missing bearer token");
+        }
+        AuthResponse authResponse = authenticationService.refreshSession(token);
         return ResponseEntity.ok(authResponse);
     }
 
@@ -81,6 +88,14 @@ public class AuthController {
         return ResponseEntity.ok(new MessageResponse("Password reset successful", LocalDateTime.now()));
     }
 
+    private String bearerToken(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (StringUtils.hasText(header) && header.startsWith("Bearer ")) {
+            return header.substring(7);
+        }
+        return null;
+    }
+
     @lombok.Data
     @lombok.NoArgsConstructor
     @lombok.AllArgsConstructor
@@ -1,33 +1,70 @@
 package com.todoapp.controller;
 
 import com.todoapp.domain.entity.User;
+import com.todoapp.dto.BatchCreateTasksRequest;
+import com.todoapp.dto.BatchTaskResponse;
+import com.todoapp.dto.BatchUpdateTasksRequest;
+import com.todoapp.dto.CommentPageResponse;
 import com.todoapp.dto.CreateTaskRequest;
+import com.todoapp.dto.TaskChangesResponse;
 import com.todoapp.dto.TaskDTO;
 import com.todoapp.dto.TaskDetailDTO;
+import com.todoapp.dto.TaskFacetsDTO;
+import com.todoapp.dto.TaskHistoryPageResponse;
 import com.todoapp.dto.TaskPageResponse;
 import com.todoapp.dto.UpdateTaskRequest;
+import com.todoapp.domain.enums.ExportFormat;
 import com.todoapp.domain.enums.TaskPriority;
 import com.todoapp.domain.enums.TaskStatus;
+import com.todoapp.exception.PreconditionFailedException;
+import com.todoapp.exception.ServiceUnavailableException;
 import com.todoapp.service.TaskService;
+import com.todoapp.stream.TaskStreamHub;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.Semaphore;
 
 @RestController
 @RequestMapping("/tasks")
-@RequiredArgsConstructor
 @Slf4j
 public class TaskController {
     private final TaskService taskService;
+    private final TaskStreamHub taskStreamHub;
+    private final Duration exportTimeout;
+    // Each export streams from one read-only transaction, so it holds a pooled
+    // connection until the client has read the last row
+    private final Semaphore exportPermits;
+
+    public TaskController(
+            TaskService taskService,
+            TaskStreamHub taskStreamHub,
+            @Value("${todoapp.export.timeout:30m}") Duration exportTimeout,
+            @Value("${todoapp.export.max-concurrent:4}") int maxConcurrentExports) {
+        this.taskService = taskService;
+        this.taskStreamHub = taskStreamHub;
+        this.exportTimeout = exportTimeout;
+        this.exportPermits = new Semaphore(maxConcurrentExports);
+    }
 
     @PostMapping
     public ResponseEntity<TaskDTO> createTask(
@@ -35,26 +72,76 @@ public class TaskController {
             @AuthenticationPrincipal User currentUser) {
         log.debug("Creating task: {}", request.getTitle());
         TaskDTO task = taskService.createTask(request, currentUser);
-        return ResponseEntity.status(HttpStatus.CREATED).body(task);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(versionETag(task)).body(task);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<BatchTaskResponse> createTasks(
+            @Valid @RequestBody BatchCreateTasksRequest request,
+            @AuthenticationPrincipal User currentUser) {
+        log.debug("Creating {} tasks in batch", request.getTasks().size());
+        BatchTaskResponse response = taskService.createTasks(request.getTasks(), currentUser);
+        return ResponseEntity.ok(response);
+    }
+
+    @PatchMapping("/batch")
+    public ResponseEntity<BatchTaskResponse> updateTasks(
+            @Valid @RequestBody BatchUpdateTasksRequest request,
+            @AuthenticationPrincipal User currentUser) {
+        log.debug("Updating {} tasks in batch", request.getTasks().size());
+        BatchTaskResponse response = taskService.updateTasks(request.getTasks(), currentUser);
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/{taskId}")
     public ResponseEntity<TaskDetailDTO> getTask(
             @PathVariable String taskId,
-            @AuthenticationPrincipal User currentUser) {
+            @AuthenticationPrincipal User currentUser,
+            WebRequest webRequest) {
         log.debug("Getting task: {}", taskId);
+        // A matching If-None-Match is answered with 304 before any database work
+        String etag = taskService.getTaskETag(taskId);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
         TaskDetailDTO task = taskService.getTaskById(taskId, currentUser);
-        return ResponseEntity.ok(task);
+        return ResponseEntity.ok().eTag(task.getEtag()).body(task);
+    }
+
+    @GetMapping("/{taskId}/comments")
+    public ResponseEntity<CommentPageResponse> listComments(
+            @PathVariable String taskId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "20") int size,
+            @AuthenticationPrincipal User currentUser) {
+        log.debug("Listing comments of task: {}", taskId);
+        return ResponseEntity.ok(taskService.listComments(taskId, cursor, size, currentUser));
+    }
+
+    @GetMapping("/{taskId}/history")
+    public ResponseEntity<TaskHistoryPageResponse> listHistory(
+            @PathVariable String taskId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "20") int size,
+            @AuthenticationPrincipal User currentUser) {
+        log.debug("Listing history of task: {}", taskId);
+        return ResponseEntity.ok(taskService.listHistory(taskId, from, to, cursor, size, currentUser));
     }
 
-    @PutMapping("/{taskId}")
+    // If-Match takes the ETag of GET /tasks/{id} or of a write response, or TaskDTO.version
+    // quoted, e.g. "7". Only the task version leading the tag is compared, so new comments
+    // or history since the GET do not fail the write.
+    @RequestMapping(path = "/{taskId}", method = {RequestMethod.PUT, RequestMethod.PATCH})
     public ResponseEntity<TaskDTO> updateTask(
             @PathVariable String taskId,
             @Valid @RequestBody UpdateTaskRequest request,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @AuthenticationPrincipal User currentUser) {
         log.debug("Updating task: {}", taskId);
-        TaskDTO task = taskService.updateTask(taskId, request, currentUser);
-        return ResponseEntity.ok(task);
+        TaskDTO task = taskService.updateTask(taskId, request, expectedVersion(ifMatch), currentUser);
+        return ResponseEntity.ok().eTag(versionETag(task)).body(task);
     }
 
     @DeleteMapping("/{taskId}")
@@ -79,6 +166,8 @@ public class TaskController {
             @RequestParam(required = false, defaultValue = "ASC") String sortOrder,
             @RequestParam(required = false, defaultValue = "0") int page,
             @RequestParam(required = false, defaultValue = "25") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Boolean includeTotal,
             @AuthenticationPrincipal User currentUser) {
         log.debug("Listing tasks for user: {}", currentUser.getId());
         
@@ -86,29 +175,129 @@ public class TaskController {
         Pageable pageable = PageRequest.of(page, size, sort);
         
         TaskPageResponse response = taskService.listTasks(
-            status, priority, assigneeId, createdById, tags, overdue, search, sortBy, sortOrder, pageable, currentUser
+            status, priority, assigneeId, createdById, tags, overdue, search, sortBy, sortOrder, pageable, cursor, includeTotal, currentUser
         );
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/facets")
+    public ResponseEntity<TaskFacetsDTO> getTaskFacets(
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) TaskPriority priority,
+            @RequestParam(required = false) String assigneeId,
+            @RequestParam(required = false) String createdById,
+            @RequestParam(required = false) List<String> tags,
+            @RequestParam(required = false) Boolean overdue,
+            @RequestParam(required = false) String search,
+            @AuthenticationPrincipal User currentUser) {
+        log.debug("Getting task facets for user: {}", currentUser.getId());
+        TaskFacetsDTO facets = taskService.getTaskFacets(
+            status, priority, assigneeId, createdById, tags, overdue, search, currentUser
+        );
+        return ResponseEntity.ok(facets);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) TaskPriority priority,
+            @RequestParam(required = false) String assigneeId,
+            @RequestParam(required = false) String createdById,
+            @RequestParam(required = false) List<String> tags,
+            @RequestParam(required = false) Boolean overdue,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false, defaultValue = "ndjson") String format,
+            @AuthenticationPrincipal User currentUser,
+            HttpServletRequest request) {
+        log.debug("Exporting tasks as {} for user: {}", format, currentUser.getId());
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        // Rejected here, while a 503 can still be sent instead of the streamed 200
+        if (!exportPermits.tryAcquire()) {
+            throw new ServiceUnavailableException("Too many exports in progress", 30);
+        }
+        // The body streams asynchronously; only this request gets the long timeout
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeout.toMillis());
+        StreamingResponseBody body = out -> {
+            try {
+                taskService.exportTasks(
+                    status, priority, assigneeId, createdById, tags, overdue, search, exportFormat, out, currentUser
+                );
+            } finally {
+                exportPermits.release();
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks." + exportFormat.getExtension() + "\"")
+            .body(body);
+    }
+
+    // Delta sync for clients that were away: start from 0, then pass back nextSince.
+    // Deletes are only reported to clients that started from a position above 0.
+    @GetMapping("/changes")
+    public ResponseEntity<TaskChangesResponse> getTaskChanges(
+            @RequestParam(required = false, defaultValue = "0") long since,
+            @RequestParam(required = false, defaultValue = "100") int limit,
+            @RequestParam(required = false) String clientId,
+            @AuthenticationPrincipal User currentUser) {
+        log.debug("Listing task changes after {} for user: {}", since, currentUser.getId());
+        return ResponseEntity.ok(taskService.getTaskChanges(since, limit, clientId, currentUser));
+    }
+
+    // Changes committed after the stream opened; clients load the list once connected,
+    // and again whenever they receive a "resync" event
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTasks(@AuthenticationPrincipal User currentUser) {
+        log.debug("Opening task stream for user: {}", currentUser.getId());
+        return taskStreamHub.subscribe(currentUser);
+    }
+
+    // Without If-Match, a change that collides with another write is applied again on top of it
     @PostMapping("/{taskId}/assign")
     public ResponseEntity<TaskDTO> assignTask(
             @PathVariable String taskId,
             @RequestBody AssignTaskRequest request,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @AuthenticationPrincipal User currentUser) {
         log.debug("Assigning task: {} to user: {}", taskId, request.getAssigneeId());
-        TaskDTO task = taskService.assignTask(taskId, request.getAssigneeId(), currentUser, request.isNotifyAssignee());
-        return ResponseEntity.ok(task);
+        TaskDTO task = taskService.assignTask(
+            taskId, request.getAssigneeId(), expectedVersion(ifMatch), currentUser, request.isNotifyAssignee());
+        return ResponseEntity.ok().eTag(versionETag(task)).body(task);
     }
 
     @PutMapping("/{taskId}/status")
     public ResponseEntity<TaskDTO> updateTaskStatus(
             @PathVariable String taskId,
             @RequestBody UpdateStatusRequest request,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @AuthenticationPrincipal User currentUser) {
         log.debug("Updating task status: {} to {}", taskId, request.getStatus());
-        TaskDTO task = taskService.updateTaskStatus(taskId, request.getStatus(), currentUser, request.isNotify());
-        return ResponseEntity.ok(task);
+        TaskDTO task = taskService.updateTaskStatus(
+            taskId, request.getStatus(), expectedVersion(ifMatch), currentUser, request.isNotify());
+        return ResponseEntity.ok().eTag(versionETag(task)).body(task);
+    }
+
+    // "*" only requires the task to exist; anything but a quoted tag leading with the
+    // task version can never match
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            String value = tag.substring(1, tag.length() - 1);
+            int dot = value.indexOf('.');
+            try {
+                return Long.parseLong(dot < 0 ? value : value.substring(0, dot));
+            } catch (NumberFormatException e) {
+                // falls through to the 412 below
+            }
+        }
+        throw new PreconditionFailedException("If-Match does not name a task version");
+    }
+
+    private static String versionETag(TaskDTO task) {
+        return "\"" + task.getVersion() + "\"";
     }
 
     // Inner classes for request DTOs
@@ -0,0 +1,26 @@
+package com.todoapp.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// A change sequence handed out by TaskChangeLog. value is the last number assigned;
+// tombstones at or below compactedThrough have been removed, so clients that synced
+// before it have to reload instead of asking for changes.
+@Entity
+@Table(name = "change_sequences")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangeSequence {
+    @Id
+    @Column(length = 50)
+    private String id;
+
+    @Column(name = "seq_value", nullable = false)
+    private Long value;
+
+    @Column(name = "compacted_through", nullable = false)
+    private Long compactedThrough;
+}
@@ -8,7 +8,10 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+    @Index(name = "idx_comments_task_created", columnList = "task_id, created_at, id"),
+    @Index(name = "idx_comments_task_id", columnList = "task_id, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -31,7 +34,7 @@ public class Comment {
     private User author;
     
     @CreationTimestamp
-    @Column(nullable = false, updatable = false)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
     @UpdateTimestamp
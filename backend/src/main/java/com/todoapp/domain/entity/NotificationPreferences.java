@@ -1,5 +1,6 @@
 package com.todoapp.domain.entity;
 
+import com.todoapp.domain.enums.NotificationType;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -60,4 +61,23 @@ public class NotificationPreferences {
     @Column(name = "status_changed", nullable = false)
     @Builder.Default
     private Boolean statusChanged = false;
+    
+    // What a user without a stored row gets
+    public static NotificationPreferences defaults() {
+        return NotificationPreferences.builder().build();
+    }
+    
+    public boolean wantsEmail(NotificationType type) {
+        if (!Boolean.TRUE.equals(emailEnabled)) {
+            return false;
+        }
+        Boolean wanted = switch (type) {
+            case TASK_ASSIGNED -> taskAssigned;
+            case TASK_REASSIGNED -> taskReassigned;
+            case STATUS_CHANGED -> statusChanged;
+            case DUE_DATE_REMINDER -> dueDateReminder;
+            case TASK_OVERDUE -> overdueNotification;
+        };
+        return Boolean.TRUE.equals(wanted);
+    }
 }
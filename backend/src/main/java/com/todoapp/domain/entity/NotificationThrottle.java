@@ -0,0 +1,27 @@
+package com.todoapp.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Messages sent to one recipient in the hour starting at hourStart; NotificationDispatcher
+// holds back further digests until the next hour once sent reaches the per-hour cap.
+@Entity
+@Table(name = "notification_throttle")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationThrottle {
+    @Id
+    @Column(name = "recipient_id")
+    private String recipientId;
+
+    @Column(name = "hour_start", nullable = false)
+    private LocalDateTime hourStart;
+
+    @Column(nullable = false)
+    private Integer sent;
+}
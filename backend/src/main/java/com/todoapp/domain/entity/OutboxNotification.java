@@ -0,0 +1,68 @@
+package com.todoapp.domain.entity;
+
+import com.todoapp.domain.enums.NotificationType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// A notification waiting for delivery, written in the transaction of the change it
+// reports. NotificationDispatcher claims a recipient's rows by setting claimToken for a
+// lease, sends them as one digest and deletes them once delivered; failedAt is set when
+// it gives up on one.
+@Entity
+@Table(name = "notification_outbox", indexes = {
+    @Index(name = "idx_notification_outbox_next_attempt", columnList = "failed_at, next_attempt_at"),
+    @Index(name = "idx_notification_outbox_recipient", columnList = "recipient_id, next_attempt_at"),
+    @Index(name = "idx_notification_outbox_claim", columnList = "claim_token")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxNotification {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private NotificationType type;
+
+    @Column(name = "recipient_id", nullable = false)
+    private String recipientId;
+
+    @Column(name = "task_id")
+    private String taskId;
+
+    @Column(nullable = false, length = 200)
+    private String subject;
+
+    @Column(nullable = false, length = 2000)
+    private String body;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "failed_at")
+    private LocalDateTime failedAt;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
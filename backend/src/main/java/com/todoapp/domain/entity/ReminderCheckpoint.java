@@ -0,0 +1,37 @@
+package com.todoapp.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Progress of the due date reminder job. Every reminder firing before processedBefore
+// has been handed off. While a window [processedBefore, windowEnd) is in progress,
+// days and the (afterDueDate, afterTaskId) pair record the last task handed off for
+// that reminder offset, so a restart resumes right after it.
+@Entity
+@Table(name = "reminder_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReminderCheckpoint {
+    @Id
+    @Column(length = 50)
+    private String id;
+
+    @Column(name = "processed_before", nullable = false)
+    private LocalDateTime processedBefore;
+
+    @Column(name = "window_end")
+    private LocalDateTime windowEnd;
+
+    private Integer days;
+
+    @Column(name = "after_due_date")
+    private LocalDateTime afterDueDate;
+
+    @Column(name = "after_task_id")
+    private String afterTaskId;
+}
@@ -0,0 +1,28 @@
+package com.todoapp.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// The change sequence a client last synced from, keyed by "<userId>/<clientId>".
+// Tombstone compaction keeps everything after the lowest position of the cursors
+// seen within the cursor TTL.
+@Entity
+@Table(name = "sync_cursors")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncCursor {
+    @Id
+    @Column(length = 200)
+    private String id;
+
+    @Column(nullable = false)
+    private Long position;
+
+    @Column(name = "last_seen_at", nullable = false)
+    private LocalDateTime lastSeenAt;
+}
@@ -4,6 +4,7 @@ import com.todoapp.domain.enums.TaskPriority;
 import com.todoapp.domain.enums.TaskStatus;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -12,7 +13,15 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+    @Index(name = "idx_tasks_due_date", columnList = "due_date, id"),
+    @Index(name = "idx_tasks_status_due_date", columnList = "status, due_date"),
+    @Index(name = "idx_tasks_priority_due_date", columnList = "priority, due_date"),
+    @Index(name = "idx_tasks_assignee_status", columnList = "assignee_id, status, due_date"),
+    @Index(name = "idx_tasks_created_by_status", columnList = "created_by_id, status, due_date"),
+    @Index(name = "idx_tasks_overdue_due_date", columnList = "overdue, due_date"),
+    @Index(name = "idx_tasks_change_seq", columnList = "change_seq")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -51,6 +60,7 @@ public class Task {
     private User createdBy;
     
     @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     @JoinTable(
         name = "task_tags",
         joinColumns = @JoinColumn(name = "task_id"),
@@ -63,10 +73,20 @@ public class Task {
     @Builder.Default
     private Boolean overdue = false;
     
+    // Position of the task's last change in the change sequence; only TaskChangeLog writes
+    // it, just before commit, so Hibernate never flushes a stale value over it
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    private Long changeSeq;
+    
     @OneToMany(mappedBy = "task", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<Comment> comments = new ArrayList<>();
     
+    // Checked on every update and delete; If-Match on task writes names this value
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -94,11 +114,8 @@ public class Task {
         }
     }
     
-    public void markOverdue() {
-        this.overdue = true;
-    }
-    
-    public void clearOverdue() {
-        this.overdue = false;
+    // Recomputed on every write; DueDateScheduler sets it when a deadline passes in between
+    public void refreshOverdue(LocalDateTime now) {
+        this.overdue = status.isOpen() && dueDate != null && dueDate.isBefore(now);
     }
 }
@@ -7,8 +7,12 @@ import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
 
+// Rows are stored in monthly task_history_YYYYMM tables through TaskHistoryRepository;
+// the mapped task_history table only holds rows written before partitioning
 @Entity
-@Table(name = "task_history")
+@Table(name = "task_history", indexes = {
+    @Index(name = "idx_task_history_task_performed", columnList = "task_id, performed_at, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,29 @@
+package com.todoapp.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Records that a task was deleted at changeSeq, for GET /tasks/changes. Written by
+// TaskChangeLog and removed by its compaction once every known client is past it.
+@Entity
+@Table(name = "task_tombstones", indexes = {
+    @Index(name = "idx_task_tombstones_change_seq", columnList = "change_seq")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskTombstone {
+    @Id
+    @Column(name = "task_id")
+    private String taskId;
+
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
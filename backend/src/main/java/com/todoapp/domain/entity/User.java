@@ -1,6 +1,7 @@
 package com.todoapp.domain.entity;
 
 import com.todoapp.domain.enums.UserRole;
+import com.todoapp.domain.event.UserChangePublisher;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -10,6 +11,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserChangePublisher.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -6,5 +6,7 @@ public enum HistoryAction {
     ASSIGNED,
     REASSIGNED,
     UPDATED,
-    DELETED
+    DELETED,
+    // Summary of a task's older history after compaction
+    COMPACTED
 }
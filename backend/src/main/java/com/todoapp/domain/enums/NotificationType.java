@@ -0,0 +1,9 @@
+package com.todoapp.domain.enums;
+
+public enum NotificationType {
+    TASK_ASSIGNED,
+    TASK_REASSIGNED,
+    STATUS_CHANGED,
+    DUE_DATE_REMINDER,
+    TASK_OVERDUE
+}
@@ -5,5 +5,10 @@ public enum TaskStatus {
     IN_PROGRESS,
     BLOCKED,
     COMPLETED,
-    CANCELLED
+    CANCELLED;
+
+    // Completed and cancelled tasks are never overdue
+    public boolean isOpen() {
+        return this != COMPLETED && this != CANCELLED;
+    }
 }
@@ -0,0 +1,25 @@
+package com.todoapp.domain.event;
+
+// Published by TaskServiceImpl for every task write; listeners run after commit, except
+// TaskChangeLog, which collects the ids inside the transaction to stamp them before it.
+// previous is the state before an update (null otherwise), actorId the user who made it.
+public record TaskChangedEvent(ChangeType type, TaskSnapshot task, TaskSnapshot previous, String actorId) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static TaskChangedEvent created(TaskSnapshot task, String actorId) {
+        return new TaskChangedEvent(ChangeType.CREATED, task, null, actorId);
+    }
+
+    public static TaskChangedEvent updated(TaskSnapshot previous, TaskSnapshot task, String actorId) {
+        return new TaskChangedEvent(ChangeType.UPDATED, task, previous, actorId);
+    }
+
+    public static TaskChangedEvent deleted(TaskSnapshot task, String actorId) {
+        return new TaskChangedEvent(ChangeType.DELETED, task, null, actorId);
+    }
+}
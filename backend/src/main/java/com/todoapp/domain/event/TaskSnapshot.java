@@ -0,0 +1,39 @@
+package com.todoapp.domain.event;
+
+import com.todoapp.domain.entity.Tag;
+import com.todoapp.domain.entity.Task;
+import com.todoapp.domain.enums.TaskPriority;
+import com.todoapp.domain.enums.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Immutable copy of a task's state, taken inside the writing transaction so that
+// after-commit listeners never touch lazy associations.
+public record TaskSnapshot(
+    String id,
+    String title,
+    String description,
+    TaskStatus status,
+    TaskPriority priority,
+    LocalDateTime dueDate,
+    String assigneeId,
+    String createdById,
+    boolean overdue,
+    List<String> tags
+) {
+    public static TaskSnapshot of(Task task) {
+        return new TaskSnapshot(
+            task.getId(),
+            task.getTitle(),
+            task.getDescription(),
+            task.getStatus(),
+            task.getPriority(),
+            task.getDueDate(),
+            task.getAssignee() != null ? task.getAssignee().getId() : null,
+            task.getCreatedBy() != null ? task.getCreatedBy().getId() : null,
+            Boolean.TRUE.equals(task.getOverdue()),
+            task.getTags() != null ? task.getTags().stream().map(Tag::getName).toList() : List.of()
+        );
+    }
+}
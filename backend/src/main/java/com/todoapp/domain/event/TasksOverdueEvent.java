@@ -0,0 +1,8 @@
+package com.todoapp.domain.event;
+
+import java.util.List;
+
+// Published by DueDateScheduler inside the transaction that set the overdue flag of
+// these tasks because their due date passed; no TaskChangedEvent is published for it.
+public record TasksOverdueEvent(List<String> taskIds) {
+}
@@ -0,0 +1,23 @@
+package com.todoapp.domain.event;
+
+import com.todoapp.domain.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+// JPA listener on User: every update or delete of a user that JPA flushes publishes
+// UserChangedEvent inside the writing transaction, whichever service made it. Bulk
+// JPQL updates and plain JDBC bypass it; the principal cache ttl bounds those.
+@Component
+@RequiredArgsConstructor
+public class UserChangePublisher {
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostUpdate
+    @PostRemove
+    void onUserChanged(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId()));
+    }
+}
@@ -0,0 +1,6 @@
+package com.todoapp.domain.event;
+
+// Published by UserChangePublisher when a user is updated or deleted (role, active flag,
+// credentials), inside the writing transaction, so cached copies of that user can be dropped.
+public record UserChangedEvent(String userId) {
+}
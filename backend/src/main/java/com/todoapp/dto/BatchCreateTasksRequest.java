@@ -0,0 +1,19 @@
+package com.todoapp.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchCreateTasksRequest {
+    @NotEmpty(message = "At least one task is required")
+    private List<@Valid CreateTaskRequest> tasks;
+}
@@ -0,0 +1,29 @@
+package com.todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchTaskResponse {
+    private List<ItemResult> results;
+    private Integer succeeded;
+    private Integer failed;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ItemResult {
+        private Integer index;
+        private Boolean success;
+        private TaskDTO task;
+        private String error;
+    }
+}
@@ -0,0 +1,37 @@
+package com.todoapp.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchUpdateTasksRequest {
+    @NotEmpty(message = "At least one task is required")
+    private List<@Valid Item> tasks;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Item {
+        @NotBlank(message = "Task ID is required")
+        private String taskId;
+
+        @NotNull(message = "Update is required")
+        @Valid
+        private UpdateTaskRequest update;
+
+        // When set, the item fails unless the task still has this version
+        private Long version;
+    }
+}
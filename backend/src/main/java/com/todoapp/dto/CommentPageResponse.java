@@ -0,0 +1,18 @@
+package com.todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CommentPageResponse {
+    private List<CommentDTO> content;
+    private Integer size;
+    private String nextCursor;
+}
@@ -0,0 +1,23 @@
+package com.todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskChangesResponse {
+    // Current state of tasks created or updated after since
+    private List<TaskDTO> changed;
+    // Ids of tasks deleted after since
+    private List<String> deleted;
+    private Long nextSince;
+    private Boolean hasMore;
+    // The changes after since are no longer kept; reload the list and start from 0
+    private Boolean resyncRequired;
+}
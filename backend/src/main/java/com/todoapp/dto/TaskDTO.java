@@ -27,6 +27,8 @@ public class TaskDTO {
     private String createdById;
     private List<String> tags;
     private Boolean overdue;
+    // Send back as If-Match to make a write conditional on nobody else having changed the task
+    private Long version;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
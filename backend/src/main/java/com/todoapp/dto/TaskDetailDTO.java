@@ -1,5 +1,6 @@
 package com.todoapp.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -13,6 +14,13 @@ import java.util.List;
 @Builder
 public class TaskDetailDTO {
     private TaskDTO task;
+    // Newest entries only; page through the rest via /tasks/{id}/comments and /history
     private List<CommentDTO> comments;
+    private Long commentCount;
     private List<TaskHistoryDTO> history;
+    private Long historyCount;
+    // Set by TaskDetailCache for the version this detail was assembled at; sent as the
+    // ETag header rather than in the body
+    @JsonIgnore
+    private String etag;
 }
@@ -0,0 +1,21 @@
+package com.todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskFacetsDTO {
+    private Long total;
+    private Map<String, Long> status;
+    private Map<String, Long> priority;
+    private Map<String, Long> assignee;
+    private Map<String, Long> tags;
+    private Map<String, Long> overdue;
+}
@@ -17,4 +17,5 @@ public class TaskPageResponse {
     private Integer size;
     private Long totalElements;
     private Integer totalPages;
+    private String nextCursor;
 }
@@ -0,0 +1,47 @@
+package com.todoapp.notification;
+
+import com.todoapp.domain.entity.NotificationPreferences;
+import com.todoapp.domain.enums.NotificationType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+// When a queued notification goes out. Everything waits for the digest window, so a
+// burst of changes for one recipient ends up in one message; overdue notices follow the
+// recipient's overdueNotificationFrequency ("immediate", "hourly" or "daily", the
+// default) and wait for the next hour or the next daily-hour instead.
+@Component
+public class DigestSchedule {
+    private final Duration window;
+    private final int dailyHour;
+
+    public DigestSchedule(
+            @Value("${todoapp.notifications.digest.window:2m}") Duration window,
+            @Value("${todoapp.notifications.digest.daily-hour:8}") int dailyHour) {
+        this.window = window;
+        this.dailyHour = dailyHour;
+    }
+
+    public Duration window() {
+        return window;
+    }
+
+    public LocalDateTime sendAt(NotificationType type, NotificationPreferences prefs, LocalDateTime now) {
+        LocalDateTime windowEnd = now.plus(window);
+        if (type != NotificationType.TASK_OVERDUE) {
+            return windowEnd;
+        }
+        String frequency = prefs.getOverdueNotificationFrequency();
+        if ("immediate".equalsIgnoreCase(frequency)) {
+            return windowEnd;
+        }
+        if ("hourly".equalsIgnoreCase(frequency)) {
+            return now.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        }
+        LocalDateTime today = now.truncatedTo(ChronoUnit.DAYS).plusHours(dailyHour);
+        return now.isBefore(today) ? today : today.plusDays(1);
+    }
+}
@@ -0,0 +1,14 @@
+package com.todoapp.notification;
+
+import java.time.LocalDateTime;
+
+// A task falling due in daysBefore days, for the user who is reminded of it
+public record DueDateReminder(
+    String taskId,
+    String title,
+    LocalDateTime dueDate,
+    String recipientId,
+    int daysBefore,
+    LocalDateTime fireAt
+) {
+}
@@ -0,0 +1,205 @@
+package com.todoapp.notification;
+
+import com.todoapp.domain.entity.NotificationPreferences;
+import com.todoapp.domain.entity.ReminderCheckpoint;
+import com.todoapp.repository.NotificationPreferencesRepository;
+import com.todoapp.repository.ReminderCheckpointRepository;
+import com.todoapp.repository.TaskReminderTarget;
+import com.todoapp.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Sends due date reminders daysBefore days ahead of each open task's due date, for
+// every daysBefore in the recipient's NotificationPreferences. Fire times are bucketed
+// by minute: each tick covers the minutes that ended since the last one, as the window
+// [processedBefore, windowEnd). For a reminder offset of d days, the reminders firing
+// in that window belong to the tasks due in the window shifted by d days, so each
+// offset is one keyset range scan over idx_tasks_due_date. Tasks are read chunk-size
+// at a time, with one batched preferences query per chunk, and nothing outlives its
+// chunk, so the number of tasks with reminders only affects how many chunks run.
+//
+// The checkpoint is advanced in the transaction that hands a chunk to the sender, so
+// after a restart the job resumes right after the last chunk handed off. A window is
+// at most max-catch-up long; after downtime the missed minutes are worked off one
+// window per tick, skipping tasks that are already due.
+@Component
+@Slf4j
+public class DueDateReminderScheduler {
+    static final String CHECKPOINT_ID = "due-date-reminders";
+    private static final NotificationPreferences DEFAULTS = NotificationPreferences.defaults();
+
+    private final TaskRepository taskRepository;
+    private final NotificationPreferencesRepository notificationPreferencesRepository;
+    private final ReminderCheckpointRepository checkpointRepository;
+    private final NotificationSender notificationSender;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter sent;
+    private final int chunkSize;
+    private final Duration maxCatchUp;
+
+    public DueDateReminderScheduler(
+            TaskRepository taskRepository,
+            NotificationPreferencesRepository notificationPreferencesRepository,
+            ReminderCheckpointRepository checkpointRepository,
+            NotificationSender notificationSender,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${todoapp.reminders.chunk-size:500}") int chunkSize,
+            @Value("${todoapp.reminders.max-catch-up:1h}") Duration maxCatchUp) {
+        this.taskRepository = taskRepository;
+        this.notificationPreferencesRepository = notificationPreferencesRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.notificationSender = notificationSender;
+        this.transactionTemplate = transactionTemplate;
+        this.sent = meterRegistry.counter("notifications.reminders.sent");
+        this.chunkSize = chunkSize;
+        this.maxCatchUp = maxCatchUp;
+    }
+
+    @Scheduled(cron = "${todoapp.reminders.cron:0 * * * * *}")
+    public void run() {
+        try {
+            tick(LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.error("Due date reminders failed; the next tick resumes from the checkpoint", e);
+        }
+    }
+
+    // Hands off every reminder firing in the minutes that ended before now, up to
+    // max-catch-up of them; returns how many reminders were sent
+    public int tick(LocalDateTime now) {
+        LocalDateTime bucket = now.truncatedTo(ChronoUnit.MINUTES);
+        // The first run starts from now rather than sending reminders from the past
+        ReminderCheckpoint checkpoint = transactionTemplate.execute(status -> checkpointRepository.findById(CHECKPOINT_ID)
+            .orElseGet(() -> checkpointRepository.save(ReminderCheckpoint.builder()
+                .id(CHECKPOINT_ID)
+                .processedBefore(bucket)
+                .build())));
+        LocalDateTime windowStart = checkpoint.getProcessedBefore();
+        LocalDateTime windowEnd = checkpoint.getWindowEnd();
+        if (windowEnd == null) {
+            LocalDateTime limit = windowStart.plus(maxCatchUp);
+            windowEnd = bucket.isAfter(limit) ? limit : bucket;
+            if (!windowEnd.isAfter(windowStart)) {
+                return 0;
+            }
+        }
+
+        Integer resumeDays = checkpoint.getDays();
+        LocalDateTime resumeDueDate = checkpoint.getAfterDueDate();
+        String resumeTaskId = checkpoint.getAfterTaskId();
+        int total = 0;
+        for (int days : reminderDays()) {
+            if (resumeDays != null && days < resumeDays) {
+                continue;
+            }
+            boolean resume = resumeDays != null && days == resumeDays;
+            LocalDateTime afterDueDate = resume ? resumeDueDate : windowStart.plusDays(days);
+            // No task id sorts before "", so the first chunk starts at the window itself
+            String afterTaskId = resume ? resumeTaskId : "";
+            LocalDateTime until = windowEnd.plusDays(days);
+            Chunk chunk;
+            do {
+                chunk = sendChunk(windowEnd, days, afterDueDate, afterTaskId, until, now);
+                total += chunk.sent();
+                afterDueDate = chunk.lastDueDate();
+                afterTaskId = chunk.lastTaskId();
+            } while (chunk.full());
+        }
+
+        LocalDateTime processed = windowEnd;
+        transactionTemplate.executeWithoutResult(status -> {
+            ReminderCheckpoint done = checkpointRepository.findById(CHECKPOINT_ID).orElseThrow();
+            done.setProcessedBefore(processed);
+            done.setWindowEnd(null);
+            done.setDays(null);
+            done.setAfterDueDate(null);
+            done.setAfterTaskId(null);
+        });
+        if (total > 0) {
+            log.info("Sent {} due date reminders firing before {}", total, processed);
+        }
+        return total;
+    }
+
+    // Reads one chunk of tasks, hands its reminders to the sender and records the
+    // chunk's last task in the checkpoint, all in one transaction
+    private Chunk sendChunk(
+        LocalDateTime windowEnd,
+        int days,
+        LocalDateTime afterDueDate,
+        String afterTaskId,
+        LocalDateTime until,
+        LocalDateTime now
+    ) {
+        return transactionTemplate.execute(status -> {
+            List<TaskReminderTarget> targets = taskRepository.findReminderTargets(
+                afterDueDate, afterTaskId, until, now, Limit.of(chunkSize));
+            if (targets.isEmpty()) {
+                return new Chunk(0, false, afterDueDate, afterTaskId);
+            }
+
+            Set<String> recipientIds = new HashSet<>();
+            targets.forEach(target -> recipientIds.add(target.recipientId()));
+            Map<String, NotificationPreferences> preferences = new HashMap<>();
+            for (NotificationPreferences prefs : notificationPreferencesRepository.findAllWithReminderDays(recipientIds)) {
+                preferences.put(prefs.getUserId(), prefs);
+            }
+
+            List<DueDateReminder> reminders = new ArrayList<>();
+            for (TaskReminderTarget target : targets) {
+                NotificationPreferences prefs = preferences.getOrDefault(target.recipientId(), DEFAULTS);
+                if (Boolean.TRUE.equals(prefs.getDueDateReminder()) && prefs.getReminderDaysBefore().contains(days)) {
+                    reminders.add(new DueDateReminder(target.taskId(), target.title(), target.dueDate(),
+                        target.recipientId(), days, target.dueDate().minusDays(days)));
+                }
+            }
+            if (!reminders.isEmpty()) {
+                notificationSender.sendDueDateReminders(reminders);
+                sent.increment(reminders.size());
+            }
+
+            TaskReminderTarget last = targets.get(targets.size() - 1);
+            ReminderCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT_ID).orElseThrow();
+            checkpoint.setWindowEnd(windowEnd);
+            checkpoint.setDays(days);
+            checkpoint.setAfterDueDate(last.dueDate());
+            checkpoint.setAfterTaskId(last.taskId());
+            return new Chunk(reminders.size(), targets.size() == chunkSize, last.dueDate(), last.taskId());
+        });
+    }
+
+    // Every offset some user has, ascending, so a resumed window continues in order
+    private Set<Integer> reminderDays() {
+        Set<Integer> days = new TreeSet<>(DEFAULTS.getReminderDaysBefore());
+        List<Integer> configured = transactionTemplate.execute(status -> notificationPreferencesRepository.findReminderDays());
+        if (configured != null) {
+            configured.forEach(day -> {
+                if (day != null && day >= 0) {
+                    days.add(day);
+                }
+            });
+        }
+        return days;
+    }
+
+    private record Chunk(int sent, boolean full, LocalDateTime lastDueDate, String lastTaskId) {
+    }
+}
@@ -0,0 +1,401 @@
+package com.todoapp.notification;
+
+import com.todoapp.domain.entity.NotificationPreferences;
+import com.todoapp.domain.entity.NotificationThrottle;
+import com.todoapp.domain.entity.OutboxNotification;
+import com.todoapp.domain.entity.User;
+import com.todoapp.repository.NotificationPreferencesRepository;
+import com.todoapp.repository.NotificationThrottleRepository;
+import com.todoapp.repository.OutboxNotificationRepository;
+import com.todoapp.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.LockSupport;
+
+// Delivers the notification outbox by mail, one digest per recipient. Each worker claims
+// the rows of a batch of recipients with a lease (claim token plus claimed-until): every
+// row of theirs due within the digest window, so a burst of changes is one message.
+// Recipients and their preferences are loaded with one query each, rows a recipient
+// has switched off are dropped, and the digests go out over one pooled SMTP connection.
+// Mail and SMTP round trips therefore grow with recipients rather than with changes.
+//
+// A recipient gets at most max-per-hour messages per clock hour; digests past that are
+// held back to the next hour, where they merge with whatever else is queued. Delivered
+// and dropped rows are deleted; failed ones are retried with exponential backoff until
+// max-attempts, then kept with failedAt set. A batch whose worker died is claimed again
+// once its lease runs out, so delivery is at least once.
+//
+// Workers sleep for poll-interval when there is nothing due; committed outbox writes
+// wake them straight away.
+@Component
+@Slf4j
+public class NotificationDispatcher implements SmartLifecycle {
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxNotificationRepository outboxRepository;
+    private final UserRepository userRepository;
+    private final NotificationPreferencesRepository notificationPreferencesRepository;
+    private final NotificationThrottleRepository throttleRepository;
+    private final JavaMailSenderImpl mailSender;
+    private final SmtpConnectionPool connectionPool;
+    private final DigestSchedule digestSchedule;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter delivered;
+    private final Counter digests;
+    private final Counter suppressed;
+    private final Counter deferred;
+    private final Counter retried;
+    private final Counter failed;
+    private final boolean enabled;
+    private final String from;
+    private final int threads;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration claimTimeout;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final int maxPerHour;
+    private final int maxDigestItems;
+    private final Duration shutdownTimeout;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public NotificationDispatcher(
+            OutboxNotificationRepository outboxRepository,
+            UserRepository userRepository,
+            NotificationPreferencesRepository notificationPreferencesRepository,
+            NotificationThrottleRepository throttleRepository,
+            JavaMailSenderImpl mailSender,
+            SmtpConnectionPool connectionPool,
+            DigestSchedule digestSchedule,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${todoapp.notifications.dispatcher.enabled:true}") boolean enabled,
+            @Value("${todoapp.notifications.from:noreply@todoapp.local}") String from,
+            @Value("${todoapp.notifications.dispatcher.threads:2}") int threads,
+            @Value("${todoapp.notifications.dispatcher.batch-size:100}") int batchSize,
+            @Value("${todoapp.notifications.dispatcher.poll-interval:5s}") Duration pollInterval,
+            @Value("${todoapp.notifications.dispatcher.claim-timeout:5m}") Duration claimTimeout,
+            @Value("${todoapp.notifications.dispatcher.max-attempts:8}") int maxAttempts,
+            @Value("${todoapp.notifications.dispatcher.initial-backoff:30s}") Duration initialBackoff,
+            @Value("${todoapp.notifications.dispatcher.max-backoff:1h}") Duration maxBackoff,
+            @Value("${todoapp.notifications.digest.max-per-hour:10}") int maxPerHour,
+            @Value("${todoapp.notifications.digest.max-items:50}") int maxDigestItems,
+            @Value("${todoapp.notifications.dispatcher.shutdown-timeout:10s}") Duration shutdownTimeout) {
+        this.outboxRepository = outboxRepository;
+        this.userRepository = userRepository;
+        this.notificationPreferencesRepository = notificationPreferencesRepository;
+        this.throttleRepository = throttleRepository;
+        this.mailSender = mailSender;
+        this.connectionPool = connectionPool;
+        this.digestSchedule = digestSchedule;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.delivered = meterRegistry.counter("notifications.delivered");
+        this.digests = meterRegistry.counter("notifications.digests.sent");
+        this.suppressed = meterRegistry.counter("notifications.suppressed");
+        this.deferred = meterRegistry.counter("notifications.deferred");
+        this.retried = meterRegistry.counter("notifications.retried");
+        this.failed = meterRegistry.counter("notifications.failed");
+        this.enabled = enabled;
+        this.from = from;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.claimTimeout = claimTimeout;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.maxPerHour = maxPerHour;
+        this.maxDigestItems = maxDigestItems;
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    public void wakeUp() {
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    // Claims the queued notifications of one batch of recipients and handles them;
+    // returns how many notifications were claimed
+    public int dispatchBatch(LocalDateTime now) {
+        String token = UUID.randomUUID().toString();
+        List<OutboxNotification> batch = transactionTemplate.execute(status -> {
+            List<String> recipientIds = outboxRepository.findClaimableRecipients(now, Limit.of(batchSize));
+            if (recipientIds.isEmpty()
+                || outboxRepository.claim(recipientIds, token, now.plus(claimTimeout), now.plus(digestSchedule.window()), now) == 0) {
+                return List.<OutboxNotification>of();
+            }
+            return outboxRepository.findByClaimTokenOrderByCreatedAt(token);
+        });
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, List<OutboxNotification>> byRecipient = new LinkedHashMap<>();
+        batch.forEach(notification -> byRecipient.computeIfAbsent(notification.getRecipientId(), id -> new ArrayList<>()).add(notification));
+        Map<String, User> recipients = new HashMap<>();
+        Map<String, NotificationPreferences> preferences = new HashMap<>();
+        Map<String, NotificationThrottle> throttles = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.findAllById(byRecipient.keySet()).forEach(user -> recipients.put(user.getId(), user));
+            notificationPreferencesRepository.findAllById(byRecipient.keySet()).forEach(prefs -> preferences.put(prefs.getUserId(), prefs));
+            throttleRepository.findAllById(byRecipient.keySet()).forEach(throttle -> throttles.put(throttle.getRecipientId(), throttle));
+        });
+
+        LocalDateTime hour = now.truncatedTo(ChronoUnit.HOURS);
+        Outcome outcome = new Outcome();
+        List<Digest> outgoing = new ArrayList<>();
+        for (Map.Entry<String, List<OutboxNotification>> entry : byRecipient.entrySet()) {
+            User recipient = recipients.get(entry.getKey());
+            NotificationPreferences prefs = preferences.getOrDefault(entry.getKey(), NotificationPreferences.defaults());
+            List<OutboxNotification> wanted = new ArrayList<>();
+            for (OutboxNotification notification : entry.getValue()) {
+                if (recipient == null || !recipient.isActive() || !prefs.wantsEmail(notification.getType())) {
+                    outcome.done.add(notification.getId());
+                    suppressed.increment();
+                } else {
+                    wanted.add(notification);
+                }
+            }
+            if (wanted.isEmpty()) {
+                continue;
+            }
+            NotificationThrottle throttle = throttles.computeIfAbsent(entry.getKey(),
+                id -> NotificationThrottle.builder().recipientId(id).hourStart(hour).sent(0).build());
+            if (throttle.getHourStart().isBefore(hour)) {
+                throttle.setHourStart(hour);
+                throttle.setSent(0);
+            }
+            if (throttle.getSent() >= maxPerHour) {
+                outcome.deferred.addAll(wanted);
+                deferred.increment(wanted.size());
+            } else {
+                outgoing.add(new Digest(recipient.getEmail(), wanted, throttle));
+            }
+        }
+
+        deliver(outgoing, outcome);
+        record(batch, outcome, hour.plusHours(1), now);
+        return batch.size();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < threads; i++) {
+            Thread thread = new Thread(this::work, "notification-dispatcher-" + i);
+            thread.setDaemon(true);
+            workers.add(thread);
+            thread.start();
+        }
+    }
+
+    // Claimed batches that are not finished in time are picked up again after their lease
+    @Override
+    public void stop() {
+        running = false;
+        wakeUp();
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        for (Thread worker : workers) {
+            try {
+                worker.join(Math.max(1, (deadline - System.nanoTime()) / 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        workers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Same phase as the audit writer: running before the web server accepts requests
+    // and until it has finished them
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void work() {
+        while (running) {
+            int claimed;
+            try {
+                claimed = dispatchBatch(LocalDateTime.now());
+            } catch (RuntimeException e) {
+                log.error("Notification dispatch failed", e);
+                claimed = 0;
+            }
+            if (claimed == 0 && running) {
+                LockSupport.parkNanos(this, pollInterval.toNanos());
+            }
+        }
+        log.debug("Notification dispatcher stopped");
+    }
+
+    // Sends over one connection; once it breaks, the rest of the batch is retried later
+    private void deliver(List<Digest> outgoing, Outcome outcome) {
+        if (outgoing.isEmpty()) {
+            return;
+        }
+        Transport transport;
+        try {
+            transport = connectionPool.borrow();
+        } catch (MessagingException e) {
+            outgoing.forEach(digest -> outcome.fail(digest, "SMTP connect failed: " + e.getMessage()));
+            return;
+        }
+        boolean healthy = true;
+        try {
+            for (int i = 0; i < outgoing.size(); i++) {
+                Digest digest = outgoing.get(i);
+                try {
+                    MimeMessage message = render(digest);
+                    transport.sendMessage(message, message.getAllRecipients());
+                    digest.notifications().forEach(notification -> outcome.done.add(notification.getId()));
+                    digest.throttle().setSent(digest.throttle().getSent() + 1);
+                    outcome.throttles.add(digest.throttle());
+                    delivered.increment(digest.notifications().size());
+                    digests.increment();
+                } catch (MessagingException e) {
+                    outcome.fail(digest, String.valueOf(e.getMessage()));
+                    if (!transport.isConnected()) {
+                        healthy = false;
+                        outgoing.subList(i + 1, outgoing.size()).forEach(rest -> outcome.fail(rest, "SMTP connection lost"));
+                        break;
+                    }
+                }
+            }
+        } finally {
+            if (healthy) {
+                connectionPool.release(transport);
+            } else {
+                connectionPool.invalidate(transport);
+            }
+        }
+    }
+
+    private MimeMessage render(Digest digest) throws MessagingException {
+        List<OutboxNotification> notifications = digest.notifications();
+        String subject;
+        String text;
+        if (notifications.size() == 1) {
+            subject = notifications.get(0).getSubject();
+            text = notifications.get(0).getBody();
+        } else {
+            subject = notifications.size() + " task updates";
+            StringBuilder body = new StringBuilder();
+            int shown = Math.min(notifications.size(), maxDigestItems);
+            for (int i = 0; i < shown; i++) {
+                if (i > 0) {
+                    body.append("\n\n----------------------------------------\n\n");
+                }
+                body.append(notifications.get(i).getSubject()).append("\n\n").append(notifications.get(i).getBody());
+            }
+            if (shown < notifications.size()) {
+                body.append("\n\n...and ").append(notifications.size() - shown).append(" more.");
+            }
+            text = body.toString();
+        }
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+        helper.setFrom(from);
+        helper.setTo(digest.email());
+        helper.setSubject(subject);
+        helper.setText(text);
+        message.saveChanges();
+        return message;
+    }
+
+    private void record(List<OutboxNotification> batch, Outcome outcome, LocalDateTime nextHour, LocalDateTime now) {
+        List<OutboxNotification> updates = new ArrayList<>();
+        for (OutboxNotification notification : outcome.deferred) {
+            // Held back by the cap, not failed: no attempt is used up
+            notification.setNextAttemptAt(nextHour);
+            notification.setClaimToken(null);
+            notification.setClaimedUntil(null);
+            updates.add(notification);
+        }
+        for (OutboxNotification notification : batch) {
+            String error = outcome.errors.get(notification.getId());
+            if (error == null) {
+                continue;
+            }
+            int attempts = notification.getAttempts() + 1;
+            notification.setAttempts(attempts);
+            notification.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            notification.setClaimToken(null);
+            notification.setClaimedUntil(null);
+            if (attempts >= maxAttempts) {
+                notification.setFailedAt(now);
+                failed.increment();
+                log.warn("Giving up on notification {} to user {} after {} attempts: {}",
+                    notification.getId(), notification.getRecipientId(), attempts, error);
+            } else {
+                notification.setNextAttemptAt(now.plus(backoff(attempts)));
+                retried.increment();
+            }
+            updates.add(notification);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!outcome.done.isEmpty()) {
+                outboxRepository.deleteAllByIdInBatch(outcome.done);
+            }
+            if (!updates.isEmpty()) {
+                outboxRepository.saveAll(updates);
+            }
+            if (!outcome.throttles.isEmpty()) {
+                throttleRepository.saveAll(outcome.throttles);
+            }
+        });
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private record Digest(String email, List<OutboxNotification> notifications, NotificationThrottle throttle) {
+    }
+
+    // What happened to a claimed batch, written back in one transaction
+    private static class Outcome {
+        final List<String> done = new ArrayList<>();
+        final List<OutboxNotification> deferred = new ArrayList<>();
+        final Map<String, String> errors = new HashMap<>();
+        final List<NotificationThrottle> throttles = new ArrayList<>();
+
+        void fail(Digest digest, String error) {
+            digest.notifications().forEach(notification -> errors.put(notification.getId(), error));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.todoapp.notification;
+
+import com.todoapp.domain.event.TaskSnapshot;
+
+import java.util.List;
+
+// Takes notifications for delivery. Callers hand them over inside their own
+// transaction, so a sender that only records them in the database commits or rolls
+// back together with the caller's progress.
+public interface NotificationSender {
+    void sendDueDateReminders(List<DueDateReminder> reminders);
+
+    // Tells the new assignee, and a previous assignee that the task moved on
+    void sendTaskAssigned(TaskSnapshot previous, TaskSnapshot task, String actorId);
+
+    // Tells the assignee and the creator, except whoever made the change
+    void sendStatusChanged(TaskSnapshot previous, TaskSnapshot task, String actorId);
+}
@@ -0,0 +1,170 @@
+package com.todoapp.notification;
+
+import com.todoapp.domain.entity.NotificationPreferences;
+import com.todoapp.domain.entity.OutboxNotification;
+import com.todoapp.domain.enums.NotificationType;
+import com.todoapp.domain.event.TaskSnapshot;
+import com.todoapp.domain.event.TasksOverdueEvent;
+import com.todoapp.repository.NotificationPreferencesRepository;
+import com.todoapp.repository.OutboxNotificationRepository;
+import com.todoapp.repository.TaskReminderTarget;
+import com.todoapp.repository.TaskRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Writes notifications to the outbox in the caller's transaction, rendered from the
+// state at the time of the change; NotificationDispatcher delivers them after commit.
+// Whether a recipient wants a notification is only decided at delivery, so changed
+// preferences apply to whatever is still queued; when it is sent is set here by
+// DigestSchedule.
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxNotificationSender implements NotificationSender {
+    private static final int MAX_SUBJECT_LENGTH = 200;
+    private static final int MAX_BODY_LENGTH = 2000;
+    private static final NotificationPreferences DEFAULTS = NotificationPreferences.defaults();
+
+    private final OutboxNotificationRepository outboxRepository;
+    private final TaskRepository taskRepository;
+    private final NotificationPreferencesRepository notificationPreferencesRepository;
+    private final DigestSchedule digestSchedule;
+    private final NotificationDispatcher dispatcher;
+
+    public OutboxNotificationSender(
+            OutboxNotificationRepository outboxRepository,
+            TaskRepository taskRepository,
+            NotificationPreferencesRepository notificationPreferencesRepository,
+            DigestSchedule digestSchedule,
+            NotificationDispatcher dispatcher) {
+        this.outboxRepository = outboxRepository;
+        this.taskRepository = taskRepository;
+        this.notificationPreferencesRepository = notificationPreferencesRepository;
+        this.digestSchedule = digestSchedule;
+        this.dispatcher = dispatcher;
+    }
+
+    @Override
+    public void sendDueDateReminders(List<DueDateReminder> reminders) {
+        List<OutboxNotification> rows = new ArrayList<>(reminders.size());
+        for (DueDateReminder reminder : reminders) {
+            String days = reminder.daysBefore() == 1 ? "1 day" : reminder.daysBefore() + " days";
+            rows.add(row(NotificationType.DUE_DATE_REMINDER, reminder.recipientId(), reminder.taskId(),
+                "Due in " + days + ": " + reminder.title(),
+                "\"" + reminder.title() + "\" is due on " + reminder.dueDate() + "."));
+        }
+        enqueue(rows);
+    }
+
+    // DueDateScheduler publishes this in the transaction that flagged the tasks
+    @EventListener
+    public void onTasksOverdue(TasksOverdueEvent event) {
+        if (event.taskIds().isEmpty()) {
+            return;
+        }
+        List<TaskReminderTarget> targets = taskRepository.findNotificationTargets(event.taskIds());
+        Set<String> recipientIds = new HashSet<>();
+        targets.forEach(target -> recipientIds.add(target.recipientId()));
+        Map<String, NotificationPreferences> preferences = new HashMap<>();
+        notificationPreferencesRepository.findAllById(recipientIds).forEach(prefs -> preferences.put(prefs.getUserId(), prefs));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxNotification> rows = new ArrayList<>(targets.size());
+        for (TaskReminderTarget target : targets) {
+            NotificationPreferences prefs = preferences.getOrDefault(target.recipientId(), DEFAULTS);
+            OutboxNotification row = row(NotificationType.TASK_OVERDUE, target.recipientId(), target.taskId(),
+                "Overdue: " + target.title(), "\"" + target.title() + "\" was due on " + target.dueDate() + ".");
+            row.setNextAttemptAt(digestSchedule.sendAt(NotificationType.TASK_OVERDUE, prefs, now));
+            rows.add(row);
+        }
+        enqueue(rows);
+    }
+
+    @Override
+    public void sendTaskAssigned(TaskSnapshot previous, TaskSnapshot task, String actorId) {
+        List<OutboxNotification> rows = new ArrayList<>(2);
+        String assigneeId = task.assigneeId();
+        String previousAssigneeId = previous != null ? previous.assigneeId() : null;
+        if (assigneeId != null && !assigneeId.equals(actorId) && !assigneeId.equals(previousAssigneeId)) {
+            rows.add(row(NotificationType.TASK_ASSIGNED, assigneeId, task.id(),
+                "Assigned to you: " + task.title(), describe(task)));
+        }
+        if (previousAssigneeId != null && !previousAssigneeId.equals(actorId) && !previousAssigneeId.equals(assigneeId)) {
+            rows.add(row(NotificationType.TASK_REASSIGNED, previousAssigneeId, task.id(),
+                "Reassigned: " + task.title(), "\"" + task.title() + "\" is no longer assigned to you."));
+        }
+        enqueue(rows);
+    }
+
+    @Override
+    public void sendStatusChanged(TaskSnapshot previous, TaskSnapshot task, String actorId) {
+        Set<String> recipients = new LinkedHashSet<>();
+        for (String userId : new String[] {task.assigneeId(), task.createdById()}) {
+            if (userId != null && !userId.equals(actorId)) {
+                recipients.add(userId);
+            }
+        }
+        List<OutboxNotification> rows = new ArrayList<>(recipients.size());
+        String change = (previous != null ? previous.status() + " -> " : "") + task.status();
+        for (String recipientId : recipients) {
+            rows.add(row(NotificationType.STATUS_CHANGED, recipientId, task.id(),
+                task.title() + ": " + task.status(), "Status changed: " + change + "\n\n" + describe(task)));
+        }
+        enqueue(rows);
+    }
+
+    private void enqueue(List<OutboxNotification> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        outboxRepository.saveAll(rows);
+        // Only matters with a zero digest window; the dispatcher would not see the rows
+        // before the commit anyway
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatcher.wakeUp();
+            }
+        });
+    }
+
+    private OutboxNotification row(NotificationType type, String recipientId, String taskId, String subject, String body) {
+        return OutboxNotification.builder()
+            .type(type)
+            .recipientId(recipientId)
+            .taskId(taskId)
+            .subject(truncate(subject, MAX_SUBJECT_LENGTH))
+            .body(truncate(body, MAX_BODY_LENGTH))
+            .nextAttemptAt(digestSchedule.sendAt(type, DEFAULTS, LocalDateTime.now()))
+            .build();
+    }
+
+    private static String describe(TaskSnapshot task) {
+        StringBuilder text = new StringBuilder(task.title());
+        text.append("\nStatus: ").append(task.status());
+        text.append("\nPriority: ").append(task.priority());
+        if (task.dueDate() != null) {
+            text.append("\nDue: ").append(task.dueDate());
+        }
+        if (task.description() != null) {
+            text.append("\n\n").append(task.description());
+        }
+        return text.toString();
+    }
+
+    private static String truncate(String text, int maxLength) {
+        return text.length() > maxLength ? text.substring(0, maxLength) : text;
+    }
+}
@@ -0,0 +1,95 @@
+package com.todoapp.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+// Open SMTP connections kept between batches, so a batch pays for no TCP or TLS
+// handshake, EHLO or AUTH. At most max-idle connections are kept; an idle one is
+// checked with a NOOP (Transport.isConnected) before reuse, since servers drop idle
+// clients, and one that failed mid-batch is closed instead of returned.
+@Component
+@Slf4j
+public class SmtpConnectionPool implements DisposableBean {
+    private final JavaMailSenderImpl mailSender;
+    private final int maxIdle;
+    private final ConcurrentLinkedDeque<Transport> idle = new ConcurrentLinkedDeque<>();
+    private final Counter opened;
+
+    public SmtpConnectionPool(
+            JavaMailSenderImpl mailSender,
+            MeterRegistry meterRegistry,
+            @Value("${todoapp.notifications.dispatcher.threads:2}") int maxIdle) {
+        this.mailSender = mailSender;
+        this.maxIdle = maxIdle;
+        this.opened = meterRegistry.counter("notifications.smtp.connections.opened");
+    }
+
+    public Transport borrow() throws MessagingException {
+        Transport transport;
+        while ((transport = idle.pollFirst()) != null) {
+            if (transport.isConnected()) {
+                return transport;
+            }
+            close(transport);
+        }
+        return connect();
+    }
+
+    public void release(Transport transport) {
+        if (idle.size() < maxIdle) {
+            idle.offerFirst(transport);
+        } else {
+            close(transport);
+        }
+    }
+
+    public void invalidate(Transport transport) {
+        close(transport);
+    }
+
+    public long connectionsOpened() {
+        return (long) opened.count();
+    }
+
+    @Override
+    public void destroy() {
+        Transport transport;
+        while ((transport = idle.pollFirst()) != null) {
+            close(transport);
+        }
+    }
+
+    // Same settings JavaMailSenderImpl connects with for each send, including its
+    // fallback to plain SMTP when no protocol is configured
+    private Transport connect() throws MessagingException {
+        String username = mailSender.getUsername();
+        String password = mailSender.getPassword();
+        String protocol = mailSender.getProtocol();
+        if (protocol == null) {
+            protocol = JavaMailSenderImpl.DEFAULT_PROTOCOL;
+        }
+        Transport transport = mailSender.getSession().getTransport(protocol);
+        transport.connect(mailSender.getHost(), mailSender.getPort(),
+            username == null || username.isEmpty() ? null : username,
+            password == null || password.isEmpty() ? null : password);
+        opened.increment();
+        return transport;
+    }
+
+    private void close(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            log.debug("Closing SMTP connection failed", e);
+        }
+    }
+}
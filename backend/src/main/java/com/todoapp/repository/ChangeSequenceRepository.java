@@ -0,0 +1,27 @@
+package com.todoapp.repository;
+
+import com.todoapp.domain.entity.ChangeSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ChangeSequenceRepository extends JpaRepository<ChangeSequence, String> {
+    // Holds the row lock until the transaction ends, which orders concurrent writers
+    @Modifying
+    @Query("UPDATE ChangeSequence s SET s.value = s.value + :count WHERE s.id = :id")
+    int advance(@Param("id") String id, @Param("count") long count);
+
+    // Scalars bypass the persistence context, so these see the row as it is now
+    @Query("SELECT s.value FROM ChangeSequence s WHERE s.id = :id")
+    Long findValue(@Param("id") String id);
+
+    @Query("SELECT s.compactedThrough FROM ChangeSequence s WHERE s.id = :id")
+    Long findCompactedThrough(@Param("id") String id);
+
+    @Modifying
+    @Query("UPDATE ChangeSequence s SET s.compactedThrough = :through WHERE s.id = :id AND s.compactedThrough < :through")
+    int raiseCompactedThrough(@Param("id") String id, @Param("through") long through);
+}
@@ -1,12 +1,37 @@
 package com.todoapp.repository;
 
 import com.todoapp.domain.entity.Comment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, String> {
     List<Comment> findByTaskIdOrderByCreatedAtAsc(String taskId);
+    List<Comment> findAllByOrderByTaskIdAscIdAsc(Limit limit);
+    long countByTaskId(String taskId);
+
+    // Newest first, seeking on idx_comments_task_created (task_id, created_at, id)
+    @Query("select c from Comment c join fetch c.author where c.task.id = :taskId " +
+           "order by c.createdAt desc, c.id desc")
+    List<Comment> findNewestByTaskId(@Param("taskId") String taskId, Limit limit);
+
+    // Every comment grouped by task, seeking on idx_comments_task_id (task_id, id)
+    @Query("select c from Comment c where c.task.id > :taskId or (c.task.id = :taskId and c.id > :id) " +
+           "order by c.task.id, c.id")
+    List<Comment> findAllAfter(@Param("taskId") String taskId, @Param("id") String id, Limit limit);
+
+    @Query("select c from Comment c join fetch c.author where c.task.id = :taskId " +
+           "and (c.createdAt < :createdAt or (c.createdAt = :createdAt and c.id < :id)) " +
+           "order by c.createdAt desc, c.id desc")
+    List<Comment> findOlderByTaskId(
+        @Param("taskId") String taskId,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") String id,
+        Limit limit);
 }
@@ -2,11 +2,22 @@ package com.todoapp.repository;
 
 import com.todoapp.domain.entity.NotificationPreferences;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface NotificationPreferencesRepository extends JpaRepository<NotificationPreferences, String> {
     Optional<NotificationPreferences> findByUserId(String userId);
+
+    // One query for a whole chunk of recipients, reminder days included
+    @Query("select distinct p from NotificationPreferences p left join fetch p.reminderDaysBefore where p.userId in :userIds")
+    List<NotificationPreferences> findAllWithReminderDays(@Param("userIds") Collection<String> userIds);
+
+    @Query("select distinct d from NotificationPreferences p join p.reminderDaysBefore d where p.dueDateReminder = true")
+    List<Integer> findReminderDays();
 }
@@ -0,0 +1,9 @@
+package com.todoapp.repository;
+
+import com.todoapp.domain.entity.NotificationThrottle;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationThrottleRepository extends JpaRepository<NotificationThrottle, String> {
+}
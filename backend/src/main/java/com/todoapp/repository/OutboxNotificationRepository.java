@@ -0,0 +1,40 @@
+package com.todoapp.repository;
+
+import com.todoapp.domain.entity.OutboxNotification;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxNotificationRepository extends JpaRepository<OutboxNotification, String> {
+
+    // Recipients with a due row that is unclaimed (or whose lease expired)
+    @Query("select distinct n.recipientId from OutboxNotification n where n.failedAt is null and n.nextAttemptAt <= :now "
+        + "and (n.claimedUntil is null or n.claimedUntil < :now)")
+    List<String> findClaimableRecipients(@Param("now") LocalDateTime now, Limit limit);
+
+    // Takes every row of these recipients due before the horizon, so rows queued shortly
+    // after the first one go out in the same digest. Rows another dispatcher claimed since
+    // they were read are left alone.
+    @Modifying
+    @Query("update OutboxNotification n set n.claimToken = :token, n.claimedUntil = :until "
+        + "where n.recipientId in :recipientIds and n.failedAt is null and n.nextAttemptAt <= :horizon "
+        + "and (n.claimedUntil is null or n.claimedUntil < :now)")
+    int claim(
+        @Param("recipientIds") Collection<String> recipientIds,
+        @Param("token") String token,
+        @Param("until") LocalDateTime until,
+        @Param("horizon") LocalDateTime horizon,
+        @Param("now") LocalDateTime now);
+
+    List<OutboxNotification> findByClaimTokenOrderByCreatedAt(String claimToken);
+
+    long countByFailedAtIsNull();
+}
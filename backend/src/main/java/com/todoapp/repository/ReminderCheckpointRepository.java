@@ -0,0 +1,9 @@
+package com.todoapp.repository;
+
+import com.todoapp.domain.entity.ReminderCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReminderCheckpointRepository extends JpaRepository<ReminderCheckpoint, String> {
+}
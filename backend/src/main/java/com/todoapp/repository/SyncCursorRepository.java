@@ -0,0 +1,20 @@
+package com.todoapp.repository;
+
+import com.todoapp.domain.entity.SyncCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SyncCursorRepository extends JpaRepository<SyncCursor, String> {
+    @Modifying
+    @Query("DELETE FROM SyncCursor c WHERE c.lastSeenAt < :cutoff")
+    int deleteSeenBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Query("SELECT MIN(c.position) FROM SyncCursor c")
+    Long findMinPosition();
+}
@@ -0,0 +1,46 @@
+package com.todoapp.repository;
+
+import com.todoapp.domain.entity.Task;
+import com.todoapp.exception.BadRequestException;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque position in a keyset-ordered task list: the (sortKey, id) pair of the
+// last row a client has seen, plus the ordering it was produced under.
+public record TaskCursor(TaskSortKey sortKey, Sort.Direction direction, String id, Object value) {
+
+    public static TaskCursor after(Task task, TaskSortKey sortKey, Sort.Direction direction) {
+        return new TaskCursor(sortKey, direction, task.getId(), sortKey.valueOf(task));
+    }
+
+    public String encode() {
+        StringBuilder raw = new StringBuilder()
+            .append(sortKey.name()).append('|')
+            .append(direction.name()).append('|')
+            .append(id);
+        if (value != null) {
+            raw.append('|').append(value instanceof Enum<?> e ? e.name() : value.toString());
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length < 3) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            TaskSortKey sortKey = TaskSortKey.valueOf(parts[0]);
+            Sort.Direction direction = Sort.Direction.valueOf(parts[1]);
+            Object value = parts.length == 4 ? sortKey.parse(parts[3]) : null;
+            return new TaskCursor(sortKey, direction, parts[2], value);
+        } catch (BadRequestException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
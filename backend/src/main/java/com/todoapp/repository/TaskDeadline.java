@@ -0,0 +1,6 @@
+package com.todoapp.repository;
+
+import java.time.LocalDateTime;
+
+public record TaskDeadline(String taskId, LocalDateTime dueDate) {
+}
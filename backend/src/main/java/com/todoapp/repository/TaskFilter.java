@@ -0,0 +1,22 @@
+package com.todoapp.repository;
+
+import com.todoapp.domain.enums.TaskPriority;
+import com.todoapp.domain.enums.TaskStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Collection;
+
+@Getter
+@Builder(toBuilder = true)
+public class TaskFilter {
+    private final TaskStatus status;
+    private final TaskPriority priority;
+    private final String assigneeId;
+    private final String createdById;
+    private final Boolean overdue;
+    // Lower-cased tag names; a task matches if it carries any of them
+    private final Collection<String> tags;
+    // Restricts results to these ids when non-null (e.g. search hits)
+    private final Collection<String> taskIds;
+}
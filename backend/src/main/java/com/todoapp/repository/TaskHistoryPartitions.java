@@ -0,0 +1,121 @@
+package com.todoapp.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Routes task history to one table per calendar month, task_history_YYYYMM, each with
+// the same (task_id, performed_at, id) index. Writes only ever touch the current
+// month's table, and time-bounded reads only touch the months they overlap, so both
+// stay flat as old months pile up. Upcoming months are created ahead of time (see
+// TaskHistoryRepository.createPartition) so writes inside a transaction do not
+// normally run DDL.
+@Slf4j
+class TaskHistoryPartitions {
+    private static final Pattern PARTITION_NAME = Pattern.compile("(?i)task_history_(\\d{4})(\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate ddlTransaction;
+    private final NavigableSet<YearMonth> months = new ConcurrentSkipListSet<>();
+    private volatile boolean discovered;
+
+    TaskHistoryPartitions(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        // DDL commits implicitly on most databases, so it must not run on a caller's connection
+        this.ddlTransaction = new TransactionTemplate(transactionManager);
+        ddlTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    static String tableName(YearMonth month) {
+        return String.format("task_history_%04d%02d", month.getYear(), month.getMonthValue());
+    }
+
+    // Table for rows performed at the given time, created if this is its month's first row
+    String tableFor(LocalDateTime performedAt) {
+        return tableFor(YearMonth.from(performedAt));
+    }
+
+    String tableFor(YearMonth month) {
+        discover();
+        if (!months.contains(month)) {
+            create(month);
+        }
+        return tableName(month);
+    }
+
+    // Existing month tables overlapping [from, to), newest first; null bounds are open
+    List<YearMonth> monthsBetween(LocalDateTime from, LocalDateTime to) {
+        discover();
+        if (months.isEmpty()) {
+            return List.of();
+        }
+        YearMonth first = from != null ? YearMonth.from(from) : months.first();
+        YearMonth last = to != null ? YearMonth.from(to.minusNanos(1)) : months.last();
+        if (first.isAfter(last)) {
+            return List.of();
+        }
+        return new ArrayList<>(months.subSet(first, true, last, true).descendingSet());
+    }
+
+
+    private void discover() {
+        if (discovered) {
+            return;
+        }
+        synchronized (this) {
+            if (discovered) {
+                return;
+            }
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                try (ResultSet tables = connection.getMetaData().getTables(null, null, null, new String[] {"TABLE"})) {
+                    while (tables.next()) {
+                        Matcher matcher = PARTITION_NAME.matcher(tables.getString("TABLE_NAME"));
+                        if (matcher.matches()) {
+                            months.add(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+                        }
+                    }
+                }
+                return null;
+            });
+            discovered = true;
+            log.debug("Found {} task history partitions", months.size());
+        }
+    }
+
+    private synchronized void create(YearMonth month) {
+        if (months.contains(month)) {
+            return;
+        }
+        String table = tableName(month);
+        ddlTransaction.executeWithoutResult(status -> createTable(table));
+        months.add(month);
+        log.info("Created task history partition {}", table);
+    }
+
+    private void createTable(String table) {
+        jdbcTemplate.execute("create table if not exists " + table + " ("
+            + "id varchar(255) not null primary key, "
+            + "task_id varchar(255) not null, "
+            + "action varchar(32) not null, "
+            + "field varchar(100), "
+            + "old_value varchar(500), "
+            + "new_value varchar(500), "
+            + "performed_by_id varchar(255) not null, "
+            + "performed_at timestamp(6) not null)");
+        jdbcTemplate.execute("create index if not exists idx_" + table + "_task_performed on " + table
+            + " (task_id, performed_at, id)");
+    }
+}
@@ -1,12 +1,14 @@
 package com.todoapp.repository;
 
 import com.todoapp.domain.entity.TaskHistory;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.RepositoryDefinition;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
-
+// History lives in monthly partition tables, so only the partition-aware methods of
+// TaskHistoryRepositoryCustom are exposed. The entity's own task_history table holds
+// rows from before partitioning until migrateUnpartitioned moves them; inherited CRUD
+// would read and write that table and bypass the partitions.
 @Repository
-public interface TaskHistoryRepository extends JpaRepository<TaskHistory, String> {
-    List<TaskHistory> findByTaskIdOrderByPerformedAtDesc(String taskId);
+@RepositoryDefinition(domainClass = TaskHistory.class, idClass = String.class)
+public interface TaskHistoryRepository extends TaskHistoryRepositoryCustom {
 }
@@ -0,0 +1,22 @@
+package com.todoapp.repository;
+
+import com.todoapp.domain.entity.TaskHistory;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+
+public interface TaskHistoryRepositoryCustom {
+    // Newest first within [from, to), strictly older than after when given; null bounds are
+    // open. Only the month partitions overlapping the range are queried.
+    List<TaskHistory> findTimeline(String taskId, LocalDateTime from, LocalDateTime to, TimelineCursor after, int limit);
+    long countByTaskId(String taskId);
+    void appendAll(List<TaskHistory> entries);
+    // Existing partitions, newest first
+    List<YearMonth> findPartitions();
+    void createPartition(YearMonth month);
+    int migrateUnpartitioned();
+    // Folds a month's rows into one COMPACTED row per task; returns the affected task ids
+    Set<String> compactPartition(YearMonth month);
+}
@@ -0,0 +1,319 @@
+package com.todoapp.repository;
+
+import com.todoapp.domain.entity.TaskHistory;
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.HistoryAction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Slf4j
+public class TaskHistoryRepositoryCustomImpl implements TaskHistoryRepositoryCustom {
+    private static final String COLUMNS = "id, task_id, action, field, old_value, new_value, performed_by_id, performed_at";
+    private static final String UNPARTITIONED_TABLE = "task_history";
+    private static final int MAX_VALUE_LENGTH = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskHistoryPartitions partitions;
+    private final TransactionTemplate compactionTransaction;
+    private final int batchSize;
+    private final int compactionRangeSize;
+
+    public TaskHistoryRepositoryCustomImpl(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${todoapp.batch.jdbc-batch-size:50}") int batchSize,
+            @Value("${todoapp.history.compaction-range-size:500}") int compactionRangeSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitions = new TaskHistoryPartitions(jdbcTemplate, transactionManager);
+        this.compactionTransaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.compactionRangeSize = compactionRangeSize;
+    }
+
+    // Walks the overlapping months newest first and stops as soon as the page is full,
+    // so recent history costs one index seek however many months exist. Without a lower
+    // bound the walk stops at the month the task was created, as countByTaskId does.
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskHistory> findTimeline(String taskId, LocalDateTime from, LocalDateTime to, TimelineCursor after, int limit) {
+        // Rows sharing the cursor's timestamp are still included, so its month is too
+        LocalDateTime upper = to;
+        if (after != null && (to == null || after.at().isBefore(to))) {
+            upper = after.at().plusNanos(1);
+        }
+        List<TaskHistory> rows = new ArrayList<>(limit);
+        for (YearMonth month : partitions.monthsBetween(from != null ? from : createdAt(taskId), upper)) {
+            StringBuilder sql = new StringBuilder("select ").append(COLUMNS)
+                .append(" from ").append(TaskHistoryPartitions.tableName(month))
+                .append(" where task_id = :taskId");
+            if (from != null) {
+                sql.append(" and performed_at >= :from");
+            }
+            if (to != null) {
+                sql.append(" and performed_at < :to");
+            }
+            if (after != null) {
+                sql.append(" and (performed_at < :at or (performed_at = :at and id < :id))");
+            }
+            sql.append(" order by performed_at desc, id desc");
+
+            Query query = entityManager.createNativeQuery(sql.toString(), TaskHistory.class)
+                .setParameter("taskId", taskId)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setMaxResults(limit - rows.size());
+            if (from != null) {
+                query.setParameter("from", from);
+            }
+            if (to != null) {
+                query.setParameter("to", to);
+            }
+            if (after != null) {
+                query.setParameter("at", after.at());
+                query.setParameter("id", after.id());
+            }
+            @SuppressWarnings("unchecked")
+            List<TaskHistory> monthRows = query.getResultList();
+            rows.addAll(monthRows);
+            if (rows.size() == limit) {
+                break;
+            }
+        }
+        initializePerformers(rows);
+        return rows;
+    }
+
+    // History never predates its task, so months before the task was created are
+    // skipped; a task that no longer exists is counted across every month
+    @Override
+    @Transactional(readOnly = true)
+    public long countByTaskId(String taskId) {
+        List<YearMonth> months = partitions.monthsBetween(createdAt(taskId), null);
+        if (months.isEmpty()) {
+            return 0;
+        }
+        String counts = months.stream()
+            .map(month -> "select count(*) c from " + TaskHistoryPartitions.tableName(month) + " where task_id = ?")
+            .collect(Collectors.joining(" union all "));
+        Long total = jdbcTemplate.queryForObject("select sum(c) from (" + counts + ") counts", Long.class,
+            months.stream().map(month -> taskId).toArray());
+        return total != null ? total : 0;
+    }
+
+    @Override
+    @Transactional
+    public void appendAll(List<TaskHistory> entries) {
+        Map<String, List<TaskHistory>> byTable = new LinkedHashMap<>();
+        for (TaskHistory entry : entries) {
+            if (entry.getId() == null) {
+                entry.setId(UUID.randomUUID().toString());
+            }
+            if (entry.getPerformedAt() == null) {
+                entry.setPerformedAt(LocalDateTime.now());
+            }
+            byTable.computeIfAbsent(partitions.tableFor(entry.getPerformedAt()), table -> new ArrayList<>()).add(entry);
+        }
+        byTable.forEach(this::insert);
+    }
+
+    @Override
+    public List<YearMonth> findPartitions() {
+        return partitions.monthsBetween(null, null);
+    }
+
+    @Override
+    public void createPartition(YearMonth month) {
+        partitions.tableFor(month);
+    }
+
+    // Rows written by versions before partitioning are moved into their month tables
+    @Override
+    @Transactional
+    public int migrateUnpartitioned() {
+        List<YearMonth> months = jdbcTemplate.query(
+            "select distinct year(performed_at), month(performed_at) from " + UNPARTITIONED_TABLE,
+            (rs, row) -> YearMonth.of(rs.getInt(1), rs.getInt(2)));
+        int moved = 0;
+        for (YearMonth month : months) {
+            Timestamp from = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+            Timestamp to = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+            moved += jdbcTemplate.update("insert into " + partitions.tableFor(month) + " (" + COLUMNS + ") select " + COLUMNS
+                + " from " + UNPARTITIONED_TABLE + " where performed_at >= ? and performed_at < ?", from, to);
+            jdbcTemplate.update("delete from " + UNPARTITIONED_TABLE + " where performed_at >= ? and performed_at < ?", from, to);
+        }
+        return moved;
+    }
+
+    // Works through the month in ranges of compaction-range-size task ids, one transaction
+    // each, so memory and locks are bounded by a range however large the month is. Rows
+    // are read in task order, so only one task's summary is open at a time. Only the rows
+    // that were read are deleted, so rows written to the month meanwhile stay.
+    @Override
+    public Set<String> compactPartition(YearMonth month) {
+        if (!partitions.monthsBetween(null, null).contains(month)) {
+            return Set.of();
+        }
+        String table = TaskHistoryPartitions.tableName(month);
+        Set<String> taskIds = new HashSet<>();
+        int removed = 0;
+        String after = "";
+        while (after != null) {
+            String lower = after;
+            CompactedRange range = compactionTransaction.execute(status -> compactRange(table, lower));
+            if (range == null) {
+                break;
+            }
+            removed += range.removed();
+            taskIds.addAll(range.taskIds());
+            after = range.taskIds().size() == compactionRangeSize ? range.taskIds().get(range.taskIds().size() - 1) : null;
+        }
+        if (!taskIds.isEmpty()) {
+            log.info("Compacted {} history rows in {} into {} summaries", removed, table, taskIds.size());
+        }
+        return taskIds;
+    }
+
+    // The next range of tasks after the given id that still has uncompacted rows, or
+    // null when there is none
+    private CompactedRange compactRange(String table, String after) {
+        String uncompacted = " where action <> '" + HistoryAction.COMPACTED.name() + "' and task_id > ?";
+        List<String> rangeIds = jdbcTemplate.queryForList("select distinct task_id from " + table + uncompacted
+            + " order by task_id fetch first ? rows only", String.class, after, compactionRangeSize);
+        if (rangeIds.isEmpty()) {
+            return null;
+        }
+        String last = rangeIds.get(rangeIds.size() - 1);
+        List<TaskHistory> summaries = new ArrayList<>(rangeIds.size());
+        List<String> compacted = new ArrayList<>();
+        Summary[] open = new Summary[1];
+        jdbcTemplate.query("select task_id, action, field, performed_by_id, performed_at, id from " + table
+            + uncompacted + " and task_id <= ? order by task_id, performed_at, id", rs -> {
+                compacted.add(rs.getString(6));
+                String taskId = rs.getString(1);
+                if (open[0] == null || !open[0].taskId.equals(taskId)) {
+                    if (open[0] != null) {
+                        summaries.add(open[0].toEntry());
+                    }
+                    open[0] = new Summary(taskId);
+                }
+                String field = rs.getString(3);
+                open[0].add(field != null ? field : rs.getString(2).toLowerCase(), rs.getString(4),
+                    rs.getTimestamp(5).toLocalDateTime());
+            }, after, last);
+        if (open[0] != null) {
+            summaries.add(open[0].toEntry());
+        }
+
+        int removed = 0;
+        for (int from = 0; from < compacted.size(); from += batchSize) {
+            List<String> chunk = compacted.subList(from, Math.min(from + batchSize, compacted.size()));
+            removed += jdbcTemplate.update("delete from " + table + " where id in ("
+                + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")", chunk.toArray());
+        }
+        insert(table, summaries);
+        return new CompactedRange(rangeIds, removed);
+    }
+
+    // Null when the task no longer exists
+    private LocalDateTime createdAt(String taskId) {
+        Timestamp createdAt = jdbcTemplate.queryForObject("select min(created_at) from tasks where id = ?", Timestamp.class, taskId);
+        return createdAt != null ? createdAt.toLocalDateTime() : null;
+    }
+
+    private void insert(String table, List<TaskHistory> entries) {
+        jdbcTemplate.batchUpdate("insert into " + table + " (" + COLUMNS + ") values (?, ?, ?, ?, ?, ?, ?, ?)",
+            entries, batchSize, (statement, entry) -> {
+                statement.setString(1, entry.getId());
+                statement.setString(2, entry.getTaskId());
+                statement.setString(3, entry.getAction().name());
+                statement.setString(4, entry.getField());
+                statement.setString(5, entry.getOldValue());
+                statement.setString(6, entry.getNewValue());
+                statement.setString(7, entry.getPerformedBy().getId());
+                statement.setObject(8, entry.getPerformedAt());
+            });
+    }
+
+    // One IN query for every performer on the page, then the proxies resolve from the
+    // persistence context so mapping the rows issues no further selects
+    private void initializePerformers(List<TaskHistory> rows) {
+        Set<String> userIds = new HashSet<>();
+        for (TaskHistory row : rows) {
+            userIds.add(row.getPerformedBy().getId());
+        }
+        if (userIds.isEmpty()) {
+            return;
+        }
+        entityManager.createQuery("select u from User u where u.id in :ids", User.class)
+            .setParameter("ids", userIds)
+            .getResultList();
+        rows.forEach(row -> Hibernate.initialize(row.getPerformedBy()));
+    }
+
+    private record CompactedRange(List<String> taskIds, int removed) {
+    }
+
+    private static final class Summary {
+        private final String taskId;
+        private final Map<String, Integer> changes = new TreeMap<>();
+        private int total;
+        private LocalDateTime first;
+        private LocalDateTime last;
+        private String lastPerformerId;
+
+        Summary(String taskId) {
+            this.taskId = taskId;
+        }
+
+        void add(String change, String performerId, LocalDateTime at) {
+            changes.merge(change, 1, Integer::sum);
+            total++;
+            if (first == null) {
+                first = at;
+            }
+            last = at;
+            lastPerformerId = performerId;
+        }
+
+        // oldValue is when the summarized period starts; newValue counts the changes per field
+        TaskHistory toEntry() {
+            String description = total + " changes: " + changes.entrySet().stream()
+                .map(entry -> entry.getKey() + " " + entry.getValue())
+                .collect(Collectors.joining(", "));
+            return TaskHistory.builder()
+                .id(UUID.randomUUID().toString())
+                .taskId(taskId)
+                .action(HistoryAction.COMPACTED)
+                .oldValue(first.toString())
+                .newValue(description.length() > MAX_VALUE_LENGTH ? description.substring(0, MAX_VALUE_LENGTH) : description)
+                .performedBy(User.builder().id(lastPerformerId).build())
+                .performedAt(last)
+                .build();
+        }
+    }
+}
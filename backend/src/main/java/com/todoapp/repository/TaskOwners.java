@@ -0,0 +1,5 @@
+package com.todoapp.repository;
+
+// The users a task belongs to, for deciding who may see it without loading it
+public record TaskOwners(String taskId, String assigneeId, String createdById) {
+}
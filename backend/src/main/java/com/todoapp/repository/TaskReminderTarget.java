@@ -0,0 +1,8 @@
+package com.todoapp.repository;
+
+import java.time.LocalDateTime;
+
+// An open task with a due date and who is reminded of it: the assignee, or the
+// creator while the task is unassigned
+public record TaskReminderTarget(String taskId, String title, LocalDateTime dueDate, String recipientId) {
+}
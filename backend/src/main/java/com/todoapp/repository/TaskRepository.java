@@ -3,41 +3,103 @@ package com.todoapp.repository;
 import com.todoapp.domain.entity.Task;
 import com.todoapp.domain.enums.TaskPriority;
 import com.todoapp.domain.enums.TaskStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, String> {
+public interface TaskRepository extends JpaRepository<Task, String>, JpaSpecificationExecutor<Task>, TaskRepositoryCustom {
     Page<Task> findByStatus(TaskStatus status, Pageable pageable);
     Page<Task> findByPriority(TaskPriority priority, Pageable pageable);
     Page<Task> findByAssigneeId(String assigneeId, Pageable pageable);
     Page<Task> findByCreatedById(String createdById, Pageable pageable);
+
+    // List read path: to-one associations are fetch-joined, tags are batch-loaded (see Task.tags)
+    @Override
+    @EntityGraph(attributePaths = {"assignee", "createdBy"})
+    Page<Task> findAll(Specification<Task> spec, Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"assignee", "createdBy"})
+    List<Task> findAll(Specification<Task> spec);
+
+    @Override
+    @EntityGraph(attributePaths = {"assignee", "createdBy"})
+    List<Task> findAllById(Iterable<String> ids);
+
+    // For todoapp.tasks.locking.mode=PESSIMISTIC: SELECT ... FOR UPDATE, held until commit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Task t WHERE t.id = :id")
+    Optional<Task> findByIdForUpdate(@Param("id") String id);
+
+    // Delta sync: tasks changed after the given sequence, seeking on idx_tasks_change_seq
+    @EntityGraph(attributePaths = {"assignee", "createdBy"})
+    List<Task> findByChangeSeqGreaterThanOrderByChangeSeq(Long since, Limit limit);
     
-    @Query("SELECT t FROM Task t WHERE t.dueDate < :now AND t.status != 'COMPLETED' AND t.status != 'CANCELLED'")
-    List<Task> findOverdueTasks(@Param("now") LocalDateTime now);
-    
-    @Query("SELECT t FROM Task t WHERE t.dueDate BETWEEN :now AND :future AND t.status != 'COMPLETED' AND t.status != 'CANCELLED'")
-    List<Task> findUpcomingTasks(@Param("now") LocalDateTime now, @Param("future") LocalDateTime future);
+    // Overdue maintenance for DueDateScheduler. Bulk updates bypass the persistence
+    // context, so updatedAt is left alone: passing a deadline is not an edit. The version
+    // still moves, so a write or If-Match based on the previous overdue flag is rejected.
+    @Modifying
+    @Query("UPDATE Task t SET t.overdue = true, t.version = t.version + 1 WHERE t.id IN :ids AND t.overdue = false AND t.dueDate < :now AND t.status != 'COMPLETED' AND t.status != 'CANCELLED'")
+    int markOverdue(@Param("ids") Collection<String> ids, @Param("now") LocalDateTime now);
+
+    @Query("SELECT t.id FROM Task t WHERE t.id IN :ids AND t.overdue = true")
+    List<String> findOverdueIds(@Param("ids") Collection<String> ids);
+
+    // Who hears about these tasks being overdue: the assignee, or the creator while unassigned
+    @Query("SELECT new com.todoapp.repository.TaskReminderTarget(t.id, t.title, t.dueDate, COALESCE(a.id, c.id))"
+        + " FROM Task t LEFT JOIN t.assignee a JOIN t.createdBy c WHERE t.id IN :ids")
+    List<TaskReminderTarget> findNotificationTargets(@Param("ids") Collection<String> ids);
+
+    @Query("SELECT new com.todoapp.repository.TaskOwners(t.id, a.id, c.id)"
+        + " FROM Task t LEFT JOIN t.assignee a JOIN t.createdBy c WHERE t.id IN :ids")
+    List<TaskOwners> findOwners(@Param("ids") Collection<String> ids);
+
+    // Flags left wrong while no scheduler was running, read at startup and then
+    // corrected in batches through markOverdue and clearStaleOverdue
+    @Query("SELECT t.id FROM Task t WHERE t.overdue = false AND t.dueDate < :now AND t.status != 'COMPLETED' AND t.status != 'CANCELLED'")
+    List<String> findPastDueIds(@Param("now") LocalDateTime now);
+
+    @Query("SELECT t.id FROM Task t WHERE t.overdue = true AND (t.dueDate IS NULL OR t.dueDate >= :now OR t.status = 'COMPLETED' OR t.status = 'CANCELLED')")
+    List<String> findStaleOverdueIds(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.overdue = false, t.version = t.version + 1 WHERE t.id IN :ids AND t.overdue = true AND (t.dueDate IS NULL OR t.dueDate >= :now OR t.status = 'COMPLETED' OR t.status = 'CANCELLED')")
+    int clearStaleOverdue(@Param("ids") Collection<String> ids, @Param("now") LocalDateTime now);
+
+    // Deadlines of open, not yet overdue tasks strictly after the given one in (dueDate, id) order
+    @Query("SELECT new com.todoapp.repository.TaskDeadline(t.id, t.dueDate) FROM Task t WHERE t.overdue = false"
+        + " AND t.status != 'COMPLETED' AND t.status != 'CANCELLED'"
+        + " AND (t.dueDate > :dueDate OR (t.dueDate = :dueDate AND t.id > :taskId))"
+        + " ORDER BY t.dueDate, t.id")
+    List<TaskDeadline> findDeadlinesAfter(@Param("dueDate") LocalDateTime dueDate, @Param("taskId") String taskId, Limit limit);
     
-    @Query("SELECT t FROM Task t WHERE " +
-           "(:status IS NULL OR t.status = :status) AND " +
-           "(:priority IS NULL OR t.priority = :priority) AND " +
-           "(:assigneeId IS NULL OR t.assignee.id = :assigneeId) AND " +
-           "(:createdById IS NULL OR t.createdBy.id = :createdById) AND " +
-           "(:overdue IS NULL OR t.overdue = :overdue)")
-    Page<Task> findByFilters(
-        @Param("status") TaskStatus status,
-        @Param("priority") TaskPriority priority,
-        @Param("assigneeId") String assigneeId,
-        @Param("createdById") String createdById,
-        @Param("overdue") Boolean overdue,
-        Pageable pageable
-    );
+    // Open tasks due after now and before until, strictly after the given (dueDate, id)
+    // in that order; seeks on idx_tasks_due_date (due_date, id)
+    @Query("SELECT new com.todoapp.repository.TaskReminderTarget(t.id, t.title, t.dueDate, COALESCE(a.id, c.id))"
+        + " FROM Task t LEFT JOIN t.assignee a JOIN t.createdBy c"
+        + " WHERE t.status != 'COMPLETED' AND t.status != 'CANCELLED' AND t.dueDate > :now AND t.dueDate < :until"
+        + " AND (t.dueDate > :dueDate OR (t.dueDate = :dueDate AND t.id > :taskId))"
+        + " ORDER BY t.dueDate, t.id")
+    List<TaskReminderTarget> findReminderTargets(
+        @Param("dueDate") LocalDateTime dueDate,
+        @Param("taskId") String taskId,
+        @Param("until") LocalDateTime until,
+        @Param("now") LocalDateTime now,
+        Limit limit);
 }
@@ -0,0 +1,16 @@
+package com.todoapp.repository;
+
+import com.todoapp.domain.entity.Task;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface TaskRepositoryCustom {
+    List<Task> findAfter(TaskFilter filter, TaskCursor cursor, int limit);
+    Page<Task> findPage(TaskFilter filter, TaskSortKey sortKey, Sort.Direction direction, Pageable pageable);
+    long countByFilter(TaskFilter filter);
+    void scrollByFilter(TaskFilter filter, int chunkSize, Consumer<List<Task>> chunkConsumer);
+}
@@ -0,0 +1,146 @@
+package com.todoapp.repository;
+
+import com.todoapp.domain.entity.Task;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Seek query: rows strictly after the cursor in (sortKey, id) order
+    @Override
+    public List<Task> findAfter(TaskFilter filter, TaskCursor cursor, int limit) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<Task> query = cb.createQuery(Task.class);
+        Root<Task> task = query.from(Task.class);
+        task.fetch("assignee", JoinType.LEFT);
+        task.fetch("createdBy", JoinType.LEFT);
+
+        List<Predicate> predicates = TaskSpecifications.predicates(filter, task, query, cb);
+        if (cursor.id() != null) {
+            predicates.add(seekPredicate(cursor, cb, task));
+        }
+
+        query.select(task)
+            .where(predicates.toArray(new Predicate[0]))
+            .orderBy(keysetOrder(cursor.sortKey(), cursor.direction(), cb, task));
+
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    // Offset page in findAfter's order, so a cursor built from its last row continues
+    // it exactly. Spring Data's Sort cannot express the null placement for criteria queries.
+    @Override
+    public Page<Task> findPage(TaskFilter filter, TaskSortKey sortKey, Sort.Direction direction, Pageable pageable) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<Task> query = cb.createQuery(Task.class);
+        Root<Task> task = query.from(Task.class);
+        task.fetch("assignee", JoinType.LEFT);
+        task.fetch("createdBy", JoinType.LEFT);
+        query.select(task)
+            .where(TaskSpecifications.predicates(filter, task, query, cb).toArray(new Predicate[0]))
+            .orderBy(keysetOrder(sortKey, direction, cb, task));
+
+        List<Task> rows = entityManager.createQuery(query)
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize())
+            .getResultList();
+        return PageableExecutionUtils.getPage(rows, pageable, () -> countByFilter(filter));
+    }
+
+    @Override
+    public long countByFilter(TaskFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Task> task = query.from(Task.class);
+        query.select(cb.count(task)).where(TaskSpecifications.predicates(filter, task, query, cb).toArray(new Predicate[0]));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    // Forward-only scroll for bulk reads. Rows are handed over in chunks so lazy tags
+    // batch-load per chunk, and the persistence context is cleared after each chunk
+    // to keep memory flat regardless of result size.
+    @Override
+    public void scrollByFilter(TaskFilter filter, int chunkSize, Consumer<List<Task>> chunkConsumer) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Task> query = cb.createQuery(Task.class);
+        Root<Task> task = query.from(Task.class);
+        task.fetch("assignee", JoinType.LEFT);
+        task.fetch("createdBy", JoinType.LEFT);
+        query.select(task).where(TaskSpecifications.predicates(filter, task, query, cb).toArray(new Predicate[0]));
+
+        try (Stream<Task> rows = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, chunkSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            List<Task> chunk = new ArrayList<>(chunkSize);
+            Iterator<Task> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize) {
+                    chunkConsumer.accept(chunk);
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                chunkConsumer.accept(chunk);
+                entityManager.clear();
+            }
+        }
+    }
+
+    // Nulls always sort last so the seek predicate stays a plain range scan on the sort column
+    private static List<Order> keysetOrder(TaskSortKey sortKey, Sort.Direction direction, HibernateCriteriaBuilder cb, Root<Task> task) {
+        Path<Object> sortPath = task.get(sortKey.getProperty());
+        Path<Object> idPath = task.get("id");
+        boolean ascending = direction.isAscending();
+        return List.of(
+            ascending ? cb.asc(sortPath, false) : cb.desc(sortPath, false),
+            ascending ? cb.asc(idPath) : cb.desc(idPath));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate seekPredicate(TaskCursor cursor, CriteriaBuilder cb, Root<Task> task) {
+        Path sortPath = task.get(cursor.sortKey().getProperty());
+        Path idPath = task.get("id");
+        boolean ascending = cursor.direction() == Sort.Direction.ASC;
+        Predicate idAfter = ascending ? cb.greaterThan(idPath, cursor.id()) : cb.lessThan(idPath, cursor.id());
+
+        if (cursor.value() == null) {
+            // Already inside the trailing block of null sort values
+            return cb.and(cb.isNull(sortPath), idAfter);
+        }
+
+        Comparable value = (Comparable) cursor.value();
+        Predicate valueAfter = ascending ? cb.greaterThan(sortPath, value) : cb.lessThan(sortPath, value);
+        Predicate sameValue = cb.and(cb.equal(sortPath, value), idAfter);
+        if (cursor.sortKey().isNullable()) {
+            return cb.or(valueAfter, sameValue, cb.isNull(sortPath));
+        }
+        return cb.or(valueAfter, sameValue);
+    }
+}
@@ -0,0 +1,63 @@
+package com.todoapp.repository;
+
+import com.todoapp.domain.entity.Task;
+import com.todoapp.domain.enums.TaskPriority;
+import com.todoapp.domain.enums.TaskStatus;
+import com.todoapp.exception.BadRequestException;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Function;
+
+// Columns that can drive keyset pagination. Each key knows how to read its value
+// from a task and how to restore it from the string stored in a cursor.
+public enum TaskSortKey {
+    DUE_DATE("dueDate", true, Task::getDueDate, LocalDateTime::parse),
+    CREATED_AT("createdAt", false, Task::getCreatedAt, LocalDateTime::parse),
+    UPDATED_AT("updatedAt", false, Task::getUpdatedAt, LocalDateTime::parse),
+    TITLE("title", false, Task::getTitle, value -> value),
+    PRIORITY("priority", false, Task::getPriority, TaskPriority::valueOf),
+    STATUS("status", false, Task::getStatus, TaskStatus::valueOf);
+
+    private final String property;
+    private final boolean nullable;
+    private final Function<Task, Object> extractor;
+    private final Function<String, Object> parser;
+
+    TaskSortKey(String property, boolean nullable, Function<Task, Object> extractor, Function<String, Object> parser) {
+        this.property = property;
+        this.nullable = nullable;
+        this.extractor = extractor;
+        this.parser = parser;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    public Object valueOf(Task task) {
+        return extractor.apply(task);
+    }
+
+    public Object parse(String value) {
+        return value != null ? parser.apply(value) : null;
+    }
+
+    public static Optional<TaskSortKey> lookup(String property) {
+        for (TaskSortKey key : values()) {
+            if (key.property.equals(property)) {
+                return Optional.of(key);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public static TaskSortKey fromProperty(String property) {
+        return lookup(property)
+            .orElseThrow(() -> new BadRequestException("Unsupported sort field for cursor pagination: " + property));
+    }
+}
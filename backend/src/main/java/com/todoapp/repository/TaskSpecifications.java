@@ -0,0 +1,62 @@
+package com.todoapp.repository;
+
+import com.todoapp.domain.entity.Tag;
+import com.todoapp.domain.entity.Task;
+import jakarta.persistence.criteria.AbstractQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Builds task list queries from only the filters a caller actually supplied, so the
+// planner sees plain equality predicates it can match against the tasks indexes.
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {
+    }
+
+    public static Specification<Task> matching(TaskFilter filter) {
+        return (task, query, cb) -> {
+            List<Predicate> predicates = predicates(filter, task, query, cb);
+            return predicates.isEmpty() ? null : cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    public static List<Predicate> predicates(TaskFilter filter, Root<Task> task, AbstractQuery<?> query, CriteriaBuilder cb) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getStatus() != null) {
+            predicates.add(cb.equal(task.get("status"), filter.getStatus()));
+        }
+        if (filter.getPriority() != null) {
+            predicates.add(cb.equal(task.get("priority"), filter.getPriority()));
+        }
+        if (filter.getAssigneeId() != null) {
+            predicates.add(cb.equal(task.get("assignee").get("id"), filter.getAssigneeId()));
+        }
+        if (filter.getCreatedById() != null) {
+            predicates.add(cb.equal(task.get("createdBy").get("id"), filter.getCreatedById()));
+        }
+        if (filter.getOverdue() != null) {
+            predicates.add(cb.equal(task.get("overdue"), filter.getOverdue()));
+        }
+        if (filter.getTags() != null && !filter.getTags().isEmpty()) {
+            Subquery<String> tagged = query.subquery(String.class);
+            Root<Task> taggedTask = tagged.from(Task.class);
+            Join<Task, Tag> tag = taggedTask.join("tags");
+            tagged.select(taggedTask.<String>get("id"))
+                .where(cb.equal(taggedTask.get("id"), task.get("id")), cb.lower(tag.<String>get("name")).in(filter.getTags()));
+            predicates.add(cb.exists(tagged));
+        }
+        if (filter.getTaskIds() != null) {
+            predicates.add(filter.getTaskIds().isEmpty()
+                ? cb.disjunction()
+                : task.get("id").in(filter.getTaskIds()));
+        }
+        return predicates;
+    }
+}
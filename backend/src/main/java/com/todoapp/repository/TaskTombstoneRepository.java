@@ -0,0 +1,20 @@
+package com.todoapp.repository;
+
+import com.todoapp.domain.entity.TaskTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, String> {
+    List<TaskTombstone> findByChangeSeqGreaterThanOrderByChangeSeq(Long since, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM TaskTombstone t WHERE t.changeSeq <= :through")
+    int deleteThrough(@Param("through") long through);
+}
@@ -0,0 +1,32 @@
+package com.todoapp.repository;
+
+import com.todoapp.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Opaque position in a newest-first (timestamp, id) list such as a task's comments
+// or history: the pair of the last row a client has seen.
+public record TimelineCursor(LocalDateTime at, String id) {
+
+    public String encode() {
+        String raw = at + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TimelineCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 2);
+            if (parts.length < 2) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new TimelineCursor(LocalDateTime.parse(parts[0]), parts[1]);
+        } catch (BadRequestException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.todoapp.schedule;
+
+import com.todoapp.domain.event.TaskChangedEvent;
+import com.todoapp.domain.event.TaskSnapshot;
+import com.todoapp.domain.event.TasksOverdueEvent;
+import com.todoapp.repository.TaskDeadline;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.sync.TaskChangeLog;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// Keeps Task.overdue exact without scanning for overdue tasks. Task writes recompute
+// the flag themselves (Task.refreshOverdue), so only time passing is left: the due
+// date of every open, not yet overdue task is held in a (dueDate, id)-ordered set,
+// and one timer thread sleeps until the earliest of them passes, then flips every
+// task whose deadline has passed with batched UPDATE ... WHERE id IN (...). The set
+// is loaded at startup and kept current from task changes after commit.
+//
+// The UPDATE re-checks status, due date and flag, so an entry that went stale (a
+// task completed, moved or deleted while its deadline was being flipped) changes
+// nothing. The sleep is capped at max-sleep so a wall clock that jumps is noticed.
+@Component
+@Slf4j
+public class DueDateScheduler implements DisposableBean {
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(5);
+    private static final Comparator<TaskDeadline> ORDER =
+        Comparator.comparing(TaskDeadline::dueDate).thenComparing(TaskDeadline::taskId);
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskChangeLog taskChangeLog;
+    private final int batchSize;
+    private final Duration maxSleep;
+    private final ScheduledExecutorService timer;
+
+    // Guarded by this
+    private final NavigableSet<TaskDeadline> queue = new TreeSet<>(ORDER);
+    private final Map<String, LocalDateTime> deadlines = new HashMap<>();
+    private ScheduledFuture<?> wakeup;
+    private LocalDateTime wakeAt;
+    private LocalDateTime retryAt;
+
+    public DueDateScheduler(
+            TaskRepository taskRepository,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            TaskChangeLog taskChangeLog,
+            MeterRegistry meterRegistry,
+            @Value("${todoapp.tasks.overdue.batch-size:500}") int batchSize,
+            @Value("${todoapp.tasks.overdue.max-sleep:1m}") Duration maxSleep) {
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.taskChangeLog = taskChangeLog;
+        this.batchSize = batchSize;
+        this.maxSleep = maxSleep;
+        Gauge.builder("tasks.deadlines.pending", this, DueDateScheduler::pending).register(meterRegistry);
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "due-date-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Runs before the facet index is rebuilt, so the index sees corrected flags
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void load() {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        // Flags left behind while no scheduler was running are corrected in batches, as
+        // changes every listener sees: deadlines that passed are flipped like advance()
+        // does, and cleared flags get a change sequence position for delta sync
+        List<String> pastDue = transactionTemplate.execute(status -> taskRepository.findPastDueIds(now));
+        List<String> stale = transactionTemplate.execute(status -> taskRepository.findStaleOverdueIds(now));
+        int corrected = 0;
+        for (int from = 0; from < pastDue.size(); from += batchSize) {
+            corrected += flip(pastDue.subList(from, Math.min(from + batchSize, pastDue.size())), now);
+        }
+        for (int from = 0; from < stale.size(); from += batchSize) {
+            corrected += clear(stale.subList(from, Math.min(from + batchSize, stale.size())), now);
+        }
+        if (corrected > 0) {
+            log.info("Corrected the overdue flag of {} tasks", corrected);
+        }
+
+        TaskDeadline after = new TaskDeadline("", now);
+        int loaded = 0;
+        while (after != null) {
+            TaskDeadline position = after;
+            List<TaskDeadline> batch = transactionTemplate.execute(status ->
+                taskRepository.findDeadlinesAfter(position.dueDate(), position.taskId(), Limit.of(LOAD_BATCH_SIZE)));
+            batch.forEach(deadline -> schedule(deadline.taskId(), deadline.dueDate()));
+            loaded += batch.size();
+            after = batch.size() == LOAD_BATCH_SIZE ? batch.get(batch.size() - 1) : null;
+        }
+        log.info("Due date scheduler loaded {} deadlines in {} ms", loaded, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        TaskSnapshot task = event.task();
+        if (event.type() != TaskChangedEvent.ChangeType.DELETED
+                && task.status().isOpen() && task.dueDate() != null && !task.overdue()) {
+            schedule(task.id(), task.dueDate());
+        } else {
+            cancel(task.id());
+        }
+    }
+
+    public synchronized void schedule(String taskId, LocalDateTime dueDate) {
+        LocalDateTime previous = deadlines.put(taskId, dueDate);
+        if (previous != null) {
+            queue.remove(new TaskDeadline(taskId, previous));
+        }
+        queue.add(new TaskDeadline(taskId, dueDate));
+        rearm();
+    }
+
+    // A wakeup already armed for this deadline simply finds nothing to do
+    public synchronized void cancel(String taskId) {
+        LocalDateTime previous = deadlines.remove(taskId);
+        if (previous != null) {
+            queue.remove(new TaskDeadline(taskId, previous));
+        }
+    }
+
+    public synchronized int pending() {
+        return deadlines.size();
+    }
+
+    // Flips every task whose due date is before now; returns how many rows changed.
+    // Tasks of a batch that fails stay queued and are retried after RETRY_DELAY.
+    public int advance(LocalDateTime now) {
+        List<TaskDeadline> due = new ArrayList<>();
+        synchronized (this) {
+            while (!queue.isEmpty() && queue.first().dueDate().isBefore(now)) {
+                TaskDeadline deadline = queue.pollFirst();
+                deadlines.remove(deadline.taskId());
+                due.add(deadline);
+            }
+        }
+
+        int flipped = 0;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<String> ids = due.subList(from, Math.min(from + batchSize, due.size())).stream()
+                .map(TaskDeadline::taskId)
+                .toList();
+            try {
+                flipped += flip(ids, now);
+            } catch (RuntimeException e) {
+                requeue(due.subList(from, due.size()));
+                throw e;
+            }
+        }
+        if (flipped > 0) {
+            log.debug("Marked {} tasks overdue", flipped);
+        }
+        return flipped;
+    }
+
+    // One transaction per batch; returns the rows changed
+    private int flip(List<String> ids, LocalDateTime now) {
+        Integer updated = transactionTemplate.execute(status -> {
+            int rows = taskRepository.markOverdue(ids, now);
+            if (rows > 0) {
+                eventPublisher.publishEvent(new TasksOverdueEvent(taskRepository.findOverdueIds(ids)));
+            }
+            return rows;
+        });
+        return updated != null ? updated : 0;
+    }
+
+    private int clear(List<String> ids, LocalDateTime now) {
+        Integer updated = transactionTemplate.execute(status -> {
+            int rows = taskRepository.clearStaleOverdue(ids, now);
+            if (rows > 0) {
+                Set<String> stillOverdue = new HashSet<>(taskRepository.findOverdueIds(ids));
+                taskChangeLog.stamp(ids.stream().filter(id -> !stillOverdue.contains(id)).toList(), List.of());
+            }
+            return rows;
+        });
+        return updated != null ? updated : 0;
+    }
+
+    @Override
+    public void destroy() {
+        timer.shutdownNow();
+    }
+
+    private void wake() {
+        synchronized (this) {
+            wakeup = null;
+            wakeAt = null;
+        }
+        try {
+            advance(LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.error("Marking tasks overdue failed", e);
+        }
+        synchronized (this) {
+            rearm();
+        }
+    }
+
+    // Arms the timer for just after the earliest deadline, unless it already wakes sooner
+    private void rearm() {
+        if (queue.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime target = queue.first().dueDate().plusNanos(1_000_000);
+        if (target.isAfter(now.plus(maxSleep))) {
+            target = now.plus(maxSleep);
+        }
+        if (retryAt != null) {
+            if (retryAt.isAfter(now) && retryAt.isAfter(target)) {
+                target = retryAt;
+            } else if (!retryAt.isAfter(now)) {
+                retryAt = null;
+            }
+        }
+        if (wakeAt != null && !wakeAt.isAfter(target)) {
+            return;
+        }
+        if (wakeup != null) {
+            wakeup.cancel(false);
+        }
+        long delay = Math.max(0, Duration.between(now, target).toMillis());
+        wakeAt = target;
+        wakeup = timer.schedule(this::wake, delay, TimeUnit.MILLISECONDS);
+    }
+
+    // A task written since its deadline was taken keeps the newer state
+    private synchronized void requeue(List<TaskDeadline> failed) {
+        retryAt = LocalDateTime.now().plus(RETRY_DELAY);
+        for (TaskDeadline deadline : failed) {
+            if (deadlines.putIfAbsent(deadline.taskId(), deadline.dueDate()) == null) {
+                queue.add(deadline);
+            }
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package com.todoapp.search;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// Roaring-style compressed bitmap over non-negative ints. Values are split into
+// 2^16 chunks by their high 16 bits; a chunk is a sorted char array while sparse
+// and switches to a 1024-word bitset once it holds more than 4096 values.
+// Not thread-safe; callers guard access.
+final class CompressedBitmap {
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int size;
+
+    void add(int value) {
+        char key = highBits(value);
+        int index = indexOf(key);
+        if (index >= 0) {
+            containers[index] = containers[index].add(lowBits(value));
+            return;
+        }
+        insertAt(-index - 1, key, new ArrayContainer().add(lowBits(value)));
+    }
+
+    void remove(int value) {
+        int index = indexOf(highBits(value));
+        if (index < 0) {
+            return;
+        }
+        Container container = containers[index].remove(lowBits(value));
+        if (container.cardinality() == 0) {
+            removeAt(index);
+        } else {
+            containers[index] = container;
+        }
+    }
+
+    boolean contains(int value) {
+        int index = indexOf(highBits(value));
+        return index >= 0 && containers[index].contains(lowBits(value));
+    }
+
+    int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    void forEach(IntConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            int high = keys[i] << 16;
+            containers[i].forEach(low -> consumer.accept(high | low));
+        }
+    }
+
+    static CompressedBitmap and(CompressedBitmap a, CompressedBitmap b) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                Container container = a.containers[i].and(b.containers[j]);
+                if (container.cardinality() > 0) {
+                    result.insertAt(result.size, a.keys[i], container);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    static int andCardinality(CompressedBitmap a, CompressedBitmap b) {
+        int cardinality = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                cardinality += a.containers[i].andCardinality(b.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return cardinality;
+    }
+
+    static CompressedBitmap or(CompressedBitmap a, CompressedBitmap b) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size || j < b.size) {
+            if (j >= b.size || (i < a.size && a.keys[i] < b.keys[j])) {
+                result.insertAt(result.size, a.keys[i], a.containers[i].copy());
+                i++;
+            } else if (i >= a.size || a.keys[i] > b.keys[j]) {
+                result.insertAt(result.size, b.keys[j], b.containers[j].copy());
+                j++;
+            } else {
+                result.insertAt(result.size, a.keys[i], a.containers[i].or(b.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    private int indexOf(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insertAt(int index, char key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    private void removeAt(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        size--;
+        containers[size] = null;
+    }
+
+    private static char highBits(int value) {
+        return (char) (value >>> 16);
+    }
+
+    private static char lowBits(int value) {
+        return (char) value;
+    }
+
+    private sealed interface Container permits ArrayContainer, BitmapContainer {
+        Container add(char value);
+        Container remove(char value);
+        boolean contains(char value);
+        int cardinality();
+        Container and(Container other);
+        int andCardinality(Container other);
+        Container or(Container other);
+        Container copy();
+        void forEach(IntConsumer consumer);
+    }
+
+    private static final class ArrayContainer implements Container {
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        public Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX) {
+                return toBitmap().add(value);
+            }
+            int insertion = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, cardinality * 2)));
+            }
+            System.arraycopy(values, insertion, values, insertion + 1, cardinality - insertion);
+            values[insertion] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        public Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public Container and(Container other) {
+            char[] result = new char[cardinality];
+            int count = 0;
+            if (other instanceof ArrayContainer array) {
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        result[count++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        result[count++] = values[i];
+                    }
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        public int andCardinality(Container other) {
+            int count = 0;
+            if (other instanceof ArrayContainer array) {
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        count++;
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public Container or(Container other) {
+            Container result = other.copy();
+            for (int i = 0; i < cardinality; i++) {
+                result = result.add(values[i]);
+            }
+            return result;
+        }
+
+        @Override
+        public Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(cardinality, 4)), cardinality);
+        }
+
+        @Override
+        public void forEach(IntConsumer consumer) {
+            for (int i = 0; i < cardinality; i++) {
+                consumer.accept(values[i]);
+            }
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer(new long[BITMAP_WORDS], 0);
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer implements Container {
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        public Container add(char value) {
+            long before = words[value >>> 6];
+            long after = before | (1L << value);
+            if (before != after) {
+                words[value >>> 6] = after;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        public Container remove(char value) {
+            long before = words[value >>> 6];
+            long after = before & ~(1L << value);
+            if (before != after) {
+                words[value >>> 6] = after;
+                cardinality--;
+            }
+            return cardinality <= ARRAY_MAX ? toArray() : this;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public Container and(Container other) {
+            if (other instanceof BitmapContainer bitmap) {
+                long[] result = new long[BITMAP_WORDS];
+                int count = 0;
+                for (int i = 0; i < BITMAP_WORDS; i++) {
+                    result[i] = words[i] & bitmap.words[i];
+                    count += Long.bitCount(result[i]);
+                }
+                BitmapContainer container = new BitmapContainer(result, count);
+                return count <= ARRAY_MAX ? container.toArray() : container;
+            }
+            return other.and(this);
+        }
+
+        @Override
+        public int andCardinality(Container other) {
+            if (other instanceof BitmapContainer bitmap) {
+                int count = 0;
+                for (int i = 0; i < BITMAP_WORDS; i++) {
+                    count += Long.bitCount(words[i] & bitmap.words[i]);
+                }
+                return count;
+            }
+            return other.andCardinality(this);
+        }
+
+        @Override
+        public Container or(Container other) {
+            if (other instanceof BitmapContainer bitmap) {
+                long[] result = new long[BITMAP_WORDS];
+                int count = 0;
+                for (int i = 0; i < BITMAP_WORDS; i++) {
+                    result[i] = words[i] | bitmap.words[i];
+                    count += Long.bitCount(result[i]);
+                }
+                return new BitmapContainer(result, count);
+            }
+            return other.or(this);
+        }
+
+        @Override
+        public Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        public void forEach(IntConsumer consumer) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    consumer.accept(i * 64 + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        private ArrayContainer toArray() {
+            char[] values = new char[Math.max(cardinality, 4)];
+            int[] count = {0};
+            forEach(value -> values[count[0]++] = (char) value);
+            return new ArrayContainer(values, cardinality);
+        }
+    }
+}
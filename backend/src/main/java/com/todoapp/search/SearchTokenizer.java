@@ -0,0 +1,50 @@
+package com.todoapp.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+final class SearchTokenizer {
+    static final int MAX_TOKEN_LENGTH = 40;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+        "of", "on", "or", "the", "to", "was", "with"
+    );
+
+    private SearchTokenizer() {
+    }
+
+    // Splits on anything that is not a letter or digit and lower-cases the result
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        StringBuilder current = new StringBuilder();
+        int i = 0;
+        while (i < text.length()) {
+            int codePoint = text.codePointAt(i);
+            if (Character.isLetterOrDigit(codePoint)) {
+                current.appendCodePoint(Character.toLowerCase(codePoint));
+            } else {
+                flush(current, tokens);
+            }
+            i += Character.charCount(codePoint);
+        }
+        flush(current, tokens);
+        return tokens;
+    }
+
+    private static void flush(StringBuilder current, List<String> tokens) {
+        if (current.isEmpty()) {
+            return;
+        }
+        String token = current.toString().toLowerCase(Locale.ROOT);
+        current.setLength(0);
+        if (token.length() <= MAX_TOKEN_LENGTH && !STOP_WORDS.contains(token)) {
+            tokens.add(token);
+        }
+    }
+}
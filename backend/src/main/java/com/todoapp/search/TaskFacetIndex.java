@@ -0,0 +1,304 @@
+package com.todoapp.search;
+
+import com.todoapp.domain.entity.Task;
+import com.todoapp.domain.event.TaskChangedEvent;
+import com.todoapp.domain.event.TaskSnapshot;
+import com.todoapp.domain.event.TasksOverdueEvent;
+import com.todoapp.dto.TaskFacetsDTO;
+import com.todoapp.repository.TaskCursor;
+import com.todoapp.repository.TaskFilter;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.TaskSortKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+// Per-value compressed bitmaps over dense task ordinals for every filterable
+// dimension. A filter is the intersection of the selected values' bitmaps, and each
+// facet count is the cardinality of that intersection with one value bitmap.
+@Component
+@Slf4j
+public class TaskFacetIndex {
+    static final String UNASSIGNED = "unassigned";
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private enum Dimension {
+        STATUS,
+        PRIORITY,
+        ASSIGNEE,
+        CREATED_BY,
+        OVERDUE,
+        TAG
+    }
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Dimension, Map<String, CompressedBitmap>> bitmaps = new EnumMap<>(Dimension.class);
+    private final CompressedBitmap live = new CompressedBitmap();
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final List<String> taskIds = new ArrayList<>();
+    private final List<Map<Dimension, List<String>>> values = new ArrayList<>();
+
+    public TaskFacetIndex(TaskRepository taskRepository, TransactionTemplate transactionTemplate) {
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = transactionTemplate;
+        for (Dimension dimension : Dimension.values()) {
+            bitmaps.put(dimension, new HashMap<>());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.type() == TaskChangedEvent.ChangeType.DELETED) {
+            remove(event.task().id());
+        } else {
+            index(event.task());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onTasksOverdue(TasksOverdueEvent event) {
+        markOverdue(event.taskIds());
+    }
+
+    public void index(TaskSnapshot task) {
+        Map<Dimension, List<String>> taskValues = valuesOf(task);
+        lock.writeLock().lock();
+        try {
+            int ordinal = ordinalFor(task.id());
+            unlink(ordinal);
+            link(ordinal, taskValues);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Only the overdue dimension changes; tasks not in the index are skipped
+    public void markOverdue(Collection<String> taskIds) {
+        lock.writeLock().lock();
+        try {
+            for (String taskId : taskIds) {
+                Integer ordinal = ordinals.get(taskId);
+                if (ordinal == null) {
+                    continue;
+                }
+                Map<Dimension, List<String>> taskValues = new EnumMap<>(values.get(ordinal));
+                taskValues.put(Dimension.OVERDUE, List.of(Boolean.TRUE.toString()));
+                unlink(ordinal);
+                link(ordinal, taskValues);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String taskId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(taskId);
+            if (ordinal != null) {
+                unlink(ordinal);
+                values.set(ordinal, null);
+                taskIds.set(ordinal, null);
+                live.remove(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public TaskFacetsDTO facets(TaskFilter filter) {
+        lock.readLock().lock();
+        try {
+            CompressedBitmap selection = select(filter);
+            return TaskFacetsDTO.builder()
+                .total((long) selection.cardinality())
+                .status(counts(Dimension.STATUS, selection))
+                .priority(counts(Dimension.PRIORITY, selection))
+                .assignee(counts(Dimension.ASSIGNEE, selection))
+                .tags(counts(Dimension.TAG, selection))
+                .overdue(counts(Dimension.OVERDUE, selection))
+                .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Membership test against the tasks matching the filter as of this call
+    public Predicate<String> matcher(TaskFilter filter) {
+        CompressedBitmap selection;
+        lock.readLock().lock();
+        try {
+            selection = CompressedBitmap.and(select(filter), live);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return taskId -> {
+            lock.readLock().lock();
+            try {
+                Integer ordinal = ordinals.get(taskId);
+                return ordinal != null && selection.contains(ordinal);
+            } finally {
+                lock.readLock().unlock();
+            }
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        TaskFilter all = TaskFilter.builder().build();
+        TaskCursor cursor = new TaskCursor(TaskSortKey.CREATED_AT, Sort.Direction.ASC, null, null);
+        int indexed = 0;
+        while (cursor != null) {
+            TaskCursor position = cursor;
+            Batch batch = transactionTemplate.execute(status -> {
+                List<Task> tasks = taskRepository.findAfter(all, position, REBUILD_BATCH_SIZE);
+                TaskCursor next = tasks.size() == REBUILD_BATCH_SIZE
+                    ? TaskCursor.after(tasks.get(tasks.size() - 1), TaskSortKey.CREATED_AT, Sort.Direction.ASC)
+                    : null;
+                return new Batch(tasks.stream().map(TaskSnapshot::of).toList(), next);
+            });
+            batch.tasks().forEach(this::index);
+            indexed += batch.tasks().size();
+            cursor = batch.next();
+        }
+        log.info("Facet index rebuilt: {} tasks in {} ms", indexed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private CompressedBitmap select(TaskFilter filter) {
+        CompressedBitmap selection = live;
+        if (filter.getStatus() != null) {
+            selection = intersect(selection, Dimension.STATUS, filter.getStatus().name());
+        }
+        if (filter.getPriority() != null) {
+            selection = intersect(selection, Dimension.PRIORITY, filter.getPriority().name());
+        }
+        if (filter.getAssigneeId() != null) {
+            selection = intersect(selection, Dimension.ASSIGNEE, filter.getAssigneeId());
+        }
+        if (filter.getCreatedById() != null) {
+            selection = intersect(selection, Dimension.CREATED_BY, filter.getCreatedById());
+        }
+        if (filter.getOverdue() != null) {
+            selection = intersect(selection, Dimension.OVERDUE, filter.getOverdue().toString());
+        }
+        if (filter.getTags() != null && !filter.getTags().isEmpty()) {
+            CompressedBitmap tagged = new CompressedBitmap();
+            for (String tag : filter.getTags()) {
+                CompressedBitmap bitmap = bitmaps.get(Dimension.TAG).get(tag);
+                if (bitmap != null) {
+                    tagged = CompressedBitmap.or(tagged, bitmap);
+                }
+            }
+            selection = CompressedBitmap.and(selection, tagged);
+        }
+        if (filter.getTaskIds() != null) {
+            CompressedBitmap restricted = new CompressedBitmap();
+            for (String taskId : filter.getTaskIds()) {
+                Integer ordinal = ordinals.get(taskId);
+                if (ordinal != null) {
+                    restricted.add(ordinal);
+                }
+            }
+            selection = CompressedBitmap.and(selection, restricted);
+        }
+        return selection;
+    }
+
+    private CompressedBitmap intersect(CompressedBitmap selection, Dimension dimension, String key) {
+        CompressedBitmap bitmap = bitmaps.get(dimension).get(key);
+        return bitmap != null ? CompressedBitmap.and(selection, bitmap) : new CompressedBitmap();
+    }
+
+    private Map<String, Long> counts(Dimension dimension, CompressedBitmap selection) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        bitmaps.get(dimension).forEach((key, bitmap) -> {
+            int count = CompressedBitmap.andCardinality(selection, bitmap);
+            if (count > 0) {
+                counts.put(key, (long) count);
+            }
+        });
+        return counts;
+    }
+
+    private void link(int ordinal, Map<Dimension, List<String>> taskValues) {
+        taskValues.forEach((dimension, keys) -> keys.forEach(key ->
+            bitmaps.get(dimension).computeIfAbsent(key, k -> new CompressedBitmap()).add(ordinal)));
+        values.set(ordinal, taskValues);
+        live.add(ordinal);
+    }
+
+    private void unlink(int ordinal) {
+        Map<Dimension, List<String>> previous = values.get(ordinal);
+        if (previous == null) {
+            return;
+        }
+        previous.forEach((dimension, keys) -> keys.forEach(key -> {
+            Map<String, CompressedBitmap> byKey = bitmaps.get(dimension);
+            CompressedBitmap bitmap = byKey.get(key);
+            if (bitmap != null) {
+                bitmap.remove(ordinal);
+                if (bitmap.cardinality() == 0) {
+                    byKey.remove(key);
+                }
+            }
+        }));
+    }
+
+    private int ordinalFor(String taskId) {
+        Integer existing = ordinals.get(taskId);
+        if (existing != null) {
+            return existing;
+        }
+        int ordinal = taskIds.size();
+        taskIds.add(taskId);
+        values.add(null);
+        ordinals.put(taskId, ordinal);
+        return ordinal;
+    }
+
+    private static Map<Dimension, List<String>> valuesOf(TaskSnapshot task) {
+        Map<Dimension, List<String>> taskValues = new EnumMap<>(Dimension.class);
+        taskValues.put(Dimension.STATUS, List.of(task.status().name()));
+        taskValues.put(Dimension.PRIORITY, List.of(task.priority().name()));
+        taskValues.put(Dimension.ASSIGNEE, List.of(task.assigneeId() != null ? task.assigneeId() : UNASSIGNED));
+        if (task.createdById() != null) {
+            taskValues.put(Dimension.CREATED_BY, List.of(task.createdById()));
+        }
+        taskValues.put(Dimension.OVERDUE, List.of(Boolean.toString(task.overdue())));
+        taskValues.put(Dimension.TAG, normalizeTags(task.tags()));
+        return taskValues;
+    }
+
+    public static List<String> normalizeTags(Collection<String> tags) {
+        if (tags == null) {
+            return List.of();
+        }
+        return tags.stream()
+            .filter(tag -> tag != null && !tag.isBlank())
+            .map(tag -> tag.trim().toLowerCase(Locale.ROOT))
+            .distinct()
+            .toList();
+    }
+
+    private record Batch(List<TaskSnapshot> tasks, TaskCursor next) {
+    }
+}
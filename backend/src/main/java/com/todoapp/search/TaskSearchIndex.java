@@ -0,0 +1,363 @@
+package com.todoapp.search;
+
+import com.todoapp.domain.entity.Comment;
+import com.todoapp.domain.entity.Task;
+import com.todoapp.domain.event.TaskChangedEvent;
+import com.todoapp.domain.event.TaskSnapshot;
+import com.todoapp.repository.CommentRepository;
+import com.todoapp.repository.TaskCursor;
+import com.todoapp.repository.TaskFilter;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.TaskSortKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+// In-memory inverted index over task title, description and comment text.
+//
+// Every task gets a dense ordinal. Each ordinal has two independently versioned
+// slots (task fields and comments); postings entries carry the slot version they
+// were written under, so re-indexing a slot just bumps its version and appends new
+// entries. Stale entries are skipped at query time and purged by compaction once
+// they outnumber live ones.
+@Component
+@Slf4j
+public class TaskSearchIndex {
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final float COMMENT_WEIGHT = 0.5f;
+    private static final float PREFIX_MATCH_BOOST = 0.5f;
+    private static final int FIELDS_SLOT = 0;
+    private static final int COMMENTS_SLOT = 1;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final long MIN_STALE_FOR_COMPACTION = 100_000;
+
+    private final TaskRepository taskRepository;
+    private final CommentRepository commentRepository;
+    private final int maxHits;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Postings> dictionary = new TreeMap<>();
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final List<String> taskIds = new ArrayList<>();
+    private int[][] versions = new int[2][1024];
+    private int[][] termCounts = new int[2][1024];
+    private long liveEntries;
+    private long staleEntries;
+
+    public TaskSearchIndex(
+            TaskRepository taskRepository,
+            CommentRepository commentRepository,
+            @Value("${todoapp.search.max-hits:1000}") int maxHits) {
+        this.taskRepository = taskRepository;
+        this.commentRepository = commentRepository;
+        this.maxHits = maxHits;
+    }
+
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        TaskSnapshot task = event.task();
+        if (event.type() == TaskChangedEvent.ChangeType.DELETED) {
+            remove(task.id());
+        } else {
+            index(task.id(), task.title(), task.description());
+        }
+    }
+
+    public void index(String taskId, String title, String description) {
+        Map<String, Float> weights = new HashMap<>();
+        addTerms(weights, title, TITLE_WEIGHT);
+        addTerms(weights, description, DESCRIPTION_WEIGHT);
+        write(taskId, FIELDS_SLOT, weights);
+    }
+
+    public void indexComments(String taskId, Collection<String> comments) {
+        Map<String, Float> weights = new HashMap<>();
+        for (String comment : comments) {
+            addTerms(weights, comment, COMMENT_WEIGHT);
+        }
+        write(taskId, COMMENTS_SLOT, weights);
+    }
+
+    public void remove(String taskId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(taskId);
+            if (ordinal == null) {
+                return;
+            }
+            retire(ordinal, FIELDS_SLOT);
+            retire(ordinal, COMMENTS_SLOT);
+            taskIds.set(ordinal, null);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Returns up to maxHits task ids, best match first. Every query token must match;
+    // tokens also match as prefixes of longer terms, scored below exact matches.
+    public List<String> search(String query) {
+        return search(query, taskId -> true);
+    }
+
+    // As above, counting only tasks the filter accepts towards maxHits
+    public List<String> search(String query, Predicate<String> filter) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(SearchTokenizer.tokenize(query)));
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Integer, Float> scores = null;
+            for (String token : tokens) {
+                Map<Integer, Float> tokenScores = scoreToken(token, scores);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    Map<Integer, Float> combined = new HashMap<>();
+                    for (Map.Entry<Integer, Float> entry : tokenScores.entrySet()) {
+                        combined.put(entry.getKey(), scores.get(entry.getKey()) + entry.getValue());
+                    }
+                    scores = combined;
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return topHits(scores, filter);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(String taskId) {
+        lock.readLock().lock();
+        try {
+            return ordinals.containsKey(taskId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        TaskFilter all = TaskFilter.builder().build();
+        TaskCursor cursor = new TaskCursor(TaskSortKey.CREATED_AT, Sort.Direction.ASC, null, null);
+        int tasks = 0;
+        List<Task> batch;
+        do {
+            batch = taskRepository.findAfter(all, cursor, REBUILD_BATCH_SIZE);
+            for (Task task : batch) {
+                index(task.getId(), task.getTitle(), task.getDescription());
+            }
+            if (!batch.isEmpty()) {
+                cursor = TaskCursor.after(batch.get(batch.size() - 1), TaskSortKey.CREATED_AT, Sort.Direction.ASC);
+            }
+            tasks += batch.size();
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+
+        // Comments arrive grouped by task, so each task's comment slot is written once;
+        // batches seek past the last (task id, comment id) instead of skipping an offset
+        String currentTaskId = null;
+        List<String> texts = new ArrayList<>();
+        List<Comment> comments = commentRepository.findAllByOrderByTaskIdAscIdAsc(Limit.of(REBUILD_BATCH_SIZE));
+        while (!comments.isEmpty()) {
+            for (Comment comment : comments) {
+                String taskId = comment.getTask().getId();
+                if (!taskId.equals(currentTaskId)) {
+                    if (currentTaskId != null) {
+                        indexComments(currentTaskId, texts);
+                    }
+                    currentTaskId = taskId;
+                    texts = new ArrayList<>();
+                }
+                texts.add(comment.getText());
+            }
+            if (comments.size() < REBUILD_BATCH_SIZE) {
+                break;
+            }
+            Comment last = comments.get(comments.size() - 1);
+            comments = commentRepository.findAllAfter(last.getTask().getId(), last.getId(), Limit.of(REBUILD_BATCH_SIZE));
+        }
+        if (currentTaskId != null) {
+            indexComments(currentTaskId, texts);
+        }
+
+        log.info("Search index rebuilt: {} tasks, {} terms in {} ms",
+            tasks, dictionary.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void write(String taskId, int slot, Map<String, Float> weights) {
+        lock.writeLock().lock();
+        try {
+            int ordinal = ordinalFor(taskId);
+            int stamp = retire(ordinal, slot);
+            termCounts[slot][ordinal] = weights.size();
+            liveEntries += weights.size();
+            for (Map.Entry<String, Float> entry : weights.entrySet()) {
+                dictionary.computeIfAbsent(entry.getKey(), term -> new Postings())
+                    .add(ordinal, stamp, entry.getValue());
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Invalidates every entry of the slot and returns the stamp for the next write
+    private int retire(int ordinal, int slot) {
+        int version = ++versions[slot][ordinal];
+        staleEntries += termCounts[slot][ordinal];
+        liveEntries -= termCounts[slot][ordinal];
+        termCounts[slot][ordinal] = 0;
+        return version << 1 | slot;
+    }
+
+    private boolean isLive(int ordinal, int stamp) {
+        return versions[stamp & 1][ordinal] == stamp >>> 1;
+    }
+
+    private int ordinalFor(String taskId) {
+        Integer existing = ordinals.get(taskId);
+        if (existing != null) {
+            return existing;
+        }
+        int ordinal = taskIds.size();
+        taskIds.add(taskId);
+        ordinals.put(taskId, ordinal);
+        if (ordinal >= versions[0].length) {
+            int capacity = versions[0].length * 2;
+            for (int slot = 0; slot < 2; slot++) {
+                versions[slot] = Arrays.copyOf(versions[slot], capacity);
+                termCounts[slot] = Arrays.copyOf(termCounts[slot], capacity);
+            }
+        }
+        return ordinal;
+    }
+
+    private Map<Integer, Float> scoreToken(String token, Map<Integer, Float> candidates) {
+        Map<Integer, Float> tokenScores = new HashMap<>();
+        NavigableMap<String, Postings> matches = token.length() >= MIN_PREFIX_LENGTH
+            ? dictionary.subMap(token, true, token + Character.MAX_VALUE, false)
+            : dictionary.subMap(token, true, token, true);
+        int documents = Math.max(1, ordinals.size());
+        int expansions = 0;
+        for (Map.Entry<String, Postings> match : matches.entrySet()) {
+            if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            Postings postings = match.getValue();
+            float boost = match.getKey().length() == token.length() ? 1.0f : PREFIX_MATCH_BOOST;
+            float idf = (float) Math.log(1.0 + (double) documents / postings.size);
+            for (int i = 0; i < postings.size; i++) {
+                int ordinal = postings.ordinals[i];
+                if (!isLive(ordinal, postings.stamps[i])) {
+                    continue;
+                }
+                if (candidates != null && !candidates.containsKey(ordinal)) {
+                    continue;
+                }
+                tokenScores.merge(ordinal, postings.weights[i] * idf * boost, Float::sum);
+            }
+        }
+        return tokenScores;
+    }
+
+    private List<String> topHits(Map<Integer, Float> scores, Predicate<String> filter) {
+        PriorityQueue<Map.Entry<Integer, Float>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Map.Entry<Integer, Float> entry : scores.entrySet()) {
+            if (!filter.test(taskIds.get(entry.getKey()))) {
+                continue;
+            }
+            top.offer(entry);
+            if (top.size() > maxHits) {
+                top.poll();
+            }
+        }
+        String[] ranked = new String[top.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = taskIds.get(top.poll().getKey());
+        }
+        return Arrays.asList(ranked);
+    }
+
+    private void compactIfNeeded() {
+        if (staleEntries < MIN_STALE_FOR_COMPACTION || staleEntries < liveEntries) {
+            return;
+        }
+        dictionary.values().removeIf(postings -> postings.retainLive(this) == 0);
+        staleEntries = 0;
+    }
+
+    private static void addTerms(Map<String, Float> weights, String text, float weight) {
+        for (String token : SearchTokenizer.tokenize(text)) {
+            weights.merge(token, weight, Float::sum);
+        }
+    }
+
+    private static final class Postings {
+        private int[] ordinals = new int[4];
+        private int[] stamps = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        void add(int ordinal, int stamp, float weight) {
+            if (size == ordinals.length) {
+                int capacity = size * 2;
+                ordinals = Arrays.copyOf(ordinals, capacity);
+                stamps = Arrays.copyOf(stamps, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            ordinals[size] = ordinal;
+            stamps[size] = stamp;
+            weights[size] = weight;
+            size++;
+        }
+
+        int retainLive(TaskSearchIndex index) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (index.isLive(ordinals[i], stamps[i])) {
+                    ordinals[kept] = ordinals[i];
+                    stamps[kept] = stamps[i];
+                    weights[kept] = weights[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            return kept;
+        }
+    }
+}
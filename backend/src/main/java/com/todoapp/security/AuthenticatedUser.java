@@ -0,0 +1,40 @@
+package com.todoapp.security;
+
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.UserRole;
+
+// Immutable view of the fields needed to authenticate a request
+public record AuthenticatedUser(
+    String id,
+    String username,
+    String email,
+    String firstName,
+    String lastName,
+    UserRole role,
+    boolean active
+) {
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(
+            user.getId(),
+            user.getUsername(),
+            user.getEmail(),
+            user.getFirstName(),
+            user.getLastName(),
+            user.getRole(),
+            user.isActive()
+        );
+    }
+
+    // Fresh detached instance per request, so request code cannot mutate cached state
+    public User toUser() {
+        return User.builder()
+            .id(id)
+            .username(username)
+            .email(email)
+            .firstName(firstName)
+            .lastName(lastName)
+            .role(role)
+            .active(active)
+            .build();
+    }
+}
@@ -0,0 +1,43 @@
+package com.todoapp.security;
+
+import java.util.Set;
+
+// Rate-limit classes; each has its own bucket per caller
+public enum EndpointClass {
+    LOGIN(5, 10),
+    AUTH(20, 60),
+    LIST(60, 120),
+    DETAIL(120, 600),
+    WRITE(30, 120);
+
+    // GET sub-resources of a collection that are listings rather than single records
+    private static final Set<String> COLLECTION_VIEWS = Set.of("export", "facets", "stream", "changes");
+
+    private final int defaultCapacity;
+    private final int defaultPerMinute;
+
+    EndpointClass(int defaultCapacity, int defaultPerMinute) {
+        this.defaultCapacity = defaultCapacity;
+        this.defaultPerMinute = defaultPerMinute;
+    }
+
+    public int defaultCapacity() {
+        return defaultCapacity;
+    }
+
+    public int defaultPerMinute() {
+        return defaultPerMinute;
+    }
+
+    // path is relative to the servlet context, e.g. /tasks/123
+    public static EndpointClass classify(String method, String path) {
+        if (path.startsWith("/auth/")) {
+            return path.equals("/auth/login") ? LOGIN : AUTH;
+        }
+        if (!"GET".equalsIgnoreCase(method) && !"HEAD".equalsIgnoreCase(method)) {
+            return WRITE;
+        }
+        String[] segments = path.substring(path.startsWith("/") ? 1 : 0).split("/");
+        return segments.length == 2 && !COLLECTION_VIEWS.contains(segments[1]) ? DETAIL : LIST;
+    }
+}
@@ -0,0 +1,119 @@
+package com.todoapp.security;
+
+import com.todoapp.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Runs PasswordEncoder work on a core-count-sized pool with a bounded queue, so a
+// login storm cannot put every request thread on CPU-bound hashing. When the queue
+// is full, callers are rejected immediately with 503 instead of queueing further.
+@Component
+@Slf4j
+public class PasswordHasher {
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder passwordEncoder;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Timer queueWait;
+    private final Timer encodeTime;
+    private final Timer matchTime;
+    private final Counter rejected;
+
+    public PasswordHasher(
+            PasswordEncoder passwordEncoder,
+            MeterRegistry meterRegistry,
+            @Value("${todoapp.auth.hashing.bcrypt-strength:10}") int strength,
+            @Value("${todoapp.auth.hashing.threads:0}") int threads,
+            @Value("${todoapp.auth.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${todoapp.auth.hashing.timeout:5s}") Duration timeout) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.passwordEncoder = passwordEncoder;
+        this.strength = strength;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hash-"),
+            new ThreadPoolExecutor.AbortPolicy());
+        this.timeout = timeout;
+        this.queueWait = Timer.builder("auth.password.queue.wait").register(meterRegistry);
+        this.encodeTime = Timer.builder("auth.password.hash.time").tag("operation", "encode").register(meterRegistry);
+        this.matchTime = Timer.builder("auth.password.hash.time").tag("operation", "matches").register(meterRegistry);
+        this.rejected = Counter.builder("auth.password.rejected").register(meterRegistry);
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return submit(encodeTime, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(matchTime, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    // True when the hash was produced with a different cost than the one configured,
+    // in either direction (BCryptPasswordEncoder.upgradeEncoding only reports raises)
+    public boolean needsRehash(String encodedPassword) {
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) != strength
+            : passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T submit(Timer hashTime, Supplier<T> work) {
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWait.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return work.get();
+                } finally {
+                    hashTime.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many concurrent sign-in attempts, please retry", 1);
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new ServiceUnavailableException("Password hashing timed out, please retry", 1);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Password hashing was interrupted", 1);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.todoapp.security;
+
+import com.todoapp.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bounded, TTL-based cache of authenticated principals keyed by user id. Reads are
+// a single ConcurrentHashMap lookup; misses load from the users table.
+@Component
+@Slf4j
+public class PrincipalCache {
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // Bumped on every invalidation so a load racing with it is not cached
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public PrincipalCache(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${todoapp.auth.principal-cache.ttl:5m}") Duration ttl,
+            @Value("${todoapp.auth.principal-cache.max-entries:10000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+
+        FunctionCounter.builder("auth.principal.cache.hits", hits, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("auth.principal.cache.misses", misses, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("auth.principal.cache.evictions", evictions, LongAdder::sum).register(meterRegistry);
+        Gauge.builder("auth.principal.cache.size", entries, ConcurrentHashMap::size).register(meterRegistry);
+    }
+
+    public Optional<AuthenticatedUser> get(String userId) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(userId);
+        if (entry != null && now - entry.expiresAt() < 0) {
+            hits.increment();
+            return Optional.of(entry.principal());
+        }
+
+        misses.increment();
+        long generation = invalidations.get();
+        Optional<AuthenticatedUser> loaded = userRepository.findById(userId).map(AuthenticatedUser::of);
+        if (loaded.isEmpty()) {
+            entries.remove(userId);
+        } else if (generation == invalidations.get()) {
+            entries.put(userId, new Entry(loaded.get(), now + ttlNanos));
+            if (entries.size() > maxEntries) {
+                evict(now);
+            }
+        }
+        return loaded;
+    }
+
+    public void invalidate(String userId) {
+        invalidations.incrementAndGet();
+        entries.remove(userId);
+        log.debug("Invalidated cached principal: {}", userId);
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    // Drops expired entries first, then arbitrary ones until 10% below the bound
+    private void evict(long now) {
+        int target = maxEntries - maxEntries / 10;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().expiresAt() >= 0) {
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+        iterator = entries.values().iterator();
+        while (entries.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    private record Entry(AuthenticatedUser principal, long expiresAt) {
+    }
+}
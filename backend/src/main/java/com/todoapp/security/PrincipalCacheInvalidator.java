@@ -0,0 +1,31 @@
+package com.todoapp.security;
+
+import com.todoapp.domain.event.UserChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Any change to a user flushed through JPA, including deactivation or a role change,
+// evicts the cached principal immediately and again after commit, so a request that
+// reloads it between the write and the commit cannot keep the pre-commit state.
+@Component
+@RequiredArgsConstructor
+public class PrincipalCacheInvalidator {
+    private final PrincipalCache principalCache;
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        String userId = event.userId();
+        principalCache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    principalCache.invalidate(userId);
+                }
+            });
+        }
+    }
+}
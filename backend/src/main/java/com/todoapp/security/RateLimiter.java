@@ -0,0 +1,83 @@
+package com.todoapp.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token buckets per (endpoint class, caller). A bucket is a single AtomicLong holding
+// the instant at which it would be full again; taking a token is one CAS and refill
+// is computed lazily from the clock, so no timer threads are involved.
+@Component
+public class RateLimiter {
+    private final Map<EndpointClass, Limit> limits = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, ConcurrentHashMap<String, AtomicLong>> buckets = new EnumMap<>(EndpointClass.class);
+    private final int maxBuckets;
+    private final Counter rejected;
+
+    public RateLimiter(
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${todoapp.rate-limit.max-buckets:100000}") int maxBuckets) {
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            String prefix = "todoapp.rate-limit." + endpointClass.name().toLowerCase() + ".";
+            int capacity = environment.getProperty(prefix + "capacity", Integer.class, endpointClass.defaultCapacity());
+            int perMinute = environment.getProperty(prefix + "per-minute", Integer.class, endpointClass.defaultPerMinute());
+            long interval = TimeUnit.MINUTES.toNanos(1) / perMinute;
+            limits.put(endpointClass, new Limit(interval, interval * capacity));
+            buckets.put(endpointClass, new ConcurrentHashMap<>());
+        }
+        this.maxBuckets = maxBuckets;
+        this.rejected = Counter.builder("ratelimit.rejected").register(meterRegistry);
+    }
+
+    // Returns 0 when a token was taken, otherwise the nanoseconds until one is available
+    public long tryAcquire(EndpointClass endpointClass, String caller) {
+        Limit limit = limits.get(endpointClass);
+        ConcurrentHashMap<String, AtomicLong> classBuckets = buckets.get(endpointClass);
+        long now = System.nanoTime();
+        AtomicLong bucket = classBuckets.get(caller);
+        if (bucket == null) {
+            bucket = classBuckets.computeIfAbsent(caller, key -> new AtomicLong(now));
+            if (classBuckets.size() > maxBuckets / limits.size()) {
+                evictIdle(classBuckets, now);
+            }
+        }
+
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + limit.interval();
+            long debt = next - now;
+            if (debt > limit.burst()) {
+                rejected.increment();
+                return debt - limit.burst();
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // A bucket that has refilled completely carries no state, so dropping it is lossless.
+    // If every bucket is busy the map is still cut back, at the cost of some refills.
+    private void evictIdle(ConcurrentHashMap<String, AtomicLong> classBuckets, long now) {
+        int bound = maxBuckets / limits.size();
+        classBuckets.values().removeIf(bucket -> bucket.get() <= now);
+        Iterator<AtomicLong> iterator = classBuckets.values().iterator();
+        while (classBuckets.size() > bound - bound / 10 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private record Limit(long interval, long burst) {
+    }
+}
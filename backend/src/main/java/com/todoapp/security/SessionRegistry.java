@@ -0,0 +1,197 @@
+package com.todoapp.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// In-memory registry of live login sessions, sharded by session id and lock-free.
+// Each shard keeps its sessions in a ConcurrentHashMap and owns a hashed timing
+// wheel whose slots are CAS-pushed stacks: a session is pushed once onto the slot
+// of its expiry tick, and advancing detaches a whole slot at a time, drops entries
+// that were revoked, and expires or re-pushes the rest. Create, refresh, revoke and
+// lookup are O(1) and expiry only touches the slot whose tick just passed. Lookups
+// compare the exact expiry, so the wheel's granularity, and a revoked session
+// waiting in its slot, only delay reclaiming memory.
+//
+// Sessions are immutable: a refresh replaces the session with a new id, so tokens
+// issued for the old one stop verifying. The wheel is advanced on the registry's own
+// thread rather than the shared scheduler.
+@Component
+@Slf4j
+public class SessionRegistry implements DisposableBean {
+    private static final int SHARDS = 32;
+    private static final int WHEEL_SLOTS = 4096;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final SecureRandom random = new SecureRandom();
+    private final Duration ttl;
+    private final long tickMillis;
+    private final Shard[] shards = new Shard[SHARDS];
+    private final ScheduledExecutorService wheel;
+
+    public SessionRegistry(
+            MeterRegistry meterRegistry,
+            @Value("${todoapp.auth.sessions.ttl:8h}") Duration ttl,
+            @Value("${todoapp.auth.sessions.tick-millis:1000}") long tickMillis) {
+        this.ttl = ttl;
+        this.tickMillis = tickMillis;
+        long tick = System.currentTimeMillis() / tickMillis;
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new Shard(tick);
+        }
+        Gauge.builder("auth.sessions.active", this, SessionRegistry::size).register(meterRegistry);
+        this.wheel = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        wheel.scheduleAtFixedRate(this::advanceQuietly, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public SessionTicket create(String userId) {
+        byte[] bytes = new byte[16];
+        random.nextBytes(bytes);
+        String sessionId = ENCODER.encodeToString(bytes);
+        Session session = new Session(sessionId, userId, System.currentTimeMillis() + ttl.toMillis());
+        shardFor(sessionId).schedule(session, session.expiresAt / tickMillis);
+        return new SessionTicket(sessionId, userId, Instant.ofEpochMilli(session.expiresAt));
+    }
+
+    public boolean isActive(String sessionId) {
+        Session session = shardFor(sessionId).sessions.get(sessionId);
+        return session != null && System.currentTimeMillis() < session.expiresAt;
+    }
+
+    // Replaces a live session with a new one for the full ttl. The old id is revoked
+    // first, so of two concurrent refreshes only one succeeds.
+    public Optional<SessionTicket> refresh(String sessionId) {
+        Session session = shardFor(sessionId).sessions.remove(sessionId);
+        if (session == null || System.currentTimeMillis() >= session.expiresAt) {
+            return Optional.empty();
+        }
+        return Optional.of(create(session.userId));
+    }
+
+    public boolean revoke(String sessionId) {
+        return shardFor(sessionId).sessions.remove(sessionId) != null;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.sessions.size();
+        }
+        return size;
+    }
+
+    public void advance() {
+        long tick = System.currentTimeMillis() / tickMillis;
+        int expired = 0;
+        for (Shard shard : shards) {
+            expired += shard.advanceTo(tick);
+        }
+        if (expired > 0) {
+            log.debug("Expired {} sessions", expired);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        wheel.shutdownNow();
+    }
+
+    private void advanceQuietly() {
+        try {
+            advance();
+        } catch (RuntimeException e) {
+            log.error("Session expiry failed", e);
+        }
+    }
+
+    private Shard shardFor(String sessionId) {
+        int hash = sessionId.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & (SHARDS - 1)];
+    }
+
+    private static final class Session {
+        private final String id;
+        private final String userId;
+        private final long expiresAt;
+        // Written before the session is published to its slot, and afterwards only
+        // by the thread that detached that slot
+        private Session next;
+
+        Session(String id, String userId, long expiresAt) {
+            this.id = id;
+            this.userId = userId;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final class Shard {
+        private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+        private final AtomicReferenceArray<Session> heads = new AtomicReferenceArray<>(WHEEL_SLOTS);
+        // Last tick whose slot has been claimed for processing
+        private final AtomicLong tick;
+
+        Shard(long tick) {
+            this.tick = new AtomicLong(tick);
+        }
+
+        void schedule(Session session, long deadline) {
+            sessions.put(session.id, session);
+            push(session, Math.max(deadline, tick.get() + 1));
+        }
+
+        void push(Session session, long target) {
+            int slot = (int) (target & (WHEEL_SLOTS - 1));
+            Session head;
+            do {
+                head = heads.get(slot);
+                session.next = head;
+            } while (!heads.compareAndSet(slot, head, session));
+        }
+
+        // Each tick is claimed by exactly one caller, which owns the detached slot
+        int advanceTo(long now) {
+            int expired = 0;
+            long current;
+            while ((current = tick.get()) < now) {
+                long claimed = current + 1;
+                if (!tick.compareAndSet(current, claimed)) {
+                    continue;
+                }
+                Session session = heads.getAndSet((int) (claimed & (WHEEL_SLOTS - 1)), null);
+                while (session != null) {
+                    Session next = session.next;
+                    // A revoked or refreshed session is simply dropped from the slot
+                    if (sessions.get(session.id) == session) {
+                        if (session.expiresAt / tickMillis > claimed) {
+                            // Deadline is one or more rounds away, in this same slot
+                            push(session, claimed + WHEEL_SLOTS);
+                        } else if (sessions.remove(session.id, session)) {
+                            expired++;
+                        }
+                    }
+                    session = next;
+                }
+            }
+            return expired;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.todoapp.security;
+
+import java.time.Instant;
+
+public record SessionTicket(String sessionId, String userId, Instant expiresAt) {
+}
@@ -0,0 +1,12 @@
+package com.todoapp.security;
+
+import com.todoapp.domain.enums.UserRole;
+
+import java.time.Instant;
+
+public record TokenClaims(String keyId, String userId, UserRole role, Instant expiresAt, String sessionId) {
+
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+}
@@ -0,0 +1,164 @@
+package com.todoapp.security;
+
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.UserRole;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// Compact HMAC-SHA256 tokens: "<keyId>.<base64url(userId|role|expiresAtEpochSeconds|sessionId)>.<base64url(mac)>".
+// New tokens are signed with the active key; every configured key verifies, so a
+// key can be rotated by adding a new active key and removing the old one once its
+// tokens have expired.
+@Component
+@Slf4j
+public class TokenService {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_KEY_BYTES = 32;
+    private static final int CACHE_STRIPES = 16;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Map<String, SigningKey> keys = new HashMap<>();
+    private final SigningKey activeKey;
+    private final VerifiedTokens[] verified;
+
+    public TokenService(
+            @Value("${todoapp.auth.tokens.keys}") String keys,
+            @Value("${todoapp.auth.tokens.active-key}") String activeKeyId,
+            @Value("${todoapp.auth.tokens.verified-cache-size:4096}") int verifiedCacheSize) {
+        if (keys == null || keys.isBlank()) {
+            throw new IllegalStateException("No token keys configured; set TODOAPP_TOKEN_KEYS and TODOAPP_TOKEN_ACTIVE_KEY");
+        }
+        for (String entry : keys.split(",")) {
+            String[] parts = entry.trim().split(":", 2);
+            if (parts.length != 2) {
+                throw new IllegalStateException("Token keys must be configured as <keyId>:<base64 secret>");
+            }
+            byte[] secret = Base64.getDecoder().decode(parts[1].trim());
+            if (secret.length < MIN_KEY_BYTES) {
+                throw new IllegalStateException("Token key " + parts[0] + " must be at least " + MIN_KEY_BYTES + " bytes");
+            }
+            this.keys.put(parts[0].trim(), new SigningKey(parts[0].trim(), new SecretKeySpec(secret, ALGORITHM)));
+        }
+        this.activeKey = this.keys.get(activeKeyId);
+        if (activeKey == null) {
+            throw new IllegalStateException("Active token key " + activeKeyId + " is not configured");
+        }
+        this.verified = new VerifiedTokens[CACHE_STRIPES];
+        for (int i = 0; i < CACHE_STRIPES; i++) {
+            verified[i] = new VerifiedTokens(Math.max(1, verifiedCacheSize / CACHE_STRIPES));
+        }
+    }
+
+    // The token expires with the session it belongs to
+    public String issue(User user, SessionTicket session) {
+        String payload = ENCODER.encodeToString((user.getId() + "|" + user.getRole().name() + "|"
+            + session.expiresAt().getEpochSecond() + "|" + session.sessionId()).getBytes(StandardCharsets.UTF_8));
+        String signed = activeKey.id() + "." + payload;
+        return signed + "." + ENCODER.encodeToString(activeKey.sign(signed));
+    }
+
+    // Recently verified tokens skip the MAC; expiry is still checked on every call
+    public Optional<TokenClaims> verify(String token) {
+        Instant now = Instant.now();
+        VerifiedTokens stripe = verified[(token.hashCode() & 0x7fffffff) % CACHE_STRIPES];
+        TokenClaims claims = stripe.get(token);
+        if (claims == null) {
+            claims = parse(token);
+            if (claims == null) {
+                return Optional.empty();
+            }
+            stripe.put(token, claims);
+        }
+        return claims.isExpired(now) ? Optional.empty() : Optional.of(claims);
+    }
+
+    private TokenClaims parse(String token) {
+        int first = token.indexOf('.');
+        int last = token.lastIndexOf('.');
+        if (first <= 0 || last == first) {
+            return null;
+        }
+        SigningKey key = keys.get(token.substring(0, first));
+        if (key == null) {
+            return null;
+        }
+        try {
+            byte[] expected = key.sign(token.substring(0, last));
+            byte[] actual = DECODER.decode(token.substring(last + 1));
+            if (!MessageDigest.isEqual(expected, actual)) {
+                return null;
+            }
+            String[] fields = new String(DECODER.decode(token.substring(first + 1, last)), StandardCharsets.UTF_8).split("\\|");
+            if (fields.length != 4) {
+                return null;
+            }
+            return new TokenClaims(key.id(), fields[0], UserRole.valueOf(fields[1]),
+                Instant.ofEpochSecond(Long.parseLong(fields[2])), fields[3]);
+        } catch (IllegalArgumentException e) {
+            log.debug("Rejected malformed token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static final class SigningKey {
+        private final String id;
+        private final ThreadLocal<Mac> mac;
+
+        SigningKey(String id, SecretKeySpec secret) {
+            this.id = id;
+            this.mac = ThreadLocal.withInitial(() -> {
+                try {
+                    Mac instance = Mac.getInstance(ALGORITHM);
+                    instance.init(secret);
+                    return instance;
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException("Cannot initialise " + ALGORITHM, e);
+                }
+            });
+        }
+
+        String id() {
+            return id;
+        }
+
+        byte[] sign(String data) {
+            return mac.get().doFinal(data.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    // One stripe of the verified-token LRU; striping keeps lock hold times short
+    private static final class VerifiedTokens {
+        private final Map<String, TokenClaims> entries;
+
+        VerifiedTokens(int capacity) {
+            this.entries = new LinkedHashMap<>(capacity, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, TokenClaims> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        synchronized TokenClaims get(String token) {
+            return entries.get(token);
+        }
+
+        synchronized void put(String token, TokenClaims claims) {
+            entries.put(token, claims);
+        }
+    }
+}
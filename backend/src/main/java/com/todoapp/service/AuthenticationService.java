@@ -7,8 +7,8 @@ import com.todoapp.dto.SignupRequest;
 public interface AuthenticationService {
     AuthResponse register(SignupRequest request);
     AuthResponse authenticate(LoginRequest request);
-    void logout(String sessionId);
-    AuthResponse refreshSession(String sessionId);
+    void logout(String token);
+    AuthResponse refreshSession(String token);
     void requestPasswordReset(String email);
     void confirmPasswordReset(String token, String newPassword);
 }
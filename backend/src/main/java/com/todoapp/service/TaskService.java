@@ -1,21 +1,52 @@
 package com.todoapp.service;
 
 import com.todoapp.domain.entity.User;
+import com.todoapp.dto.BatchTaskResponse;
+import com.todoapp.dto.BatchUpdateTasksRequest;
+import com.todoapp.dto.CommentPageResponse;
 import com.todoapp.dto.CreateTaskRequest;
+import com.todoapp.dto.TaskChangesResponse;
 import com.todoapp.dto.TaskDTO;
 import com.todoapp.dto.TaskDetailDTO;
+import com.todoapp.dto.TaskFacetsDTO;
+import com.todoapp.dto.TaskHistoryPageResponse;
 import com.todoapp.dto.TaskPageResponse;
 import com.todoapp.dto.UpdateTaskRequest;
+import com.todoapp.domain.enums.ExportFormat;
 import com.todoapp.domain.enums.TaskStatus;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 public interface TaskService {
     TaskDTO createTask(CreateTaskRequest request, User currentUser);
-    TaskDTO updateTask(String taskId, UpdateTaskRequest request, User currentUser);
+    // A non-null expectedVersion makes a write conditional: it fails with
+    // PreconditionFailedException unless the task still has that version
+    TaskDTO updateTask(String taskId, UpdateTaskRequest request, Long expectedVersion, User currentUser);
+    BatchTaskResponse createTasks(java.util.List<CreateTaskRequest> requests, User currentUser);
+    BatchTaskResponse updateTasks(java.util.List<BatchUpdateTasksRequest.Item> items, User currentUser);
     void deleteTask(String taskId, User currentUser);
-    TaskDTO assignTask(String taskId, String assigneeId, User currentUser, boolean notifyAssignee);
-    TaskDTO updateTaskStatus(String taskId, TaskStatus status, User currentUser, boolean notify);
+    TaskDTO assignTask(String taskId, String assigneeId, Long expectedVersion, User currentUser, boolean notifyAssignee);
+    TaskDTO updateTaskStatus(String taskId, TaskStatus status, Long expectedVersion, User currentUser, boolean notify);
     TaskDetailDTO getTaskById(String taskId, User currentUser);
+    // Strong ETag of the task's cached detail, or null while it has to be loaded;
+    // answered from memory. A loaded TaskDetailDTO carries its own in getEtag().
+    String getTaskETag(String taskId);
+    // Newest first; follow nextCursor for older entries
+    CommentPageResponse listComments(String taskId, String cursor, int size, User currentUser);
+    // Optionally limited to entries performed in [from, to)
+    TaskHistoryPageResponse listHistory(
+        String taskId,
+        java.time.LocalDateTime from,
+        java.time.LocalDateTime to,
+        String cursor,
+        int size,
+        User currentUser
+    );
+    // Tasks changed or deleted after the since position, oldest change first; clientId
+    // tells apart the devices of one user, whose positions keep tombstones alive
+    TaskChangesResponse getTaskChanges(long since, int limit, String clientId, User currentUser);
     TaskPageResponse listTasks(
         TaskStatus status,
         com.todoapp.domain.enums.TaskPriority priority,
@@ -27,6 +58,30 @@ public interface TaskService {
         String sortBy,
         String sortOrder,
         Pageable pageable,
+        String cursor,
+        Boolean includeTotal,
+        User currentUser
+    );
+    void exportTasks(
+        TaskStatus status,
+        com.todoapp.domain.enums.TaskPriority priority,
+        String assigneeId,
+        String createdById,
+        java.util.List<String> tags,
+        Boolean overdue,
+        String search,
+        ExportFormat format,
+        OutputStream out,
+        User currentUser
+    ) throws IOException;
+    TaskFacetsDTO getTaskFacets(
+        TaskStatus status,
+        com.todoapp.domain.enums.TaskPriority priority,
+        String assigneeId,
+        String createdById,
+        java.util.List<String> tags,
+        Boolean overdue,
+        String search,
         User currentUser
     );
 }
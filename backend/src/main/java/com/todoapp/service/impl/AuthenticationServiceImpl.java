@@ -12,58 +12,78 @@ import com.todoapp.exception.ConflictException;
 import com.todoapp.exception.NotFoundException;
 import com.todoapp.mapper.UserMapper;
 import com.todoapp.repository.UserRepository;
+import com.todoapp.security.PasswordHasher;
+import com.todoapp.security.SessionRegistry;
+import com.todoapp.security.SessionTicket;
+import com.todoapp.security.TokenClaims;
+import com.todoapp.security.TokenService;
 import com.todoapp.service.AuthenticationService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 
+// Password hashing can wait in PasswordHasher's queue for seconds under a login storm,
+// so it runs with no transaction open: the user is read and written in short
+// transactions on either side and no pooled connection is held while hashing.
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class AuthenticationServiceImpl implements AuthenticationService {
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final UserMapper userMapper;
+    private final TokenService tokenService;
+    private final SessionRegistry sessionRegistry;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate writeTransaction;
+
+    public AuthenticationServiceImpl(
+            UserRepository userRepository,
+            PasswordHasher passwordHasher,
+            UserMapper userMapper,
+            TokenService tokenService,
+            SessionRegistry sessionRegistry,
+            PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
+        this.userMapper = userMapper;
+        this.tokenService = tokenService;
+        this.sessionRegistry = sessionRegistry;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
 
     @Override
-    @Transactional
     public AuthResponse register(SignupRequest request) {
         log.debug("Registering new user with username: {}", request.getUsername());
 
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new ConflictException("Username already exists");
-        }
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new ConflictException("Email already registered");
-        }
-
-        User user = User.builder()
-            .username(request.getUsername())
-            .email(request.getEmail().trim().toLowerCase())
-            .firstName(request.getFirstName().trim())
-            .lastName(request.getLastName().trim())
-            .passwordHash(passwordEncoder.encode(request.getPassword()))
-            .role(UserRole.USER)
-            .active(true)
-            .build();
-
-        user = userRepository.save(user);
+        // Refused before spending a hash, and checked again when inserting
+        readOnlyTransaction.executeWithoutResult(status -> checkAvailable(request));
+        String passwordHash = passwordHasher.encode(request.getPassword());
+
+        User user = writeTransaction.execute(status -> {
+            checkAvailable(request);
+            return userRepository.save(User.builder()
+                .username(request.getUsername())
+                .email(request.getEmail().trim().toLowerCase())
+                .firstName(request.getFirstName().trim())
+                .lastName(request.getLastName().trim())
+                .passwordHash(passwordHash)
+                .role(UserRole.USER)
+                .active(true)
+                .build());
+        });
         log.info("Registered new user: {} (ID: {})", user.getUsername(), user.getId());
 
-        UserDTO userDTO = userMapper.toDTO(user);
-        return AuthResponse.builder()
-            .user(userDTO)
-            .token("session-token-placeholder")
-            .expiresAt(LocalDateTime.now().plusHours(8))
-            .build();
+        return authResponse(user);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public AuthResponse authenticate(LoginRequest request) {
         log.debug("Authenticating user with type: {}", request.getType());
         
@@ -72,16 +92,20 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         if (request.getType() == AuthType.INTERNAL) {
             String identifier = request.getUsername();
             // Allow login using either username or email
-            user = userRepository.findByUsername(identifier)
-                    .orElseGet(() -> userRepository.findByEmail(identifier).orElse(null));
+            user = readOnlyTransaction.execute(status -> userRepository.findByUsername(identifier)
+                    .orElseGet(() -> userRepository.findByEmail(identifier).orElse(null)));
 
             if (user == null) {
                 throw new AuthenticationException("Invalid credentials");
             }
 
-            if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
+            if (!passwordHasher.matches(request.getPassword(), user.getPasswordHash())) {
                 throw new AuthenticationException("Invalid credentials");
             }
+            // The plaintext is only available here, so this is where the cost gets upgraded
+            if (passwordHasher.needsRehash(user.getPasswordHash())) {
+                rehash(user, passwordHasher.encode(request.getPassword()));
+            }
         } else if (request.getType() == AuthType.SSO) {
             // TODO: Implement SSO token validation
             throw new UnsupportedOperationException("SSO authentication not yet implemented");
@@ -93,28 +117,32 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             throw new AuthenticationException("User account is inactive");
         }
 
-        UserDTO userDTO = userMapper.toDTO(user);
-        
-        // TODO: Create session and generate token
-        
-        return AuthResponse.builder()
-            .user(userDTO)
-            .token("session-token-placeholder")
-            .expiresAt(LocalDateTime.now().plusHours(8))
-            .build();
+        return authResponse(user);
     }
 
     @Override
-    public void logout(String sessionId) {
-        log.debug("Logging out session: {}", sessionId);
-        // TODO: Invalidate session
+    public void logout(String token) {
+        // Logging out with an invalid or expired token is a no-op
+        tokenService.verify(token).ifPresent(claims -> {
+            log.debug("Logging out session: {}", claims.sessionId());
+            sessionRegistry.revoke(claims.sessionId());
+        });
     }
 
     @Override
-    public AuthResponse refreshSession(String sessionId) {
-        log.debug("Refreshing session: {}", sessionId);
-        // TODO: Validate and refresh session
-        throw new UnsupportedOperationException("Session refresh not yet implemented");
+    @Transactional(readOnly = true)
+    public AuthResponse refreshSession(String token) {
+        TokenClaims claims = tokenService.verify(token)
+            .orElseThrow(() -> new AuthenticationException("Invalid or expired token"));
+        log.debug("Refreshing session: {}", claims.sessionId());
+
+        User user = userRepository.findById(claims.userId())
+            .filter(User::isActive)
+            .orElseThrow(() -> new AuthenticationException("User account is inactive"));
+        // The presented token's session is revoked in favour of the new one
+        SessionTicket session = sessionRegistry.refresh(claims.sessionId())
+            .orElseThrow(() -> new AuthenticationException("Session expired or revoked"));
+        return authResponse(user, session);
     }
 
     @Override
@@ -137,4 +165,37 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         // TODO: Validate token and update password
         throw new UnsupportedOperationException("Password reset confirmation not yet implemented");
     }
+
+    private void checkAvailable(SignupRequest request) {
+        if (userRepository.existsByUsername(request.getUsername())) {
+            throw new ConflictException("Username already exists");
+        }
+        if (userRepository.existsByEmail(request.getEmail())) {
+            throw new ConflictException("Email already registered");
+        }
+    }
+
+    // Only replaces the hash that was just verified; a password changed in the meantime wins
+    private void rehash(User user, String passwordHash) {
+        String verified = user.getPasswordHash();
+        writeTransaction.executeWithoutResult(status -> userRepository.findById(user.getId())
+            .filter(current -> current.getPasswordHash().equals(verified))
+            .ifPresent(current -> {
+                log.info("Rehashing password for user: {}", current.getId());
+                current.setPasswordHash(passwordHash);
+            }));
+    }
+
+    private AuthResponse authResponse(User user) {
+        return authResponse(user, sessionRegistry.create(user.getId()));
+    }
+
+    private AuthResponse authResponse(User user, SessionTicket session) {
+        UserDTO userDTO = userMapper.toDTO(user);
+        return AuthResponse.builder()
+            .user(userDTO)
+            .token(tokenService.issue(user, session))
+            .expiresAt(LocalDateTime.ofInstant(session.expiresAt(), ZoneId.systemDefault()))
+            .build();
+    }
 }
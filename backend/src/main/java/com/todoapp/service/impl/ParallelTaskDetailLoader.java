@@ -0,0 +1,141 @@
+package com.todoapp.service.impl;
+
+import com.todoapp.dto.CommentDTO;
+import com.todoapp.dto.TaskDTO;
+import com.todoapp.dto.TaskDetailDTO;
+import com.todoapp.dto.TaskHistoryDTO;
+import com.todoapp.exception.ServiceUnavailableException;
+import com.todoapp.mapper.TaskMapper;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.service.impl.TaskDetailParts.Recent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Loads the task, its comments and its history concurrently on virtual threads, each
+// in its own read-only transaction and connection, so detail latency is the slowest
+// part rather than the sum. The request thread only waits and holds no connection.
+// At most max-connections parts hold a connection at once; the rest wait for one on
+// their virtual thread, within the same deadline.
+@Component
+@Slf4j
+class ParallelTaskDetailLoader {
+    private static final int PARTS = 3;
+
+    private final TaskRepository taskRepository;
+    private final TaskMapper taskMapper;
+    private final TaskDetailParts taskDetailParts;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration partTimeout;
+    private final Semaphore connections;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    ParallelTaskDetailLoader(
+            TaskRepository taskRepository,
+            TaskMapper taskMapper,
+            TaskDetailParts taskDetailParts,
+            PlatformTransactionManager transactionManager,
+            TaskProperties properties) {
+        this.taskRepository = taskRepository;
+        this.taskMapper = taskMapper;
+        this.taskDetailParts = taskDetailParts;
+        this.partTimeout = properties.detailLoad().partTimeout();
+        int maxConnections = properties.detailLoad().maxConnections();
+        if (maxConnections < PARTS) {
+            throw new IllegalStateException(
+                "todoapp.tasks.detail-load.max-connections must be at least " + PARTS + " but is " + maxConnections);
+        }
+        this.connections = new Semaphore(maxConnections);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        // Also becomes the JDBC query timeout, so a timed-out part stops holding its connection
+        readOnlyTransaction.setTimeout((int) Math.max(1, partTimeout.toSeconds()));
+    }
+
+    // Returns null when the task does not exist
+    TaskDetailDTO load(String taskId) {
+        long deadline = System.nanoTime() + partTimeout.toNanos();
+        Future<TaskDTO> task = submit(() -> taskRepository.findById(taskId)
+            .map(taskMapper::toDTO)
+            .orElse(null));
+        Future<Recent<CommentDTO>> comments = submit(() -> taskDetailParts.comments(taskId));
+        Future<Recent<TaskHistoryDTO>> history = submit(() -> taskDetailParts.history(taskId));
+
+        try {
+            TaskDTO taskDTO = join(task, "task", deadline);
+            if (taskDTO == null) {
+                return null;
+            }
+            Recent<CommentDTO> recentComments = join(comments, "comments", deadline);
+            Recent<TaskHistoryDTO> recentHistory = join(history, "history", deadline);
+            return TaskDetailDTO.builder()
+                .task(taskDTO)
+                .comments(recentComments.items())
+                .commentCount(recentComments.total())
+                .history(recentHistory.items())
+                .historyCount(recentHistory.total())
+                .build();
+        } finally {
+            // No-ops for parts that completed
+            task.cancel(true);
+            comments.cancel(true);
+            history.cancel(true);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    // Each part takes a permit only for its own transaction, so a part never waits while
+    // holding one. A part cancelled before it gets a permit never opens a transaction.
+    private <T> Future<T> submit(Callable<T> part) {
+        return executor.submit(() -> {
+            connections.acquire();
+            try {
+                return readOnlyTransaction.execute(status -> {
+                    try {
+                        return part.call();
+                    } catch (RuntimeException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+            } finally {
+                connections.release();
+            }
+        });
+    }
+
+    // Parts start together, so a shared deadline gives each part the full timeout
+    private <T> T join(Future<T> part, String name, long deadline) {
+        try {
+            return part.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Timed out loading task {} after {}", name, partTimeout);
+            throw new ServiceUnavailableException("Timed out loading task " + name, 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted loading task " + name, 1);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Failed loading task " + name, e.getCause());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.todoapp.service.impl;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// Batch endpoints flush and clear every jdbcBatchSize items, which Hibernate also
+// uses as its JDBC batch size
+@ConfigurationProperties("todoapp.batch")
+public record TaskBatchProperties(
+        @DefaultValue("50") int jdbcBatchSize,
+        @DefaultValue("10000") int maxItems) {
+}
@@ -0,0 +1,278 @@
+package com.todoapp.service.impl;
+
+import com.todoapp.domain.entity.Task;
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.TaskPriority;
+import com.todoapp.domain.enums.TaskStatus;
+import com.todoapp.domain.event.TaskChangedEvent;
+import com.todoapp.domain.event.TaskSnapshot;
+import com.todoapp.dto.BatchTaskResponse;
+import com.todoapp.dto.BatchUpdateTasksRequest;
+import com.todoapp.dto.CreateTaskRequest;
+import com.todoapp.dto.UpdateTaskRequest;
+import com.todoapp.exception.BadRequestException;
+import com.todoapp.mapper.TaskMapper;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// Batch create and update with a result per item. Writes go out as one JDBC batch
+// per chunk of jdbc-batch-size items.
+@Service
+@Slf4j
+public class TaskBatchService {
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final TaskMapper taskMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final TransactionTemplate writeTransaction;
+    private final TaskBatchProperties properties;
+
+    public TaskBatchService(
+            TaskRepository taskRepository,
+            UserRepository userRepository,
+            TaskMapper taskMapper,
+            ApplicationEventPublisher eventPublisher,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            TaskBatchProperties properties) {
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.taskMapper = taskMapper;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    @Transactional
+    public BatchTaskResponse createTasks(List<CreateTaskRequest> requests, User currentUser) {
+        log.debug("Creating {} tasks in batch by user: {}", requests.size(), currentUser.getId());
+        checkBatchSize(requests.size());
+
+        Map<String, User> assignees = loadAssignees(requests.stream().map(CreateTaskRequest::getAssigneeId).toList());
+        BatchTaskResponse.ItemResult[] results = new BatchTaskResponse.ItemResult[requests.size()];
+        Map<Integer, Task> pending = new LinkedHashMap<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            CreateTaskRequest request = requests.get(i);
+            User assignee = null;
+            if (request.getAssigneeId() != null) {
+                assignee = assignees.get(request.getAssigneeId());
+                if (assignee == null) {
+                    results[i] = batchFailure(i, "Assignee not found");
+                    continue;
+                }
+            }
+
+            Task task = Task.builder()
+                .title(request.getTitle())
+                .description(request.getDescription())
+                .status(request.getStatus() != null ? request.getStatus() : TaskStatus.TO_DO)
+                .priority(request.getPriority() != null ? request.getPriority() : TaskPriority.MEDIUM)
+                .dueDate(request.getDueDate())
+                .createdBy(currentUser)
+                .build();
+            if (assignee != null) {
+                task.assign(assignee);
+            }
+            task.refreshOverdue(LocalDateTime.now());
+            pending.put(i, taskRepository.save(task));
+
+            if (pending.size() == properties.jdbcBatchSize()) {
+                flushBatch(pending, results, saved -> TaskChangedEvent.created(TaskSnapshot.of(saved), currentUser.getId()));
+            }
+        }
+        flushBatch(pending, results, saved -> TaskChangedEvent.created(TaskSnapshot.of(saved), currentUser.getId()));
+
+        BatchTaskResponse response = batchResponse(results);
+        log.info("Batch created {} tasks ({} failed) by user: {}", response.getSucceeded(), response.getFailed(), currentUser.getId());
+        return response;
+    }
+
+    // Each chunk is written in its own transaction. A write that commits between the
+    // chunk's read and its flush fails the flush with an optimistic lock conflict and
+    // rolls back only that chunk. The chunk is then read and checked again, and items
+    // whose task changed since it was first read fail like a stale version. Every retry
+    // drops at least one item, so a chunk is retried at most once per item. Chunks
+    // already written stay committed when a later one fails.
+    public BatchTaskResponse updateTasks(List<BatchUpdateTasksRequest.Item> items, User currentUser) {
+        log.debug("Updating {} tasks in batch by user: {}", items.size(), currentUser.getId());
+        checkBatchSize(items.size());
+
+        BatchTaskResponse.ItemResult[] results = new BatchTaskResponse.ItemResult[items.size()];
+        // A repeated task would be checked against its own unflushed first update and
+        // report no previous state, so only its first item is applied
+        Map<String, Integer> firstIndex = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            firstIndex.putIfAbsent(items.get(i).getTaskId(), i);
+        }
+
+        int chunkSize = properties.jdbcBatchSize();
+        for (int start = 0; start < items.size(); start += chunkSize) {
+            int chunkStart = start;
+            List<BatchUpdateTasksRequest.Item> chunk = items.subList(start, Math.min(start + chunkSize, items.size()));
+            Map<String, Long> readVersions = new HashMap<>();
+            while (true) {
+                try {
+                    writeTransaction.executeWithoutResult(status ->
+                        updateChunk(chunk, chunkStart, firstIndex, readVersions, results, currentUser));
+                    break;
+                } catch (OptimisticLockException | OptimisticLockingFailureException e) {
+                    log.debug("Batch items from {} lost a race with another write, checking them again", chunkStart);
+                }
+            }
+        }
+
+        BatchTaskResponse response = batchResponse(results);
+        log.info("Batch updated {} tasks ({} failed) by user: {}", response.getSucceeded(), response.getFailed(), currentUser.getId());
+        return response;
+    }
+
+    // Sets a result for every item of the chunk, so a retry overwrites all of a failed attempt
+    private void updateChunk(
+        List<BatchUpdateTasksRequest.Item> chunk,
+        int start,
+        Map<String, Integer> firstIndex,
+        Map<String, Long> readVersions,
+        BatchTaskResponse.ItemResult[] results,
+        User currentUser
+    ) {
+        Map<String, Task> tasks = new HashMap<>();
+        for (Task task : taskRepository.findAllById(chunk.stream().map(BatchUpdateTasksRequest.Item::getTaskId).toList())) {
+            tasks.put(task.getId(), task);
+        }
+        Map<String, User> assignees = loadAssignees(chunk.stream().map(item -> item.getUpdate().getAssigneeId()).toList());
+        Map<Integer, Task> pending = new LinkedHashMap<>();
+        Map<String, TaskSnapshot> previous = new HashMap<>();
+
+        for (int offset = 0; offset < chunk.size(); offset++) {
+            int index = start + offset;
+            BatchUpdateTasksRequest.Item item = chunk.get(offset);
+            UpdateTaskRequest update = item.getUpdate();
+            if (firstIndex.get(item.getTaskId()) != index) {
+                results[index] = batchFailure(index, "Task appears more than once in this batch");
+                continue;
+            }
+            Task task = tasks.get(item.getTaskId());
+            if (task == null) {
+                results[index] = batchFailure(index, "Task not found");
+                continue;
+            }
+            if (!TaskUpdates.canModify(task, currentUser)) {
+                results[index] = batchFailure(index, "You do not have permission to update this task");
+                continue;
+            }
+            if (item.getVersion() != null && !item.getVersion().equals(task.getVersion())) {
+                results[index] = batchFailure(index, "Task has changed since version " + item.getVersion());
+                continue;
+            }
+            Long readVersion = readVersions.putIfAbsent(task.getId(), task.getVersion());
+            if (readVersion != null && !readVersion.equals(task.getVersion())) {
+                results[index] = batchFailure(index, "Task was changed by another write during this batch");
+                continue;
+            }
+            User assignee = update.getAssigneeId() != null ? assignees.get(update.getAssigneeId()) : null;
+            if (update.getAssigneeId() != null && assignee == null) {
+                results[index] = batchFailure(index, "Assignee not found");
+                continue;
+            }
+
+            previous.put(task.getId(), TaskSnapshot.of(task));
+            TaskUpdates.apply(task, update);
+            if (assignee != null) {
+                task.assign(assignee);
+            }
+            pending.put(index, task);
+        }
+        flushBatch(pending, results, updated -> TaskChangedEvent.updated(
+            previous.get(updated.getId()), TaskSnapshot.of(updated), currentUser.getId()));
+    }
+
+    private void checkBatchSize(int size) {
+        if (size > properties.maxItems()) {
+            throw new BadRequestException("Batch must not exceed " + properties.maxItems() + " tasks");
+        }
+    }
+
+    // One IN query for every assignee referenced by the batch or chunk
+    private Map<String, User> loadAssignees(List<String> assigneeIds) {
+        Set<String> ids = new HashSet<>();
+        for (String assigneeId : assigneeIds) {
+            if (assigneeId != null) {
+                ids.add(assigneeId);
+            }
+        }
+        Map<String, User> assignees = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (User user : userRepository.findAllById(ids)) {
+                assignees.put(user.getId(), user);
+            }
+        }
+        return assignees;
+    }
+
+    // Flushes one JDBC batch worth of writes, records the results and clears the
+    // persistence context so large batches do not accumulate managed entities
+    private void flushBatch(
+        Map<Integer, Task> pending,
+        BatchTaskResponse.ItemResult[] results,
+        Function<Task, TaskChangedEvent> event
+    ) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        pending.forEach((index, task) -> {
+            results[index] = BatchTaskResponse.ItemResult.builder()
+                .index(index)
+                .success(true)
+                .task(taskMapper.toDTO(task))
+                .build();
+            eventPublisher.publishEvent(event.apply(task));
+        });
+        entityManager.clear();
+        pending.clear();
+    }
+
+    private BatchTaskResponse.ItemResult batchFailure(int index, String error) {
+        return BatchTaskResponse.ItemResult.builder()
+            .index(index)
+            .success(false)
+            .error(error)
+            .build();
+    }
+
+    private BatchTaskResponse batchResponse(BatchTaskResponse.ItemResult[] results) {
+        int succeeded = 0;
+        for (BatchTaskResponse.ItemResult result : results) {
+            if (Boolean.TRUE.equals(result.getSuccess())) {
+                succeeded++;
+            }
+        }
+        return BatchTaskResponse.builder()
+            .results(Arrays.asList(results))
+            .succeeded(succeeded)
+            .failed(results.length - succeeded)
+            .build();
+    }
+}
@@ -0,0 +1,63 @@
+package com.todoapp.service.impl;
+
+import com.todoapp.domain.entity.Task;
+import com.todoapp.dto.TaskDetailDTO;
+import com.todoapp.mapper.TaskMapper;
+import com.todoapp.repository.TaskRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Assembles a task detail on a cache miss, either part by part in one read-only
+// transaction or through ParallelTaskDetailLoader
+@Service
+public class TaskDetailLoader {
+    private final TaskRepository taskRepository;
+    private final TaskMapper taskMapper;
+    private final TaskDetailParts taskDetailParts;
+    private final ParallelTaskDetailLoader parallelTaskDetailLoader;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean parallel;
+
+    TaskDetailLoader(
+            TaskRepository taskRepository,
+            TaskMapper taskMapper,
+            TaskDetailParts taskDetailParts,
+            ParallelTaskDetailLoader parallelTaskDetailLoader,
+            PlatformTransactionManager transactionManager,
+            TaskProperties properties) {
+        this.taskRepository = taskRepository;
+        this.taskMapper = taskMapper;
+        this.taskDetailParts = taskDetailParts;
+        this.parallelTaskDetailLoader = parallelTaskDetailLoader;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        this.parallel = properties.detailLoad().parallel();
+    }
+
+    // Returns null when the task does not exist. Callers join no transaction, so the
+    // sequential load opens its own.
+    public TaskDetailDTO load(String taskId) {
+        return parallel
+            ? parallelTaskDetailLoader.load(taskId)
+            : readOnlyTransaction.execute(status -> loadSequentially(taskId));
+    }
+
+    private TaskDetailDTO loadSequentially(String taskId) {
+        Task task = taskRepository.findById(taskId).orElse(null);
+        if (task == null) {
+            return null;
+        }
+
+        var comments = taskDetailParts.comments(taskId);
+        var history = taskDetailParts.history(taskId);
+
+        return TaskDetailDTO.builder()
+            .task(taskMapper.toDTO(task))
+            .comments(comments.items())
+            .commentCount(comments.total())
+            .history(history.items())
+            .historyCount(history.total())
+            .build();
+    }
+}
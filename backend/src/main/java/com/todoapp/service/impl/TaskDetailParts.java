@@ -0,0 +1,62 @@
+package com.todoapp.service.impl;
+
+import com.todoapp.dto.CommentDTO;
+import com.todoapp.dto.TaskHistoryDTO;
+import com.todoapp.mapper.CommentMapper;
+import com.todoapp.mapper.TaskHistoryMapper;
+import com.todoapp.repository.CommentRepository;
+import com.todoapp.repository.TaskHistoryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// The bounded comment and history sections embedded in a task detail: the newest
+// entries plus totals. The count query is skipped when everything fits.
+@Component
+class TaskDetailParts {
+    private final CommentRepository commentRepository;
+    private final TaskHistoryRepository taskHistoryRepository;
+    private final CommentMapper commentMapper;
+    private final TaskHistoryMapper taskHistoryMapper;
+    private final int embedLimit;
+
+    TaskDetailParts(
+            CommentRepository commentRepository,
+            TaskHistoryRepository taskHistoryRepository,
+            CommentMapper commentMapper,
+            TaskHistoryMapper taskHistoryMapper,
+            @Value("${todoapp.tasks.detail-embed-limit:20}") int embedLimit) {
+        this.commentRepository = commentRepository;
+        this.taskHistoryRepository = taskHistoryRepository;
+        this.commentMapper = commentMapper;
+        this.taskHistoryMapper = taskHistoryMapper;
+        this.embedLimit = embedLimit;
+    }
+
+    record Recent<T>(List<T> items, long total) {
+    }
+
+    // Newest comments, returned oldest first like a conversation
+    Recent<CommentDTO> comments(String taskId) {
+        List<CommentDTO> comments = new ArrayList<>(commentRepository.findNewestByTaskId(taskId, Limit.of(embedLimit))
+            .stream()
+            .map(commentMapper::toDTO)
+            .toList());
+        Collections.reverse(comments);
+        long total = comments.size() < embedLimit ? comments.size() : commentRepository.countByTaskId(taskId);
+        return new Recent<>(comments, total);
+    }
+
+    Recent<TaskHistoryDTO> history(String taskId) {
+        List<TaskHistoryDTO> history = taskHistoryRepository.findTimeline(taskId, null, null, null, embedLimit)
+            .stream()
+            .map(taskHistoryMapper::toDTO)
+            .toList();
+        long total = history.size() < embedLimit ? history.size() : taskHistoryRepository.countByTaskId(taskId);
+        return new Recent<>(history, total);
+    }
+}
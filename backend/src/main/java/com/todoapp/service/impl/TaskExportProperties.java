@@ -0,0 +1,8 @@
+package com.todoapp.service.impl;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("todoapp.export")
+public record TaskExportProperties(@DefaultValue("500") int chunkSize) {
+}
@@ -0,0 +1,53 @@
+package com.todoapp.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.domain.entity.Task;
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.ExportFormat;
+import com.todoapp.mapper.TaskMapper;
+import com.todoapp.repository.TaskFilter;
+import com.todoapp.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+// Streams the tasks matching a filter chunk by chunk, so memory stays flat however
+// many rows are exported
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TaskExportService {
+    private final TaskRepository taskRepository;
+    private final TaskMapper taskMapper;
+    private final ObjectMapper objectMapper;
+    private final TaskExportProperties properties;
+
+    @Transactional(readOnly = true)
+    public void export(TaskFilter filter, ExportFormat format, OutputStream out, User currentUser) throws IOException {
+        TaskExportWriter writer = TaskExportWriter.create(format, out, objectMapper);
+        writer.writeHeader();
+        long[] exported = {0};
+        try {
+            taskRepository.scrollByFilter(filter, properties.chunkSize(), chunk -> {
+                try {
+                    for (Task task : chunk) {
+                        writer.write(taskMapper.toDTO(task));
+                    }
+                    writer.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                exported[0] += chunk.size();
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        log.info("Exported {} tasks as {} for user: {}", exported[0], format, currentUser.getId());
+    }
+}
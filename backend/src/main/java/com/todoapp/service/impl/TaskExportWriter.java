@@ -0,0 +1,93 @@
+package com.todoapp.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.todoapp.domain.enums.ExportFormat;
+import com.todoapp.dto.TaskDTO;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// Writes one exported task per line straight to the response stream
+abstract class TaskExportWriter {
+    protected final OutputStream out;
+
+    protected TaskExportWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    static TaskExportWriter create(ExportFormat format, OutputStream out, ObjectMapper objectMapper) {
+        return switch (format) {
+            case NDJSON -> new NdjsonWriter(out, objectMapper);
+            case CSV -> new CsvWriter(out);
+        };
+    }
+
+    void writeHeader() throws IOException {
+    }
+
+    abstract void write(TaskDTO task) throws IOException;
+
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    private static final class NdjsonWriter extends TaskExportWriter {
+        private final ObjectMapper objectMapper;
+
+        NdjsonWriter(OutputStream out, ObjectMapper objectMapper) {
+            super(out);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        void write(TaskDTO task) throws IOException {
+            out.write(objectMapper.writeValueAsBytes(task));
+            out.write('\n');
+        }
+    }
+
+    private static final class CsvWriter extends TaskExportWriter {
+        private static final String HEADER =
+            "id,title,description,status,priority,dueDate,assigneeId,createdById,tags,overdue,createdAt,updatedAt\n";
+
+        CsvWriter(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        void writeHeader() throws IOException {
+            out.write(HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        void write(TaskDTO task) throws IOException {
+            StringBuilder line = new StringBuilder(256);
+            append(line, task.getId()).append(',');
+            append(line, task.getTitle()).append(',');
+            append(line, task.getDescription()).append(',');
+            append(line, task.getStatus()).append(',');
+            append(line, task.getPriority()).append(',');
+            append(line, task.getDueDate()).append(',');
+            append(line, task.getAssigneeId()).append(',');
+            append(line, task.getCreatedById()).append(',');
+            append(line, task.getTags() != null ? String.join(";", task.getTags()) : null).append(',');
+            append(line, task.getOverdue()).append(',');
+            append(line, task.getCreatedAt()).append(',');
+            append(line, task.getUpdatedAt()).append('\n');
+            out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static StringBuilder append(StringBuilder line, Object value) {
+            if (value == null) {
+                return line;
+            }
+            String text = value.toString();
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                return line.append(text);
+            }
+            return line.append('"').append(text.replace("\"", "\"\"")).append('"');
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.todoapp.service.impl;
+
+public enum TaskLocking {
+    // Tasks are read without locks; the version check at write time catches
+    // concurrent changes, and unconditional status and assignee changes are retried
+    OPTIMISTIC,
+    // Single-task writes lock the row when they read it and hold it until commit
+    PESSIMISTIC
+}
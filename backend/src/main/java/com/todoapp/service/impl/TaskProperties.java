@@ -0,0 +1,30 @@
+package com.todoapp.service.impl;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// The todoapp.tasks settings read by the task services; the defaults match application.yml
+@ConfigurationProperties("todoapp.tasks")
+public record TaskProperties(
+        @DefaultValue Paging list,
+        @DefaultValue Paging timeline,
+        @DefaultValue DetailLoad detailLoad,
+        @DefaultValue Locking locking) {
+
+    public record Paging(@DefaultValue("100") int maxPageSize) {
+    }
+
+    public record DetailLoad(
+            @DefaultValue("false") boolean parallel,
+            @DefaultValue("5s") Duration partTimeout,
+            @DefaultValue("6") int maxConnections) {
+    }
+
+    public record Locking(
+            @DefaultValue("OPTIMISTIC") TaskLocking mode,
+            @DefaultValue("5") int maxAttempts,
+            @DefaultValue("5ms") Duration retryBackoff) {
+    }
+}
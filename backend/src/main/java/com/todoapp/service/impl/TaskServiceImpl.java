@@ -1,45 +1,82 @@
 package com.todoapp.service.impl;
 
+import com.todoapp.cache.TaskDetailCache;
 import com.todoapp.domain.entity.Task;
 import com.todoapp.domain.entity.User;
+import com.todoapp.domain.event.TaskChangedEvent;
+import com.todoapp.domain.event.TaskSnapshot;
+import com.todoapp.dto.BatchTaskResponse;
+import com.todoapp.dto.BatchUpdateTasksRequest;
+import com.todoapp.dto.CommentPageResponse;
 import com.todoapp.dto.CreateTaskRequest;
+import com.todoapp.dto.TaskChangesResponse;
 import com.todoapp.dto.TaskDTO;
 import com.todoapp.dto.TaskDetailDTO;
+import com.todoapp.dto.TaskFacetsDTO;
+import com.todoapp.dto.TaskHistoryPageResponse;
 import com.todoapp.dto.TaskPageResponse;
 import com.todoapp.dto.UpdateTaskRequest;
+import com.todoapp.domain.enums.ExportFormat;
 import com.todoapp.domain.enums.TaskStatus;
 import com.todoapp.domain.enums.UserRole;
+import com.todoapp.exception.BadRequestException;
 import com.todoapp.exception.NotFoundException;
 import com.todoapp.exception.AuthorizationException;
-import com.todoapp.mapper.CommentMapper;
-import com.todoapp.mapper.TaskHistoryMapper;
+import com.todoapp.exception.PreconditionFailedException;
 import com.todoapp.mapper.TaskMapper;
-import com.todoapp.repository.CommentRepository;
-import com.todoapp.repository.TaskHistoryRepository;
+import com.todoapp.notification.NotificationSender;
+import com.todoapp.repository.TaskCursor;
+import com.todoapp.repository.TaskFilter;
 import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.TaskSortKey;
+import com.todoapp.repository.TaskSpecifications;
 import com.todoapp.repository.UserRepository;
+import com.todoapp.search.TaskFacetIndex;
+import com.todoapp.search.TaskSearchIndex;
 import com.todoapp.service.TaskService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
+@RequiredArgsConstructor
 public class TaskServiceImpl implements TaskService {
+    private static final String RELEVANCE_SORT = "relevance";
+
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
-    private final CommentRepository commentRepository;
-    private final TaskHistoryRepository taskHistoryRepository;
     private final TaskMapper taskMapper;
-    private final CommentMapper commentMapper;
-    private final TaskHistoryMapper taskHistoryMapper;
+    private final TaskSearchIndex taskSearchIndex;
+    private final TaskFacetIndex taskFacetIndex;
+    private final TaskDetailCache taskDetailCache;
+    private final TaskDetailLoader taskDetailLoader;
+    private final NotificationSender notificationSender;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskWriteRetry taskWriteRetry;
+    private final TaskBatchService taskBatchService;
+    private final TaskExportService taskExportService;
+    private final TaskTimelineService taskTimelineService;
+    private final TaskSyncService taskSyncService;
+    private final TaskProperties properties;
 
     @Override
     @Transactional
@@ -60,42 +97,53 @@ public class TaskServiceImpl implements TaskService {
                 .orElseThrow(() -> new NotFoundException("Assignee not found"));
             task.assign(assignee);
         }
+        task.refreshOverdue(LocalDateTime.now());
 
         Task savedTask = taskRepository.save(task);
+        eventPublisher.publishEvent(TaskChangedEvent.created(TaskSnapshot.of(savedTask), currentUser.getId()));
         log.info("Task created: {} by user: {}", savedTask.getId(), currentUser.getId());
         
         return taskMapper.toDTO(savedTask);
     }
 
     @Override
-    @Transactional
-    public TaskDTO updateTask(String taskId, UpdateTaskRequest request, User currentUser) {
+    public TaskDTO updateTask(String taskId, UpdateTaskRequest request, Long expectedVersion, User currentUser) {
         log.debug("Updating task: {} by user: {}", taskId, currentUser.getId());
         
-        Task task = taskRepository.findById(taskId)
-            .orElseThrow(() -> new NotFoundException("Task not found"));
+        return taskWriteRetry.write(taskId, expectedVersion, false, () -> {
+            Task task = taskWriteRetry.loadForWrite(taskId);
 
-        // Check permissions
-        if (!canModifyTask(task, currentUser)) {
-            throw new AuthorizationException("You do not have permission to update this task");
-        }
+            // Check permissions
+            if (!TaskUpdates.canModify(task, currentUser)) {
+                throw new AuthorizationException("You do not have permission to update this task");
+            }
+            checkVersion(task, expectedVersion);
 
-        // Update fields
-        if (request.getTitle() != null) task.setTitle(request.getTitle());
-        if (request.getDescription() != null) task.setDescription(request.getDescription());
-        if (request.getStatus() != null) task.updateStatus(request.getStatus());
-        if (request.getPriority() != null) task.setPriority(request.getPriority());
-        if (request.getDueDate() != null) task.setDueDate(request.getDueDate());
-        if (request.getAssigneeId() != null) {
-            User assignee = userRepository.findById(request.getAssigneeId())
-                .orElseThrow(() -> new NotFoundException("Assignee not found"));
-            task.assign(assignee);
-        }
+            // Update fields
+            TaskSnapshot previous = TaskSnapshot.of(task);
+            TaskUpdates.apply(task, request);
+            if (request.getAssigneeId() != null) {
+                User assignee = userRepository.findById(request.getAssigneeId())
+                    .orElseThrow(() -> new NotFoundException("Assignee not found"));
+                task.assign(assignee);
+            }
 
-        Task updatedTask = taskRepository.save(task);
-        log.info("Task updated: {} by user: {}", taskId, currentUser.getId());
-        
-        return taskMapper.toDTO(updatedTask);
+            Task updatedTask = taskRepository.saveAndFlush(task);
+            eventPublisher.publishEvent(TaskChangedEvent.updated(previous, TaskSnapshot.of(updatedTask), currentUser.getId()));
+            log.info("Task updated: {} by user: {}", taskId, currentUser.getId());
+            
+            return taskMapper.toDTO(updatedTask);
+        });
+    }
+
+    @Override
+    public BatchTaskResponse createTasks(List<CreateTaskRequest> requests, User currentUser) {
+        return taskBatchService.createTasks(requests, currentUser);
+    }
+
+    @Override
+    public BatchTaskResponse updateTasks(List<BatchUpdateTasksRequest.Item> items, User currentUser) {
+        return taskBatchService.updateTasks(items, currentUser);
     }
 
     @Override
@@ -106,90 +154,83 @@ public class TaskServiceImpl implements TaskService {
         Task task = taskRepository.findById(taskId)
             .orElseThrow(() -> new NotFoundException("Task not found"));
 
-        if (!canModifyTask(task, currentUser)) {
+        if (!TaskUpdates.canModify(task, currentUser)) {
             throw new AuthorizationException("You do not have permission to delete this task");
         }
 
+        TaskSnapshot snapshot = TaskSnapshot.of(task);
         taskRepository.delete(task);
+        eventPublisher.publishEvent(TaskChangedEvent.deleted(snapshot, currentUser.getId()));
         log.info("Task deleted: {} by user: {}", taskId, currentUser.getId());
     }
 
     @Override
-    @Transactional
-    public TaskDTO assignTask(String taskId, String assigneeId, User currentUser, boolean notifyAssignee) {
+    public TaskDTO assignTask(String taskId, String assigneeId, Long expectedVersion, User currentUser, boolean notifyAssignee) {
         log.debug("Assigning task: {} to user: {} by user: {}", taskId, assigneeId, currentUser.getId());
         
-        Task task = taskRepository.findById(taskId)
-            .orElseThrow(() -> new NotFoundException("Task not found"));
+        return taskWriteRetry.write(taskId, expectedVersion, true, () -> {
+            Task task = taskWriteRetry.loadForWrite(taskId);
 
-        if (!canAssignTask(task, currentUser)) {
-            throw new AuthorizationException("You do not have permission to assign this task");
-        }
+            if (!canAssignTask(task, currentUser)) {
+                throw new AuthorizationException("You do not have permission to assign this task");
+            }
+            checkVersion(task, expectedVersion);
 
-        User assignee = userRepository.findById(assigneeId)
-            .orElseThrow(() -> new NotFoundException("Assignee not found"));
+            User assignee = userRepository.findById(assigneeId)
+                .orElseThrow(() -> new NotFoundException("Assignee not found"));
 
-        task.assign(assignee);
-        Task updatedTask = taskRepository.save(task);
-        
-        // TODO: Send notification if notifyAssignee is true
-        
-        log.info("Task assigned: {} to user: {} by user: {}", taskId, assigneeId, currentUser.getId());
-        return taskMapper.toDTO(updatedTask);
+            TaskSnapshot previous = TaskSnapshot.of(task);
+            task.assign(assignee);
+            Task updatedTask = taskRepository.saveAndFlush(task);
+            TaskSnapshot current = TaskSnapshot.of(updatedTask);
+            eventPublisher.publishEvent(TaskChangedEvent.updated(previous, current, currentUser.getId()));
+            if (notifyAssignee) {
+                notificationSender.sendTaskAssigned(previous, current, currentUser.getId());
+            }
+            
+            log.info("Task assigned: {} to user: {} by user: {}", taskId, assigneeId, currentUser.getId());
+            return taskMapper.toDTO(updatedTask);
+        });
     }
 
     @Override
-    @Transactional
-    public TaskDTO updateTaskStatus(String taskId, TaskStatus status, User currentUser, boolean notify) {
+    public TaskDTO updateTaskStatus(String taskId, TaskStatus status, Long expectedVersion, User currentUser, boolean notify) {
         log.debug("Updating task status: {} to {} by user: {}", taskId, status, currentUser.getId());
         
-        Task task = taskRepository.findById(taskId)
-            .orElseThrow(() -> new NotFoundException("Task not found"));
+        return taskWriteRetry.write(taskId, expectedVersion, true, () -> {
+            Task task = taskWriteRetry.loadForWrite(taskId);
 
-        // TODO: Validate state transition
-        
-        task.updateStatus(status);
-        
-        // Update overdue flag
-        if (status == TaskStatus.COMPLETED) {
-            task.clearOverdue();
-        } else if (task.getDueDate() != null && task.getDueDate().isBefore(LocalDateTime.now())) {
-            task.markOverdue();
-        }
+            // TODO: Validate state transition
+            checkVersion(task, expectedVersion);
+            
+            TaskSnapshot previous = TaskSnapshot.of(task);
+            task.updateStatus(status);
+            task.refreshOverdue(LocalDateTime.now());
 
-        Task updatedTask = taskRepository.save(task);
-        
-        // TODO: Send notification if notify is true
-        
-        log.info("Task status updated: {} to {} by user: {}", taskId, status, currentUser.getId());
-        return taskMapper.toDTO(updatedTask);
+            Task updatedTask = taskRepository.saveAndFlush(task);
+            TaskSnapshot current = TaskSnapshot.of(updatedTask);
+            eventPublisher.publishEvent(TaskChangedEvent.updated(previous, current, currentUser.getId()));
+            if (notify && previous.status() != current.status()) {
+                notificationSender.sendStatusChanged(previous, current, currentUser.getId());
+            }
+            
+            log.info("Task status updated: {} to {} by user: {}", taskId, status, currentUser.getId());
+            return taskMapper.toDTO(updatedTask);
+        });
     }
 
     @Override
-    @Transactional(readOnly = true)
+    // SUPPORTS: callers waiting on another caller's load must not each pin a connection
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public TaskDetailDTO getTaskById(String taskId, User currentUser) {
         log.debug("Getting task: {} by user: {}", taskId, currentUser.getId());
-        
-        Task task = taskRepository.findById(taskId)
-            .orElseThrow(() -> new NotFoundException("Task not found"));
-
         // TODO: Check if user has access to this task
-        
-        TaskDTO taskDTO = taskMapper.toDTO(task);
-        var comments = commentRepository.findByTaskIdOrderByCreatedAtAsc(taskId)
-            .stream()
-            .map(commentMapper::toDTO)
-            .toList();
-        var history = taskHistoryRepository.findByTaskIdOrderByPerformedAtDesc(taskId)
-            .stream()
-            .map(taskHistoryMapper::toDTO)
-            .toList();
-        
-        return TaskDetailDTO.builder()
-            .task(taskDTO)
-            .comments(comments)
-            .history(history)
-            .build();
+        return taskDetailCache.getOrLoad(taskId, () -> loadTaskDetail(taskId));
+    }
+
+    @Override
+    public String getTaskETag(String taskId) {
+        return taskDetailCache.etag(taskId);
     }
 
     @Override
@@ -205,6 +246,8 @@ public class TaskServiceImpl implements TaskService {
         String sortBy,
         String sortOrder,
         Pageable pageable,
+        String cursor,
+        Boolean includeTotal,
         User currentUser
     ) {
         log.debug("Listing tasks for user: {}", currentUser.getId());
@@ -213,21 +256,201 @@ public class TaskServiceImpl implements TaskService {
         // Users see their own tasks and assigned tasks
         // Managers see team tasks
         
-        Page<Task> taskPage = taskRepository.findByFilters(status, priority, assigneeId, createdById, overdue, pageable);
+        TaskFilter filter = buildFilter(status, priority, assigneeId, createdById, tags, overdue, search);
+        Sort.Direction direction = Sort.Direction.fromString(sortOrder);
+        // Larger pages would need more than one batched tag load
+        int maxPageSize = properties.list().maxPageSize();
+        if (pageable.getPageSize() > maxPageSize) {
+            pageable = PageRequest.of(pageable.getPageNumber(), maxPageSize, pageable.getSort());
+        }
+
+        if (RELEVANCE_SORT.equals(sortBy)) {
+            if (!StringUtils.hasText(search)) {
+                throw new BadRequestException("Sorting by relevance requires a search query");
+            }
+            return listTasksByRelevance(filter, pageable);
+        }
+
+        // An empty cursor starts keyset pagination from the first row
+        if (cursor != null) {
+            return listTasksByCursor(filter, cursor, sortBy, direction, pageable.getPageSize(), includeTotal);
+        }
+
+        // Keyset-capable sorts are read in the cursor's order, so the page can hand out a cursor
+        Optional<TaskSortKey> sortKey = TaskSortKey.lookup(sortBy);
+        Page<Task> taskPage = sortKey.isPresent()
+            ? taskRepository.findPage(filter, sortKey.get(), direction, pageable)
+            : taskRepository.findAll(TaskSpecifications.matching(filter), pageable);
+        List<Task> rows = taskPage.getContent();
+        String nextCursor = null;
+        if (taskPage.hasNext() && !rows.isEmpty() && sortKey.isPresent()) {
+            nextCursor = TaskCursor.after(rows.get(rows.size() - 1), sortKey.get(), direction).encode();
+        }
         
         return TaskPageResponse.builder()
-            .content(taskPage.getContent().stream().map(taskMapper::toDTO).toList())
+            .content(rows.stream().map(taskMapper::toDTO).toList())
             .page(taskPage.getNumber())
             .size(taskPage.getSize())
             .totalElements(taskPage.getTotalElements())
             .totalPages(taskPage.getTotalPages())
+            .nextCursor(nextCursor)
             .build();
     }
 
-    private boolean canModifyTask(Task task, User user) {
-        return task.getCreatedBy().getId().equals(user.getId()) ||
-               user.hasRole(UserRole.MANAGER) ||
-               user.hasRole(UserRole.ADMIN);
+    @Override
+    @Transactional(readOnly = true)
+    public TaskFacetsDTO getTaskFacets(
+        TaskStatus status,
+        com.todoapp.domain.enums.TaskPriority priority,
+        String assigneeId,
+        String createdById,
+        List<String> tags,
+        Boolean overdue,
+        String search,
+        User currentUser
+    ) {
+        log.debug("Computing task facets for user: {}", currentUser.getId());
+        return taskFacetIndex.facets(buildFilter(status, priority, assigneeId, createdById, tags, overdue, search));
+    }
+
+    @Override
+    // The filter is resolved in memory; the export opens its own read-only transaction
+    public void exportTasks(
+        TaskStatus status,
+        com.todoapp.domain.enums.TaskPriority priority,
+        String assigneeId,
+        String createdById,
+        List<String> tags,
+        Boolean overdue,
+        String search,
+        ExportFormat format,
+        OutputStream out,
+        User currentUser
+    ) throws IOException {
+        log.debug("Exporting tasks as {} for user: {}", format, currentUser.getId());
+        TaskFilter filter = buildFilter(status, priority, assigneeId, createdById, tags, overdue, search);
+        taskExportService.export(filter, format, out, currentUser);
+    }
+
+    private TaskFilter buildFilter(
+        TaskStatus status,
+        com.todoapp.domain.enums.TaskPriority priority,
+        String assigneeId,
+        String createdById,
+        List<String> tags,
+        Boolean overdue,
+        String search
+    ) {
+        List<String> normalizedTags = TaskFacetIndex.normalizeTags(tags);
+        TaskFilter filter = TaskFilter.builder()
+            .status(status)
+            .priority(priority)
+            .assigneeId(assigneeId)
+            .createdById(createdById)
+            .overdue(overdue)
+            .tags(normalizedTags.isEmpty() ? null : normalizedTags)
+            .build();
+        if (!StringUtils.hasText(search)) {
+            return filter;
+        }
+        // Hits are capped at max-hits, so the index applies the other filters before the cap
+        List<String> searchHits = taskSearchIndex.search(search, taskFacetIndex.matcher(filter));
+        return filter.toBuilder().taskIds(searchHits).build();
+    }
+
+    // Search hits are capped and already filtered, so the matches are ranked and paged in memory
+    private TaskPageResponse listTasksByRelevance(TaskFilter filter, Pageable pageable) {
+        Map<String, Integer> rank = new HashMap<>();
+        for (String taskId : filter.getTaskIds()) {
+            rank.put(taskId, rank.size());
+        }
+        List<Task> matches = new ArrayList<>(taskRepository.findAll(TaskSpecifications.matching(filter)));
+        matches.sort(Comparator.comparingInt(task -> rank.get(task.getId())));
+
+        int size = pageable.getPageSize();
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + size, matches.size());
+        return TaskPageResponse.builder()
+            .content(matches.subList(from, to).stream().map(taskMapper::toDTO).toList())
+            .page(pageable.getPageNumber())
+            .size(size)
+            .totalElements((long) matches.size())
+            .totalPages((matches.size() + size - 1) / size)
+            .build();
+    }
+
+    private TaskPageResponse listTasksByCursor(
+        TaskFilter filter,
+        String cursorToken,
+        String sortBy,
+        Sort.Direction direction,
+        int size,
+        Boolean includeTotal
+    ) {
+        TaskSortKey sortKey = TaskSortKey.fromProperty(sortBy);
+        TaskCursor cursor;
+        if (cursorToken.isBlank()) {
+            cursor = new TaskCursor(sortKey, direction, null, null);
+        } else {
+            cursor = TaskCursor.decode(cursorToken);
+            if (cursor.sortKey() != sortKey || cursor.direction() != direction) {
+                throw new BadRequestException("Cursor does not match the requested sort order");
+            }
+        }
+
+        // Fetch one extra row to learn whether another page exists without counting
+        List<Task> rows = taskRepository.findAfter(filter, cursor, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<Task> pageRows = hasNext ? rows.subList(0, size) : rows;
+
+        TaskPageResponse.TaskPageResponseBuilder response = TaskPageResponse.builder()
+            .content(pageRows.stream().map(taskMapper::toDTO).toList())
+            .size(size)
+            .nextCursor(hasNext ? TaskCursor.after(pageRows.get(size - 1), sortKey, direction).encode() : null);
+
+        if (Boolean.TRUE.equals(includeTotal)) {
+            long total = taskRepository.countByFilter(filter);
+            response.totalElements(total)
+                .totalPages((int) ((total + size - 1) / size));
+        }
+        return response.build();
+    }
+
+    @Override
+    public TaskChangesResponse getTaskChanges(long since, int limit, String clientId, User currentUser) {
+        return taskSyncService.getTaskChanges(since, limit, clientId, currentUser);
+    }
+
+    @Override
+    public CommentPageResponse listComments(String taskId, String cursor, int size, User currentUser) {
+        return taskTimelineService.listComments(taskId, cursor, size, currentUser);
+    }
+
+    @Override
+    public TaskHistoryPageResponse listHistory(
+        String taskId,
+        LocalDateTime from,
+        LocalDateTime to,
+        String cursor,
+        int size,
+        User currentUser
+    ) {
+        return taskTimelineService.listHistory(taskId, from, to, cursor, size, currentUser);
+    }
+
+    private TaskDetailDTO loadTaskDetail(String taskId) {
+        TaskDetailDTO detail = taskDetailLoader.load(taskId);
+        if (detail == null) {
+            taskDetailCache.forget(taskId);
+            throw new NotFoundException("Task not found");
+        }
+        return detail;
+    }
+
+    private void checkVersion(Task task, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            throw new PreconditionFailedException("Task has changed since version " + expectedVersion);
+        }
     }
 
     private boolean canAssignTask(Task task, User user) {
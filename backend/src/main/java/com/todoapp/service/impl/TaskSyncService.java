@@ -0,0 +1,65 @@
+package com.todoapp.service.impl;
+
+import com.todoapp.domain.entity.User;
+import com.todoapp.dto.TaskChangesResponse;
+import com.todoapp.exception.BadRequestException;
+import com.todoapp.mapper.TaskMapper;
+import com.todoapp.sync.ChangePage;
+import com.todoapp.sync.TaskChangeLog;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+// Delta sync: the tasks changed and deleted after a client's last change position
+@Service
+@Slf4j
+public class TaskSyncService {
+    private static final int MAX_CLIENT_ID_LENGTH = 100;
+
+    private final TaskChangeLog taskChangeLog;
+    private final TaskMapper taskMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TaskProperties properties;
+
+    public TaskSyncService(
+            TaskChangeLog taskChangeLog,
+            TaskMapper taskMapper,
+            PlatformTransactionManager transactionManager,
+            TaskProperties properties) {
+        this.taskChangeLog = taskChangeLog;
+        this.taskMapper = taskMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        this.properties = properties;
+    }
+
+    public TaskChangesResponse getTaskChanges(long since, int limit, String clientId, User currentUser) {
+        log.debug("Listing task changes after {} for user: {}", since, currentUser.getId());
+        if (since < 0) {
+            throw new BadRequestException("since must not be negative");
+        }
+        if (limit < 1) {
+            throw new BadRequestException("limit must be positive");
+        }
+        if (clientId != null && clientId.length() > MAX_CLIENT_ID_LENGTH) {
+            throw new BadRequestException("clientId must not exceed " + MAX_CLIENT_ID_LENGTH + " characters");
+        }
+        // Same visibility as GET /tasks, which is not narrowed by role yet.
+        // The cursor is written in its own transaction, the page read in a read-only one.
+        taskChangeLog.recordCursor(currentUser.getId(), clientId, since, LocalDateTime.now());
+        int pageSize = Math.min(limit, properties.list().maxPageSize());
+        return readOnlyTransaction.execute(status -> {
+            ChangePage page = taskChangeLog.read(since, pageSize);
+            return TaskChangesResponse.builder()
+                .changed(page.changed().stream().map(taskMapper::toDTO).toList())
+                .deleted(page.deleted())
+                .nextSince(page.nextSince())
+                .hasMore(page.hasMore())
+                .resyncRequired(page.resyncRequired())
+                .build();
+        });
+    }
+}
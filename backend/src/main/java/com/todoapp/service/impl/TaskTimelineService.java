@@ -0,0 +1,100 @@
+package com.todoapp.service.impl;
+
+import com.todoapp.domain.entity.Comment;
+import com.todoapp.domain.entity.TaskHistory;
+import com.todoapp.domain.entity.User;
+import com.todoapp.dto.CommentPageResponse;
+import com.todoapp.dto.TaskHistoryPageResponse;
+import com.todoapp.exception.BadRequestException;
+import com.todoapp.exception.NotFoundException;
+import com.todoapp.mapper.CommentMapper;
+import com.todoapp.mapper.TaskHistoryMapper;
+import com.todoapp.repository.CommentRepository;
+import com.todoapp.repository.TaskHistoryRepository;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.TimelineCursor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Pages a task's comments and history newest first by keyset cursor
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TaskTimelineService {
+    private final TaskRepository taskRepository;
+    private final CommentRepository commentRepository;
+    private final TaskHistoryRepository taskHistoryRepository;
+    private final CommentMapper commentMapper;
+    private final TaskHistoryMapper taskHistoryMapper;
+    private final TaskProperties properties;
+
+    @Transactional(readOnly = true)
+    public CommentPageResponse listComments(String taskId, String cursor, int size, User currentUser) {
+        log.debug("Listing comments of task: {} for user: {}", taskId, currentUser.getId());
+        checkTimelinePage(taskId, size);
+
+        // Fetch one extra row to learn whether another page exists without counting
+        List<Comment> rows;
+        if (StringUtils.hasText(cursor)) {
+            TimelineCursor after = TimelineCursor.decode(cursor);
+            rows = commentRepository.findOlderByTaskId(taskId, after.at(), after.id(), Limit.of(size + 1));
+        } else {
+            rows = commentRepository.findNewestByTaskId(taskId, Limit.of(size + 1));
+        }
+        boolean hasNext = rows.size() > size;
+        List<Comment> pageRows = hasNext ? rows.subList(0, size) : rows;
+        Comment last = hasNext ? pageRows.get(size - 1) : null;
+
+        return CommentPageResponse.builder()
+            .content(pageRows.stream().map(commentMapper::toDTO).toList())
+            .size(size)
+            .nextCursor(last != null ? new TimelineCursor(last.getCreatedAt(), last.getId()).encode() : null)
+            .build();
+    }
+
+    @Transactional(readOnly = true)
+    public TaskHistoryPageResponse listHistory(
+        String taskId,
+        LocalDateTime from,
+        LocalDateTime to,
+        String cursor,
+        int size,
+        User currentUser
+    ) {
+        log.debug("Listing history of task: {} for user: {}", taskId, currentUser.getId());
+        checkTimelinePage(taskId, size);
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BadRequestException("from must be before to");
+        }
+
+        // Only the monthly history partitions overlapping [from, to) are read
+        TimelineCursor after = StringUtils.hasText(cursor) ? TimelineCursor.decode(cursor) : null;
+        List<TaskHistory> rows = taskHistoryRepository.findTimeline(taskId, from, to, after, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<TaskHistory> pageRows = hasNext ? rows.subList(0, size) : rows;
+        TaskHistory last = hasNext ? pageRows.get(size - 1) : null;
+
+        return TaskHistoryPageResponse.builder()
+            .content(pageRows.stream().map(taskHistoryMapper::toDTO).toList())
+            .size(size)
+            .nextCursor(last != null ? new TimelineCursor(last.getPerformedAt(), last.getId()).encode() : null)
+            .build();
+    }
+
+    private void checkTimelinePage(String taskId, int size) {
+        int maxPageSize = properties.timeline().maxPageSize();
+        if (size < 1 || size > maxPageSize) {
+            throw new BadRequestException("Page size must be between 1 and " + maxPageSize);
+        }
+        if (!taskRepository.existsById(taskId)) {
+            throw new NotFoundException("Task not found");
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.todoapp.service.impl;
+
+import com.todoapp.domain.entity.Task;
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.UserRole;
+import com.todoapp.dto.UpdateTaskRequest;
+
+import java.time.LocalDateTime;
+
+// Field updates and the modify permission shared by single-task and batch writes
+final class TaskUpdates {
+    private TaskUpdates() {
+    }
+
+    static void apply(Task task, UpdateTaskRequest request) {
+        if (request.getTitle() != null) task.setTitle(request.getTitle());
+        if (request.getDescription() != null) task.setDescription(request.getDescription());
+        if (request.getStatus() != null) task.updateStatus(request.getStatus());
+        if (request.getPriority() != null) task.setPriority(request.getPriority());
+        if (request.getDueDate() != null) task.setDueDate(request.getDueDate());
+        task.refreshOverdue(LocalDateTime.now());
+    }
+
+    static boolean canModify(Task task, User user) {
+        return task.getCreatedBy().getId().equals(user.getId()) ||
+               user.hasRole(UserRole.MANAGER) ||
+               user.hasRole(UserRole.ADMIN);
+    }
+}
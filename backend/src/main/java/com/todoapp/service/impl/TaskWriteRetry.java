@@ -0,0 +1,85 @@
+package com.todoapp.service.impl;
+
+import com.todoapp.domain.entity.Task;
+import com.todoapp.exception.ConflictException;
+import com.todoapp.exception.NotFoundException;
+import com.todoapp.exception.PreconditionFailedException;
+import com.todoapp.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Runs a single-task write in its own transaction. Unconditional status and assignee
+// changes set one field regardless of the rest of the task, so when another write
+// to the task commits first they are simply applied again to the new state. Other
+// writes that lose such a race fail with 409; conditional ones with 412, since the
+// version they named is gone.
+@Service
+@Slf4j
+public class TaskWriteRetry {
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate writeTransaction;
+    private final Counter writeConflicts;
+    private final TaskProperties.Locking locking;
+
+    public TaskWriteRetry(
+            TaskRepository taskRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            TaskProperties properties) {
+        this.taskRepository = taskRepository;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeConflicts = meterRegistry.counter("tasks.write.conflicts");
+        this.locking = properties.locking();
+    }
+
+    public <T> T write(String taskId, Long expectedVersion, boolean commutative, Supplier<T> write) {
+        int attempts = commutative && expectedVersion == null ? locking.maxAttempts() : 1;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return writeTransaction.execute(status -> write.get());
+            } catch (ConcurrencyFailureException e) {
+                writeConflicts.increment();
+                if (expectedVersion != null) {
+                    throw new PreconditionFailedException("Task has changed since version " + expectedVersion, e);
+                }
+                if (attempt >= attempts) {
+                    throw e;
+                }
+                log.debug("Retrying write to task {} after a conflict (attempt {})", taskId, attempt);
+                backOff(attempt);
+            }
+        }
+    }
+
+    // Called inside write(), so a pessimistic lock is held until that transaction ends
+    public Task loadForWrite(String taskId) {
+        Optional<Task> task = locking.mode() == TaskLocking.PESSIMISTIC
+            ? taskRepository.findByIdForUpdate(taskId)
+            : taskRepository.findById(taskId);
+        return task.orElseThrow(() -> new NotFoundException("Task not found"));
+    }
+
+    // Random, growing pauses keep writers that collided from colliding again
+    private void backOff(int attempt) {
+        long bound = locking.retryBackoff().toNanos() * attempt;
+        if (bound <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(bound));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while retrying a write to a task", e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.todoapp.stream;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.todoapp.domain.enums.TaskPriority;
+import com.todoapp.domain.enums.TaskStatus;
+import com.todoapp.domain.event.TaskSnapshot;
+
+import java.time.LocalDateTime;
+
+// What a live board needs to patch its copy of a task; boards refetch the task for
+// anything else. "removed" means the task left the subscriber's view without being
+// deleted, e.g. because it was reassigned to someone else.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TaskStreamEvent(
+    String type,
+    String taskId,
+    String title,
+    TaskStatus status,
+    TaskPriority priority,
+    String assigneeId,
+    LocalDateTime dueDate,
+    Boolean overdue
+) {
+    static final String RESYNC = "resync";
+
+    static TaskStreamEvent of(String type, TaskSnapshot task) {
+        return new TaskStreamEvent(type, task.id(), task.title(), task.status(), task.priority(),
+            task.assigneeId(), task.dueDate(), task.overdue());
+    }
+
+    static TaskStreamEvent of(String type, String taskId) {
+        return new TaskStreamEvent(type, taskId, null, null, null, null, null, null);
+    }
+
+    static TaskStreamEvent resync() {
+        return new TaskStreamEvent(RESYNC, null, null, null, null, null, null, null);
+    }
+
+    static TaskStreamEvent overdue(String taskId) {
+        return new TaskStreamEvent("overdue", taskId, null, null, null, null, null, true);
+    }
+
+    @JsonIgnore
+    boolean isResync() {
+        return RESYNC.equals(type);
+    }
+}
@@ -0,0 +1,286 @@
+package com.todoapp.stream;
+
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.UserRole;
+import com.todoapp.domain.event.TaskChangedEvent;
+import com.todoapp.domain.event.TaskSnapshot;
+import com.todoapp.domain.event.TasksOverdueEvent;
+import com.todoapp.exception.ServiceUnavailableException;
+import com.todoapp.repository.TaskOwners;
+import com.todoapp.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Fans committed task changes out to GET /tasks/stream subscribers. Subscribers are
+// indexed by user, with managers and admins, who see every task, kept apart, so an
+// event costs a lookup of the task's assignee and creator plus one offer per
+// privileged subscriber rather than a pass over every open stream.
+//
+// Each subscriber has a bounded buffer drained by its own virtual thread, which does
+// the blocking servlet writes; publishing never blocks. A subscriber whose buffer
+// overflows is dropped: the buffer is replaced by a single "resync" event, after which
+// the stream ends and the client reloads its list before reconnecting. Idle streams get
+// a comment line every heartbeat so proxies keep them open and dead clients are noticed.
+@Component
+@Slf4j
+public class TaskStreamHub implements DisposableBean {
+    private final TaskRepository taskRepository;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final Duration heartbeat;
+    private final Duration timeout;
+    private final Map<String, Set<Subscription>> byUser = new ConcurrentHashMap<>();
+    private final Set<Subscription> privileged = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final ThreadFactory writers = Thread.ofVirtual().name("task-stream-", 0).factory();
+    private final Counter dropped;
+
+    public TaskStreamHub(
+            TaskRepository taskRepository,
+            MeterRegistry meterRegistry,
+            @Value("${todoapp.tasks.stream.buffer-size:256}") int bufferSize,
+            @Value("${todoapp.tasks.stream.max-subscribers:10000}") int maxSubscribers,
+            @Value("${todoapp.tasks.stream.heartbeat:30s}") Duration heartbeat,
+            @Value("${todoapp.tasks.stream.timeout:30m}") Duration timeout) {
+        this.taskRepository = taskRepository;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+        this.dropped = meterRegistry.counter("tasks.stream.dropped");
+        Gauge.builder("tasks.stream.subscribers", subscribers, AtomicInteger::get).register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(User user) {
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            throw new ServiceUnavailableException("Too many open task streams", 5);
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscription subscription = new Subscription(user.getId(),
+            user.hasRole(UserRole.MANAGER) || user.hasRole(UserRole.ADMIN), emitter);
+        if (subscription.privileged) {
+            privileged.add(subscription);
+        } else {
+            // Added inside compute so it cannot land in a set unsubscribe is dropping
+            byUser.compute(subscription.userId, (id, subscriptions) -> {
+                Set<Subscription> updated = subscriptions != null ? subscriptions : ConcurrentHashMap.newKeySet();
+                updated.add(subscription);
+                return updated;
+            });
+        }
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        // EventSource reconnects on its own once the stream ends
+        emitter.onTimeout(() -> {
+            unsubscribe(subscription);
+            emitter.complete();
+        });
+        emitter.onError(error -> unsubscribe(subscription));
+        writers.newThread(subscription::write).start();
+        return emitter;
+    }
+
+    public int subscribers() {
+        return subscribers.get();
+    }
+
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        TaskSnapshot task = event.task();
+        TaskSnapshot previous = event.previous();
+        TaskStreamEvent change = TaskStreamEvent.of(event.type().name().toLowerCase(), task);
+        TaskStreamEvent removed = previous != null ? TaskStreamEvent.of("removed", task.id()) : null;
+        for (Subscription subscription : audience(task.assigneeId(), task.createdById(),
+                previous != null ? previous.assigneeId() : null)) {
+            if (subscription.canSee(task.assigneeId(), task.createdById())) {
+                subscription.offer(change);
+            } else if (removed != null && subscription.canSee(previous.assigneeId(), previous.createdById())) {
+                subscription.offer(removed);
+            }
+        }
+    }
+
+    // DueDateScheduler only publishes ids; the owners are read back to route them
+    @TransactionalEventListener
+    public void onTasksOverdue(TasksOverdueEvent event) {
+        if (subscribers.get() == 0 || event.taskIds().isEmpty()) {
+            return;
+        }
+        for (TaskOwners owners : taskRepository.findOwners(event.taskIds())) {
+            TaskStreamEvent overdue = TaskStreamEvent.overdue(owners.taskId());
+            for (Subscription subscription : audience(owners.assigneeId(), owners.createdById(), null)) {
+                subscription.offer(overdue);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        List<Subscription> open = new ArrayList<>(privileged);
+        byUser.values().forEach(open::addAll);
+        for (Subscription subscription : open) {
+            unsubscribe(subscription);
+            subscription.emitter.complete();
+        }
+    }
+
+    private Set<Subscription> audience(String... userIds) {
+        Set<Subscription> audience = new LinkedHashSet<>(privileged);
+        for (String userId : userIds) {
+            Set<Subscription> subscriptions = userId != null ? byUser.get(userId) : null;
+            if (subscriptions != null) {
+                audience.addAll(subscriptions);
+            }
+        }
+        return audience;
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        if (!subscription.close()) {
+            return;
+        }
+        subscribers.decrementAndGet();
+        if (subscription.privileged) {
+            privileged.remove(subscription);
+        } else {
+            byUser.computeIfPresent(subscription.userId, (id, subscriptions) -> {
+                subscriptions.remove(subscription);
+                return subscriptions.isEmpty() ? null : subscriptions;
+            });
+        }
+    }
+
+    // Guarded by a lock rather than a monitor: a virtual thread waiting in Object.wait
+    // would pin its carrier thread
+    private final class Subscription {
+        private final String userId;
+        private final boolean privileged;
+        private final SseEmitter emitter;
+        private final ArrayDeque<TaskStreamEvent> buffer = new ArrayDeque<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition ready = lock.newCondition();
+        private boolean closed;
+
+        private Subscription(String userId, boolean privileged, SseEmitter emitter) {
+            this.userId = userId;
+            this.privileged = privileged;
+            this.emitter = emitter;
+        }
+
+        private boolean canSee(String assigneeId, String createdById) {
+            return privileged || userId.equals(assigneeId) || userId.equals(createdById);
+        }
+
+        private void offer(TaskStreamEvent event) {
+            lock.lock();
+            try {
+                if (closed || (!buffer.isEmpty() && buffer.peekLast().isResync())) {
+                    return;
+                }
+                if (buffer.size() >= bufferSize) {
+                    buffer.clear();
+                    buffer.add(TaskStreamEvent.resync());
+                    dropped.increment();
+                } else {
+                    buffer.add(event);
+                }
+                ready.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Returns whether this call closed it
+        private boolean close() {
+            lock.lock();
+            try {
+                if (closed) {
+                    return false;
+                }
+                closed = true;
+                buffer.clear();
+                ready.signal();
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Everything buffered, or nothing once a heartbeat interval passed or it closed
+        private List<TaskStreamEvent> take() throws InterruptedException {
+            lock.lock();
+            try {
+                long remaining = heartbeat.toNanos();
+                while (buffer.isEmpty() && !closed && remaining > 0) {
+                    remaining = ready.awaitNanos(remaining);
+                }
+                List<TaskStreamEvent> events = new ArrayList<>(buffer);
+                buffer.clear();
+                return events;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean isClosed() {
+            lock.lock();
+            try {
+                return closed;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void write() {
+            try {
+                while (!isClosed()) {
+                    List<TaskStreamEvent> events = take();
+                    if (events.isEmpty()) {
+                        if (!isClosed()) {
+                            emitter.send(SseEmitter.event().comment("heartbeat"));
+                        }
+                        continue;
+                    }
+                    for (TaskStreamEvent event : events) {
+                        if (event.isResync()) {
+                            emitter.send(SseEmitter.event().name(TaskStreamEvent.RESYNC).data("{}", MediaType.APPLICATION_JSON));
+                            unsubscribe(this);
+                            emitter.complete();
+                            return;
+                        }
+                        emitter.send(SseEmitter.event().name(event.type()).data(event, MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the emitter already completed
+                log.trace("Task stream for user {} ended: {}", userId, e.getMessage());
+                unsubscribe(this);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                unsubscribe(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.todoapp.sync;
+
+import com.todoapp.domain.entity.Task;
+
+import java.util.List;
+
+// One page of GET /tasks/changes in sequence order. nextSince is the position to ask
+// from next; with resyncRequired the tombstones after since were already compacted.
+public record ChangePage(
+    List<Task> changed,
+    List<String> deleted,
+    long nextSince,
+    boolean hasMore,
+    boolean resyncRequired
+) {
+    static ChangePage resync() {
+        return new ChangePage(List.of(), List.of(), 0, false, true);
+    }
+}
@@ -0,0 +1,251 @@
+package com.todoapp.sync;
+
+import com.todoapp.domain.entity.ChangeSequence;
+import com.todoapp.domain.entity.SyncCursor;
+import com.todoapp.domain.entity.Task;
+import com.todoapp.domain.entity.TaskTombstone;
+import com.todoapp.domain.event.TaskChangedEvent;
+import com.todoapp.domain.event.TasksOverdueEvent;
+import com.todoapp.repository.ChangeSequenceRepository;
+import com.todoapp.repository.SyncCursorRepository;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.TaskTombstoneRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Stamps every task write with a position in one global, monotonic change sequence,
+// so GET /tasks/changes can answer "what changed after n" with a range scan on
+// idx_tasks_change_seq. Deletes leave a tombstone carrying their position.
+//
+// Positions are taken just before commit, by incrementing the sequence row. That row
+// stays locked until the writer commits, so writers commit in sequence order and a
+// client that read up to n can never later find an uncommitted change below n. The
+// lock is held only for the final flush and the stamping statements.
+//
+// Tombstones are needed only until every client is past them. Each call records the
+// caller's position in a sync cursor; compaction drops cursors not seen within
+// cursor-ttl and removes the tombstones at or below the lowest remaining position.
+// A client that comes back later than that is told to reload.
+@Component
+@Slf4j
+public class TaskChangeLog implements SmartInitializingSingleton {
+    static final String SEQUENCE_ID = "tasks";
+    // A cursor that has not moved is written again at most this often
+    private static final Duration CURSOR_REFRESH = Duration.ofHours(1);
+
+    private final TaskRepository taskRepository;
+    private final ChangeSequenceRepository sequenceRepository;
+    private final TaskTombstoneRepository tombstoneRepository;
+    private final SyncCursorRepository cursorRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration cursorTtl;
+
+    public TaskChangeLog(
+            TaskRepository taskRepository,
+            ChangeSequenceRepository sequenceRepository,
+            TaskTombstoneRepository tombstoneRepository,
+            SyncCursorRepository cursorRepository,
+            JdbcTemplate jdbcTemplate,
+            EntityManager entityManager,
+            TransactionTemplate transactionTemplate,
+            @Value("${todoapp.tasks.changes.cursor-ttl:30d}") Duration cursorTtl) {
+        this.taskRepository = taskRepository;
+        this.sequenceRepository = sequenceRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.cursorRepository = cursorRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.cursorTtl = cursorTtl;
+    }
+
+    // Creates the sequence and stamps tasks written before there was one, before the
+    // server takes requests
+    @Override
+    public void afterSingletonsInstantiated() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sequenceRepository.existsById(SEQUENCE_ID)) {
+                sequenceRepository.save(ChangeSequence.builder().id(SEQUENCE_ID).value(0L).compactedThrough(0L).build());
+            }
+        });
+        List<String> unstamped = jdbcTemplate.queryForList("select id from tasks where change_seq is null order by created_at, id", String.class);
+        if (!unstamped.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> stamp(unstamped, List.of()));
+            log.info("Stamped {} tasks with change sequence positions", unstamped.size());
+        }
+    }
+
+    // Runs inside the writer's transaction; the ids are stamped once, before commit
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        Pending pending = pending();
+        String taskId = event.task().id();
+        if (event.type() == TaskChangedEvent.ChangeType.DELETED) {
+            pending.changed.remove(taskId);
+            pending.deleted.add(taskId);
+        } else if (!pending.deleted.contains(taskId)) {
+            pending.changed.add(taskId);
+        }
+    }
+
+    // Overdue flags set by DueDateScheduler are changes clients have to pick up too
+    @EventListener
+    public void onTasksOverdue(TasksOverdueEvent event) {
+        if (!event.taskIds().isEmpty()) {
+            pending().changed.addAll(event.taskIds());
+        }
+    }
+
+    // Gives the changed tasks and new tombstones consecutive positions. Must run inside
+    // the transaction that made the changes, after its last write to them.
+    public void stamp(Collection<String> changed, Collection<String> deleted) {
+        int count = changed.size() + deleted.size();
+        if (count == 0) {
+            return;
+        }
+        entityManager.flush();
+        sequenceRepository.advance(SEQUENCE_ID, count);
+        long position = sequenceRepository.findValue(SEQUENCE_ID) - count;
+
+        List<Object[]> stamps = new ArrayList<>(changed.size());
+        for (String taskId : changed) {
+            stamps.add(new Object[] {++position, taskId});
+        }
+        if (!stamps.isEmpty()) {
+            jdbcTemplate.batchUpdate("update tasks set change_seq = ? where id = ?", stamps);
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> tombstones = new ArrayList<>(deleted.size());
+        for (String taskId : deleted) {
+            tombstones.add(new Object[] {taskId, ++position, now});
+        }
+        if (!tombstones.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into task_tombstones (task_id, change_seq, deleted_at) values (?, ?, ?)", tombstones);
+        }
+    }
+
+    // Tasks changed and deleted after since, merged in sequence order, at most limit
+    // of them. Must run in a transaction; the tasks are managed entities.
+    public ChangePage read(long since, int limit) {
+        if (since > 0 && since < sequenceRepository.findCompactedThrough(SEQUENCE_ID)) {
+            return ChangePage.resync();
+        }
+        List<Task> tasks = taskRepository.findByChangeSeqGreaterThanOrderByChangeSeq(since, Limit.of(limit + 1));
+        // A client starting from nothing has nothing to delete
+        List<TaskTombstone> tombstones = since > 0
+            ? tombstoneRepository.findByChangeSeqGreaterThanOrderByChangeSeq(since, Limit.of(limit + 1))
+            : List.of();
+
+        List<Task> changed = new ArrayList<>();
+        List<String> deleted = new ArrayList<>();
+        long nextSince = since;
+        int t = 0;
+        int d = 0;
+        while (changed.size() + deleted.size() < limit && (t < tasks.size() || d < tombstones.size())) {
+            if (d == tombstones.size() || (t < tasks.size() && tasks.get(t).getChangeSeq() < tombstones.get(d).getChangeSeq())) {
+                Task task = tasks.get(t++);
+                changed.add(task);
+                nextSince = task.getChangeSeq();
+            } else {
+                TaskTombstone tombstone = tombstones.get(d++);
+                deleted.add(tombstone.getTaskId());
+                nextSince = tombstone.getChangeSeq();
+            }
+        }
+        boolean hasMore = t < tasks.size() || d < tombstones.size();
+        return new ChangePage(changed, deleted, nextSince, hasMore, false);
+    }
+
+    // Remembers that the client has everything up to position. Unchanged cursors are
+    // rewritten only to keep them from expiring.
+    public void recordCursor(String userId, String clientId, long position, LocalDateTime now) {
+        String id = userId + "/" + (clientId != null && !clientId.isBlank() ? clientId : "default");
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                SyncCursor cursor = cursorRepository.findById(id).orElse(null);
+                if (cursor == null) {
+                    cursorRepository.save(SyncCursor.builder().id(id).position(position).lastSeenAt(now).build());
+                } else if (cursor.getPosition() != position || cursor.getLastSeenAt().isBefore(now.minus(CURSOR_REFRESH))) {
+                    cursor.setPosition(position);
+                    cursor.setLastSeenAt(now);
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent first sync from the same client created it
+            log.debug("Sync cursor {} was created concurrently", id);
+        }
+    }
+
+    @Scheduled(cron = "${todoapp.tasks.changes.compaction-cron:0 45 2 * * *}")
+    public void compact() {
+        int removed = compact(LocalDateTime.now());
+        log.info("Removed {} task tombstones", removed);
+    }
+
+    // Returns the tombstones removed
+    public int compact(LocalDateTime now) {
+        Integer removed = transactionTemplate.execute(status -> {
+            cursorRepository.deleteSeenBefore(now.minus(cursorTtl));
+            // Without cursors nobody needs the tombstones; positions still being
+            // committed are above the committed value and are left alone
+            long current = sequenceRepository.findValue(SEQUENCE_ID);
+            Long lowest = cursorRepository.findMinPosition();
+            long through = lowest != null ? Math.min(lowest, current) : current;
+            int deleted = tombstoneRepository.deleteThrough(through);
+            sequenceRepository.raiseCompactedThrough(SEQUENCE_ID, through);
+            return deleted;
+        });
+        return removed != null ? removed : 0;
+    }
+
+    private Pending pending() {
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Task changes must be published inside a transaction");
+        }
+        Pending created = new Pending();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                stamp(created.changed, created.deleted);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TaskChangeLog.this);
+            }
+        });
+        return created;
+    }
+
+    private static final class Pending {
+        private final Set<String> changed = new LinkedHashSet<>();
+        private final Set<String> deleted = new LinkedHashSet<>();
+    }
+}
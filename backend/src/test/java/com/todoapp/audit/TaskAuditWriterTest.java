@@ -0,0 +1,194 @@
+package com.todoapp.audit;
+
+import com.todoapp.cache.TaskDetailCache;
+import com.todoapp.domain.entity.TaskHistory;
+import com.todoapp.domain.enums.HistoryAction;
+import com.todoapp.domain.enums.TaskPriority;
+import com.todoapp.domain.enums.TaskStatus;
+import com.todoapp.domain.event.TaskChangedEvent;
+import com.todoapp.domain.event.TaskSnapshot;
+import com.todoapp.repository.TaskHistoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskAuditWriterTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Mock
+    private TaskHistoryRepository taskHistoryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TaskDetailCache taskDetailCache;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // Each appendAll call as the list of task ids it wrote
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+    private TaskAuditWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void asyncModeQueuesAfterCommitAndDrainsOnStop() {
+        recordBatches();
+        writer = writer(AuditMode.ASYNC, 100, 100);
+        writer.start();
+
+        writer.writeInTransaction(created("task-1"));
+        writer.onTaskChanged(created("task-2"));
+
+        assertEquals(1, writer.pending());
+        assertTrue(batches.isEmpty());
+
+        writer.stop();
+
+        assertEquals(List.of(List.of("task-2")), batches);
+        assertEquals(0, writer.pending());
+        assertEquals(1, meterRegistry.counter("audit.records.written").count());
+        verify(taskDetailCache).bump("task-2");
+    }
+
+    @Test
+    void transactionalModeWritesBeforeCommitOnly() {
+        recordBatches();
+        writer = writer(AuditMode.TRANSACTIONAL, 100, 100);
+        writer.start();
+
+        writer.onTaskChanged(created("task-1"));
+        writer.writeInTransaction(created("task-2"));
+
+        assertEquals(List.of(List.of("task-2")), batches);
+        assertEquals(0, writer.pending());
+        // Joins the caller's transaction rather than opening one
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void fullBatchesAreWrittenAtOnceAndStayPendingUntilWritten() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            recordBatch(invocation.getArgument(0));
+            return null;
+        }).when(taskHistoryRepository).appendAll(anyList());
+        writer = writer(AuditMode.ASYNC, 100, 2);
+        writer.start();
+
+        writer.enqueue(List.of(record("task-1"), record("task-2")));
+
+        // The flush interval is an hour, so only the full batch can have woken the writer
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        assertEquals(2, writer.pending());
+        release.countDown();
+        awaitPending(0);
+        assertEquals(List.of(List.of("task-1", "task-2")), batches);
+    }
+
+    @Test
+    void overflowIsWrittenByTheCaller() {
+        recordBatches();
+        writer = writer(AuditMode.ASYNC, 2, 100);
+        writer.start();
+
+        writer.enqueue(List.of(record("task-1"), record("task-2")));
+        writer.enqueue(List.of(record("task-3")));
+
+        assertEquals(List.of(List.of("task-3")), batches);
+        assertEquals(2, writer.pending());
+        assertEquals(1, meterRegistry.counter("audit.queue.overflow").count());
+
+        writer.stop();
+
+        assertEquals(List.of(List.of("task-3"), List.of("task-1", "task-2")), batches);
+        assertEquals(0, writer.pending());
+    }
+
+    @Test
+    void rowsArrivingAfterStopAreWrittenByTheCaller() {
+        recordBatches();
+        writer = writer(AuditMode.ASYNC, 100, 100);
+        writer.start();
+        writer.stop();
+
+        writer.enqueue(List.of(record("task-1")));
+
+        assertEquals(List.of(List.of("task-1")), batches);
+        assertEquals(0, writer.pending());
+        assertEquals(0, meterRegistry.counter("audit.queue.overflow").count());
+    }
+
+    @Test
+    void failedWritesAreCountedAndLeaveTheQueueEmpty() {
+        doThrow(new IllegalStateException("database down")).when(taskHistoryRepository).appendAll(anyList());
+        writer = writer(AuditMode.ASYNC, 100, 100);
+        writer.start();
+
+        writer.enqueue(List.of(record("task-1"), record("task-2")));
+        writer.stop();
+
+        assertEquals(0, writer.pending());
+        assertEquals(2, meterRegistry.counter("audit.records.failed").count());
+        verifyNoInteractions(taskDetailCache);
+    }
+
+    // A flush interval of an hour, so only a full batch or stop() makes the writer write
+    private TaskAuditWriter writer(AuditMode mode, int capacity, int batchSize) {
+        return new TaskAuditWriter(taskHistoryRepository, transactionManager, taskDetailCache, meterRegistry,
+            mode, capacity, batchSize, Duration.ofHours(1), Duration.ofSeconds(5));
+    }
+
+    private void recordBatches() {
+        doAnswer(invocation -> {
+            recordBatch(invocation.getArgument(0));
+            return null;
+        }).when(taskHistoryRepository).appendAll(anyList());
+    }
+
+    private void recordBatch(List<TaskHistory> entries) {
+        batches.add(entries.stream().map(TaskHistory::getTaskId).toList());
+    }
+
+    private void awaitPending(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (writer.pending() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, writer.pending());
+    }
+
+    private static HistoryRecord record(String taskId) {
+        return new HistoryRecord(taskId, HistoryAction.UPDATED, "title", "old", "new", "user-1", NOW);
+    }
+
+    private static TaskChangedEvent created(String taskId) {
+        return TaskChangedEvent.created(new TaskSnapshot(taskId, "Title", null, TaskStatus.TO_DO, TaskPriority.MEDIUM,
+            null, null, "user-1", false, List.of()), "user-1");
+    }
+}
@@ -0,0 +1,95 @@
+package com.todoapp.audit;
+
+import com.todoapp.domain.enums.HistoryAction;
+import com.todoapp.domain.enums.TaskPriority;
+import com.todoapp.domain.enums.TaskStatus;
+import com.todoapp.domain.event.TaskChangedEvent;
+import com.todoapp.domain.event.TaskSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskHistoryDiffTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Test
+    void recordsOneRowPerChangedAuditedField() {
+        TaskSnapshot before = snapshot("Title", TaskStatus.TO_DO, TaskPriority.MEDIUM, null, null, "old description");
+        TaskSnapshot after = snapshot("New title", TaskStatus.IN_PROGRESS, TaskPriority.HIGH, NOW, "user-2", "new description");
+
+        List<HistoryRecord> records = TaskHistoryDiff.of(TaskChangedEvent.updated(before, after, "user-1"), NOW);
+
+        assertEquals(List.of("status", "assignee", "priority", "dueDate", "title"),
+            records.stream().map(HistoryRecord::field).toList());
+        HistoryRecord status = records.get(0);
+        assertEquals(HistoryAction.STATUS_CHANGED, status.action());
+        assertEquals("TO_DO", status.oldValue());
+        assertEquals("IN_PROGRESS", status.newValue());
+        assertEquals(HistoryAction.ASSIGNED, records.get(1).action());
+        assertEquals(NOW.toString(), records.get(3).newValue());
+        assertTrue(records.stream().allMatch(record -> "user-1".equals(record.performedById()) && NOW.equals(record.performedAt())));
+    }
+
+    @Test
+    void reassigningAndUnassigningAreReassignments() {
+        TaskSnapshot assigned = snapshot("Title", TaskStatus.TO_DO, TaskPriority.MEDIUM, null, "user-2", null);
+        TaskSnapshot reassigned = snapshot("Title", TaskStatus.TO_DO, TaskPriority.MEDIUM, null, "user-3", null);
+        TaskSnapshot unassigned = snapshot("Title", TaskStatus.TO_DO, TaskPriority.MEDIUM, null, null, null);
+
+        HistoryRecord reassign = TaskHistoryDiff.of(TaskChangedEvent.updated(assigned, reassigned, "user-1"), NOW).get(0);
+        HistoryRecord unassign = TaskHistoryDiff.of(TaskChangedEvent.updated(reassigned, unassigned, "user-1"), NOW).get(0);
+
+        assertEquals(HistoryAction.REASSIGNED, reassign.action());
+        assertEquals("user-2", reassign.oldValue());
+        assertEquals("user-3", reassign.newValue());
+        assertEquals(HistoryAction.REASSIGNED, unassign.action());
+        assertNull(unassign.newValue());
+    }
+
+    @Test
+    void unauditedChangesProduceNoRows() {
+        TaskSnapshot before = snapshot("Title", TaskStatus.TO_DO, TaskPriority.MEDIUM, null, null, "old description");
+        TaskSnapshot after = snapshot("Title", TaskStatus.TO_DO, TaskPriority.MEDIUM, null, null, "new description");
+
+        assertTrue(TaskHistoryDiff.of(TaskChangedEvent.updated(before, after, "user-1"), NOW).isEmpty());
+    }
+
+    @Test
+    void createAndDeleteAreSingleRows() {
+        TaskSnapshot task = snapshot("Title", TaskStatus.TO_DO, TaskPriority.MEDIUM, null, null, null);
+
+        List<HistoryRecord> created = TaskHistoryDiff.of(TaskChangedEvent.created(task, "user-1"), NOW);
+        List<HistoryRecord> deleted = TaskHistoryDiff.of(TaskChangedEvent.deleted(task, "user-1"), NOW);
+
+        assertEquals(1, created.size());
+        assertEquals(HistoryAction.CREATED, created.get(0).action());
+        assertEquals("Title", created.get(0).newValue());
+        assertEquals(1, deleted.size());
+        assertEquals(HistoryAction.DELETED, deleted.get(0).action());
+    }
+
+    @Test
+    void longValuesAreTruncatedToTheColumnLength() {
+        TaskSnapshot before = snapshot("Title", TaskStatus.TO_DO, TaskPriority.MEDIUM, null, null, null);
+        TaskSnapshot after = snapshot("x".repeat(600), TaskStatus.TO_DO, TaskPriority.MEDIUM, null, null, null);
+
+        HistoryRecord title = TaskHistoryDiff.of(TaskChangedEvent.updated(before, after, "user-1"), NOW).get(0);
+
+        assertEquals(500, title.newValue().length());
+    }
+
+    private static TaskSnapshot snapshot(
+        String title,
+        TaskStatus status,
+        TaskPriority priority,
+        LocalDateTime dueDate,
+        String assigneeId,
+        String description
+    ) {
+        return new TaskSnapshot("task-1", title, description, status, priority, dueDate, assigneeId, "user-1", false, List.of());
+    }
+}
@@ -0,0 +1,223 @@
+package com.todoapp.cache;
+
+import com.todoapp.domain.enums.TaskPriority;
+import com.todoapp.domain.enums.TaskStatus;
+import com.todoapp.domain.event.TaskChangedEvent;
+import com.todoapp.domain.event.TaskSnapshot;
+import com.todoapp.dto.TaskDTO;
+import com.todoapp.dto.TaskDetailDTO;
+import com.todoapp.exception.NotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskDetailCacheTest {
+
+    private TaskDetailCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new TaskDetailCache(new SimpleMeterRegistry(), 100);
+    }
+
+    @Test
+    void servesDetailForTheVersionItWasLoadedAt() {
+        long version = cache.currentVersion("task-1");
+        TaskDetailDTO detail = cache.getOrLoad("task-1", () -> detail(3L));
+
+        assertSame(detail, cache.get("task-1", cache.currentVersion("task-1")));
+        assertEquals(cache.etag(3L, version), detail.getEtag());
+        assertEquals(detail.getEtag(), cache.etag("task-1"));
+        assertTrue(detail.getEtag().startsWith("\"3."));
+    }
+
+    @Test
+    void noEtagUntilADetailIsCached() {
+        cache.currentVersion("task-1");
+
+        assertNull(cache.etag("task-1"));
+    }
+
+    @Test
+    void bumpChangesTheEtagAndDropsTheDetail() {
+        String etag = loadedEtag("task-1");
+
+        cache.onTaskChanged(TaskChangedEvent.updated(snapshot("task-1"), snapshot("task-1"), "user-1"));
+
+        assertNull(cache.etag("task-1"));
+        assertNull(cache.get("task-1", cache.currentVersion("task-1")));
+        assertNotEquals(etag, loadedEtag("task-1"));
+    }
+
+    @Test
+    void detailLoadedBeforeABumpIsNotCached() {
+        long version = cache.currentVersion("task-1");
+        cache.bump("task-1");
+
+        cache.put("task-1", version, TaskDetailDTO.builder().build());
+
+        assertNull(cache.get("task-1", cache.currentVersion("task-1")));
+    }
+
+    @Test
+    void historyWritesBumpTheVersion() {
+        String etag = loadedEtag("task-1");
+
+        // What the audit writer does once a task's history rows are written
+        cache.bump("task-1");
+
+        String reloaded = loadedEtag("task-1");
+        assertNotEquals(etag, reloaded);
+        // The task itself did not change, so its version still leads the tag
+        assertTrue(reloaded.startsWith("\"3."));
+    }
+
+    @Test
+    void versionsStayWithinTheBoundAndEvictedTasksGetANewEtag() {
+        String etag = loadedEtag("task-0");
+        for (int i = 1; i <= 1000; i++) {
+            cache.currentVersion("task-" + i);
+        }
+
+        assertTrue(cache.size() <= 100);
+        assertNotEquals(etag, loadedEtag("task-0"));
+    }
+
+    @Test
+    void detailLoadedAcrossAnEvictionIsNotCached() {
+        long version = cache.currentVersion("task-1");
+        cache.forget("task-1");
+
+        cache.put("task-1", version, TaskDetailDTO.builder().build());
+
+        assertNull(cache.get("task-1", cache.currentVersion("task-1")));
+    }
+
+    @Test
+    void deletedTasksNeverGetTheirOldEtagBack() {
+        String etag = loadedEtag("task-1");
+
+        cache.onTaskChanged(TaskChangedEvent.deleted(snapshot("task-1"), "user-1"));
+
+        assertNotEquals(etag, loadedEtag("task-1"));
+    }
+
+    @Test
+    void etagsDifferAcrossInstances() {
+        TaskDetailCache other = new TaskDetailCache(new SimpleMeterRegistry(), 100);
+
+        assertNotEquals(loadedEtag("task-1"), other.getOrLoad("task-1", () -> detail(3L)).getEtag());
+    }
+
+    @Test
+    void concurrentCallersShareOneLoad() throws InterruptedException {
+        int callers = 50;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        TaskDetailDTO detail = detail(3L);
+        Supplier<TaskDetailDTO> loader = () -> {
+            loads.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return detail;
+        };
+
+        List<TaskDetailDTO> results = new CopyOnWriteArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            threads.add(Thread.ofPlatform().start(() -> results.add(cache.getOrLoad("task-1", loader))));
+        }
+        // Hold the load open until every other caller has joined it
+        while (cache.collapsedLoads() < callers - 1) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(callers, results.size());
+        assertTrue(results.stream().allMatch(result -> result == detail));
+        assertEquals(callers - 1, cache.collapsedLoads());
+    }
+
+    @Test
+    void concurrentCallersShareTheLoadFailure() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        Supplier<TaskDetailDTO> loader = () -> {
+            loads.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new NotFoundException("Task not found");
+        };
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    cache.getOrLoad("task-1", loader);
+                } catch (NotFoundException e) {
+                    failures.incrementAndGet();
+                }
+            }));
+        }
+        while (cache.collapsedLoads() < 9) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(10, failures.get());
+    }
+
+    @Test
+    void loadsAreNotSharedAcrossVersions() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<TaskDetailDTO> loader = () -> {
+            loads.incrementAndGet();
+            return detail(3L);
+        };
+
+        cache.getOrLoad("task-1", loader);
+        cache.getOrLoad("task-1", loader);
+        cache.bump("task-1");
+        cache.getOrLoad("task-1", loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    private String loadedEtag(String taskId) {
+        return cache.getOrLoad(taskId, () -> detail(3L)).getEtag();
+    }
+
+    private static TaskDetailDTO detail(Long taskVersion) {
+        return TaskDetailDTO.builder().task(TaskDTO.builder().version(taskVersion).build()).build();
+    }
+
+    private static TaskSnapshot snapshot(String id) {
+        return new TaskSnapshot(id, "Title", null, TaskStatus.TO_DO, TaskPriority.MEDIUM,
+            null, null, "user-1", false, List.of());
+    }
+}
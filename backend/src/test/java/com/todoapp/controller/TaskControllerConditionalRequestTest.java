@@ -0,0 +1,114 @@
+package com.todoapp.controller;
+
+import com.todoapp.cache.TaskDetailCache;
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.UserRole;
+import com.todoapp.dto.TaskDTO;
+import com.todoapp.dto.TaskDetailDTO;
+import com.todoapp.dto.UpdateTaskRequest;
+import com.todoapp.exception.GlobalExceptionHandler;
+import com.todoapp.service.TaskService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskControllerConditionalRequestTest {
+
+    @Mock
+    private TaskService taskService;
+
+    private final TaskDetailCache taskDetailCache = new TaskDetailCache(new SimpleMeterRegistry(), 100);
+    private MockMvc mockMvc;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(taskService, null, Duration.ofMinutes(30), 4))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+            .build();
+        user = User.builder()
+            .id("user-1")
+            .username("editor")
+            .email("editor@example.com")
+            .role(UserRole.USER)
+            .active(true)
+            .build();
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void etagOfGetIsAcceptedAsIfMatch() throws Exception {
+        // The detail goes through a real cache so the ETag has its production format
+        TaskDetailDTO detail = taskDetailCache.getOrLoad("task-1", () -> TaskDetailDTO.builder()
+            .task(TaskDTO.builder().id("task-1").title("Task").version(3L).build())
+            .build());
+        when(taskService.getTaskById("task-1", user)).thenReturn(detail);
+        when(taskService.updateTask(eq("task-1"), any(UpdateTaskRequest.class), eq(3L), eq(user)))
+            .thenReturn(TaskDTO.builder().id("task-1").title("Renamed").version(4L).build());
+
+        String etag = mockMvc.perform(get("/tasks/task-1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, detail.getEtag()))
+            .andExpect(jsonPath("$.etag").doesNotExist())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(put("/tasks/task-1")
+                .header(HttpHeaders.IF_MATCH, etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Renamed\"}"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+            .andExpect(jsonPath("$.title").value("Renamed"));
+        verify(taskService).updateTask(eq("task-1"), any(UpdateTaskRequest.class), eq(3L), eq(user));
+    }
+
+    @Test
+    void cachedDetailIsRevalidatedWithoutLoading() throws Exception {
+        TaskDetailDTO detail = taskDetailCache.getOrLoad("task-1", () -> TaskDetailDTO.builder()
+            .task(TaskDTO.builder().id("task-1").version(3L).build())
+            .build());
+        when(taskService.getTaskETag("task-1")).thenReturn(taskDetailCache.etag("task-1"));
+
+        mockMvc.perform(get("/tasks/task-1").header(HttpHeaders.IF_NONE_MATCH, detail.getEtag()))
+            .andExpect(status().isNotModified());
+        verify(taskService, never()).getTaskById(any(), any());
+    }
+
+    @Test
+    void ifMatchWithoutATaskVersionFails() throws Exception {
+        mockMvc.perform(put("/tasks/task-1")
+                .header(HttpHeaders.IF_MATCH, "\"abc.def\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"Renamed\"}"))
+            .andExpect(status().isPreconditionFailed());
+        verifyNoInteractions(taskService);
+    }
+}
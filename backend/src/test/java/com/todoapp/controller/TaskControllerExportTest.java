@@ -0,0 +1,142 @@
+package com.todoapp.controller;
+
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.ExportFormat;
+import com.todoapp.domain.enums.TaskStatus;
+import com.todoapp.domain.enums.UserRole;
+import com.todoapp.exception.GlobalExceptionHandler;
+import com.todoapp.service.TaskService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskControllerExportTest {
+
+    private static final Duration EXPORT_TIMEOUT = Duration.ofMinutes(30);
+    private static final int MAX_CONCURRENT_EXPORTS = 1;
+
+    @Mock
+    private TaskService taskService;
+
+    private MockMvc mockMvc;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(taskService, null, EXPORT_TIMEOUT, MAX_CONCURRENT_EXPORTS))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+            .build();
+        user = User.builder()
+            .id("user-1")
+            .username("exporter")
+            .email("exporter@example.com")
+            .role(UserRole.USER)
+            .active(true)
+            .build();
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void streamsTheExportWithItsOwnTimeout() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(8);
+            out.write("id,title\nt1,\"a, b\"\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(taskService).exportTasks(eq(TaskStatus.TO_DO), isNull(), isNull(), isNull(), eq(List.of("home")),
+            isNull(), isNull(), eq(ExportFormat.CSV), any(OutputStream.class), eq(user));
+
+        MvcResult started = mockMvc.perform(get("/tasks/export")
+                .param("format", "csv")
+                .param("status", "TO_DO")
+                .param("tags", "home"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        assertEquals(EXPORT_TIMEOUT.toMillis(), started.getRequest().getAsyncContext().getTimeout());
+
+        mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("text/csv"))
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks.csv\""))
+            .andExpect(content().string("id,title\nt1,\"a, b\"\n"));
+    }
+
+    @Test
+    void defaultsToNdjson() throws Exception {
+        MvcResult started = mockMvc.perform(get("/tasks/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson"))
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks.ndjson\""));
+        verify(taskService).exportTasks(isNull(), isNull(), isNull(), isNull(), isNull(), isNull(), isNull(),
+            eq(ExportFormat.NDJSON), any(OutputStream.class), eq(user));
+    }
+
+    @Test
+    void rejectsExportsBeyondTheLimitUntilOneFinishes() throws Exception {
+        CountDownLatch finish = new CountDownLatch(1);
+        doAnswer(invocation -> finish.await(5, TimeUnit.SECONDS)).when(taskService).exportTasks(
+            any(), any(), any(), any(), any(), any(), any(), any(), any(OutputStream.class), eq(user));
+
+        MvcResult running = mockMvc.perform(get("/tasks/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(get("/tasks/export"))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, "30"));
+
+        finish.countDown();
+        mockMvc.perform(asyncDispatch(running))
+            .andExpect(status().isOk());
+        // The finished export gave its permit back
+        MvcResult next = mockMvc.perform(get("/tasks/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(next))
+            .andExpect(status().isOk());
+        verify(taskService, times(2)).exportTasks(
+            any(), any(), any(), any(), any(), any(), any(), any(), any(OutputStream.class), eq(user));
+    }
+
+    @Test
+    void rejectsUnknownFormatsBeforeStreaming() throws Exception {
+        mockMvc.perform(get("/tasks/export").param("format", "xlsx"))
+            .andExpect(status().isBadRequest());
+        verifyNoInteractions(taskService);
+    }
+}
@@ -0,0 +1,62 @@
+package com.todoapp.domain.event;
+
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@RecordApplicationEvents
+class UserChangePublisherTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persistAndFlush(User.builder()
+            .username("alice")
+            .email("alice@example.com")
+            .firstName("Alice")
+            .lastName("Test")
+            .passwordHash("hash")
+            .role(UserRole.USER)
+            .active(true)
+            .build());
+    }
+
+    @Test
+    void roleChangesAndDeactivationPublishAUserChange() {
+        assertEquals(0, events.stream(UserChangedEvent.class).count());
+
+        user.setRole(UserRole.MANAGER);
+        entityManager.flush();
+        user.setActive(false);
+        entityManager.flush();
+
+        assertEquals(List.of(new UserChangedEvent(user.getId()), new UserChangedEvent(user.getId())),
+            events.stream(UserChangedEvent.class).toList());
+    }
+
+    @Test
+    void flushingAnUnchangedUserPublishesNothing() {
+        entityManager.find(User.class, user.getId());
+        entityManager.flush();
+
+        assertEquals(0, events.stream(UserChangedEvent.class).count());
+    }
+}
@@ -0,0 +1,39 @@
+package com.todoapp.notification;
+
+import com.todoapp.domain.entity.NotificationPreferences;
+import com.todoapp.domain.enums.NotificationType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DigestScheduleTest {
+
+    private final DigestSchedule schedule = new DigestSchedule(Duration.ofMinutes(2), 8);
+
+    @Test
+    void everythingButOverdueNoticesWaitsForTheWindow() {
+        LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 30);
+
+        assertEquals(now.plusMinutes(2), schedule.sendAt(NotificationType.TASK_ASSIGNED, frequency("daily"), now));
+        assertEquals(now.plusMinutes(2), schedule.sendAt(NotificationType.TASK_OVERDUE, frequency("immediate"), now));
+    }
+
+    @Test
+    void overdueNoticesFollowTheRecipientsFrequency() {
+        LocalDateTime morning = LocalDateTime.of(2030, 1, 1, 7, 15);
+        LocalDateTime afternoon = LocalDateTime.of(2030, 1, 1, 12, 30);
+
+        assertEquals(LocalDateTime.of(2030, 1, 1, 13, 0), schedule.sendAt(NotificationType.TASK_OVERDUE, frequency("hourly"), afternoon));
+        assertEquals(LocalDateTime.of(2030, 1, 1, 8, 0), schedule.sendAt(NotificationType.TASK_OVERDUE, frequency("daily"), morning));
+        assertEquals(LocalDateTime.of(2030, 1, 2, 8, 0), schedule.sendAt(NotificationType.TASK_OVERDUE, frequency("daily"), afternoon));
+        // Anything unrecognised is treated as the default, daily
+        assertEquals(LocalDateTime.of(2030, 1, 2, 8, 0), schedule.sendAt(NotificationType.TASK_OVERDUE, frequency(null), afternoon));
+    }
+
+    private static NotificationPreferences frequency(String frequency) {
+        return NotificationPreferences.builder().overdueNotificationFrequency(frequency).build();
+    }
+}
@@ -0,0 +1,174 @@
+package com.todoapp.notification;
+
+import com.todoapp.domain.entity.NotificationPreferences;
+import com.todoapp.domain.entity.ReminderCheckpoint;
+import com.todoapp.domain.entity.Task;
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.TaskStatus;
+import com.todoapp.domain.enums.UserRole;
+import com.todoapp.domain.event.TaskSnapshot;
+import com.todoapp.repository.NotificationPreferencesRepository;
+import com.todoapp.repository.ReminderCheckpointRepository;
+import com.todoapp.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class DueDateReminderSchedulerTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private NotificationPreferencesRepository notificationPreferencesRepository;
+
+    @Autowired
+    private ReminderCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<DueDateReminder> sent = new ArrayList<>();
+    private Task assignedDueTomorrow;
+    private Task unassignedDueInThreeDays;
+    private Task assignedDueLater;
+
+    @BeforeEach
+    void setUp() {
+        User alice = user("alice");
+        User bob = user("bob");
+        // carol has no preferences row, so she gets the defaults: 1 and 3 days before
+        User carol = user("carol");
+        entityManager.persist(NotificationPreferences.builder().user(alice).reminderDaysBefore(new ArrayList<>(List.of(1))).build());
+        entityManager.persist(NotificationPreferences.builder().user(bob).dueDateReminder(false).build());
+
+        assignedDueTomorrow = task(carol, alice, TaskStatus.TO_DO, START.plusDays(1).plusMinutes(10));
+        task(carol, bob, TaskStatus.TO_DO, START.plusDays(1).plusMinutes(10));
+        unassignedDueInThreeDays = task(carol, null, TaskStatus.IN_PROGRESS, START.plusDays(3).plusMinutes(20));
+        // alice only wants reminders one day ahead
+        task(carol, alice, TaskStatus.TO_DO, START.plusDays(3).plusMinutes(20));
+        task(carol, alice, TaskStatus.COMPLETED, START.plusDays(1).plusMinutes(5));
+        assignedDueLater = task(carol, alice, TaskStatus.TO_DO, START.plusDays(1).plusMinutes(40));
+        entityManager.flush();
+        entityManager.clear();
+
+        checkpointRepository.save(ReminderCheckpoint.builder()
+            .id(DueDateReminderScheduler.CHECKPOINT_ID)
+            .processedBefore(START)
+            .build());
+    }
+
+    @Test
+    void sendsTheRemindersFiringInTheMinutesThatEnded() {
+        DueDateReminderScheduler scheduler = scheduler(sender(sent::addAll), 500);
+
+        assertEquals(2, scheduler.tick(START.plusMinutes(30).plusSeconds(30)));
+        assertEquals(Set.of(assignedDueTomorrow.getId() + "@1", unassignedDueInThreeDays.getId() + "@3"), keys(sent));
+        DueDateReminder reminder = sent.stream().filter(r -> r.daysBefore() == 3).findFirst().orElseThrow();
+        assertEquals(START.plusMinutes(20), reminder.fireAt());
+
+        // Nothing new within the same minute, then only the next window's reminder
+        assertEquals(0, scheduler.tick(START.plusMinutes(30).plusSeconds(50)));
+        assertEquals(1, scheduler.tick(START.plusMinutes(45)));
+        assertEquals(assignedDueLater.getId(), sent.get(sent.size() - 1).taskId());
+    }
+
+    @Test
+    void resumesAfterTheLastChunkHandedOff() {
+        // Fails on the second chunk, as if the process died while sending it
+        int[] calls = {0};
+        DueDateReminderScheduler failing = scheduler(sender(reminders -> {
+            if (++calls[0] == 2) {
+                throw new IllegalStateException("sender down");
+            }
+            sent.addAll(reminders);
+        }), 1);
+        assertThrows(IllegalStateException.class, () -> failing.tick(START.plusMinutes(30)));
+        assertEquals(1, sent.size());
+
+        DueDateReminderScheduler restarted = scheduler(sender(sent::addAll), 1);
+        assertEquals(1, restarted.tick(START.plusMinutes(30)));
+        assertEquals(Set.of(assignedDueTomorrow.getId() + "@1", unassignedDueInThreeDays.getId() + "@3"), keys(sent));
+        assertEquals(2, sent.size());
+        assertNull(checkpointRepository.findById(DueDateReminderScheduler.CHECKPOINT_ID).orElseThrow().getWindowEnd());
+    }
+
+    @Test
+    void catchUpIsLimitedPerTick() {
+        DueDateReminderScheduler scheduler = scheduler(sender(sent::addAll), 500);
+
+        // A day of downtime: the first tick only covers the first hour
+        scheduler.tick(START.plusDays(1));
+        assertEquals(START.plusHours(1),
+            checkpointRepository.findById(DueDateReminderScheduler.CHECKPOINT_ID).orElseThrow().getProcessedBefore());
+    }
+
+    private DueDateReminderScheduler scheduler(NotificationSender sender, int chunkSize) {
+        return new DueDateReminderScheduler(taskRepository, notificationPreferencesRepository, checkpointRepository,
+            sender, new TransactionTemplate(transactionManager), new SimpleMeterRegistry(), chunkSize, Duration.ofHours(1));
+    }
+
+    private static NotificationSender sender(Consumer<List<DueDateReminder>> reminders) {
+        return new NotificationSender() {
+            @Override
+            public void sendDueDateReminders(List<DueDateReminder> batch) {
+                reminders.accept(batch);
+            }
+
+            @Override
+            public void sendTaskAssigned(TaskSnapshot previous, TaskSnapshot task, String actorId) {
+            }
+
+            @Override
+            public void sendStatusChanged(TaskSnapshot previous, TaskSnapshot task, String actorId) {
+            }
+        };
+    }
+
+    private static Set<String> keys(List<DueDateReminder> reminders) {
+        return reminders.stream().map(r -> r.taskId() + "@" + r.daysBefore()).collect(Collectors.toSet());
+    }
+
+    private User user(String name) {
+        return entityManager.persist(User.builder()
+            .username(name)
+            .email(name + "@example.com")
+            .firstName(name)
+            .lastName("Test")
+            .passwordHash("hash")
+            .role(UserRole.USER)
+            .active(true)
+            .build());
+    }
+
+    private Task task(User creator, User assignee, TaskStatus status, LocalDateTime dueDate) {
+        return entityManager.persist(Task.builder()
+            .title("Due " + dueDate)
+            .status(status)
+            .dueDate(dueDate)
+            .assignee(assignee)
+            .createdBy(creator)
+            .build());
+    }
+}
@@ -0,0 +1,127 @@
+package com.todoapp.notification;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Minimal SMTP server for tests: accepts every message without auth or TLS and keeps
+// the recipients and raw data. rejectNext makes the next messages fail with a 451,
+// which leaves the connection usable, like a greylisting server would.
+class EmbeddedSmtpServer implements AutoCloseable {
+    private final ServerSocket serverSocket;
+    private final List<Received> messages = new CopyOnWriteArrayList<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger rejections = new AtomicInteger();
+
+    EmbeddedSmtpServer() {
+        try {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Thread acceptor = new Thread(this::accept, "embedded-smtp");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    List<Received> messages() {
+        return messages;
+    }
+
+    int connections() {
+        return connections.get();
+    }
+
+    void rejectNext(int count) {
+        rejections.set(count);
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                Thread session = new Thread(() -> serve(socket), "embedded-smtp-session");
+                session.setDaemon(true);
+                session.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            OutputStream out = socket.getOutputStream();
+            reply(out, "220 localhost ESMTP");
+            List<String> recipients = new CopyOnWriteArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO" -> reply(out, "250-localhost\r\n250 8BITMIME");
+                    case "HELO", "NOOP" -> reply(out, "250 OK");
+                    case "MAIL" -> {
+                        recipients.clear();
+                        reply(out, "250 OK");
+                    }
+                    case "RCPT" -> {
+                        recipients.add(line.substring(line.indexOf(':') + 1).trim().replaceAll("[<>]", ""));
+                        reply(out, "250 OK");
+                    }
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        StringBuilder data = new StringBuilder();
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            data.append(line.startsWith("..") ? line.substring(1) : line).append("\n");
+                        }
+                        if (rejections.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                            reply(out, "451 Try again later");
+                        } else {
+                            messages.add(new Received(List.copyOf(recipients), data.toString()));
+                            reply(out, "250 OK");
+                        }
+                    }
+                    case "RSET" -> {
+                        recipients.clear();
+                        reply(out, "250 OK");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            // Client went away
+        }
+    }
+
+    private static void reply(OutputStream out, String text) throws IOException {
+        out.write((text + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    record Received(List<String> recipients, String data) {
+    }
+}
@@ -0,0 +1,237 @@
+package com.todoapp.notification;
+
+import com.todoapp.domain.entity.NotificationPreferences;
+import com.todoapp.domain.entity.NotificationThrottle;
+import com.todoapp.domain.entity.OutboxNotification;
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.NotificationType;
+import com.todoapp.domain.enums.UserRole;
+import com.todoapp.repository.NotificationPreferencesRepository;
+import com.todoapp.repository.NotificationThrottleRepository;
+import com.todoapp.repository.OutboxNotificationRepository;
+import com.todoapp.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class NotificationDispatcherTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private OutboxNotificationRepository outboxRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NotificationPreferencesRepository notificationPreferencesRepository;
+
+    @Autowired
+    private NotificationThrottleRepository throttleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EmbeddedSmtpServer smtp;
+    private SmtpConnectionPool connectionPool;
+    private NotificationDispatcher dispatcher;
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        smtp = new EmbeddedSmtpServer();
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtp.port());
+        connectionPool = new SmtpConnectionPool(mailSender, meterRegistry, 1);
+        // Not started: the test drives dispatchBatch itself
+        // Two recipients per batch, a two minute digest window and two messages per hour
+        dispatcher = new NotificationDispatcher(outboxRepository, userRepository, notificationPreferencesRepository,
+            throttleRepository, mailSender, connectionPool, new DigestSchedule(Duration.ofMinutes(2), 8), transactionManager,
+            meterRegistry, false, "noreply@todoapp.local", 1, 2, Duration.ofSeconds(5), Duration.ofMinutes(5), 3,
+            Duration.ofSeconds(30), Duration.ofMinutes(1), 2, 50, Duration.ofSeconds(1));
+
+        alice = user("alice", true);
+        bob = user("bob", true);
+        // bob has status change mails switched on, alice keeps the default (off)
+        entityManager.persist(NotificationPreferences.builder().user(bob).statusChanged(true).build());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        connectionPool.destroy();
+        smtp.close();
+    }
+
+    @Test
+    void sendsOneDigestPerRecipientOverOneConnection() {
+        for (int i = 0; i < 5; i++) {
+            enqueue(i % 2 == 0 ? alice : bob, NotificationType.TASK_ASSIGNED, "Assigned " + i);
+        }
+
+        assertEquals(5, dispatcher.dispatchBatch(NOW));
+        assertEquals(0, dispatcher.dispatchBatch(NOW));
+
+        assertEquals(2, smtp.messages().size());
+        assertEquals(1, smtp.connections());
+        EmbeddedSmtpServer.Received digest = received("alice@example.com");
+        assertTrue(digest.data().contains("Subject: 3 task updates"));
+        assertTrue(digest.data().contains("Assigned 0") && digest.data().contains("Assigned 2") && digest.data().contains("Assigned 4"));
+        assertTrue(received("bob@example.com").data().contains("Subject: 2 task updates"));
+        assertEquals(0, outboxRepository.count());
+        assertEquals(5, meterRegistry.counter("notifications.delivered").count());
+        assertEquals(2, meterRegistry.counter("notifications.digests.sent").count());
+    }
+
+    @Test
+    void digestTakesWhatIsQueuedWithinTheWindow() {
+        enqueue(alice, NotificationType.TASK_ASSIGNED, "First", NOW);
+        enqueue(alice, NotificationType.TASK_REASSIGNED, "Soon after", NOW.plusMinutes(1));
+        String later = enqueue(alice, NotificationType.TASK_ASSIGNED, "Much later", NOW.plusMinutes(10)).getId();
+
+        assertEquals(2, dispatcher.dispatchBatch(NOW));
+        assertTrue(received("alice@example.com").data().contains("Subject: 2 task updates"));
+        entityManager.flush();
+        entityManager.clear();
+        List<OutboxNotification> left = outboxRepository.findAll();
+        assertEquals(List.of(later), left.stream().map(OutboxNotification::getId).toList());
+        assertNull(left.get(0).getClaimToken());
+    }
+
+    @Test
+    void holdsBackDigestsPastTheHourlyCap() {
+        for (int i = 0; i < 3; i++) {
+            enqueue(alice, NotificationType.TASK_ASSIGNED, "Assigned " + i, NOW.plusMinutes(i * 10));
+            dispatcher.dispatchBatch(NOW.plusMinutes(i * 10));
+        }
+
+        assertEquals(2, smtp.messages().size());
+        entityManager.flush();
+        entityManager.clear();
+        OutboxNotification held = outboxRepository.findAll().get(0);
+        assertEquals(NOW.plusHours(1), held.getNextAttemptAt());
+        assertEquals(0, held.getAttempts());
+        assertNull(held.getClaimToken());
+        NotificationThrottle throttle = throttleRepository.findById(alice.getId()).orElseThrow();
+        assertEquals(NOW, throttle.getHourStart());
+        assertEquals(2, throttle.getSent());
+
+        assertEquals(1, dispatcher.dispatchBatch(NOW.plusHours(1)));
+        assertEquals(3, smtp.messages().size());
+        assertEquals(1, meterRegistry.counter("notifications.deferred").count());
+    }
+
+    @Test
+    void dropsWhatTheRecipientSwitchedOff() {
+        User carol = user("carol", false);
+        enqueue(alice, NotificationType.STATUS_CHANGED, "Status for alice");
+        enqueue(bob, NotificationType.STATUS_CHANGED, "Status for bob");
+        enqueue(carol, NotificationType.TASK_ASSIGNED, "Assigned to carol");
+
+        dispatcher.dispatchBatch(NOW);
+        dispatcher.dispatchBatch(NOW);
+
+        assertEquals(1, smtp.messages().size());
+        assertEquals(List.of("bob@example.com"), smtp.messages().get(0).recipients());
+        assertEquals(0, outboxRepository.count());
+        assertEquals(2, meterRegistry.counter("notifications.suppressed").count());
+    }
+
+    @Test
+    void retriesWithBackoffThenGivesUp() {
+        String id = enqueue(alice, NotificationType.TASK_ASSIGNED, "Assigned").getId();
+        smtp.rejectNext(3);
+
+        assertEquals(1, dispatcher.dispatchBatch(NOW));
+        OutboxNotification retry = reload(id);
+        assertEquals(1, retry.getAttempts());
+        assertEquals(NOW.plusSeconds(30), retry.getNextAttemptAt());
+        assertNull(retry.getClaimToken());
+        assertNotNull(retry.getLastError());
+
+        // Not due again until the backoff has passed
+        assertEquals(0, dispatcher.dispatchBatch(NOW.plusSeconds(10)));
+        assertEquals(1, dispatcher.dispatchBatch(NOW.plusSeconds(30)));
+        assertEquals(NOW.plusSeconds(30).plusMinutes(1), reload(id).getNextAttemptAt());
+
+        // The third failure reaches max-attempts
+        assertEquals(1, dispatcher.dispatchBatch(NOW.plusMinutes(2)));
+        OutboxNotification failed = reload(id);
+        assertEquals(3, failed.getAttempts());
+        assertEquals(NOW.plusMinutes(2), failed.getFailedAt());
+        assertEquals(0, dispatcher.dispatchBatch(NOW.plusDays(1)));
+        assertTrue(smtp.messages().isEmpty());
+        assertEquals(2, meterRegistry.counter("notifications.retried").count());
+        assertEquals(1, meterRegistry.counter("notifications.failed").count());
+    }
+
+    @Test
+    void expiredClaimsAreClaimedAgain() {
+        OutboxNotification stuck = enqueue(alice, NotificationType.TASK_ASSIGNED, "Assigned");
+        stuck.setClaimToken("dead-worker");
+        stuck.setClaimedUntil(NOW.plusMinutes(1));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(0, dispatcher.dispatchBatch(NOW));
+        assertEquals(1, dispatcher.dispatchBatch(NOW.plusMinutes(2)));
+        assertEquals(1, smtp.messages().size());
+    }
+
+    private OutboxNotification enqueue(User recipient, NotificationType type, String subject) {
+        return enqueue(recipient, type, subject, NOW.minusSeconds(1));
+    }
+
+    private OutboxNotification enqueue(User recipient, NotificationType type, String subject, LocalDateTime sendAt) {
+        OutboxNotification notification = entityManager.persist(OutboxNotification.builder()
+            .type(type)
+            .recipientId(recipient.getId())
+            .subject(subject)
+            .body("Body of " + subject)
+            .nextAttemptAt(sendAt)
+            .build());
+        entityManager.flush();
+        return notification;
+    }
+
+    private EmbeddedSmtpServer.Received received(String email) {
+        return smtp.messages().stream().filter(message -> message.recipients().equals(List.of(email))).findFirst().orElseThrow();
+    }
+
+    private OutboxNotification reload(String id) {
+        entityManager.flush();
+        entityManager.clear();
+        return outboxRepository.findById(id).orElseThrow();
+    }
+
+    private User user(String name, boolean active) {
+        return entityManager.persist(User.builder()
+            .username(name)
+            .email(name + "@example.com")
+            .firstName(name)
+            .lastName("Test")
+            .passwordHash("hash")
+            .role(UserRole.USER)
+            .active(active)
+            .build());
+    }
+}
@@ -0,0 +1,218 @@
+package com.todoapp.repository;
+
+import com.todoapp.domain.entity.Task;
+import com.todoapp.domain.entity.TaskHistory;
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.HistoryAction;
+import com.todoapp.domain.enums.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class TaskHistoryPartitionTest {
+
+    private static final LocalDateTime JANUARY = LocalDateTime.of(2023, 1, 10, 9, 0);
+    private static final LocalDateTime FEBRUARY = LocalDateTime.of(2023, 2, 10, 9, 0);
+    private static final LocalDateTime MARCH = LocalDateTime.of(2023, 3, 10, 9, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskHistoryRepository taskHistoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(User.builder()
+            .username("auditor")
+            .email("auditor@example.com")
+            .firstName("Audit")
+            .lastName("Test")
+            .passwordHash("hash")
+            .role(UserRole.USER)
+            .active(true)
+            .build());
+        List<TaskHistory> entries = new ArrayList<>();
+        for (LocalDateTime month : List.of(JANUARY, FEBRUARY, MARCH)) {
+            for (int i = 0; i < 4; i++) {
+                entries.add(entry("task-1", "status", month.plusHours(i)));
+            }
+            entries.add(entry("task-2", "title", month));
+        }
+        taskHistoryRepository.appendAll(entries);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void rowsAreRoutedToTheirMonthsTable() {
+        assertTrue(taskHistoryRepository.findPartitions().containsAll(
+            List.of(YearMonth.of(2023, 3), YearMonth.of(2023, 2), YearMonth.of(2023, 1))));
+        assertEquals(12, taskHistoryRepository.countByTaskId("task-1"));
+        assertEquals(3, taskHistoryRepository.countByTaskId("task-2"));
+    }
+
+    @Test
+    void timelinePagesAcrossMonthsNewestFirst() {
+        List<TaskHistory> seen = new ArrayList<>();
+        TimelineCursor after = null;
+        List<TaskHistory> page;
+        do {
+            page = taskHistoryRepository.findTimeline("task-1", null, null, after, 5);
+            seen.addAll(page);
+            if (!page.isEmpty()) {
+                TaskHistory last = page.get(page.size() - 1);
+                after = new TimelineCursor(last.getPerformedAt(), last.getId());
+            }
+        } while (page.size() == 5);
+
+        assertEquals(12, seen.size());
+        assertEquals(MARCH.plusHours(3), seen.get(0).getPerformedAt());
+        assertEquals(JANUARY, seen.get(11).getPerformedAt());
+        assertEquals("auditor", seen.get(0).getPerformedBy().getUsername());
+    }
+
+    @Test
+    void rangeQueryOnlyReturnsRowsInsideTheRange() {
+        List<TaskHistory> february = taskHistoryRepository.findTimeline(
+            "task-1", FEBRUARY.withDayOfMonth(1), MARCH.withDayOfMonth(1), null, 100);
+
+        assertEquals(4, february.size());
+        assertTrue(february.stream().allMatch(row -> YearMonth.from(row.getPerformedAt()).equals(YearMonth.of(2023, 2))));
+    }
+
+    @Test
+    void compactionFoldsAMonthIntoOneSummaryPerTask() {
+        Set<String> taskIds = taskHistoryRepository.compactPartition(YearMonth.of(2023, 1));
+        entityManager.clear();
+
+        assertEquals(Set.of("task-1", "task-2"), taskIds);
+        assertEquals(9, taskHistoryRepository.countByTaskId("task-1"));
+        TaskHistory summary = taskHistoryRepository.findTimeline(
+            "task-1", JANUARY.withDayOfMonth(1), FEBRUARY.withDayOfMonth(1), null, 100).get(0);
+        assertEquals(HistoryAction.COMPACTED, summary.getAction());
+        assertEquals("4 changes: status 4", summary.getNewValue());
+        assertEquals(JANUARY.toString(), summary.getOldValue());
+        assertEquals(JANUARY.plusHours(3), summary.getPerformedAt());
+
+        // Compacting again is a no-op
+        assertTrue(taskHistoryRepository.compactPartition(YearMonth.of(2023, 1)).isEmpty());
+    }
+
+    @Test
+    void compactionWorksThroughTheMonthInTaskRanges() {
+        List<String> rangeQueries = new ArrayList<>();
+        JdbcTemplate countingJdbcTemplate = new JdbcTemplate(dataSource) {
+            @Override
+            public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+                rangeQueries.add(sql);
+                return super.queryForList(sql, elementType, args);
+            }
+        };
+
+        Set<String> taskIds = new TaskHistoryRepositoryCustomImpl(countingJdbcTemplate, transactionManager, 2, 1)
+            .compactPartition(YearMonth.of(2023, 1));
+        entityManager.clear();
+
+        assertEquals(Set.of("task-1", "task-2"), taskIds);
+        // One range per task, then one that finds nothing left
+        assertEquals(3, rangeQueries.size());
+        assertEquals(9, taskHistoryRepository.countByTaskId("task-1"));
+        assertEquals(3, taskHistoryRepository.countByTaskId("task-2"));
+        assertEquals("1 changes: title 1", taskHistoryRepository.findTimeline(
+            "task-2", JANUARY.withDayOfMonth(1), FEBRUARY.withDayOfMonth(1), null, 100).get(0).getNewValue());
+    }
+
+    @Test
+    void timelineWithoutALowerBoundSkipsMonthsBeforeTheTaskWasCreated() {
+        Task task = entityManager.persist(Task.builder().title("Created in February").createdBy(user).build());
+        entityManager.flush();
+        jdbcTemplate.update("update tasks set created_at = ? where id = ?", FEBRUARY.withDayOfMonth(1), task.getId());
+        List<TaskHistory> entries = new ArrayList<>();
+        for (LocalDateTime month : List.of(JANUARY, FEBRUARY, MARCH)) {
+            entries.add(entry(task.getId(), "status", month));
+        }
+        taskHistoryRepository.appendAll(entries);
+
+        // The January table is not queried, so its row is not found
+        assertEquals(List.of(MARCH, FEBRUARY), taskHistoryRepository.findTimeline(task.getId(), null, null, null, 10)
+            .stream().map(TaskHistory::getPerformedAt).toList());
+    }
+
+    @Test
+    void compactionKeepsRowsWrittenAfterItsRead() {
+        // Lands in January after the compaction has read the month, just before it deletes
+        TaskHistory late = entry("task-1", "priority", JANUARY.plusDays(1));
+        boolean[] written = new boolean[1];
+        JdbcTemplate racingJdbcTemplate = new JdbcTemplate(dataSource) {
+            @Override
+            public int update(String sql, Object... args) {
+                if (sql.startsWith("delete") && !written[0]) {
+                    written[0] = true;
+                    taskHistoryRepository.appendAll(List.of(late));
+                }
+                return super.update(sql, args);
+            }
+        };
+        new TaskHistoryRepositoryCustomImpl(racingJdbcTemplate, transactionManager, 2, 500).compactPartition(YearMonth.of(2023, 1));
+        entityManager.clear();
+
+        List<TaskHistory> january = taskHistoryRepository.findTimeline(
+            "task-1", JANUARY.withDayOfMonth(1), FEBRUARY.withDayOfMonth(1), null, 100);
+        assertEquals(List.of(late.getId()), january.stream()
+            .filter(row -> row.getAction() == HistoryAction.UPDATED).map(TaskHistory::getId).toList());
+        assertEquals(1, january.stream().filter(row -> row.getAction() == HistoryAction.COMPACTED).count());
+        assertEquals(10, taskHistoryRepository.countByTaskId("task-1"));
+    }
+
+    @Test
+    void countSkipsMonthsBeforeTheTaskWasCreated() {
+        Task task = entityManager.persist(Task.builder().title("Created in February").createdBy(user).build());
+        entityManager.flush();
+        jdbcTemplate.update("update tasks set created_at = ? where id = ?", FEBRUARY.withDayOfMonth(1), task.getId());
+        List<TaskHistory> entries = new ArrayList<>();
+        for (LocalDateTime month : List.of(JANUARY, FEBRUARY, MARCH)) {
+            entries.add(entry(task.getId(), "status", month));
+        }
+        taskHistoryRepository.appendAll(entries);
+
+        // The January row could not have been written for this task, so it is not counted
+        assertEquals(2, taskHistoryRepository.countByTaskId(task.getId()));
+    }
+
+    private TaskHistory entry(String taskId, String field, LocalDateTime at) {
+        return TaskHistory.builder()
+            .taskId(taskId)
+            .action(HistoryAction.UPDATED)
+            .field(field)
+            .newValue("value")
+            .performedBy(user)
+            .performedAt(at)
+            .build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.todoapp.repository;
+
+import com.todoapp.domain.entity.Task;
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class TaskKeysetPagingTest {
+
+    private static final int TASK_COUNT = 30;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @BeforeEach
+    void setUp() {
+        User creator = entityManager.persist(User.builder()
+            .username("creator")
+            .email("creator@example.com")
+            .firstName("Creator")
+            .lastName("Test")
+            .passwordHash("hash")
+            .role(UserRole.USER)
+            .active(true)
+            .build());
+        // Due dates repeat, and every third task has none, so both ties and nulls cross page boundaries
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 9, 0);
+        for (int i = 0; i < TASK_COUNT; i++) {
+            entityManager.persist(Task.builder()
+                .title("Task " + i)
+                .dueDate(i % 3 == 0 ? null : base.plusDays(i % 4))
+                .createdBy(creator)
+                .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @ParameterizedTest
+    @EnumSource(Sort.Direction.class)
+    void testCursorFromOffsetPage_ContinuesWithoutGapsOrRepeats(Sort.Direction direction) {
+        // Given
+        TaskFilter filter = TaskFilter.builder().build();
+        int pageSize = 7;
+        List<String> expected = taskRepository.findPage(filter, TaskSortKey.DUE_DATE, direction, PageRequest.of(0, TASK_COUNT))
+            .map(Task::getId)
+            .getContent();
+
+        // When: the first page by offset, the rest by cursor
+        Page<Task> first = taskRepository.findPage(filter, TaskSortKey.DUE_DATE, direction, PageRequest.of(0, pageSize));
+        List<String> seen = new ArrayList<>(first.map(Task::getId).getContent());
+        TaskCursor cursor = TaskCursor.after(first.getContent().get(pageSize - 1), TaskSortKey.DUE_DATE, direction);
+        List<Task> page = taskRepository.findAfter(filter, cursor, pageSize);
+        while (!page.isEmpty()) {
+            page.forEach(task -> seen.add(task.getId()));
+            cursor = TaskCursor.after(page.get(page.size() - 1), TaskSortKey.DUE_DATE, direction);
+            page = taskRepository.findAfter(filter, cursor, pageSize);
+        }
+
+        // Then
+        assertEquals(TASK_COUNT, new HashSet<>(seen).size());
+        assertEquals(expected, seen);
+    }
+}
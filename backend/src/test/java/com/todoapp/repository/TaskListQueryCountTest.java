@@ -0,0 +1,115 @@
+package com.todoapp.repository;
+
+import com.todoapp.domain.entity.Tag;
+import com.todoapp.domain.entity.Task;
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.UserRole;
+import com.todoapp.dto.TaskDTO;
+import com.todoapp.mapper.CommentMapperImpl;
+import com.todoapp.mapper.TaskMapper;
+import com.todoapp.mapper.TaskMapperImpl;
+import com.todoapp.mapper.UserMapperImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.todoapp.repository.CapturingStatementInspector")
+@Import({TaskMapperImpl.class, UserMapperImpl.class, CommentMapperImpl.class})
+class TaskListQueryCountTest {
+
+    private static final int TASK_COUNT = 120;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskMapper taskMapper;
+
+    @BeforeEach
+    void setUp() {
+        User creator = entityManager.persist(user("creator"));
+        User assignee = entityManager.persist(user("assignee"));
+        Tag urgent = entityManager.persist(Tag.builder().name("urgent").build());
+        Tag backend = entityManager.persist(Tag.builder().name("backend").build());
+
+        for (int i = 0; i < TASK_COUNT; i++) {
+            Task task = Task.builder()
+                .title("Task " + i)
+                .dueDate(LocalDateTime.now().plusDays(i))
+                .createdBy(creator)
+                .assignee(i % 2 == 0 ? assignee : null)
+                .build();
+            task.addTag(urgent);
+            if (i % 3 == 0) {
+                task.addTag(backend);
+            }
+            entityManager.persist(task);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 25, 50})
+    void testListPage_UsesConstantStatementCount(int pageSize) {
+        // Given
+        TaskFilter filter = TaskFilter.builder().build();
+        CapturingStatementInspector.clear();
+
+        // When
+        List<TaskDTO> page = taskRepository.findAll(TaskSpecifications.matching(filter), PageRequest.of(0, pageSize, Sort.by("dueDate")))
+            .map(taskMapper::toDTO)
+            .getContent();
+
+        // Then: one select with fetch joins, one count, one batched tag load
+        assertEquals(pageSize, page.size());
+        assertTrue(page.stream().allMatch(task -> task.getCreatedBy() != null && !task.getTags().isEmpty()));
+        assertEquals(3, CapturingStatementInspector.statements().size(),
+            "statements: " + CapturingStatementInspector.statements());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 50, 100})
+    void testCursorPage_UsesConstantStatementCount(int pageSize) {
+        // Given: the service reads one row past the page, up to the clamped maximum of 100
+        TaskFilter filter = TaskFilter.builder().build();
+        TaskCursor cursor = new TaskCursor(TaskSortKey.DUE_DATE, Sort.Direction.ASC, null, null);
+        CapturingStatementInspector.clear();
+
+        // When
+        List<Task> rows = taskRepository.findAfter(filter, cursor, pageSize + 1);
+        List<TaskDTO> page = rows.subList(0, pageSize).stream().map(taskMapper::toDTO).toList();
+
+        // Then: one keyset select with fetch joins, one batched tag load, no count
+        assertEquals(pageSize + 1, rows.size());
+        assertTrue(page.stream().allMatch(task -> task.getCreatedBy() != null && !task.getTags().isEmpty()));
+        assertEquals(2, CapturingStatementInspector.statements().size(),
+            "statements: " + CapturingStatementInspector.statements());
+    }
+
+    private static User user(String username) {
+        return User.builder()
+            .username(username)
+            .email(username + "@example.com")
+            .firstName(username)
+            .lastName("Test")
+            .passwordHash("hash")
+            .role(UserRole.USER)
+            .active(true)
+            .build();
+    }
+}
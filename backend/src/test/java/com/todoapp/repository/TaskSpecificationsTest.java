@@ -0,0 +1,65 @@
+package com.todoapp.repository;
+
+import com.todoapp.domain.enums.TaskPriority;
+import com.todoapp.domain.enums.TaskStatus;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.Locale;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.todoapp.repository.CapturingStatementInspector")
+class TaskSpecificationsTest {
+
+    private static final String[] COLUMNS = {"status", "priority", "assignee_id", "created_by_id", "overdue"};
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    static Stream<Integer> filterCombinations() {
+        return IntStream.range(0, 1 << COLUMNS.length).boxed();
+    }
+
+    @ParameterizedTest
+    @MethodSource("filterCombinations")
+    void testMatching_OnlyEmitsSuppliedFilters(int mask) {
+        // Given
+        TaskFilter filter = TaskFilter.builder()
+            .status(isSet(mask, 0) ? TaskStatus.IN_PROGRESS : null)
+            .priority(isSet(mask, 1) ? TaskPriority.HIGH : null)
+            .assigneeId(isSet(mask, 2) ? "assignee-1" : null)
+            .createdById(isSet(mask, 3) ? "creator-1" : null)
+            .overdue(isSet(mask, 4) ? Boolean.TRUE : null)
+            .build();
+        CapturingStatementInspector.clear();
+
+        // When
+        taskRepository.count(TaskSpecifications.matching(filter));
+
+        // Then
+        String sql = CapturingStatementInspector.statements().stream()
+            .filter(statement -> statement.toLowerCase(Locale.ROOT).contains("from tasks"))
+            .findFirst()
+            .orElseThrow()
+            .toLowerCase(Locale.ROOT)
+            .replaceAll("\\s+", "");
+        int where = sql.indexOf("where");
+        String whereClause = where < 0 ? "" : sql.substring(where);
+
+        assertFalse(whereClause.contains("isnull"), "catch-all null checks must not be emitted: " + sql);
+        assertFalse(sql.contains("join"), "filters must not join other tables: " + sql);
+        for (int i = 0; i < COLUMNS.length; i++) {
+            assertEquals(isSet(mask, i), whereClause.contains("." + COLUMNS[i] + "=?"),
+                "unexpected predicate state for " + COLUMNS[i] + ": " + sql);
+        }
+    }
+
+    private static boolean isSet(int mask, int bit) {
+        return (mask & (1 << bit)) != 0;
+    }
+}
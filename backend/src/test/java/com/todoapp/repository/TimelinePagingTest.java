@@ -0,0 +1,82 @@
+package com.todoapp.repository;
+
+import com.todoapp.domain.entity.Comment;
+import com.todoapp.domain.entity.Task;
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class TimelinePagingTest {
+
+    private static final int COMMENT_COUNT = 47;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private String taskId;
+
+    @BeforeEach
+    void setUp() {
+        User author = entityManager.persist(User.builder()
+            .username("author")
+            .email("author@example.com")
+            .firstName("Author")
+            .lastName("Test")
+            .passwordHash("hash")
+            .role(UserRole.USER)
+            .active(true)
+            .build());
+        Task task = entityManager.persist(Task.builder().title("Task").createdBy(author).build());
+        Task other = entityManager.persist(Task.builder().title("Other").createdBy(author).build());
+        taskId = task.getId();
+
+        // Inserted back to back, so many rows share a timestamp and the id has to break ties
+        for (int i = 0; i < COMMENT_COUNT; i++) {
+            entityManager.persist(Comment.builder().task(task).author(author).text("Comment " + i).build());
+            entityManager.persist(Comment.builder().task(other).author(author).text("Other " + i).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testKeysetPages_CoverEveryCommentOnceNewestFirst() {
+        // Given
+        int pageSize = 10;
+        List<Comment> seen = new ArrayList<>();
+
+        // When
+        List<Comment> page = commentRepository.findNewestByTaskId(taskId, Limit.of(pageSize));
+        while (!page.isEmpty()) {
+            seen.addAll(page);
+            Comment last = page.get(page.size() - 1);
+            page = commentRepository.findOlderByTaskId(taskId, last.getCreatedAt(), last.getId(), Limit.of(pageSize));
+        }
+
+        // Then
+        assertEquals(COMMENT_COUNT, seen.size());
+        assertEquals(COMMENT_COUNT, new HashSet<>(seen.stream().map(Comment::getId).toList()).size());
+        assertTrue(seen.stream().allMatch(comment -> comment.getText().startsWith("Comment ")));
+        Comparator<Comment> newestFirst = Comparator.comparing(Comment::getCreatedAt)
+            .thenComparing(Comment::getId)
+            .reversed();
+        assertEquals(seen.stream().sorted(newestFirst).toList(), seen);
+        assertEquals(COMMENT_COUNT, commentRepository.countByTaskId(taskId));
+    }
+}
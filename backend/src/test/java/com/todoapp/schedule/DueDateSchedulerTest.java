@@ -0,0 +1,212 @@
+package com.todoapp.schedule;
+
+import com.todoapp.domain.entity.Task;
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.TaskStatus;
+import com.todoapp.domain.enums.UserRole;
+import com.todoapp.domain.event.TaskChangedEvent;
+import com.todoapp.domain.event.TaskSnapshot;
+import com.todoapp.domain.event.TasksOverdueEvent;
+import com.todoapp.repository.ChangeSequenceRepository;
+import com.todoapp.repository.SyncCursorRepository;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.TaskTombstoneRepository;
+import com.todoapp.sync.TaskChangeLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class DueDateSchedulerTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ChangeSequenceRepository sequenceRepository;
+
+    @Autowired
+    private TaskTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private SyncCursorRepository cursorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Object> events = new ArrayList<>();
+    private TaskChangeLog changeLog;
+    private boolean committed;
+    private final LocalDateTime now = LocalDateTime.now();
+    private DueDateScheduler scheduler;
+    private Task drifted;
+    private Task closed;
+    private Task soon;
+    private Task later;
+
+    @BeforeEach
+    void setUp() {
+        User creator = entityManager.persist(User.builder()
+            .username("creator")
+            .email("creator@example.com")
+            .firstName("Creator")
+            .lastName("Test")
+            .passwordHash("hash")
+            .role(UserRole.USER)
+            .active(true)
+            .build());
+        // Flags as a server that was down when the deadlines passed would have left them
+        drifted = persist(creator, TaskStatus.IN_PROGRESS, now.minusDays(1), false);
+        closed = persist(creator, TaskStatus.COMPLETED, now.minusDays(1), true);
+        soon = persist(creator, TaskStatus.TO_DO, now.plusHours(1), false);
+        later = persist(creator, TaskStatus.TO_DO, now.plusHours(2), false);
+        persist(creator, TaskStatus.TO_DO, null, false);
+        entityManager.flush();
+        changeLog = new TaskChangeLog(taskRepository, sequenceRepository, tombstoneRepository, cursorRepository,
+            jdbcTemplate, entityManager.getEntityManager(), new TransactionTemplate(transactionManager), Duration.ofDays(30));
+        changeLog.afterSingletonsInstantiated();
+        entityManager.clear();
+
+        // Delivered synchronously inside the publishing transaction, as @EventListener is
+        scheduler = new DueDateScheduler(taskRepository, new TransactionTemplate(transactionManager), event -> {
+            events.add(event);
+            if (event instanceof TasksOverdueEvent overdue) {
+                changeLog.onTasksOverdue(overdue);
+            }
+        }, changeLog, new SimpleMeterRegistry(), 1, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.destroy();
+        if (committed) {
+            jdbcTemplate.update("delete from tasks");
+            jdbcTemplate.update("delete from users");
+            jdbcTemplate.update("delete from change_sequences");
+        }
+    }
+
+    @Test
+    void loadCorrectsDriftedFlagsAndQueuesPendingDeadlines() {
+        scheduler.load();
+        entityManager.clear();
+
+        assertTrue(overdue(drifted));
+        assertFalse(overdue(closed));
+        // Both corrections invalidate versions clients may still hold
+        assertEquals(drifted.getVersion() + 1, version(drifted));
+        assertEquals(closed.getVersion() + 1, version(closed));
+        assertEquals(soon.getVersion(), version(soon));
+        assertEquals(2, scheduler.pending());
+    }
+
+    @Test
+    void loadGivesCorrectedFlagsNewChangePositions() {
+        long driftedSeq = changeSeq(drifted);
+        long closedSeq = changeSeq(closed);
+
+        // A restart after both flags went wrong; positions are taken when the load commits
+        scheduler.load();
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        committed = true;
+
+        assertTrue(changeSeq(drifted) > driftedSeq);
+        assertTrue(changeSeq(closed) > closedSeq);
+        assertEquals(List.of(new TasksOverdueEvent(List.of(drifted.getId()))), events);
+    }
+
+    @Test
+    void advanceFlipsOnlyTheDeadlinesThatPassed() {
+        scheduler.load();
+        // Leaves only what advance publishes; the load flipped drifted
+        events.clear();
+
+        assertEquals(1, scheduler.advance(now.plusMinutes(90)));
+        entityManager.clear();
+
+        assertTrue(overdue(soon));
+        assertFalse(overdue(later));
+        assertEquals(soon.getVersion() + 1, version(soon));
+        assertEquals(later.getVersion(), version(later));
+        assertEquals(1, scheduler.pending());
+        assertEquals(List.of(new TasksOverdueEvent(List.of(soon.getId()))), events);
+    }
+
+    @Test
+    void changedTasksAreRescheduledOrDropped() {
+        scheduler.load();
+        // soon is completed and later's deadline moves out past the next advance
+        scheduler.onTaskChanged(TaskChangedEvent.updated(snapshot(soon, TaskStatus.TO_DO, soon.getDueDate()), snapshot(soon, TaskStatus.COMPLETED, soon.getDueDate()), "creator"));
+        scheduler.onTaskChanged(TaskChangedEvent.updated(snapshot(later, TaskStatus.TO_DO, later.getDueDate()), snapshot(later, TaskStatus.TO_DO, now.plusDays(1)), "creator"));
+
+        assertEquals(0, scheduler.advance(now.plusHours(3)));
+        assertEquals(1, scheduler.pending());
+
+        assertEquals(1, scheduler.advance(now.plusDays(2)));
+        entityManager.clear();
+        assertFalse(overdue(soon));
+        assertTrue(overdue(later));
+    }
+
+    @Test
+    void staleDeadlineChangesNothing() {
+        scheduler.load();
+        // The task was completed in the database after its deadline was queued
+        taskRepository.findById(soon.getId()).orElseThrow().updateStatus(TaskStatus.COMPLETED);
+        entityManager.flush();
+
+        assertEquals(1, scheduler.advance(now.plusDays(1)));
+        entityManager.clear();
+        assertFalse(overdue(soon));
+        assertTrue(overdue(later));
+    }
+
+    private Task persist(User creator, TaskStatus status, LocalDateTime dueDate, boolean overdue) {
+        return entityManager.persist(Task.builder()
+            .title("Task " + status + " " + dueDate)
+            .status(status)
+            .dueDate(dueDate)
+            .overdue(overdue)
+            .createdBy(creator)
+            .build());
+    }
+
+    private TaskSnapshot snapshot(Task task, TaskStatus status, LocalDateTime dueDate) {
+        return new TaskSnapshot(task.getId(), task.getTitle(), null, status, task.getPriority(), dueDate,
+            null, "creator", false, List.of());
+    }
+
+    private boolean overdue(Task task) {
+        return taskRepository.findById(task.getId()).orElseThrow().getOverdue();
+    }
+
+    private long changeSeq(Task task) {
+        return jdbcTemplate.queryForObject("select change_seq from tasks where id = ?", Long.class, task.getId());
+    }
+
+    private long version(Task task) {
+        return taskRepository.findById(task.getId()).orElseThrow().getVersion();
+    }
+}
@@ -0,0 +1,156 @@
+package com.todoapp.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedBitmapTest {
+
+    @Test
+    void valuesOnEitherSideOfAChunkBoundaryLandInSeparateChunks() {
+        CompressedBitmap bitmap = of(0, 65_535, 65_536, 131_071, Integer.MAX_VALUE);
+
+        assertEquals(5, bitmap.cardinality());
+        assertTrue(bitmap.contains(65_535));
+        assertTrue(bitmap.contains(65_536));
+        assertTrue(bitmap.contains(Integer.MAX_VALUE));
+        assertFalse(bitmap.contains(65_537));
+        assertEquals(List.of(0, 65_535, 65_536, 131_071, Integer.MAX_VALUE), values(bitmap));
+
+        bitmap.remove(65_536);
+        bitmap.remove(131_071);
+        assertEquals(List.of(0, 65_535, Integer.MAX_VALUE), values(bitmap));
+    }
+
+    @Test
+    void addingAndRemovingIsIdempotent() {
+        CompressedBitmap bitmap = of(7, 7, 7);
+        assertEquals(1, bitmap.cardinality());
+
+        bitmap.remove(8);
+        bitmap.remove(70_000);
+        assertEquals(1, bitmap.cardinality());
+
+        bitmap.remove(7);
+        bitmap.remove(7);
+        assertEquals(0, bitmap.cardinality());
+        assertFalse(bitmap.contains(7));
+    }
+
+    @Test
+    void chunkSwitchesToABitsetPastTheArrayLimitAndBackWhenItShrinks() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int i = 0; i < 4097; i++) {
+            bitmap.add(i * 2);
+        }
+        assertEquals(4097, bitmap.cardinality());
+        assertTrue(bitmap.contains(8192));
+        assertFalse(bitmap.contains(8191));
+
+        bitmap.remove(8192);
+        bitmap.remove(8192);
+        assertEquals(4096, bitmap.cardinality());
+        assertFalse(bitmap.contains(8192));
+
+        List<Integer> values = values(bitmap);
+        assertEquals(4096, values.size());
+        assertEquals(0, values.get(0));
+        assertEquals(8190, values.get(values.size() - 1));
+    }
+
+    @Test
+    void setOperationsAcrossContainerKinds() {
+        CompressedBitmap sparse = of(1, 3, 5, 70_000);
+        CompressedBitmap dense = new CompressedBitmap();
+        for (int i = 0; i < 5000; i++) {
+            dense.add(i);
+        }
+        CompressedBitmap denseOdd = new CompressedBitmap();
+        for (int i = 1; i < 10_000; i += 2) {
+            denseOdd.add(i);
+        }
+
+        assertEquals(List.of(1, 3, 5), values(CompressedBitmap.and(sparse, dense)));
+        assertEquals(List.of(1, 3, 5), values(CompressedBitmap.and(dense, sparse)));
+        assertEquals(3, CompressedBitmap.andCardinality(dense, sparse));
+        assertEquals(2500, CompressedBitmap.and(dense, denseOdd).cardinality());
+        assertEquals(2500, CompressedBitmap.andCardinality(dense, denseOdd));
+        assertEquals(5001, CompressedBitmap.or(sparse, dense).cardinality());
+        assertEquals(7500, CompressedBitmap.or(dense, denseOdd).cardinality());
+        assertEquals(0, CompressedBitmap.and(of(70_001), sparse).cardinality());
+        assertEquals(sparse.cardinality(), CompressedBitmap.or(sparse, new CompressedBitmap()).cardinality());
+    }
+
+    @Test
+    void operationsLeaveTheirInputsUntouched() {
+        CompressedBitmap a = of(1, 2, 3);
+        CompressedBitmap b = of(3, 4);
+
+        CompressedBitmap union = CompressedBitmap.or(a, b);
+        union.add(99);
+        CompressedBitmap intersection = CompressedBitmap.and(a, b);
+        intersection.remove(3);
+
+        assertEquals(List.of(1, 2, 3), values(a));
+        assertEquals(List.of(3, 4), values(b));
+    }
+
+    @Test
+    void matchesABitSetOnRandomSets() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            BitSet expectedA = new BitSet();
+            BitSet expectedB = new BitSet();
+            CompressedBitmap a = randomBitmap(random, expectedA);
+            CompressedBitmap b = randomBitmap(random, expectedB);
+
+            BitSet and = (BitSet) expectedA.clone();
+            and.and(expectedB);
+            BitSet or = (BitSet) expectedA.clone();
+            or.or(expectedB);
+
+            assertEquals(expectedA.stream().boxed().toList(), values(a));
+            assertEquals(and.stream().boxed().toList(), values(CompressedBitmap.and(a, b)));
+            assertEquals(and.cardinality(), CompressedBitmap.andCardinality(a, b));
+            assertEquals(or.stream().boxed().toList(), values(CompressedBitmap.or(a, b)));
+        }
+    }
+
+    // Mixes sparse and dense chunks, then removes some values again
+    private static CompressedBitmap randomBitmap(Random random, BitSet expected) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int chunk = 0; chunk < 3; chunk++) {
+            int count = random.nextBoolean() ? random.nextInt(100) : 4000 + random.nextInt(4000);
+            for (int i = 0; i < count; i++) {
+                int value = chunk * 65_536 + random.nextInt(65_536);
+                bitmap.add(value);
+                expected.set(value);
+            }
+        }
+        for (int i = 0; i < 500; i++) {
+            int value = random.nextInt(3 * 65_536);
+            bitmap.remove(value);
+            expected.clear(value);
+        }
+        return bitmap;
+    }
+
+    private static CompressedBitmap of(int... values) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int value : values) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    private static List<Integer> values(CompressedBitmap bitmap) {
+        List<Integer> values = new ArrayList<>();
+        bitmap.forEach(values::add);
+        return values;
+    }
+}
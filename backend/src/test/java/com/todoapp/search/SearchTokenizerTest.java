@@ -0,0 +1,37 @@
+package com.todoapp.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchTokenizerTest {
+
+    @Test
+    void splitsOnAnythingButLettersAndDigitsAndLowerCases() {
+        assertEquals(List.of("fix", "login", "bug", "v2", "api"), SearchTokenizer.tokenize("Fix LOGIN-bug (v2 API)!"));
+        assertEquals(List.of("café", "straße", "日本語"), SearchTokenizer.tokenize("Café, Straße; 日本語"));
+    }
+
+    @Test
+    void dropsStopWordsAndOverlongTokens() {
+        String longest = "x".repeat(SearchTokenizer.MAX_TOKEN_LENGTH);
+        String tooLong = "y".repeat(SearchTokenizer.MAX_TOKEN_LENGTH + 1);
+
+        assertEquals(List.of("review", "release", longest),
+            SearchTokenizer.tokenize("Review THE release and " + longest + " " + tooLong));
+    }
+
+    @Test
+    void emptyAndNullTextHaveNoTokens() {
+        assertTrue(SearchTokenizer.tokenize(null).isEmpty());
+        assertTrue(SearchTokenizer.tokenize("").isEmpty());
+        assertTrue(SearchTokenizer.tokenize(" -- , the ").isEmpty());
+    }
+
+    @Test
+    void keepsRepeatedTokens() {
+        assertEquals(List.of("deploy", "deploy"), SearchTokenizer.tokenize("deploy, Deploy"));
+    }
+}
@@ -0,0 +1,110 @@
+package com.todoapp.search;
+
+import com.todoapp.domain.enums.TaskPriority;
+import com.todoapp.domain.enums.TaskStatus;
+import com.todoapp.domain.event.TaskChangedEvent;
+import com.todoapp.domain.event.TaskSnapshot;
+import com.todoapp.dto.TaskFacetsDTO;
+import com.todoapp.repository.TaskFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskFacetIndexTest {
+
+    private TaskFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TaskFacetIndex(null, null);
+        index.index(task("t1", TaskStatus.TO_DO, TaskPriority.HIGH, "alice", false, "Backend", "urgent"));
+        index.index(task("t2", TaskStatus.TO_DO, TaskPriority.LOW, null, true, "backend"));
+        index.index(task("t3", TaskStatus.COMPLETED, TaskPriority.HIGH, "bob", false));
+    }
+
+    @Test
+    void countsEveryDimensionWithinTheSelection() {
+        TaskFacetsDTO all = index.facets(TaskFilter.builder().build());
+
+        assertEquals(3, all.getTotal());
+        assertEquals(Map.of("TO_DO", 2L, "COMPLETED", 1L), all.getStatus());
+        assertEquals(Map.of("HIGH", 2L, "LOW", 1L), all.getPriority());
+        assertEquals(Map.of("alice", 1L, "bob", 1L, TaskFacetIndex.UNASSIGNED, 1L), all.getAssignee());
+        assertEquals(Map.of("backend", 2L, "urgent", 1L), all.getTags());
+        assertEquals(Map.of("true", 1L, "false", 2L), all.getOverdue());
+
+        TaskFacetsDTO highPriority = index.facets(TaskFilter.builder().priority(TaskPriority.HIGH).build());
+        assertEquals(2, highPriority.getTotal());
+        assertEquals(Map.of("TO_DO", 1L, "COMPLETED", 1L), highPriority.getStatus());
+        assertEquals(Map.of("backend", 1L, "urgent", 1L), highPriority.getTags());
+    }
+
+    @Test
+    void tagFilterMatchesAnyOfTheSelectedTags() {
+        TaskFacetsDTO tagged = index.facets(TaskFilter.builder().tags(List.of("urgent", "missing")).build());
+        assertEquals(1, tagged.getTotal());
+
+        tagged = index.facets(TaskFilter.builder().tags(List.of("backend", "urgent")).status(TaskStatus.TO_DO).build());
+        assertEquals(2, tagged.getTotal());
+        assertEquals(0, index.facets(TaskFilter.builder().assigneeId("nobody").build()).getTotal());
+    }
+
+    @Test
+    void reindexingATaskMovesItBetweenValues() {
+        index.onTaskChanged(TaskChangedEvent.updated(
+            task("t1", TaskStatus.TO_DO, TaskPriority.HIGH, "alice", false, "backend", "urgent"),
+            task("t1", TaskStatus.COMPLETED, TaskPriority.HIGH, "bob", false, "backend"),
+            "alice"));
+
+        TaskFacetsDTO all = index.facets(TaskFilter.builder().build());
+        assertEquals(3, all.getTotal());
+        assertEquals(Map.of("TO_DO", 1L, "COMPLETED", 2L), all.getStatus());
+        assertEquals(Map.of("bob", 2L, TaskFacetIndex.UNASSIGNED, 1L), all.getAssignee());
+        // A value no task carries any more disappears from the counts
+        assertEquals(Map.of("backend", 2L), all.getTags());
+    }
+
+    @Test
+    void deletedTasksLeaveEveryCount() {
+        TaskSnapshot second = task("t2", TaskStatus.TO_DO, TaskPriority.LOW, null, true, "backend");
+        index.onTaskChanged(TaskChangedEvent.deleted(second, "alice"));
+
+        TaskFacetsDTO all = index.facets(TaskFilter.builder().build());
+        assertEquals(2, all.getTotal());
+        assertEquals(Map.of("TO_DO", 1L, "COMPLETED", 1L), all.getStatus());
+        assertEquals(Map.of("false", 2L), all.getOverdue());
+        assertFalse(all.getAssignee().containsKey(TaskFacetIndex.UNASSIGNED));
+        assertEquals(0, index.facets(TaskFilter.builder().taskIds(List.of("t2")).build()).getTotal());
+
+        // Deleting twice, or an unknown task, changes nothing
+        index.remove("t2");
+        index.remove("unknown");
+        assertEquals(2, index.facets(TaskFilter.builder().build()).getTotal());
+
+        index.index(second);
+        assertEquals(3, index.facets(TaskFilter.builder().build()).getTotal());
+        assertEquals(1, index.facets(TaskFilter.builder().taskIds(List.of("t2")).build()).getTotal());
+    }
+
+    @Test
+    void matcherAcceptsTasksMatchingTheFilterWhenItWasTaken() {
+        var matcher = index.matcher(TaskFilter.builder().status(TaskStatus.TO_DO).build());
+        assertTrue(matcher.test("t1"));
+        assertTrue(matcher.test("t2"));
+        assertFalse(matcher.test("t3"));
+        assertFalse(matcher.test("unknown"));
+
+        index.remove("t2");
+        assertFalse(matcher.test("t2"));
+    }
+
+    private static TaskSnapshot task(String id, TaskStatus status, TaskPriority priority, String assigneeId,
+                                     boolean overdue, String... tags) {
+        return new TaskSnapshot(id, "Task " + id, null, status, priority, null, assigneeId, "creator", overdue,
+            List.of(tags));
+    }
+}
@@ -0,0 +1,148 @@
+package com.todoapp.search;
+
+import com.todoapp.domain.entity.Comment;
+import com.todoapp.domain.entity.Task;
+import com.todoapp.domain.enums.TaskPriority;
+import com.todoapp.domain.enums.TaskStatus;
+import com.todoapp.domain.event.TaskChangedEvent;
+import com.todoapp.domain.event.TaskSnapshot;
+import com.todoapp.repository.CommentRepository;
+import com.todoapp.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskSearchIndexTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    private TaskSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TaskSearchIndex(taskRepository, commentRepository, 3);
+    }
+
+    @Test
+    void titleMatchesOutrankDescriptionAndCommentMatches() {
+        index.index("comment", "Quarterly report", null);
+        index.indexComments("comment", List.of("Waiting on the invoice"));
+        index.index("description", "Quarterly report", "Attach the invoice");
+        index.index("title", "Invoice", "Quarterly report");
+
+        assertEquals(List.of("title", "description", "comment"), index.search("invoice"));
+    }
+
+    @Test
+    void exactMatchesOutrankPrefixMatches() {
+        index.index("prefix", "Deployment checklist", null);
+        index.index("exact", "Deploy checklist", null);
+
+        assertEquals(List.of("exact", "prefix"), index.search("deploy"));
+        // Single-letter tokens only match whole terms
+        index.index("letter", "Plan b", null);
+        assertEquals(List.of("letter"), index.search("b"));
+    }
+
+    @Test
+    void everyTokenMustMatch() {
+        index.index("both", "Fix login bug", null);
+        index.index("one", "Fix signup", null);
+
+        assertEquals(List.of("both"), index.search("fix login"));
+        assertTrue(index.search("fix payroll").isEmpty());
+        assertTrue(index.search("the and").isEmpty());
+    }
+
+    @Test
+    void hitsAreCappedAfterTheFilter() {
+        for (int i = 0; i < 10; i++) {
+            index.index("task-" + i, i < 5 ? "Review budget" : "Review", null);
+        }
+        Set<String> accepted = Set.of("task-6", "task-8", "task-9");
+
+        // The five stronger matches are filtered out before the cap of 3 is taken
+        assertEquals(3, index.search("review").size());
+        assertEquals(accepted, Set.copyOf(index.search("review", accepted::contains)));
+    }
+
+    @Test
+    void taskEventsReindexAndRemoveTheTask() {
+        TaskSnapshot created = snapshot("t1", "Draft proposal", "For the board");
+        index.onTaskChanged(TaskChangedEvent.created(created, "alice"));
+        assertEquals(List.of("t1"), index.search("proposal"));
+
+        TaskSnapshot renamed = snapshot("t1", "Final budget", "For the board");
+        index.onTaskChanged(TaskChangedEvent.updated(created, renamed, "alice"));
+        assertTrue(index.search("proposal").isEmpty());
+        assertEquals(List.of("t1"), index.search("budget"));
+        assertEquals(List.of("t1"), index.search("board"));
+
+        index.onTaskChanged(TaskChangedEvent.deleted(renamed, "alice"));
+        assertTrue(index.search("budget").isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void reindexedCommentsReplaceTheTasksCommentTerms() {
+        index.index("t1", "Release", null);
+
+        index.indexComments("t1", List.of("Blocked on QA"));
+        assertEquals(List.of("t1"), index.search("qa"));
+
+        index.indexComments("t1", List.of("Shipped"));
+        assertTrue(index.search("qa").isEmpty());
+        assertEquals(List.of("t1"), index.search("shipped"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void rebuildSeeksThroughCommentsByTaskAndId() {
+        when(taskRepository.findAfter(any(), any(), anyInt())).thenReturn(List.of(task("t1"), task("t2")));
+        List<Comment> firstBatch = new ArrayList<>();
+        for (int i = 0; i < 999; i++) {
+            firstBatch.add(comment("t1", String.format("c%04d", i), "filler"));
+        }
+        firstBatch.add(comment("t2", "c0999", "alpha"));
+        when(commentRepository.findAllByOrderByTaskIdAscIdAsc(Limit.of(1000))).thenReturn(firstBatch);
+        when(commentRepository.findAllAfter("t2", "c0999", Limit.of(1000)))
+            .thenReturn(List.of(comment("t2", "c1000", "omega")));
+
+        index.rebuild();
+
+        verify(commentRepository).findAllAfter(eq("t2"), eq("c0999"), eq(Limit.of(1000)));
+        assertEquals(List.of("t1"), index.search("filler"));
+        // Both batches of t2's comments land in one comment slot
+        assertEquals(List.of("t2"), index.search("alpha omega"));
+    }
+
+    private static TaskSnapshot snapshot(String id, String title, String description) {
+        return new TaskSnapshot(id, title, description, TaskStatus.TO_DO, TaskPriority.MEDIUM, null, null, null,
+            false, List.of());
+    }
+
+    private static Task task(String id) {
+        return Task.builder().id(id).title("Task " + id).build();
+    }
+
+    private static Comment comment(String taskId, String id, String text) {
+        return Comment.builder().id(id).task(task(taskId)).text(text).build();
+    }
+}
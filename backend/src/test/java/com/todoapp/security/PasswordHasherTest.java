@@ -0,0 +1,78 @@
+package com.todoapp.security;
+
+import com.todoapp.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    @Test
+    void encodesAndMatchesOnTheHashingPool() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PasswordHasher hasher = new PasswordHasher(new BCryptPasswordEncoder(4), meterRegistry, 4, 2, 8, Duration.ofSeconds(5));
+
+        String hash = hasher.encode("secret");
+
+        assertTrue(hasher.matches("secret", hash));
+        assertFalse(hasher.matches("wrong", hash));
+        assertEquals(3, meterRegistry.get("auth.password.queue.wait").timer().count());
+        assertEquals(2, meterRegistry.get("auth.password.hash.time").tag("operation", "matches").timer().count());
+        hasher.shutdown();
+    }
+
+    @Test
+    void rejectsFastWhenTheQueueIsFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        PasswordHasher hasher = new PasswordHasher(blocking, new SimpleMeterRegistry(), 4, 1, 1, Duration.ofSeconds(5));
+
+        Thread running = Thread.ofPlatform().start(() -> hasher.encode("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Thread queued = Thread.ofPlatform().start(() -> hasher.encode("second"));
+        // Wait until the second task occupies the only queue slot
+        while (queued.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(1);
+        }
+
+        long start = System.nanoTime();
+        assertThrows(ServiceUnavailableException.class, () -> hasher.encode("third"));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+
+        release.countDown();
+        running.join();
+        queued.join();
+        hasher.shutdown();
+    }
+
+    @Test
+    void detectsCostChangesInBothDirections() {
+        String cost4 = new BCryptPasswordEncoder(4).encode("secret");
+        String cost6 = new BCryptPasswordEncoder(6).encode("secret");
+        PasswordHasher hasher = new PasswordHasher(new BCryptPasswordEncoder(5), new SimpleMeterRegistry(), 5, 1, 1, Duration.ofSeconds(5));
+
+        assertTrue(hasher.needsRehash(cost4));
+        assertTrue(hasher.needsRehash(cost6));
+        assertFalse(hasher.needsRehash(new BCryptPasswordEncoder(5).encode("secret")));
+        hasher.shutdown();
+    }
+}
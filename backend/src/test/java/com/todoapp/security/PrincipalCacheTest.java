@@ -0,0 +1,115 @@
+package com.todoapp.security;
+
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.UserRole;
+import com.todoapp.domain.event.UserChangedEvent;
+import com.todoapp.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PrincipalCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PrincipalCache principalCache;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        principalCache = new PrincipalCache(userRepository, meterRegistry, Duration.ofMinutes(5), 100);
+        user = User.builder()
+            .id("user-1")
+            .username("testuser")
+            .email("test@example.com")
+            .firstName("Test")
+            .lastName("User")
+            .role(UserRole.USER)
+            .active(true)
+            .build();
+    }
+
+    @Test
+    void repeatedLookupsHitTheDatabaseOnce() {
+        when(userRepository.findById("user-1")).thenReturn(Optional.of(user));
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("testuser", principalCache.get("user-1").orElseThrow().username());
+        }
+
+        verify(userRepository, times(1)).findById("user-1");
+        assertEquals(9, principalCache.hitCount());
+        assertEquals(1, principalCache.missCount());
+        assertEquals(9.0, meterRegistry.get("auth.principal.cache.hits").functionCounter().count());
+    }
+
+    @Test
+    void invalidateReloadsChangedUser() {
+        when(userRepository.findById("user-1")).thenReturn(Optional.of(user));
+        principalCache.get("user-1");
+
+        user.setActive(false);
+        user.setRole(UserRole.ADMIN);
+        principalCache.invalidate("user-1");
+        AuthenticatedUser reloaded = principalCache.get("user-1").orElseThrow();
+
+        assertFalse(reloaded.active());
+        assertEquals(UserRole.ADMIN, reloaded.role());
+        verify(userRepository, times(2)).findById("user-1");
+    }
+
+    @Test
+    void userChangedEventEvictsThePrincipal() {
+        when(userRepository.findById("user-1")).thenReturn(Optional.of(user));
+        principalCache.get("user-1");
+
+        new PrincipalCacheInvalidator(principalCache).onUserChanged(new UserChangedEvent("user-1"));
+        principalCache.get("user-1");
+
+        verify(userRepository, times(2)).findById("user-1");
+    }
+
+    @Test
+    void expiredEntriesAreReloaded() {
+        principalCache = new PrincipalCache(userRepository, meterRegistry, Duration.ZERO, 100);
+        when(userRepository.findById("user-1")).thenReturn(Optional.of(user));
+
+        principalCache.get("user-1");
+        principalCache.get("user-1");
+
+        verify(userRepository, times(2)).findById("user-1");
+    }
+
+    @Test
+    void unknownUsersAreNotCached() {
+        when(userRepository.findById("missing")).thenReturn(Optional.empty());
+
+        assertTrue(principalCache.get("missing").isEmpty());
+        assertTrue(principalCache.get("missing").isEmpty());
+
+        verify(userRepository, times(2)).findById("missing");
+    }
+
+    @Test
+    void toUserReturnsIndependentCopies() {
+        when(userRepository.findById("user-1")).thenReturn(Optional.of(user));
+        AuthenticatedUser principal = principalCache.get("user-1").orElseThrow();
+
+        principal.toUser().setUsername("changed");
+
+        assertEquals("testuser", principalCache.get("user-1").orElseThrow().toUser().getUsername());
+    }
+}
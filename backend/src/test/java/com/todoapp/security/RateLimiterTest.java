@@ -0,0 +1,111 @@
+package com.todoapp.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    @Test
+    void classifiesEndpoints() {
+        assertEquals(EndpointClass.LOGIN, EndpointClass.classify("POST", "/auth/login"));
+        assertEquals(EndpointClass.AUTH, EndpointClass.classify("POST", "/auth/signup"));
+        assertEquals(EndpointClass.LIST, EndpointClass.classify("GET", "/tasks"));
+        assertEquals(EndpointClass.LIST, EndpointClass.classify("GET", "/tasks/facets"));
+        assertEquals(EndpointClass.DETAIL, EndpointClass.classify("GET", "/tasks/123"));
+        assertEquals(EndpointClass.LIST, EndpointClass.classify("GET", "/tasks/123/comments"));
+        assertEquals(EndpointClass.WRITE, EndpointClass.classify("PUT", "/tasks/123"));
+        assertEquals(EndpointClass.WRITE, EndpointClass.classify("POST", "/tasks"));
+    }
+
+    @Test
+    void allowsBurstThenRejectsWithWaitTime() {
+        RateLimiter rateLimiter = limiter(3, 60);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.tryAcquire(EndpointClass.LIST, "user-1"));
+        }
+        long wait = rateLimiter.tryAcquire(EndpointClass.LIST, "user-1");
+
+        assertTrue(wait > 0 && wait <= 1_000_000_000L, "wait was " + wait);
+    }
+
+    @Test
+    void bucketsAreIndependentPerCallerAndClass() {
+        RateLimiter rateLimiter = limiter(1, 1);
+
+        assertEquals(0, rateLimiter.tryAcquire(EndpointClass.LIST, "user-1"));
+        assertTrue(rateLimiter.tryAcquire(EndpointClass.LIST, "user-1") > 0);
+        assertEquals(0, rateLimiter.tryAcquire(EndpointClass.LIST, "user-2"));
+        assertEquals(0, rateLimiter.tryAcquire(EndpointClass.WRITE, "user-1"));
+    }
+
+    @Test
+    void loginHasItsOwnStricterBucket() {
+        RateLimiter rateLimiter = new RateLimiter(new MockEnvironment(), new SimpleMeterRegistry(), 1000);
+
+        int allowed = 0;
+        while (rateLimiter.tryAcquire(EndpointClass.LOGIN, "10.0.0.1") == 0) {
+            allowed++;
+        }
+
+        assertEquals(EndpointClass.LOGIN.defaultCapacity(), allowed);
+        assertEquals(0, rateLimiter.tryAcquire(EndpointClass.AUTH, "10.0.0.1"));
+    }
+
+    @Test
+    void concurrentCallersNeverExceedCapacity() throws InterruptedException {
+        RateLimiter rateLimiter = limiter(500, 1);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 200; i++) {
+                    if (rateLimiter.tryAcquire(EndpointClass.WRITE, "user-1") == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(500, granted.get());
+    }
+
+    @Test
+    void mapStaysBounded() {
+        RateLimiter rateLimiter = limiter(10, 60);
+
+        for (int i = 0; i < 10_000; i++) {
+            rateLimiter.tryAcquire(EndpointClass.LIST, "user-" + i);
+        }
+        // Evicted callers simply start over with a full bucket
+        assertEquals(0, rateLimiter.tryAcquire(EndpointClass.LIST, "user-0"));
+    }
+
+    private static RateLimiter limiter(int capacity, int perMinute) {
+        MockEnvironment environment = new MockEnvironment();
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            String prefix = "todoapp.rate-limit." + endpointClass.name().toLowerCase() + ".";
+            environment.setProperty(prefix + "capacity", Integer.toString(capacity));
+            environment.setProperty(prefix + "per-minute", Integer.toString(perMinute));
+        }
+        return new RateLimiter(environment, new SimpleMeterRegistry(), 5000);
+    }
+}
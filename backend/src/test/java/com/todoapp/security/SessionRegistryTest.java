@@ -0,0 +1,125 @@
+package com.todoapp.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionRegistryTest {
+
+    @Test
+    void createdSessionsAreActiveUntilRevoked() {
+        SessionRegistry registry = new SessionRegistry(new SimpleMeterRegistry(), Duration.ofHours(1), 1000);
+
+        SessionTicket session = registry.create("user-1");
+
+        assertTrue(registry.isActive(session.sessionId()));
+        assertTrue(registry.revoke(session.sessionId()));
+        assertFalse(registry.isActive(session.sessionId()));
+        assertFalse(registry.revoke(session.sessionId()));
+        assertTrue(registry.refresh(session.sessionId()).isEmpty());
+    }
+
+    @Test
+    void refreshReplacesTheSession() throws InterruptedException {
+        SessionRegistry registry = new SessionRegistry(new SimpleMeterRegistry(), Duration.ofHours(1), 1000);
+        SessionTicket session = registry.create("user-1");
+
+        Thread.sleep(5);
+        SessionTicket refreshed = registry.refresh(session.sessionId()).orElseThrow();
+
+        assertNotEquals(session.sessionId(), refreshed.sessionId());
+        assertEquals("user-1", refreshed.userId());
+        assertTrue(refreshed.expiresAt().isAfter(session.expiresAt()));
+        assertFalse(registry.isActive(session.sessionId()));
+        assertTrue(registry.isActive(refreshed.sessionId()));
+        assertTrue(registry.refresh(session.sessionId()).isEmpty());
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void concurrentRefreshesOfOneSessionYieldOneSuccessor() throws Exception {
+        SessionRegistry registry = new SessionRegistry(new SimpleMeterRegistry(), Duration.ofHours(1), 1000);
+        SessionTicket session = registry.create("user-1");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Optional<SessionTicket>>> refreshes = Collections.nCopies(8, () -> registry.refresh(session.sessionId()));
+            long succeeded = 0;
+            for (Future<Optional<SessionTicket>> result : executor.invokeAll(refreshes)) {
+                succeeded += result.get().isPresent() ? 1 : 0;
+            }
+
+            assertEquals(1, succeeded);
+            assertEquals(1, registry.size());
+        } finally {
+            executor.shutdownNow();
+            registry.destroy();
+        }
+    }
+
+    @Test
+    void revokedSessionsAreDroppedWhenTheirSlotComesUp() throws InterruptedException {
+        SessionRegistry registry = new SessionRegistry(new SimpleMeterRegistry(), Duration.ofMillis(20), 10);
+        SessionTicket revoked = registry.create("user-1");
+        SessionTicket live = registry.create("user-2");
+        registry.revoke(revoked.sessionId());
+
+        Thread.sleep(50);
+        registry.advance();
+
+        assertEquals(0, registry.size());
+        assertFalse(registry.isActive(live.sessionId()));
+        registry.destroy();
+    }
+
+    @Test
+    void expiredSessionsAreRejectedAndReclaimedByTheWheel() throws InterruptedException {
+        SessionRegistry registry = new SessionRegistry(new SimpleMeterRegistry(), Duration.ofMillis(20), 10);
+        SessionTicket session = registry.create("user-1");
+        assertEquals(1, registry.size());
+
+        Thread.sleep(50);
+
+        assertFalse(registry.isActive(session.sessionId()));
+        registry.advance();
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void wheelKeepsSessionsWhoseDeadlineIsRoundsAway() throws InterruptedException {
+        // 4096 slots of 1 ms: a 10 s ttl wraps the wheel several times
+        SessionRegistry registry = new SessionRegistry(new SimpleMeterRegistry(), Duration.ofSeconds(10), 1);
+        SessionTicket session = registry.create("user-1");
+
+        Thread.sleep(20);
+        registry.advance();
+
+        assertTrue(registry.isActive(session.sessionId()));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void holdsManySessions() {
+        SessionRegistry registry = new SessionRegistry(new SimpleMeterRegistry(), Duration.ofHours(1), 1000);
+        String[] ids = new String[100_000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = registry.create("user-" + (i % 100)).sessionId();
+        }
+
+        assertEquals(ids.length, registry.size());
+        for (int i = 0; i < ids.length; i += 2) {
+            registry.revoke(ids[i]);
+        }
+        assertEquals(ids.length / 2, registry.size());
+        assertTrue(registry.isActive(ids[1]));
+    }
+}
@@ -0,0 +1,105 @@
+package com.todoapp.security;
+
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenServiceTest {
+
+    private static final String OLD_KEY = "k1:" + secret('a');
+    private static final String NEW_KEY = "k2:" + secret('b');
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder()
+            .id("user-1")
+            .username("testuser")
+            .role(UserRole.ADMIN)
+            .active(true)
+            .build();
+    }
+
+    @Test
+    void issuedTokenVerifiesToItsClaims() {
+        TokenService tokenService = new TokenService(OLD_KEY, "k1", 16);
+
+        SessionTicket session = session(3600);
+        TokenClaims claims = tokenService.verify(tokenService.issue(user, session)).orElseThrow();
+
+        assertEquals("user-1", claims.userId());
+        assertEquals(UserRole.ADMIN, claims.role());
+        assertEquals("k1", claims.keyId());
+        assertEquals("session-1", claims.sessionId());
+        assertEquals(session.expiresAt().getEpochSecond(), claims.expiresAt().getEpochSecond());
+    }
+
+    @Test
+    void tamperedTokensAreRejected() {
+        TokenService tokenService = new TokenService(OLD_KEY, "k1", 16);
+        String token = tokenService.issue(user, session(3600));
+        String[] parts = token.split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString("user-2|ADMIN|9999999999|session-1".getBytes());
+
+        assertTrue(tokenService.verify(parts[0] + "." + forgedPayload + "." + parts[2]).isEmpty());
+        assertTrue(tokenService.verify(token + "x").isEmpty());
+        assertTrue(tokenService.verify("not-a-token").isEmpty());
+        assertTrue(tokenService.verify("k9." + parts[1] + "." + parts[2]).isEmpty());
+    }
+
+    @Test
+    void expiredTokensAreRejectedEvenWhenCached() {
+        TokenService tokenService = new TokenService(OLD_KEY, "k1", 16);
+        String token = tokenService.issue(user, session(0));
+
+        assertTrue(tokenService.verify(token).isEmpty());
+        assertTrue(tokenService.verify(token).isEmpty());
+    }
+
+    @Test
+    void rotatedKeysKeepVerifyingOldTokens() {
+        TokenService before = new TokenService(OLD_KEY, "k1", 16);
+        String oldToken = before.issue(user, session(3600));
+
+        TokenService after = new TokenService(OLD_KEY + "," + NEW_KEY, "k2", 16);
+        String newToken = after.issue(user, session(3600));
+
+        assertTrue(newToken.startsWith("k2."));
+        assertTrue(after.verify(oldToken).isPresent());
+        assertTrue(after.verify(newToken).isPresent());
+
+        TokenService retired = new TokenService(NEW_KEY, "k2", 16);
+        assertTrue(retired.verify(oldToken).isEmpty());
+    }
+
+    @Test
+    void missingKeysAreRefused() {
+        assertThrows(IllegalStateException.class, () -> new TokenService("", "", 16));
+        assertThrows(IllegalStateException.class, () -> new TokenService(" ", "k1", 16));
+        assertThrows(IllegalStateException.class, () -> new TokenService(OLD_KEY, "", 16));
+    }
+
+    @Test
+    void shortKeysAreRefused() {
+        String shortKey = "k1:" + Base64.getEncoder().encodeToString(new byte[16]);
+        assertThrows(IllegalStateException.class, () -> new TokenService(shortKey, "k1", 16));
+        assertThrows(IllegalStateException.class, () -> new TokenService(OLD_KEY, "k2", 16));
+    }
+
+    private static SessionTicket session(long seconds) {
+        return new SessionTicket("session-1", "user-1", Instant.now().plus(seconds, ChronoUnit.SECONDS));
+    }
+
+    private static String secret(char fill) {
+        return Base64.getEncoder().encodeToString(String.valueOf(fill).repeat(32).getBytes());
+    }
+}
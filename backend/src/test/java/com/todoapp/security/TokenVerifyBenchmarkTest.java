@@ -0,0 +1,58 @@
+package com.todoapp.security;
+
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.UserRole;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Run with: mvn test -Pbenchmark
+@Tag("benchmark")
+@Slf4j
+class TokenVerifyBenchmarkTest {
+
+    private static final int TOKENS = 50_000;
+    private static final int ROUNDS = 5;
+
+    @Test
+    void benchmarkVerifyCostPerRequest() {
+        String key = "k1:" + Base64.getEncoder().encodeToString("x".repeat(32).getBytes());
+        // Cache of one entry per stripe: every verify of a distinct token pays the MAC
+        TokenService uncached = new TokenService(key, "k1", 1);
+        TokenService cached = new TokenService(key, "k1", 4096);
+
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+        List<String> tokens = new ArrayList<>(TOKENS);
+        for (int i = 0; i < TOKENS; i++) {
+            User user = User.builder().id("user-" + i).role(UserRole.USER).build();
+            tokens.add(uncached.issue(user, new SessionTicket("session-" + i, user.getId(), expiresAt)));
+        }
+        List<String> hot = tokens.subList(0, 1000);
+
+        measure("MAC verify", uncached, tokens);
+        measure("verified-cache hit", cached, hot);
+    }
+
+    private static void measure(String label, TokenService tokenService, List<String> tokens) {
+        // First round warms up the JIT (and the cache, for the cached service)
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (String token : tokens) {
+                assertTrue(tokenService.verify(token).isPresent());
+            }
+            long elapsed = System.nanoTime() - start;
+            if (round > 0) {
+                best = Math.min(best, elapsed);
+            }
+        }
+        log.info("{}: {} ns/verify", label, String.format("%,.0f", (double) best / tokens.size()));
+    }
+}
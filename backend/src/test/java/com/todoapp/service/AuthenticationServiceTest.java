@@ -0,0 +1,128 @@
+package com.todoapp.service;
+
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.AuthType;
+import com.todoapp.domain.enums.UserRole;
+import com.todoapp.dto.LoginRequest;
+import com.todoapp.dto.SignupRequest;
+import com.todoapp.exception.ConflictException;
+import com.todoapp.mapper.UserMapper;
+import com.todoapp.repository.UserRepository;
+import com.todoapp.security.PasswordHasher;
+import com.todoapp.security.SessionRegistry;
+import com.todoapp.security.SessionTicket;
+import com.todoapp.security.TokenService;
+import com.todoapp.service.impl.AuthenticationServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthenticationServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordHasher passwordHasher;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private TokenService tokenService;
+
+    @Mock
+    private SessionRegistry sessionRegistry;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AuthenticationServiceImpl authenticationService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        authenticationService = new AuthenticationServiceImpl(userRepository, passwordHasher, userMapper,
+            tokenService, sessionRegistry, transactionManager);
+        user = User.builder()
+            .id("user-1")
+            .username("alice")
+            .email("alice@example.com")
+            .passwordHash("old-hash")
+            .role(UserRole.USER)
+            .active(true)
+            .build();
+    }
+
+    @Test
+    void testAuthenticate_HashesOutsideTransactions() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+        when(userRepository.findById("user-1")).thenReturn(Optional.of(user));
+        when(passwordHasher.matches("secret", "old-hash")).thenReturn(true);
+        when(passwordHasher.needsRehash("old-hash")).thenReturn(true);
+        when(passwordHasher.encode("secret")).thenReturn("new-hash");
+        when(sessionRegistry.create("user-1")).thenReturn(new SessionTicket("session-1", "user-1", Instant.now()));
+
+        authenticationService.authenticate(login("alice", "secret"));
+
+        // Read, hash with the read transaction committed, then a separate write for the rehash
+        InOrder order = inOrder(transactionManager, passwordHasher, userRepository);
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(userRepository).findByUsername("alice");
+        order.verify(transactionManager).commit(any());
+        order.verify(passwordHasher).matches("secret", "old-hash");
+        order.verify(passwordHasher).encode("secret");
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(userRepository).findById("user-1");
+        order.verify(transactionManager).commit(any());
+        assertEquals("new-hash", user.getPasswordHash());
+    }
+
+    @Test
+    void testAuthenticate_RehashKeepsConcurrentPasswordChange() {
+        User changed = User.builder().id("user-1").passwordHash("changed-hash").build();
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+        when(userRepository.findById("user-1")).thenReturn(Optional.of(changed));
+        when(passwordHasher.matches("secret", "old-hash")).thenReturn(true);
+        when(passwordHasher.needsRehash("old-hash")).thenReturn(true);
+        when(passwordHasher.encode("secret")).thenReturn("new-hash");
+        when(sessionRegistry.create("user-1")).thenReturn(new SessionTicket("session-1", "user-1", Instant.now()));
+
+        authenticationService.authenticate(login("alice", "secret"));
+
+        assertEquals("changed-hash", changed.getPasswordHash());
+    }
+
+    @Test
+    void testRegister_DuplicateUsernameSkipsHashing() {
+        when(userRepository.existsByUsername("alice")).thenReturn(true);
+        SignupRequest request = SignupRequest.builder()
+            .username("alice")
+            .email("alice@example.com")
+            .firstName("Alice")
+            .lastName("Test")
+            .password("secret")
+            .build();
+
+        assertThrows(ConflictException.class, () -> authenticationService.register(request));
+
+        verifyNoInteractions(passwordHasher);
+        verify(transactionManager).rollback(any());
+    }
+
+    private static LoginRequest login(String username, String password) {
+        return LoginRequest.builder().type(AuthType.INTERNAL).username(username).password(password).build();
+    }
+}
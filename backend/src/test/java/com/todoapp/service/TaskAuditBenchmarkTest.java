@@ -0,0 +1,145 @@
+package com.todoapp.service;
+
+import com.todoapp.audit.TaskAuditWriter;
+import com.todoapp.domain.entity.Task;
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.TaskStatus;
+import com.todoapp.domain.enums.UserRole;
+import com.todoapp.repository.TaskHistoryRepository;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Run with: mvn test -Pbenchmark
+@Tag("benchmark")
+@ActiveProfiles("dev")
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.com.todoapp=INFO",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.org.springframework.security=WARN"
+})
+@Slf4j
+class TaskAuditBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int UPDATES_PER_THREAD = 500;
+    private static final TaskStatus[] STATUSES = {TaskStatus.IN_PROGRESS, TaskStatus.TO_DO};
+    private static long transactionalNanos;
+    private static long asyncNanos;
+    private static long drainNanos;
+
+    // Each mode runs in its own context, with todoapp.audit.mode set for it, so the
+    // beans are injected into the nested instances rather than here
+    @Nested
+    @TestPropertySource(properties = "todoapp.audit.mode=TRANSACTIONAL")
+    class Transactional extends Mode {
+        @Test
+        void benchmarkTransactionalAudit() throws Exception {
+            transactionalNanos = benchmark("transactional");
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = "todoapp.audit.mode=ASYNC")
+    class Async extends Mode {
+        @Test
+        void benchmarkAsyncAudit() throws Exception {
+            asyncNanos = benchmark("async");
+        }
+    }
+
+    @AfterAll
+    static void report() {
+        int updates = THREADS * UPDATES_PER_THREAD;
+        log.info("{} threads, {} status updates per mode", THREADS, updates);
+        log.info("transactional: {} updates/s", String.format("%,.0f", updates / (transactionalNanos / 1e9)));
+        log.info("async: {} updates/s (queue drained {} ms after the last update)",
+            String.format("%,.0f", updates / (asyncNanos / 1e9)), String.format("%.1f", drainNanos / 1e6));
+    }
+
+    abstract static class Mode {
+        @Autowired
+        private TaskService taskService;
+
+        @Autowired
+        private TaskAuditWriter taskAuditWriter;
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @Autowired
+        private TaskRepository taskRepository;
+
+        @Autowired
+        private TaskHistoryRepository taskHistoryRepository;
+
+        long benchmark(String mode) throws Exception {
+            User user = userRepository.save(User.builder()
+                .username("bench-audit-" + mode)
+                .email("bench-audit-" + mode + "@example.com")
+                .firstName("Bench")
+                .lastName("Audit")
+                .passwordHash("hash")
+                .role(UserRole.USER)
+                .active(true)
+                .build());
+            List<String> taskIds = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                taskIds.add(taskRepository.save(Task.builder().title("Audit benchmark " + i).createdBy(user).build()).getId());
+            }
+
+            // Warm-up round, so neither mode pays for JIT compilation in its numbers
+            measure(taskIds, user);
+            long elapsed = measure(taskIds, user);
+            long drainStart = System.nanoTime();
+            while (taskAuditWriter.pending() > 0) {
+                Thread.sleep(5);
+            }
+            drainNanos = System.nanoTime() - drainStart;
+
+            for (String taskId : taskIds) {
+                assertEquals(2 * UPDATES_PER_THREAD, taskHistoryRepository.countByTaskId(taskId));
+            }
+            return elapsed;
+        }
+
+        // Each thread flips the status of its own task, so every update produces one history row
+        private long measure(List<String> taskIds, User user) throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            try {
+                long start = System.nanoTime();
+                List<Future<?>> runs = new ArrayList<>();
+                for (String taskId : taskIds) {
+                    runs.add(executor.submit(() -> {
+                        for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                            taskService.updateTaskStatus(taskId, STATUSES[i % 2], null, user, false);
+                        }
+                    }));
+                }
+                for (Future<?> run : runs) {
+                    run.get();
+                }
+                return System.nanoTime() - start;
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+}
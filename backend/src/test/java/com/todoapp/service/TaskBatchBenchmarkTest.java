@@ -0,0 +1,93 @@
+package com.todoapp.service;
+
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.UserRole;
+import com.todoapp.dto.BatchTaskResponse;
+import com.todoapp.dto.CreateTaskRequest;
+import com.todoapp.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Run with: mvn test -Pbenchmark
+@Tag("benchmark")
+@ActiveProfiles("dev")
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.com.todoapp=INFO",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.org.springframework.security=WARN"
+})
+@Slf4j
+class TaskBatchBenchmarkTest {
+
+    private static final int TASKS = 10_000;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void benchmarkSingleCreatesAgainstOneBatch() {
+        User creator = userRepository.save(User.builder()
+            .username("bench-creator")
+            .email("bench-creator@example.com")
+            .firstName("Bench")
+            .lastName("Creator")
+            .passwordHash("hash")
+            .role(UserRole.USER)
+            .active(true)
+            .build());
+        User assignee = userRepository.save(User.builder()
+            .username("bench-assignee")
+            .email("bench-assignee@example.com")
+            .firstName("Bench")
+            .lastName("Assignee")
+            .passwordHash("hash")
+            .role(UserRole.USER)
+            .active(true)
+            .build());
+
+        List<CreateTaskRequest> requests = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            requests.add(CreateTaskRequest.builder()
+                .title("Benchmark task " + i)
+                .description("Created by the batch benchmark")
+                .assigneeId(assignee.getId())
+                .build());
+        }
+
+        // Warm up both paths so JIT and connection pool state do not skew the first run
+        for (int i = 0; i < 200; i++) {
+            taskService.createTask(requests.get(i), creator);
+        }
+        taskService.createTasks(requests.subList(0, 200), creator);
+
+        long singleStart = System.nanoTime();
+        for (CreateTaskRequest request : requests) {
+            taskService.createTask(request, creator);
+        }
+        long singleNanos = System.nanoTime() - singleStart;
+
+        long batchStart = System.nanoTime();
+        BatchTaskResponse response = taskService.createTasks(requests, creator);
+        long batchNanos = System.nanoTime() - batchStart;
+
+        assertEquals(TASKS, response.getSucceeded());
+        log.info("{} single creates: {} ms ({} tasks/s)",
+            TASKS, singleNanos / 1_000_000, String.format("%,.0f", TASKS / (singleNanos / 1e9)));
+        log.info("1 batch of {}: {} ms ({} tasks/s)",
+            TASKS, batchNanos / 1_000_000, String.format("%,.0f", TASKS / (batchNanos / 1e9)));
+        log.info("speedup: {}x", String.format("%.1f", (double) singleNanos / batchNanos));
+    }
+}
@@ -0,0 +1,164 @@
+package com.todoapp.service;
+
+import com.todoapp.domain.entity.Task;
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.TaskPriority;
+import com.todoapp.domain.enums.TaskStatus;
+import com.todoapp.domain.enums.UserRole;
+import com.todoapp.domain.event.TaskChangedEvent;
+import com.todoapp.dto.BatchTaskResponse;
+import com.todoapp.dto.BatchUpdateTasksRequest;
+import com.todoapp.dto.CreateTaskRequest;
+import com.todoapp.dto.UpdateTaskRequest;
+import com.todoapp.mapper.TaskMapper;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.UserRepository;
+import com.todoapp.service.impl.TaskBatchProperties;
+import com.todoapp.service.impl.TaskBatchService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskBatchServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TaskMapper taskMapper;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private User testUser;
+    private Task testTask;
+
+    @BeforeEach
+    void setUp() {
+        testUser = User.builder()
+            .id("user-1")
+            .username("testuser")
+            .email("test@example.com")
+            .role(UserRole.USER)
+            .active(true)
+            .build();
+
+        testTask = Task.builder()
+            .id("task-1")
+            .title("Test Task")
+            .status(TaskStatus.TO_DO)
+            .priority(TaskPriority.MEDIUM)
+            .createdBy(testUser)
+            .version(3L)
+            .build();
+    }
+
+    @Test
+    void testCreateTasks_ReportsFailuresPerItem() {
+        when(userRepository.findAllById(any())).thenReturn(List.of());
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        List<CreateTaskRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            requests.add(CreateTaskRequest.builder().title("Task " + i).assigneeId(i == 2 ? "ghost" : null).build());
+        }
+
+        BatchTaskResponse response = batchService(2).createTasks(requests, testUser);
+
+        assertEquals(4, response.getSucceeded());
+        assertEquals(1, response.getFailed());
+        BatchTaskResponse.ItemResult failure = response.getResults().get(2);
+        assertEquals(2, failure.getIndex());
+        assertFalse(failure.getSuccess());
+        assertEquals("Assignee not found", failure.getError());
+        // Two full chunks of two; nothing is left for the final flush
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+        verify(eventPublisher, times(4)).publishEvent(any(TaskChangedEvent.class));
+    }
+
+    @Test
+    void testUpdateTasks_AppliesRepeatedTaskOnce() {
+        Task other = Task.builder().id("task-2").title("Other").status(TaskStatus.TO_DO).priority(TaskPriority.LOW)
+            .createdBy(testUser).version(1L).build();
+        when(taskRepository.findAllById(any())).thenReturn(List.of(testTask, other));
+        UpdateTaskRequest rename = UpdateTaskRequest.builder().title("Renamed").build();
+        List<BatchUpdateTasksRequest.Item> items = List.of(
+            BatchUpdateTasksRequest.Item.builder().taskId("task-1").update(rename).version(3L).build(),
+            BatchUpdateTasksRequest.Item.builder().taskId("task-1").update(UpdateTaskRequest.builder().title("Again").build()).version(3L).build(),
+            BatchUpdateTasksRequest.Item.builder().taskId("task-2").update(rename).version(0L).build(),
+            BatchUpdateTasksRequest.Item.builder().taskId("missing").update(rename).build());
+
+        BatchTaskResponse response = batchService(50).updateTasks(items, testUser);
+
+        assertEquals(1, response.getSucceeded());
+        assertEquals(List.of(true, false, false, false), response.getResults().stream().map(BatchTaskResponse.ItemResult::getSuccess).toList());
+        assertEquals("Task appears more than once in this batch", response.getResults().get(1).getError());
+        assertEquals("Task has changed since version 0", response.getResults().get(2).getError());
+        assertEquals("Task not found", response.getResults().get(3).getError());
+        assertEquals("Renamed", testTask.getTitle());
+        assertEquals("Other", other.getTitle());
+
+        ArgumentCaptor<TaskChangedEvent> event = ArgumentCaptor.forClass(TaskChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals("Test Task", event.getValue().previous().title());
+        assertEquals("Renamed", event.getValue().task().title());
+        verify(entityManager).flush();
+    }
+
+    @Test
+    void testUpdateTasks_ReportsItemsThatLoseARace() {
+        // task-2 is changed by another write after the chunk read it, so the first flush fails
+        Task other = Task.builder().id("task-2").title("Other").status(TaskStatus.TO_DO).priority(TaskPriority.LOW)
+            .createdBy(testUser).version(1L).build();
+        Task reread = Task.builder().id("task-1").title("Test Task").status(TaskStatus.TO_DO).priority(TaskPriority.MEDIUM)
+            .createdBy(testUser).version(3L).build();
+        Task changed = Task.builder().id("task-2").title("Changed").status(TaskStatus.IN_PROGRESS).priority(TaskPriority.LOW)
+            .createdBy(testUser).version(2L).build();
+        when(taskRepository.findAllById(any())).thenReturn(List.of(testTask, other), List.of(reread, changed));
+        doThrow(new OptimisticLockException()).doNothing().when(entityManager).flush();
+        UpdateTaskRequest rename = UpdateTaskRequest.builder().title("Renamed").build();
+        List<BatchUpdateTasksRequest.Item> items = List.of(
+            BatchUpdateTasksRequest.Item.builder().taskId("task-1").update(rename).build(),
+            BatchUpdateTasksRequest.Item.builder().taskId("task-2").update(rename).build());
+
+        BatchTaskResponse response = batchService(50).updateTasks(items, testUser);
+
+        assertEquals(List.of(true, false), response.getResults().stream().map(BatchTaskResponse.ItemResult::getSuccess).toList());
+        assertEquals("Task was changed by another write during this batch", response.getResults().get(1).getError());
+        assertEquals("Renamed", reread.getTitle());
+        assertEquals("Changed", changed.getTitle());
+        // Only the chunk's second attempt commits, and only its write is announced
+        verify(transactionManager).rollback(any());
+        verify(transactionManager).commit(any());
+        verify(eventPublisher, times(1)).publishEvent(any(TaskChangedEvent.class));
+    }
+
+    private TaskBatchService batchService(int jdbcBatchSize) {
+        return new TaskBatchService(taskRepository, userRepository, taskMapper, eventPublisher, entityManager,
+            transactionManager, new TaskBatchProperties(jdbcBatchSize, 10000));
+    }
+}
@@ -0,0 +1,168 @@
+package com.todoapp.service;
+
+import com.todoapp.domain.entity.Task;
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.TaskStatus;
+import com.todoapp.domain.enums.UserRole;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Run with: mvn test -Pbenchmark
+@Tag("benchmark")
+@ActiveProfiles("dev")
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.com.todoapp=INFO",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.org.springframework.security=WARN"
+})
+@Slf4j
+class TaskContentionBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int WRITES_PER_THREAD = 300;
+    // Few tasks for many writers, so most writes collide with another one
+    private static final int HOT_TASKS = 2;
+    private static final TaskStatus[] STATUSES = {TaskStatus.TO_DO, TaskStatus.IN_PROGRESS, TaskStatus.BLOCKED};
+    private static Result optimistic;
+    private static Result pessimistic;
+
+    @Nested
+    @TestPropertySource(properties = "todoapp.tasks.locking.mode=OPTIMISTIC")
+    class Optimistic extends Mode {
+        @Test
+        void benchmarkOptimisticLocking() throws Exception {
+            optimistic = benchmark("optimistic");
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = "todoapp.tasks.locking.mode=PESSIMISTIC")
+    class Pessimistic extends Mode {
+        @Test
+        void benchmarkPessimisticLocking() throws Exception {
+            pessimistic = benchmark("pessimistic");
+        }
+    }
+
+    @AfterAll
+    static void report() {
+        int writes = THREADS * WRITES_PER_THREAD;
+        log.info("{} threads, {} status and assignee changes on {} tasks per mode", THREADS, writes, HOT_TASKS);
+        optimistic.summarize("optimistic", writes);
+        pessimistic.summarize("pessimistic", writes);
+    }
+
+    record Result(long nanos, double conflicts, int failed) {
+        void summarize(String label, int writes) {
+            log.info("{}: {} writes/s, {}% of attempts conflicted, {} gave up", label,
+                String.format("%,.0f", writes / (nanos / 1e9)),
+                String.format("%.1f", 100 * conflicts / (writes - failed + conflicts)), failed);
+        }
+    }
+
+    abstract static class Mode {
+        @Autowired
+        private TaskService taskService;
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @Autowired
+        private TaskRepository taskRepository;
+
+        @Autowired
+        private MeterRegistry meterRegistry;
+
+        Result benchmark(String mode) throws Exception {
+            List<User> users = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                users.add(userRepository.save(User.builder()
+                    .username("bench-lock-" + mode + "-" + i)
+                    .email("bench-lock-" + mode + "-" + i + "@example.com")
+                    .firstName("Bench")
+                    .lastName("Lock")
+                    .passwordHash("hash")
+                    .role(UserRole.MANAGER)
+                    .active(true)
+                    .build()));
+            }
+            List<String> taskIds = new ArrayList<>();
+            for (int i = 0; i < HOT_TASKS; i++) {
+                taskIds.add(taskRepository.save(Task.builder().title("Contention benchmark " + i).createdBy(users.get(0)).build()).getId());
+            }
+
+            // Warm-up round, so neither mode pays for JIT compilation in its numbers
+            measure(taskIds, users);
+            double conflictsBefore = meterRegistry.counter("tasks.write.conflicts").count();
+            AtomicInteger failed = new AtomicInteger();
+            long elapsed = measure(taskIds, users, failed);
+            double conflicts = meterRegistry.counter("tasks.write.conflicts").count() - conflictsBefore;
+
+            for (String taskId : taskIds) {
+                assertTrue(taskRepository.findById(taskId).orElseThrow().getVersion() > 0);
+            }
+            return new Result(elapsed, conflicts, failed.get());
+        }
+
+        private long measure(List<String> taskIds, List<User> users) throws Exception {
+            return measure(taskIds, users, new AtomicInteger());
+        }
+
+        // Every thread alternates status changes and reassignments on random hot tasks;
+        // writes still conflicting after the retries are counted, not fatal
+        private long measure(List<String> taskIds, List<User> users, AtomicInteger failed) throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            try {
+                long start = System.nanoTime();
+                List<Future<?>> runs = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    User actor = users.get(t % users.size());
+                    runs.add(executor.submit(() -> {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        for (int i = 0; i < WRITES_PER_THREAD; i++) {
+                            String taskId = taskIds.get(random.nextInt(taskIds.size()));
+                            try {
+                                if (i % 2 == 0) {
+                                    taskService.updateTaskStatus(taskId, STATUSES[random.nextInt(STATUSES.length)], null, actor, false);
+                                } else {
+                                    String assigneeId = users.get(random.nextInt(users.size())).getId();
+                                    taskService.assignTask(taskId, assigneeId, null, actor, false);
+                                }
+                            } catch (ConcurrencyFailureException e) {
+                                failed.incrementAndGet();
+                            }
+                        }
+                    }));
+                }
+                for (Future<?> run : runs) {
+                    run.get();
+                }
+                return System.nanoTime() - start;
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.todoapp.service;
+
+import com.todoapp.cache.TaskDetailCache;
+import com.todoapp.domain.entity.Comment;
+import com.todoapp.domain.entity.Task;
+import com.todoapp.domain.entity.TaskHistory;
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.HistoryAction;
+import com.todoapp.domain.enums.UserRole;
+import com.todoapp.dto.TaskDetailDTO;
+import com.todoapp.repository.CommentRepository;
+import com.todoapp.repository.TaskHistoryRepository;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Run with: mvn test -Pbenchmark
+@Tag("benchmark")
+@ActiveProfiles("dev")
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.com.todoapp=INFO",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.org.springframework.security=WARN"
+})
+@Import(TaskDetailLoadBenchmarkTest.LatencyConfig.class)
+@Slf4j
+class TaskDetailLoadBenchmarkTest {
+
+    private static final long LATENCY_MILLIS = 20;
+    private static final int LOADS = 50;
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate", "executeBatch");
+    private static volatile boolean injectLatency;
+    private static long sequentialNanos;
+    private static long parallelNanos;
+
+    @TestConfiguration
+    static class LatencyConfig {
+        // Every statement execution sleeps, as if the database were a network hop away
+        @Bean
+        static BeanPostProcessor latencyInjectingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? wrap(dataSource, DataSource.class) : bean;
+                }
+            };
+        }
+    }
+
+    // Each mode runs in its own context, with todoapp.tasks.detail-load.parallel set
+    // for it, so the beans are injected into the nested instances rather than here
+    @Nested
+    @TestPropertySource(properties = "todoapp.tasks.detail-load.parallel=false")
+    class Sequential extends Mode {
+        @Test
+        void benchmarkSequentialDetailLoad() {
+            sequentialNanos = benchmark("sequential");
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = "todoapp.tasks.detail-load.parallel=true")
+    class Parallel extends Mode {
+        @Test
+        void benchmarkParallelDetailLoad() {
+            parallelNanos = benchmark("parallel");
+        }
+    }
+
+    @AfterAll
+    static void report() {
+        log.info("statement latency {} ms, {} uncached detail loads", LATENCY_MILLIS, LOADS);
+        log.info("sequential: {} ms/load", String.format("%,.1f", sequentialNanos / 1e6 / LOADS));
+        log.info("parallel: {} ms/load", String.format("%,.1f", parallelNanos / 1e6 / LOADS));
+        if (sequentialNanos > 0 && parallelNanos > 0) {
+            log.info("speedup: {}x", String.format("%.1f", (double) sequentialNanos / parallelNanos));
+        }
+    }
+
+    abstract static class Mode {
+        @Autowired
+        private TaskService taskService;
+
+        @Autowired
+        private TaskDetailCache taskDetailCache;
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @Autowired
+        private TaskRepository taskRepository;
+
+        @Autowired
+        private CommentRepository commentRepository;
+
+        @Autowired
+        private TaskHistoryRepository taskHistoryRepository;
+
+        long benchmark(String mode) {
+            User user = userRepository.save(User.builder()
+                .username("bench-detail-" + mode)
+                .email("bench-detail-" + mode + "@example.com")
+                .firstName("Bench")
+                .lastName("Detail")
+                .passwordHash("hash")
+                .role(UserRole.USER)
+                .active(true)
+                .build());
+            Task task = taskRepository.save(Task.builder().title("Detail benchmark").createdBy(user).build());
+            for (int i = 0; i < 5; i++) {
+                commentRepository.save(Comment.builder().task(task).author(user).text("Comment " + i).build());
+                taskHistoryRepository.appendAll(List.of(TaskHistory.builder()
+                    .taskId(task.getId())
+                    .action(HistoryAction.UPDATED)
+                    .field("title")
+                    .newValue("v" + i)
+                    .performedBy(user)
+                    .build()));
+            }
+
+            injectLatency = true;
+            try {
+                return measure(task.getId(), user);
+            } finally {
+                injectLatency = false;
+            }
+        }
+
+        private long measure(String taskId, User user) {
+            long start = System.nanoTime();
+            for (int i = 0; i < LOADS; i++) {
+                // Bypass the detail cache so every iteration hits the database
+                taskDetailCache.bump(taskId);
+                TaskDetailDTO detail = taskService.getTaskById(taskId, user);
+                assertEquals(5, detail.getComments().size());
+                assertEquals(5, detail.getHistory().size());
+            }
+            return System.nanoTime() - start;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T wrap(T target, Class<T> type) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (injectLatency && target instanceof Statement && EXECUTE_METHODS.contains(method.getName())) {
+                Thread.sleep(LATENCY_MILLIS);
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Connection connection && method.getReturnType() == Connection.class) {
+                return wrap(connection, Connection.class);
+            }
+            if (result != null && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return wrap(result, (Class<Object>) method.getReturnType());
+            }
+            return result;
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+}
@@ -1,27 +1,39 @@
 package com.todoapp.service;
 
+import com.todoapp.cache.TaskDetailCache;
 import com.todoapp.domain.entity.Task;
 import com.todoapp.domain.entity.User;
 import com.todoapp.domain.enums.TaskPriority;
 import com.todoapp.domain.enums.TaskStatus;
 import com.todoapp.domain.enums.UserRole;
+import com.todoapp.domain.event.TaskChangedEvent;
 import com.todoapp.dto.CreateTaskRequest;
 import com.todoapp.dto.TaskDTO;
+import com.todoapp.dto.UpdateTaskRequest;
+import com.todoapp.exception.PreconditionFailedException;
 import com.todoapp.mapper.TaskMapper;
 import com.todoapp.repository.TaskRepository;
 import com.todoapp.repository.UserRepository;
+import com.todoapp.service.impl.TaskDetailLoader;
 import com.todoapp.service.impl.TaskServiceImpl;
+import com.todoapp.service.impl.TaskWriteRetry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
-import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +48,18 @@ class TaskServiceTest {
     @Mock
     private TaskMapper taskMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TaskDetailLoader taskDetailLoader;
+
+    @Mock
+    private TaskWriteRetry taskWriteRetry;
+
+    @Spy
+    private TaskDetailCache taskDetailCache = new TaskDetailCache(new SimpleMeterRegistry(), 100);
+
     @InjectMocks
     private TaskServiceImpl taskService;
 
@@ -61,6 +85,7 @@ class TaskServiceTest {
             .status(TaskStatus.TO_DO)
             .priority(TaskPriority.MEDIUM)
             .createdBy(testUser)
+            .version(3L)
             .build();
     }
 
@@ -101,7 +126,7 @@ class TaskServiceTest {
     @Test
     void testGetTaskById_NotFound() {
         // Given
-        when(taskRepository.findById("non-existent")).thenReturn(Optional.empty());
+        when(taskDetailLoader.load("non-existent")).thenReturn(null);
 
         // When & Then
         assertThrows(com.todoapp.exception.NotFoundException.class, () -> {
@@ -109,5 +134,43 @@ class TaskServiceTest {
         });
     }
 
-    // TODO: Add more test cases
+    @Test
+    void testUpdateTask_StaleVersion() {
+        runWrites();
+
+        assertThrows(PreconditionFailedException.class,
+            () -> taskService.updateTask("task-1", UpdateTaskRequest.builder().title("Renamed").build(), 2L, testUser));
+        assertEquals("Test Task", testTask.getTitle());
+        verify(taskRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void testUpdateTaskStatus_RetriedWhenUnconditional() {
+        runWrites();
+        when(taskRepository.saveAndFlush(testTask)).thenReturn(testTask);
+
+        taskService.updateTaskStatus("task-1", TaskStatus.IN_PROGRESS, null, testUser, false);
+
+        assertEquals(TaskStatus.IN_PROGRESS, testTask.getStatus());
+        verify(taskWriteRetry).write(eq("task-1"), isNull(), eq(true), any());
+        verify(eventPublisher, times(1)).publishEvent(any(TaskChangedEvent.class));
+    }
+
+    @Test
+    void testUpdateTask_NotRetried() {
+        runWrites();
+        when(taskRepository.saveAndFlush(testTask)).thenReturn(testTask);
+
+        taskService.updateTask("task-1", UpdateTaskRequest.builder().title("Renamed").build(), null, testUser);
+
+        assertEquals("Renamed", testTask.getTitle());
+        verify(taskWriteRetry).write(eq("task-1"), isNull(), eq(false), any());
+    }
+
+    // Runs each write once, in place of the retrying transaction
+    private void runWrites() {
+        when(taskWriteRetry.write(eq("task-1"), any(), anyBoolean(), any()))
+            .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(3).get());
+        when(taskWriteRetry.loadForWrite("task-1")).thenReturn(testTask);
+    }
 }
@@ -0,0 +1,92 @@
+package com.todoapp.service;
+
+import com.todoapp.domain.entity.Task;
+import com.todoapp.exception.PreconditionFailedException;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.service.impl.TaskLocking;
+import com.todoapp.service.impl.TaskProperties;
+import com.todoapp.service.impl.TaskWriteRetry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskWriteRetryTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @Test
+    void testWrite_RetriesLostRace() {
+        String result = taskWriteRetry(TaskLocking.OPTIMISTIC).write("task-1", null, true, losingFirst(1));
+
+        assertEquals("written", result);
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void testWrite_GivesUpAfterMaxAttempts() {
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+            () -> taskWriteRetry(TaskLocking.OPTIMISTIC).write("task-1", null, true, losingFirst(Integer.MAX_VALUE)));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void testWrite_ConditionalRaceNotRetried() {
+        assertThrows(PreconditionFailedException.class,
+            () -> taskWriteRetry(TaskLocking.OPTIMISTIC).write("task-1", 3L, true, losingFirst(1)));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void testWrite_NonCommutativeRaceNotRetried() {
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+            () -> taskWriteRetry(TaskLocking.OPTIMISTIC).write("task-1", null, false, losingFirst(1)));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void testLoadForWrite_PessimisticLocksTheRow() {
+        Task task = Task.builder().id("task-1").build();
+        when(taskRepository.findByIdForUpdate("task-1")).thenReturn(Optional.of(task));
+
+        assertSame(task, taskWriteRetry(TaskLocking.PESSIMISTIC).loadForWrite("task-1"));
+        verify(taskRepository, never()).findById(any());
+    }
+
+    // A write that loses the race on its first `losses` attempts
+    private Supplier<String> losingFirst(int losses) {
+        return () -> {
+            if (attempts.incrementAndGet() <= losses) {
+                throw new ObjectOptimisticLockingFailureException(Task.class, "task-1");
+            }
+            return "written";
+        };
+    }
+
+    private TaskWriteRetry taskWriteRetry(TaskLocking mode) {
+        TaskProperties properties = new TaskProperties(
+            new TaskProperties.Paging(100),
+            new TaskProperties.Paging(100),
+            new TaskProperties.DetailLoad(false, Duration.ofSeconds(5), 6),
+            new TaskProperties.Locking(mode, 3, Duration.ZERO));
+        return new TaskWriteRetry(taskRepository, transactionManager, new SimpleMeterRegistry(), properties);
+    }
+}
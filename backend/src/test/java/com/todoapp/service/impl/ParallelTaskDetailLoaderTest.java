@@ -0,0 +1,123 @@
+package com.todoapp.service.impl;
+
+import com.todoapp.domain.entity.Task;
+import com.todoapp.dto.TaskDTO;
+import com.todoapp.dto.TaskDetailDTO;
+import com.todoapp.exception.ServiceUnavailableException;
+import com.todoapp.mapper.TaskMapper;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.service.impl.TaskDetailParts.Recent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ParallelTaskDetailLoaderTest {
+
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final TaskMapper taskMapper = mock(TaskMapper.class);
+    private final TaskDetailParts taskDetailParts = mock(TaskDetailParts.class);
+    private final ExecutorService requests = Executors.newFixedThreadPool(4);
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private ParallelTaskDetailLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        when(taskRepository.findById(any())).thenAnswer(invocation -> part(
+            Optional.of(Task.builder().id(invocation.getArgument(0)).build())));
+        when(taskMapper.toDTO(any(Task.class))).thenAnswer(invocation ->
+            TaskDTO.builder().id(invocation.<Task>getArgument(0).getId()).build());
+        when(taskDetailParts.comments(any())).thenAnswer(invocation -> part(new Recent<>(List.of(), 0)));
+        when(taskDetailParts.history(any())).thenAnswer(invocation -> part(new Recent<>(List.of(), 0)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        requests.shutdownNow();
+        if (loader != null) {
+            loader.shutdown();
+        }
+    }
+
+    @Test
+    void concurrentLoadsHoldNoMoreConnectionsThanTheLimit() throws Exception {
+        loader = loader(3, Duration.ofSeconds(5));
+
+        List<Future<TaskDetailDTO>> loads = List.of(
+            requests.submit(() -> loader.load("t1")),
+            requests.submit(() -> loader.load("t2")),
+            requests.submit(() -> loader.load("t3")),
+            requests.submit(() -> loader.load("t4")));
+        while (inFlight.get() < 3) {
+            Thread.sleep(5);
+        }
+        // Gives the nine waiting parts time to start if nothing held them back
+        Thread.sleep(100);
+        release.countDown();
+
+        for (Future<TaskDetailDTO> load : loads) {
+            assertNotNull(load.get());
+        }
+        assertEquals(3, maxInFlight.get());
+    }
+
+    @Test
+    void loadThatCannotGetAConnectionBeforeTheTimeoutFailsWith503() throws Exception {
+        loader = loader(3, Duration.ofMillis(200));
+        Future<TaskDetailDTO> first = requests.submit(() -> loader.load("t1"));
+        while (inFlight.get() < 3) {
+            Thread.sleep(5);
+        }
+
+        ServiceUnavailableException e = assertThrows(ServiceUnavailableException.class, () -> loader.load("t2"));
+        assertEquals(1, e.getRetryAfterSeconds());
+        assertEquals(3, maxInFlight.get());
+        first.cancel(true);
+    }
+
+    @Test
+    void rejectsALimitBelowThePartsOfOneLoad() {
+        assertThrows(IllegalStateException.class, () -> loader(2, Duration.ofSeconds(5)));
+    }
+
+    // A part that holds its connection until the test releases it
+    private <T> T part(T result) throws InterruptedException {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            release.await();
+            Thread.sleep(10);
+            return result;
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private ParallelTaskDetailLoader loader(int maxConnections, Duration partTimeout) {
+        TaskProperties properties = new TaskProperties(
+            new TaskProperties.Paging(100),
+            new TaskProperties.Paging(100),
+            new TaskProperties.DetailLoad(true, partTimeout, maxConnections),
+            new TaskProperties.Locking(TaskLocking.OPTIMISTIC, 5, Duration.ZERO));
+        return new ParallelTaskDetailLoader(
+            taskRepository, taskMapper, taskDetailParts, mock(PlatformTransactionManager.class), properties);
+    }
+}
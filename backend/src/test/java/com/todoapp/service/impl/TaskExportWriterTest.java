@@ -0,0 +1,88 @@
+package com.todoapp.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.todoapp.domain.enums.ExportFormat;
+import com.todoapp.domain.enums.TaskPriority;
+import com.todoapp.domain.enums.TaskStatus;
+import com.todoapp.dto.TaskDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskExportWriterTest {
+
+    private static final String CSV_HEADER =
+        "id,title,description,status,priority,dueDate,assigneeId,createdById,tags,overdue,createdAt,updatedAt\n";
+
+    @Test
+    void csvQuotesFieldsWithCommasQuotesAndLineBreaks() throws IOException {
+        TaskDTO task = TaskDTO.builder()
+            .id("t1")
+            .title("Pay rent, utilities")
+            .description("Ask about the \"late\" fee\nthen pay\r\nby Friday")
+            .status(TaskStatus.TO_DO)
+            .priority(TaskPriority.HIGH)
+            .tags(List.of("home", "money"))
+            .overdue(false)
+            .build();
+
+        String csv = export(ExportFormat.CSV, task);
+
+        assertEquals(CSV_HEADER
+            + "t1,\"Pay rent, utilities\",\"Ask about the \"\"late\"\" fee\nthen pay\r\nby Friday\",TO_DO,HIGH,,,,home;money,false,,\n",
+            csv);
+    }
+
+    @Test
+    void csvLeavesPlainFieldsUnquotedAndNullsEmpty() throws IOException {
+        TaskDTO task = TaskDTO.builder()
+            .id("t2")
+            .title("Plain title")
+            .status(TaskStatus.COMPLETED)
+            .priority(TaskPriority.LOW)
+            .dueDate(LocalDateTime.of(2030, 1, 2, 3, 4))
+            .assigneeId("u1")
+            .createdById("u2")
+            .build();
+
+        String csv = export(ExportFormat.CSV, task);
+
+        assertEquals(CSV_HEADER + "t2,Plain title,,COMPLETED,LOW,2030-01-02T03:04,u1,u2,,,,\n", csv);
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerLine() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        TaskDTO first = TaskDTO.builder().id("t1").title("Line\nbreak").build();
+        TaskDTO second = TaskDTO.builder().id("t2").title("Second").build();
+
+        String[] lines = export(ExportFormat.NDJSON, objectMapper, first, second).split("\n", -1);
+
+        assertEquals(3, lines.length);
+        assertEquals("Line\nbreak", objectMapper.readValue(lines[0], TaskDTO.class).getTitle());
+        assertEquals("t2", objectMapper.readValue(lines[1], TaskDTO.class).getId());
+        assertEquals("", lines[2]);
+    }
+
+    private static String export(ExportFormat format, TaskDTO... tasks) throws IOException {
+        return export(format, new ObjectMapper(), tasks);
+    }
+
+    private static String export(ExportFormat format, ObjectMapper objectMapper, TaskDTO... tasks) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TaskExportWriter writer = TaskExportWriter.create(format, out, objectMapper);
+        writer.writeHeader();
+        for (TaskDTO task : tasks) {
+            writer.write(task);
+        }
+        writer.flush();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,191 @@
+package com.todoapp.stream;
+
+import com.todoapp.controller.TaskController;
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.TaskPriority;
+import com.todoapp.domain.enums.TaskStatus;
+import com.todoapp.domain.enums.UserRole;
+import com.todoapp.domain.event.TaskChangedEvent;
+import com.todoapp.domain.event.TaskSnapshot;
+import com.todoapp.domain.event.TasksOverdueEvent;
+import com.todoapp.exception.GlobalExceptionHandler;
+import com.todoapp.repository.TaskOwners;
+import com.todoapp.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class TaskStreamHubTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    // Lets a test hold the writer in the middle of sending an event
+    private final CountDownLatch writing = new CountDownLatch(1);
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private TaskStreamHub hub;
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        hub.destroy();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void usersOnlyReceiveTheirOwnTasks() throws Exception {
+        setUp(16, 10);
+        MvcResult alice = subscribe(user("alice", UserRole.USER));
+        MvcResult manager = subscribe(user("manager", UserRole.MANAGER));
+
+        hub.onTaskChanged(TaskChangedEvent.created(task("t1", "alice", "bob"), "bob"));
+        hub.onTaskChanged(TaskChangedEvent.created(task("t2", "carol", "bob"), "bob"));
+
+        awaitBody(manager, "\"taskId\":\"t2\"");
+        awaitBody(alice, "\"taskId\":\"t1\"");
+        String body = body(alice);
+        assertTrue(body.contains("event:created") && body.contains("\"taskId\":\"t1\""), body);
+        assertFalse(body.contains("t2"), body);
+        assertTrue(body(manager).contains("\"taskId\":\"t1\""));
+    }
+
+    @Test
+    void reassigningATaskAwayRemovesItFromTheBoard() throws Exception {
+        setUp(16, 10);
+        MvcResult alice = subscribe(user("alice", UserRole.USER));
+
+        hub.onTaskChanged(TaskChangedEvent.updated(task("t1", "alice", "bob"), task("t1", "carol", "bob"), "bob"));
+        when(taskRepository.findOwners(List.of("t2"))).thenReturn(List.of(new TaskOwners("t2", "alice", "bob")));
+        hub.onTasksOverdue(new TasksOverdueEvent(List.of("t2")));
+
+        awaitBody(alice, "event:overdue");
+        String body = body(alice);
+        assertTrue(body.contains("event:removed") && body.contains("\"taskId\":\"t1\""), body);
+        assertFalse(body.contains("carol"), body);
+    }
+
+    @Test
+    void slowSubscribersAreDroppedWithResync() throws Exception {
+        setUp(2, 10);
+        release = new CountDownLatch(1);
+        MvcResult alice = subscribe(user("alice", UserRole.USER));
+        MvcResult bob = subscribe(user("bob", UserRole.USER));
+
+        hub.onTaskChanged(TaskChangedEvent.created(task("t0", "alice", "alice"), "alice"));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        // alice's writer is stuck on t0 while more changes arrive than her buffer holds
+        for (int i = 1; i <= 5; i++) {
+            hub.onTaskChanged(TaskChangedEvent.created(task("t" + i, "alice", "alice"), "alice"));
+        }
+        release.countDown();
+
+        awaitBody(alice, "event:resync");
+        String body = body(alice);
+        assertTrue(body.contains("\"taskId\":\"t0\""), body);
+        assertFalse(body.contains("\"taskId\":\"t1\"") || body.contains("\"taskId\":\"t5\""), body);
+        await(() -> hub.subscribers() == 1);
+
+        // Nobody else is affected
+        hub.onTaskChanged(TaskChangedEvent.created(task("t6", "bob", "bob"), "bob"));
+        awaitBody(bob, "\"taskId\":\"t6\"");
+    }
+
+    @Test
+    void refusesSubscribersOverTheLimit() throws Exception {
+        setUp(16, 1);
+        subscribe(user("alice", UserRole.USER));
+
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(user("bob", UserRole.USER), null, List.of()));
+        mockMvc.perform(get("/tasks/stream")).andExpect(status().isServiceUnavailable());
+        assertEquals(1, hub.subscribers());
+    }
+
+    private void setUp(int bufferSize, int maxSubscribers) {
+        hub = new TaskStreamHub(taskRepository, new SimpleMeterRegistry(), bufferSize, maxSubscribers,
+            Duration.ofMinutes(1), Duration.ofMinutes(5));
+        mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(null, hub, Duration.ofMinutes(30), 4))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+            .setMessageConverters(new StringHttpMessageConverter(StandardCharsets.UTF_8), new HoldingJsonConverter())
+            .build();
+    }
+
+    private MvcResult subscribe(User user) throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+        return mockMvc.perform(get("/tasks/stream"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    }
+
+    private static String body(MvcResult result) throws Exception {
+        return result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private static void awaitBody(MvcResult result, String text) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!body(result).contains(text)) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for " + text + " in:\n" + body(result));
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out");
+            Thread.sleep(10);
+        }
+    }
+
+    private static User user(String id, UserRole role) {
+        return User.builder().id(id).username(id).email(id + "@example.com").role(role).active(true).build();
+    }
+
+    private static TaskSnapshot task(String id, String assigneeId, String createdById) {
+        return new TaskSnapshot(id, "Task " + id, null, TaskStatus.TO_DO, TaskPriority.MEDIUM, null,
+            assigneeId, createdById, false, List.of());
+    }
+
+    private class HoldingJsonConverter extends MappingJackson2HttpMessageConverter {
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+            writing.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.writeInternal(object, type, outputMessage);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.todoapp.sync;
+
+import com.todoapp.domain.entity.Task;
+import com.todoapp.domain.entity.User;
+import com.todoapp.domain.enums.UserRole;
+import com.todoapp.repository.ChangeSequenceRepository;
+import com.todoapp.repository.SyncCursorRepository;
+import com.todoapp.repository.TaskRepository;
+import com.todoapp.repository.TaskTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class TaskChangeLogTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ChangeSequenceRepository sequenceRepository;
+
+    @Autowired
+    private TaskTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private SyncCursorRepository cursorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TaskChangeLog changeLog;
+    private User alice;
+    private Task first;
+    private Task second;
+    private Task third;
+
+    @BeforeEach
+    void setUp() {
+        changeLog = new TaskChangeLog(taskRepository, sequenceRepository, tombstoneRepository, cursorRepository,
+            jdbcTemplate, entityManager.getEntityManager(), new TransactionTemplate(transactionManager), Duration.ofDays(30));
+        changeLog.afterSingletonsInstantiated();
+
+        alice = user("alice");
+        first = task(alice, "first");
+        second = task(alice, "second");
+        third = task(alice, "third");
+        changeLog.stamp(List.of(first.getId(), second.getId(), third.getId()), List.of());
+        entityManager.clear();
+    }
+
+    @Test
+    void stampsTasksWrittenBeforeTheSequenceOnStartup() {
+        Task unstamped = task(alice, "unstamped");
+        entityManager.flush();
+
+        changeLog.afterSingletonsInstantiated();
+        entityManager.clear();
+
+        assertEquals(4, entityManager.find(Task.class, unstamped.getId()).getChangeSeq());
+    }
+
+    @Test
+    void startingFromZeroReturnsEveryTaskInSequenceOrder() {
+        ChangePage page = changeLog.read(0, 10);
+
+        assertEquals(3, page.changed().size());
+        assertEquals(List.of(1L, 2L, 3L), page.changed().stream().map(Task::getChangeSeq).toList());
+        assertEquals(3, page.nextSince());
+        assertFalse(page.hasMore());
+        assertFalse(page.resyncRequired());
+    }
+
+    @Test
+    void returnsOnlyWhatChangedAfterThePosition() {
+        deleteAndStamp(List.of(first.getId()), third);
+
+        ChangePage page = changeLog.read(3, 10);
+
+        assertEquals(List.of(first.getId()), ids(page.changed()));
+        assertEquals(List.of(third.getId()), page.deleted());
+        assertEquals(5, page.nextSince());
+        // Clients starting over never held the deleted task
+        assertTrue(changeLog.read(0, 10).deleted().isEmpty());
+    }
+
+    @Test
+    void pagesThroughChangesAndDeletesInSequenceOrder() {
+        deleteAndStamp(List.of(first.getId()), third);
+
+        ChangePage page = changeLog.read(1, 2);
+        assertEquals(List.of(second.getId(), first.getId()), ids(page.changed()));
+        assertEquals(4, page.nextSince());
+        assertTrue(page.hasMore());
+
+        page = changeLog.read(page.nextSince(), 2);
+        assertEquals(List.of(third.getId()), page.deleted());
+        assertFalse(page.hasMore());
+
+        page = changeLog.read(page.nextSince(), 2);
+        assertTrue(page.changed().isEmpty() && page.deleted().isEmpty());
+        assertEquals(5, page.nextSince());
+    }
+
+    @Test
+    void compactionKeepsTombstonesKnownClientsStillNeed() {
+        deleteAndStamp(List.of(), second);
+        deleteAndStamp(List.of(), third);
+        changeLog.recordCursor("alice", "phone", 4, NOW);
+
+        assertEquals(1, changeLog.compact(NOW));
+        assertTrue(changeLog.read(3, 10).resyncRequired());
+        assertEquals(List.of(third.getId()), changeLog.read(4, 10).deleted());
+
+        // Once the phone has not synced for longer than the cursor TTL it stops holding them
+        assertEquals(1, changeLog.compact(NOW.plusDays(31)));
+        assertEquals(0, tombstoneRepository.count());
+        assertTrue(changeLog.read(4, 10).resyncRequired());
+        assertFalse(changeLog.read(5, 10).resyncRequired());
+    }
+
+    private void deleteAndStamp(List<String> changed, Task deleted) {
+        entityManager.remove(entityManager.find(Task.class, deleted.getId()));
+        changeLog.stamp(changed, List.of(deleted.getId()));
+        entityManager.clear();
+    }
+
+    private static List<String> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
+
+    private User user(String name) {
+        return entityManager.persist(User.builder()
+            .username(name)
+            .email(name + "@example.com")
+            .firstName(name)
+            .lastName("Test")
+            .passwordHash("hash")
+            .role(UserRole.USER)
+            .active(true)
+            .build());
+    }
+
+    private Task task(User creator, String title) {
+        return entityManager.persist(Task.builder()
+            .title(title)
+            .createdBy(creator)
+            .build());
+    }
+}